@@ -11,38 +11,14 @@ import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * 비동기 처리 설정
- * - 텔레그램 알림 전용 Executor
  * - 섹터 거래대금 조회 전용 Executor
+ * - 텔레그램 알림은 TelegramDeliveryQueue 전용 발송 스레드가 처리
  */
 @Configuration
 @EnableAsync
 @Slf4j
 public class AsyncConfig {
 
-    /**
-     * 알림 발송용 비동기 Executor
-     * - 코어 풀: 2개 (평소 유지)
-     * - 최대 풀: 5개 (피크 시 확장)
-     * - 큐 용량: 100개 (대기열)
-     */
-    @Bean(name = "notificationExecutor")
-    public Executor notificationExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2);
-        executor.setMaxPoolSize(5);
-        executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("Notification-");
-        executor.setRejectedExecutionHandler((r, e) ->
-            log.warn("알림 발송 큐가 가득 찼습니다. 알림이 드랍됩니다.")
-        );
-        executor.initialize();
-
-        log.info("알림용 비동기 Executor 초기화 완료 - core: {}, max: {}, queue: {}",
-                executor.getCorePoolSize(), executor.getMaxPoolSize(), 100);
-
-        return executor;
-    }
-
     /**
      * 섹터 거래대금 조회용 Executor
      * - 코어 풀: 10개 (다수 종목 병렬 조회)
@@ -98,6 +74,33 @@ public class AsyncConfig {
         return executor;
     }
 
+    /**
+     * 과거 데이터 백필용 Executor
+     * - 날짜 파티션 단위 병렬 수집 (HistoricalBackfillService)
+     * - 코어/최대 풀: 8개 (파티션 수 상한)
+     * - 외부 API 호출 속도는 ApiRateLimiter가 소스별로 공유 제한
+     * - 큐가 가득 차면 호출 스레드에서 직접 실행 (CallerRunsPolicy)
+     */
+    @Bean(name = "backfillExecutor")
+    public ThreadPoolTaskExecutor backfillExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(32);
+        executor.setKeepAliveSeconds(60);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("Backfill-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+
+        log.info("백필용 Executor 초기화 완료 - core: {}, max: {}, queue: {}",
+                executor.getCorePoolSize(), executor.getMaxPoolSize(), 32);
+
+        return executor;
+    }
+
     /**
      * 크롤러용 비동기 Executor
      * - 영업이익률 크롤링, 분기별 재무제표 수집 등
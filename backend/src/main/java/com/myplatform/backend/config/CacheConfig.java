@@ -47,10 +47,6 @@ public class CacheConfig {
             buildCache("continuousBuy", 300, 200),
             buildCache("supplySurge", 300, 200),
 
-            // ========== 연속 매수 종목 캐시 (1시간 TTL) ==========
-            // 장 마감 후 하루에 한 번 변경되므로 긴 TTL 적용
-            buildCache("consecutiveBuys", 3600, 50),
-
             // ========== 시세 캐시 (30초 TTL) ==========
             buildCache("goldPrice", 30, 10),
             buildCache("silverPrice", 30, 10),
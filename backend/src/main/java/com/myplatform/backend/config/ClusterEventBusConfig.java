@@ -0,0 +1,59 @@
+package com.myplatform.backend.config;
+
+import com.myplatform.backend.service.ClusterEventBus;
+import com.myplatform.backend.service.LocalClusterEventBus;
+import com.myplatform.backend.service.RedisClusterEventBus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.concurrent.Executors;
+
+/**
+ * 노드 간 이벤트 버스 설정
+ * - 기본: 단일 노드 메모리 버스
+ * - cluster.redis.enabled=true + Redis 의존성(spring-boot-starter-data-redis) 추가 시: Redis pub/sub 버스
+ *   (SSE 작업 이벤트, 실시간 틱, 알림 중복 방지, 리더 선출을 모든 노드가 공유)
+ */
+@Configuration
+@Slf4j
+public class ClusterEventBusConfig {
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.data.redis.connection.RedisConnectionFactory")
+    @ConditionalOnProperty(name = "cluster.redis.enabled", havingValue = "true")
+    static class RedisBusConfig {
+
+        @Bean
+        public RedisMessageListenerContainer clusterEventListenerContainer(RedisConnectionFactory connectionFactory) {
+            RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(connectionFactory);
+            // 수신 순서 보장을 위해 단일 스레드로 콜백 실행
+            container.setTaskExecutor(Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "Cluster-bus");
+                thread.setDaemon(true);
+                return thread;
+            }));
+            return container;
+        }
+
+        @Bean
+        public ClusterEventBus redisClusterEventBus(RedisConnectionFactory connectionFactory,
+                                                    RedisMessageListenerContainer clusterEventListenerContainer) {
+            log.info("클러스터 이벤트 버스: Redis pub/sub");
+            return new RedisClusterEventBus(connectionFactory, clusterEventListenerContainer);
+        }
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(ClusterEventBus.class)
+    public ClusterEventBus localClusterEventBus() {
+        log.info("클러스터 이벤트 버스: 단일 노드 (메모리)");
+        return new LocalClusterEventBus();
+    }
+}
@@ -94,6 +94,8 @@ public class SecurityConfig {
                         .requestMatchers("/api/test/admin").hasRole("ADMIN")
                         // 사용자 승인 관리는 ADMIN만 가능
                         .requestMatchers("/api/user/pending", "/api/user/*/approval").hasRole("ADMIN")
+                        // 전 종목 과거 데이터를 메모리에 올려 전 코어로 계산하는 백테스트/봇 시뮬레이션은 ADMIN만 가능
+                        .requestMatchers("/api/screener/backtest", "/api/paper-trading/bot/simulate").hasRole("ADMIN")
 
                         // 나머지 API는 인증 필요
                         .requestMatchers("/api/**").authenticated()
@@ -1,12 +1,15 @@
 package com.myplatform.backend.controller;
 
+import com.myplatform.backend.dto.PaperTradingDto.AccountSummaryDto;
 import com.myplatform.backend.dto.SystemStatsDto;
 import com.myplatform.backend.service.AdminStatsService;
 import com.myplatform.backend.dto.ActivityLogDto;
 import com.myplatform.backend.dto.ServerStatusDto;
 import com.myplatform.backend.service.ActivityLogService;
+import com.myplatform.backend.service.NotificationService;
 import com.myplatform.backend.service.ServerStatusService;
 import com.myplatform.backend.service.UserManagementService;
+import com.myplatform.backend.service.VirtualTradeService;
 import com.myplatform.core.dto.ApiResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -31,17 +34,23 @@ public class AdminController {
     private final CacheManager cacheManager;
     private final ServerStatusService serverStatusService;
     private final ActivityLogService activityLogService;
+    private final NotificationService notificationService;
+    private final VirtualTradeService virtualTradeService;
 
     public AdminController(UserManagementService userManagementService,
                           AdminStatsService adminStatsService,
                           CacheManager cacheManager,
                           ServerStatusService serverStatusService,
-                          ActivityLogService activityLogService) {
+                          ActivityLogService activityLogService,
+                          NotificationService notificationService,
+                          VirtualTradeService virtualTradeService) {
         this.userManagementService = userManagementService;
         this.adminStatsService = adminStatsService;
         this.cacheManager = cacheManager;
         this.serverStatusService = serverStatusService;
         this.activityLogService = activityLogService;
+        this.notificationService = notificationService;
+        this.virtualTradeService = virtualTradeService;
     }
 
     @Operation(summary = "시스템 통계 조회", description = "시스템 전체 통계 정보를 조회합니다.")
@@ -323,5 +332,37 @@ public class AdminController {
             return ResponseEntity.ok(ApiResponse.fail("조회 실패: " + e.getMessage()));
         }
     }
-}
 
+    // ==================== 알림 ====================
+
+    @Operation(summary = "전체 알림 발송", description = "승인된 모든 사용자에게 같은 알림을 한 번에 저장합니다. (type, title, message, link)")
+    @PostMapping("/notifications/broadcast")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> broadcastNotification(
+            @RequestBody Map<String, String> request) {
+        try {
+            String title = request.get("title");
+            if (title == null || title.isBlank()) {
+                return ResponseEntity.ok(ApiResponse.fail("알림 제목을 입력해주세요."));
+            }
+            int count = notificationService.broadcastNotification(
+                    request.get("type"), title, request.get("message"), request.get("link"));
+            Map<String, Object> result = new HashMap<>();
+            result.put("count", count);
+            return ResponseEntity.ok(ApiResponse.success("알림이 발송되었습니다.", result));
+        } catch (Exception e) {
+            return ResponseEntity.ok(ApiResponse.fail("알림 발송 실패: " + e.getMessage()));
+        }
+    }
+
+    // ==================== 모의투자 ====================
+
+    @Operation(summary = "전체 모의투자 계좌 조회", description = "모든 사용자/봇의 활성 모의투자 계좌 요약을 조회합니다.")
+    @GetMapping("/paper-trading/accounts")
+    public ResponseEntity<ApiResponse<List<AccountSummaryDto>>> getPaperTradingAccounts() {
+        try {
+            return ResponseEntity.ok(ApiResponse.success("조회 성공", virtualTradeService.getActiveAccountSummaries()));
+        } catch (Exception e) {
+            return ResponseEntity.ok(ApiResponse.fail("조회 실패: " + e.getMessage()));
+        }
+    }
+}
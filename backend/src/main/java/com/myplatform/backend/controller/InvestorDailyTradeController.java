@@ -231,6 +231,32 @@ public class InvestorDailyTradeController {
         ));
     }
 
+    /**
+     * 최근 N 거래일 누적 상위 종목 조회 (사전 집계)
+     * GET /api/investor-trades/top-accumulated/{investorType}?days=20&tradeType=BUY&limit=20
+     */
+    @GetMapping("/top-accumulated/{investorType}")
+    public ResponseEntity<Map<String, Object>> getTopAccumulated(
+            @PathVariable String investorType,
+            @RequestParam(defaultValue = "20") int days,
+            @RequestParam(defaultValue = "BUY") String tradeType,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        try {
+            List<Map<String, Object>> stats = tradeService.getTopAccumulatedTrades(
+                    investorType.toUpperCase(), days, tradeType.toUpperCase(), limit);
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "data", stats
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()
+            ));
+        }
+    }
+
     /**
      * 데이터 존재하는 날짜 목록 조회
      * GET /api/investor-trades/dates/{marketType}/{investorType}
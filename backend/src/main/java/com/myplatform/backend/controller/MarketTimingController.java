@@ -137,8 +137,8 @@ public class MarketTimingController {
         summary = "기간별 시장 데이터 수집",
         description = "특정 기간의 시장 데이터를 수집합니다 (Backfill).\n\n" +
                      "**주의사항:**\n" +
-                     "- 네이버 금융 차단 방지를 위해 요청 간 1초 딜레이 적용\n" +
-                     "- 주말(토/일)은 자동으로 스킵\n" +
+                     "- 기간을 파티션으로 나누어 병렬 수집 (네이버 금융 호출 속도는 공용 제한 적용)\n" +
+                     "- 주말(토/일) 및 이미 수집된 날짜는 자동으로 스킵\n" +
                      "- 과거 데이터의 경우 지수 정보만 수집 가능 (상승/하락 종목 수는 제한적)"
     )
     public ResponseEntity<Map<String, Object>> collectMarketDataForPeriod(
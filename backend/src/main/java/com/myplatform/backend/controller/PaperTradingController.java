@@ -1,12 +1,15 @@
 package com.myplatform.backend.controller;
 
 import com.myplatform.backend.dto.PaperTradingDto.*;
+import com.myplatform.backend.entity.VirtualAccount;
 import com.myplatform.backend.service.AutoTradingBotService;
+import com.myplatform.backend.service.BotSimulationService;
 import com.myplatform.backend.service.VirtualTradeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -15,6 +18,7 @@ import java.util.Map;
 
 /**
  * 모의투자 (Paper Trading) API Controller
+ * - 계좌 API는 로그인 사용자 본인의 계좌 기준 (자동매매 봇은 별도 봇 계좌)
  */
 @RestController
 @RequestMapping("/api/paper-trading")
@@ -24,6 +28,7 @@ public class PaperTradingController {
 
     private final VirtualTradeService virtualTradeService;
     private final AutoTradingBotService autoTradingBotService;
+    private final BotSimulationService botSimulationService;
 
     /**
      * 계좌 요약 조회
@@ -33,7 +38,7 @@ public class PaperTradingController {
     public ResponseEntity<Map<String, Object>> getAccountSummary() {
         Map<String, Object> response = new HashMap<>();
         try {
-            AccountSummaryDto summary = virtualTradeService.getAccountSummary();
+            AccountSummaryDto summary = virtualTradeService.getAccountSummary(VirtualAccount.OWNER_USER, currentUser());
             response.put("success", true);
             response.put("data", summary);
             return ResponseEntity.ok(response);
@@ -53,7 +58,7 @@ public class PaperTradingController {
     public ResponseEntity<Map<String, Object>> initializeAccount() {
         Map<String, Object> response = new HashMap<>();
         try {
-            AccountSummaryDto summary = virtualTradeService.initializeAccount();
+            AccountSummaryDto summary = virtualTradeService.initializeAccount(VirtualAccount.OWNER_USER, currentUser());
             response.put("success", true);
             response.put("data", summary);
             response.put("message", "계좌가 초기화되었습니다. 초기자본: 10,000,000원");
@@ -75,9 +80,9 @@ public class PaperTradingController {
         Map<String, Object> response = new HashMap<>();
         try {
             // 현재가 업데이트
-            virtualTradeService.updatePortfolioPrices();
+            virtualTradeService.updatePortfolioPrices(VirtualAccount.OWNER_USER, currentUser());
 
-            List<PortfolioItemDto> portfolio = virtualTradeService.getPortfolio();
+            List<PortfolioItemDto> portfolio = virtualTradeService.getPortfolio(VirtualAccount.OWNER_USER, currentUser());
             response.put("success", true);
             response.put("data", portfolio);
             return ResponseEntity.ok(response);
@@ -99,7 +104,7 @@ public class PaperTradingController {
             @RequestParam(defaultValue = "20") int size) {
         Map<String, Object> response = new HashMap<>();
         try {
-            Page<TradeHistoryDto> trades = virtualTradeService.getTradeHistory(page, size);
+            Page<TradeHistoryDto> trades = virtualTradeService.getTradeHistory(VirtualAccount.OWNER_USER, currentUser(), page, size);
             response.put("success", true);
             response.put("data", trades.getContent());
             response.put("totalPages", trades.getTotalPages());
@@ -122,7 +127,7 @@ public class PaperTradingController {
     public ResponseEntity<Map<String, Object>> getStatistics() {
         Map<String, Object> response = new HashMap<>();
         try {
-            TradeStatisticsDto statistics = virtualTradeService.getStatistics();
+            TradeStatisticsDto statistics = virtualTradeService.getStatistics(VirtualAccount.OWNER_USER, currentUser());
             response.put("success", true);
             response.put("data", statistics);
             return ResponseEntity.ok(response);
@@ -143,9 +148,11 @@ public class PaperTradingController {
         Map<String, Object> response = new HashMap<>();
         try {
             TradeHistoryDto result;
+            Long accountId = virtualTradeService.getOrCreateActiveAccount(VirtualAccount.OWNER_USER, currentUser()).getId();
 
             if ("BUY".equalsIgnoreCase(request.getTradeType())) {
                 result = virtualTradeService.buy(
+                        accountId,
                         request.getStockCode(),
                         request.getPrice(),
                         request.getQuantity(),
@@ -154,6 +161,7 @@ public class PaperTradingController {
                 response.put("message", "매수 체결 완료");
             } else if ("SELL".equalsIgnoreCase(request.getTradeType())) {
                 result = virtualTradeService.sell(
+                        accountId,
                         request.getStockCode(),
                         request.getPrice(),
                         request.getQuantity(),
@@ -245,6 +253,28 @@ public class PaperTradingController {
         }
     }
 
+    /**
+     * 봇 시뮬레이션 (과거 데이터 재생, 파라미터 조합별 결과, ADMIN 전용)
+     * POST /api/paper-trading/bot/simulate
+     */
+    @PostMapping("/bot/simulate")
+    public ResponseEntity<Map<String, Object>> simulateBot(@RequestBody(required = false) BotSimulationRequestDto request) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            List<BotSimulationResultDto> results = botSimulationService.run(
+                    request != null ? request : new BotSimulationRequestDto());
+            response.put("success", true);
+            response.put("data", results);
+            response.put("count", results.size());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("봇 시뮬레이션 실패", e);
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
     /**
      * 포트폴리오 현재가 수동 업데이트
      * POST /api/paper-trading/portfolio/refresh
@@ -253,8 +283,8 @@ public class PaperTradingController {
     public ResponseEntity<Map<String, Object>> refreshPortfolio() {
         Map<String, Object> response = new HashMap<>();
         try {
-            virtualTradeService.updatePortfolioPrices();
-            List<PortfolioItemDto> portfolio = virtualTradeService.getPortfolio();
+            virtualTradeService.updatePortfolioPrices(VirtualAccount.OWNER_USER, currentUser());
+            List<PortfolioItemDto> portfolio = virtualTradeService.getPortfolio(VirtualAccount.OWNER_USER, currentUser());
             response.put("success", true);
             response.put("data", portfolio);
             response.put("message", "포트폴리오 현재가가 업데이트되었습니다.");
@@ -266,4 +296,11 @@ public class PaperTradingController {
             return ResponseEntity.badRequest().body(response);
         }
     }
+
+    /**
+     * 로그인 사용자명 (계좌 소유자 ID)
+     */
+    private String currentUser() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
 }
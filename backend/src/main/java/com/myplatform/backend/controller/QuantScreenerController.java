@@ -1,7 +1,11 @@
 package com.myplatform.backend.controller;
 
+import com.myplatform.backend.dto.BacktestRequest;
+import com.myplatform.backend.dto.BacktestResultDto;
+import com.myplatform.backend.dto.QuantScreeningRequest;
 import com.myplatform.backend.dto.ScreenerResultDto;
 import com.myplatform.backend.service.AsyncCrawlerService;
+import com.myplatform.backend.service.BacktestService;
 import com.myplatform.backend.service.FinancialDataCrawlerService;
 import com.myplatform.backend.service.GeminiService;
 import com.myplatform.backend.service.QuantScreenerService;
@@ -11,6 +15,7 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -24,6 +29,10 @@ import java.util.Map;
  * - 마법의 공식 (Magic Formula)
  * - PEG 스크리너
  * - 턴어라운드 스크리너
+ * - 사용자 정의 식 스크리너
+ * - 전략 백테스트 (파라미터 스윕)
+ * - 기본 스크리너/요약 조회는 ETag(결과 버전 + 조회 조건)를 내려주고
+ *   If-None-Match가 일치하면 304 응답
  */
 @RestController
 @RequestMapping("/api/screener")
@@ -37,6 +46,7 @@ public class QuantScreenerController {
     private final StockFinancialDataService stockFinancialDataService;
     private final FinancialDataCrawlerService financialDataCrawlerService;
     private final AsyncCrawlerService asyncCrawlerService;
+    private final BacktestService backtestService;
 
     /**
      * 마법의 공식 스크리너
@@ -46,18 +56,23 @@ public class QuantScreenerController {
     @Operation(summary = "마법의 공식 스크리너", description = "영업이익률, ROE, PER 순위를 합산하여 저평가 우량주를 스크리닝합니다.")
     public ResponseEntity<Map<String, Object>> getMagicFormulaStocks(
             @Parameter(description = "조회 개수 (기본: 30)") @RequestParam(defaultValue = "30") Integer limit,
-            @Parameter(description = "최소 시가총액 (억원)") @RequestParam(required = false) BigDecimal minMarketCap) {
+            @Parameter(description = "최소 시가총액 (억원)") @RequestParam(required = false) BigDecimal minMarketCap,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
 
         log.info("마법의 공식 스크리너 API 호출 - limit: {}, minMarketCap: {}", limit, minMarketCap);
 
         Map<String, Object> response = new HashMap<>();
         try {
+            String etag = etag("magic-formula", limit, minMarketCap);
+            if (matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
             List<ScreenerResultDto> results = quantScreenerService.getMagicFormulaStocks(limit, minMarketCap);
             response.put("success", true);
             response.put("data", results);
             response.put("count", results.size());
             response.put("message", "마법의 공식 스크리닝 완료");
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(etag).body(response);
         } catch (Exception e) {
             log.error("마법의 공식 스크리너 오류", e);
             response.put("success", false);
@@ -76,18 +91,23 @@ public class QuantScreenerController {
     public ResponseEntity<Map<String, Object>> getLowPegStocks(
             @Parameter(description = "최대 PEG (기본: 1.0)") @RequestParam(required = false) BigDecimal maxPeg,
             @Parameter(description = "최소 EPS 성장률 % (기본: 10)") @RequestParam(required = false) BigDecimal minEpsGrowth,
-            @Parameter(description = "조회 개수 (기본: 30)") @RequestParam(defaultValue = "30") Integer limit) {
+            @Parameter(description = "조회 개수 (기본: 30)") @RequestParam(defaultValue = "30") Integer limit,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
 
         log.info("PEG 스크리너 API 호출 - maxPeg: {}, minEpsGrowth: {}, limit: {}", maxPeg, minEpsGrowth, limit);
 
         Map<String, Object> response = new HashMap<>();
         try {
+            String etag = etag("peg", maxPeg, minEpsGrowth, limit);
+            if (matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
             List<ScreenerResultDto> results = quantScreenerService.getLowPegStocks(maxPeg, minEpsGrowth, limit);
             response.put("success", true);
             response.put("data", results);
             response.put("count", results.size());
             response.put("message", "PEG 스크리닝 완료");
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(etag).body(response);
         } catch (Exception e) {
             log.error("PEG 스크리너 오류", e);
             response.put("success", false);
@@ -104,18 +124,23 @@ public class QuantScreenerController {
     @GetMapping("/turnaround")
     @Operation(summary = "턴어라운드 스크리너", description = "적자에서 흑자로 전환된 종목 또는 순이익이 급증한 종목을 스크리닝합니다.")
     public ResponseEntity<Map<String, Object>> getTurnaroundStocks(
-            @Parameter(description = "조회 개수 (기본: 30)") @RequestParam(defaultValue = "30") Integer limit) {
+            @Parameter(description = "조회 개수 (기본: 30)") @RequestParam(defaultValue = "30") Integer limit,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
 
         log.info("턴어라운드 스크리너 API 호출 - limit: {}", limit);
 
         Map<String, Object> response = new HashMap<>();
         try {
+            String etag = etag("turnaround", limit);
+            if (matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
             List<ScreenerResultDto> results = quantScreenerService.getTurnaroundStocks(limit);
             response.put("success", true);
             response.put("data", results);
             response.put("count", results.size());
             response.put("message", "턴어라운드 스크리닝 완료");
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(etag).body(response);
         } catch (Exception e) {
             log.error("턴어라운드 스크리너 오류", e);
             response.put("success", false);
@@ -124,22 +149,92 @@ public class QuantScreenerController {
         }
     }
 
+    /**
+     * 사용자 정의 스크리너
+     * - 식 예시: roe > 15 and per < 10; score = rank(roe desc) + rank(peg asc)
+     */
+    @PostMapping("/custom")
+    @Operation(summary = "사용자 정의 스크리너",
+            description = "재무 지표 필터식과 가중 순위 점수식으로 종목을 스크리닝합니다. "
+                    + "예: roe > 15 and per < 10 and market == 'KOSPI'; score = rank(roe desc) + 2 * rank(peg asc)")
+    public ResponseEntity<Map<String, Object>> screenByExpression(@RequestBody QuantScreeningRequest request) {
+        log.info("사용자 정의 스크리너 API 호출 - expression: {}", request.getExpression());
+
+        Map<String, Object> response = new HashMap<>();
+        try {
+            List<ScreenerResultDto> results = quantScreenerService.screenByExpression(request);
+            response.put("success", true);
+            response.put("data", results);
+            response.put("count", results.size());
+            response.put("message", "사용자 정의 스크리닝 완료");
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            log.error("사용자 정의 스크리너 오류", e);
+            response.put("success", false);
+            response.put("message", "스크리닝 중 오류 발생: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+
+    /**
+     * 전략 백테스트
+     * - 마법의 공식/PEG/턴어라운드 전략을 과거 재무 데이터와 일별 종가로 검증
+     * - 목록으로 받은 파라미터의 모든 조합을 병렬 실행
+     * - ADMIN 전용 (SecurityConfig, 전 코어를 쓰는 계산이라 일반 사용자에게 열지 않음)
+     */
+    @PostMapping("/backtest")
+    @Operation(summary = "전략 백테스트",
+            description = "스크리너 전략을 주기적으로 리밸런싱했을 때의 수익률, 최대 낙폭, 회전율을 계산합니다. "
+                    + "전략/보유 종목 수/리밸런싱 주기/조건을 목록으로 주면 모든 조합을 비교합니다.")
+    public ResponseEntity<Map<String, Object>> runBacktest(@RequestBody BacktestRequest request) {
+        log.info("백테스트 API 호출 - {} ~ {}, strategies: {}", request.getStartDate(), request.getEndDate(),
+                request.getStrategies());
+
+        Map<String, Object> response = new HashMap<>();
+        try {
+            List<BacktestResultDto> results = backtestService.run(request);
+            response.put("success", true);
+            response.put("data", results);
+            response.put("count", results.size());
+            response.put("message", "백테스트 완료");
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            log.error("백테스트 오류", e);
+            response.put("success", false);
+            response.put("message", "백테스트 중 오류 발생: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+
     /**
      * 스크리너 요약
      * - 각 스크리너의 상위 종목 요약 정보
      */
     @GetMapping("/summary")
     @Operation(summary = "스크리너 요약", description = "모든 스크리너의 상위 종목 요약 정보를 조회합니다.")
-    public ResponseEntity<Map<String, Object>> getScreenerSummary() {
+    public ResponseEntity<Map<String, Object>> getScreenerSummary(
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         log.info("스크리너 요약 API 호출");
 
         Map<String, Object> response = new HashMap<>();
         try {
+            String etag = etag("summary");
+            if (matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
             Map<String, Object> summary = quantScreenerService.getScreenerSummary();
             response.put("success", true);
             response.put("data", summary);
             response.put("message", "스크리너 요약 조회 완료");
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(etag).body(response);
         } catch (Exception e) {
             log.error("스크리너 요약 조회 오류", e);
             response.put("success", false);
@@ -699,4 +794,36 @@ public class QuantScreenerController {
             return ResponseEntity.internalServerError().body(response);
         }
     }
+
+    // ========== ETag ==========
+
+    /**
+     * 결과 버전 + 조회 조건으로 만든 강한 ETag
+     */
+    private String etag(String endpoint, Object... params) {
+        StringBuilder key = new StringBuilder(quantScreenerService.getResultVersion()).append('|').append(endpoint);
+        for (Object param : params) {
+            key.append('|').append(param instanceof BigDecimal ? ((BigDecimal) param).stripTrailingZeros().toPlainString() : param);
+        }
+        return "\"" + Integer.toHexString(key.toString().hashCode()) + "\"";
+    }
+
+    /**
+     * If-None-Match 일치 여부 ("*", 쉼표 구분 목록, W/ 약한 비교 허용)
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -1,5 +1,6 @@
 package com.myplatform.backend.controller;
 
+import com.myplatform.backend.dto.BackfillResultDto;
 import com.myplatform.backend.dto.ShortSqueezeDto;
 import com.myplatform.backend.entity.StockShortData;
 import com.myplatform.backend.service.ShortSellingDataCollector;
@@ -141,13 +142,16 @@ public class ShortSellingController {
             return ResponseEntity.ok(ApiResponse.fail("시작 날짜가 종료 날짜보다 뒤일 수 없습니다."));
         }
 
-        int collected = shortSellingDataCollector.collectHistoricalData(startDate, endDate);
+        BackfillResultDto backfill = shortSellingDataCollector.collectHistoricalData(startDate, endDate);
 
         Map<String, Object> result = Map.of(
-                "collectedCount", collected,
+                "collectedCount", backfill.getCollectedRecords(),
                 "startDate", startDate.toString(),
                 "endDate", endDate.toString(),
-                "message", String.format("%s ~ %s 기간 %d건 수집 완료", startDate, endDate, collected)
+                "backfill", backfill,
+                "message", String.format("%s ~ %s 기간 %d건 수집 완료 (%d일 수집, %d일 기수집 스킵, %.1f일/분)",
+                        startDate, endDate, backfill.getCollectedRecords(), backfill.getSuccessDays(),
+                        backfill.getAlreadyCompleteDays(), backfill.getDaysPerMinute())
         );
 
         return ResponseEntity.ok(ApiResponse.success(result));
@@ -1,16 +1,21 @@
 package com.myplatform.backend.controller;
 
+import com.myplatform.backend.service.MarketDataStreamService;
 import com.myplatform.backend.service.SseEmitterService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -18,6 +23,7 @@ import java.util.UUID;
  * SSE(Server-Sent Events) 엔드포인트 컨트롤러
  * - 실시간 진행률 및 로그 스트리밍
  * - 장시간 크롤링/수집 작업의 상태 모니터링
+ * - 실시간 시세 스트리밍 (종목/섹터 구독)
  */
 @RestController
 @RequestMapping("/api/sse")
@@ -27,6 +33,7 @@ import java.util.UUID;
 public class SseController {
 
     private final SseEmitterService sseEmitterService;
+    private final MarketDataStreamService marketDataStreamService;
 
     /**
      * SSE 구독 엔드포인트
@@ -46,26 +53,158 @@ public class SseController {
                            "- `collect-finance`: 분기별 재무제표 수집\n" +
                            "- `collect-all`: 전 종목 재무 데이터 수집\n" +
                            "- `fix-stock-names`: 종목명 일괄 수정\n\n" +
+                           "여러 작업을 한 연결로 받으려면 쉼표로 구분합니다. (예: `crawl-operating-margin,collect-finance`)\n\n" +
                            "**이벤트 타입:**\n" +
                            "- `CONNECTED`: 연결 성공\n" +
                            "- `START`: 작업 시작\n" +
                            "- `PROGRESS`: 진행률 업데이트\n" +
                            "- `LOG`: 로그 메시지\n" +
                            "- `COMPLETE`: 작업 완료\n" +
-                           "- `ERROR`: 오류 발생")
+                           "- `ERROR`: 오류 발생\n\n" +
+                           "재연결 시 `Last-Event-ID` 헤더(또는 `lastEventId` 파라미터) 이후 놓친 이벤트만 다시 전송합니다. " +
+                           "`CONNECTED`의 `replayComplete`가 false면 보관 범위를 벗어난 것이므로 상태를 다시 조회해야 합니다.")
     public SseEmitter subscribe(
-            @Parameter(description = "작업 유형", example = "crawl-operating-margin")
+            @Parameter(description = "작업 유형 (쉼표로 여러 개 지정 가능)", example = "crawl-operating-margin")
             @RequestParam String taskType,
             @Parameter(description = "클라이언트 ID (자동 생성됨)")
+            @RequestParam(required = false) String clientId,
+            @Parameter(description = "마지막으로 받은 이벤트 id (새 EventSource로 다시 연결할 때)")
+            @RequestParam(required = false) String lastEventId,
+            @Parameter(hidden = true)
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader) {
+
+        if (clientId == null || clientId.isEmpty()) {
+            clientId = UUID.randomUUID().toString();
+        }
+
+        // 브라우저 자동 재연결은 Last-Event-ID 헤더로, 수동 재연결은 쿼리 파라미터로 전달
+        Long resumeFrom = parseEventId(lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+
+        log.info("SSE 구독 요청 - taskType: {}, clientId: {}, lastEventId: {}", taskType, clientId, resumeFrom);
+
+        return sseEmitterService.subscribe(clientId, parseTopics(taskType), resumeFrom);
+    }
+
+    /**
+     * 기존 연결에 작업 유형 추가
+     */
+    @PutMapping("/subscriptions")
+    @Operation(summary = "구독 추가", description = "이미 열린 SSE 연결에 작업 유형을 추가로 구독합니다.")
+    public ResponseEntity<Map<String, Object>> addSubscriptions(
+            @Parameter(description = "클라이언트 ID") @RequestParam String clientId,
+            @Parameter(description = "작업 유형 (쉼표로 여러 개 지정 가능)") @RequestParam String taskType) {
+        return subscriptionResult(sseEmitterService.addTopics(clientId, parseTopics(taskType)), clientId);
+    }
+
+    /**
+     * 기존 연결에서 작업 유형 해제
+     */
+    @DeleteMapping("/subscriptions")
+    @Operation(summary = "구독 해제", description = "열린 SSE 연결은 유지한 채 작업 유형 구독만 해제합니다.")
+    public ResponseEntity<Map<String, Object>> removeSubscriptions(
+            @Parameter(description = "클라이언트 ID") @RequestParam String clientId,
+            @Parameter(description = "작업 유형 (쉼표로 여러 개 지정 가능)") @RequestParam String taskType) {
+        return subscriptionResult(sseEmitterService.removeTopics(clientId, parseTopics(taskType)), clientId);
+    }
+
+    /**
+     * 실시간 시세 스트림 구독
+     */
+    @GetMapping(value = "/market", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "실시간 시세 구독",
+               description = "구독한 종목/섹터의 시세를 실시간으로 수신합니다. (폴링 대체)\n\n" +
+                           "틱이 들어온 종목만 `QUOTE` 이벤트로 전송하며, 내용은 현재가/시초가 대비 등락률/누적 거래량/VWAP/현재 분봉입니다.\n\n" +
+                           "`maxRate`(초당 최대 전송 횟수)를 넘는 변경은 종목별 최신 값으로 합쳐서 전송합니다.")
+    public SseEmitter subscribeMarket(
+            @Parameter(description = "종목코드 (쉼표 구분)", example = "005930,000660")
+            @RequestParam(required = false) String stockCodes,
+            @Parameter(description = "섹터코드 (쉼표 구분, 소속 종목 전체 구독)")
+            @RequestParam(required = false) String sectors,
+            @Parameter(description = "초당 최대 전송 횟수 (서버 상한 이하)")
+            @RequestParam(required = false) Integer maxRate,
+            @Parameter(description = "클라이언트 ID (자동 생성됨)")
             @RequestParam(required = false) String clientId) {
 
         if (clientId == null || clientId.isEmpty()) {
             clientId = UUID.randomUUID().toString();
         }
 
-        log.info("SSE 구독 요청 - taskType: {}, clientId: {}", taskType, clientId);
+        try {
+            return marketDataStreamService.subscribe(clientId, parseList(stockCodes), parseList(sectors), maxRate);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * 시세 스트림 구독 종목 추가
+     */
+    @PutMapping("/market/symbols")
+    @Operation(summary = "시세 구독 종목 추가", description = "열린 시세 스트림에 종목/섹터를 추가합니다.")
+    public ResponseEntity<Map<String, Object>> addMarketSymbols(
+            @Parameter(description = "클라이언트 ID") @RequestParam String clientId,
+            @Parameter(description = "종목코드 (쉼표 구분)") @RequestParam(required = false) String stockCodes,
+            @Parameter(description = "섹터코드 (쉼표 구분)") @RequestParam(required = false) String sectors) {
+        try {
+            return subscriptionResult(
+                    marketDataStreamService.addSymbols(clientId, parseList(stockCodes), parseList(sectors)), clientId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", e.getMessage()));
+        }
+    }
+
+    /**
+     * 시세 스트림 구독 종목 해제
+     */
+    @DeleteMapping("/market/symbols")
+    @Operation(summary = "시세 구독 종목 해제", description = "열린 시세 스트림에서 종목/섹터 구독을 해제합니다.")
+    public ResponseEntity<Map<String, Object>> removeMarketSymbols(
+            @Parameter(description = "클라이언트 ID") @RequestParam String clientId,
+            @Parameter(description = "종목코드 (쉼표 구분)") @RequestParam(required = false) String stockCodes,
+            @Parameter(description = "섹터코드 (쉼표 구분)") @RequestParam(required = false) String sectors) {
+        try {
+            return subscriptionResult(
+                    marketDataStreamService.removeSymbols(clientId, parseList(stockCodes), parseList(sectors)), clientId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", e.getMessage()));
+        }
+    }
 
-        return sseEmitterService.subscribe(clientId, taskType);
+    private ResponseEntity<Map<String, Object>> subscriptionResult(boolean connected, String clientId) {
+        if (!connected) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "error", "연결된 SSE 클라이언트가 없습니다: " + clientId
+            ));
+        }
+        return ResponseEntity.ok(Map.of("success", true, "clientId", clientId));
+    }
+
+    private Long parseEventId(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            log.debug("잘못된 Last-Event-ID 무시: {}", value);
+            return null;
+        }
+    }
+
+    private List<String> parseTopics(String taskType) {
+        return parseList(taskType);
+    }
+
+    private List<String> parseList(String value) {
+        if (value == null) {
+            return List.of();
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(topic -> !topic.isEmpty())
+                .distinct()
+                .toList();
     }
 
     /**
@@ -79,7 +218,9 @@ public class SseController {
                 "connectedClients", sseEmitterService.getConnectedClientCount(),
                 "crawlOperatingMarginSubscribers", sseEmitterService.getSubscriberCount("crawl-operating-margin"),
                 "collectFinanceSubscribers", sseEmitterService.getSubscriberCount("collect-finance"),
-                "collectAllSubscribers", sseEmitterService.getSubscriberCount("collect-all")
+                "collectAllSubscribers", sseEmitterService.getSubscriberCount("collect-all"),
+                "queue", sseEmitterService.getQueueStats(),
+                "marketStream", marketDataStreamService.getStatus()
         ));
     }
 }
@@ -33,6 +33,7 @@ public class TelegramController {
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
         response.put("enabled", telegramNotificationService.isEnabled());
+        response.put("queue", telegramNotificationService.getQueueStats());
         response.put("message", telegramNotificationService.isEnabled()
                 ? "텔레그램 알림 서비스가 활성화되어 있습니다."
                 : "텔레그램 알림 서비스가 비활성화되어 있습니다. 환경 변수를 확인해주세요.");
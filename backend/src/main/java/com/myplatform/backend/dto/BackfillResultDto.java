@@ -0,0 +1,34 @@
+package com.myplatform.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 과거 데이터 백필 결과 DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackfillResultDto {
+
+    private String jobName;             // SHORT_SELLING, MARKET_STATUS 등
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    private int partitions;             // 병렬 실행된 파티션 수
+    private int totalDays;              // 기간 내 전체 일수
+    private int weekendDays;            // 주말로 제외된 일수
+    private int alreadyCompleteDays;    // DB에 이미 있어 건너뛴 일수
+    private int successDays;            // 수집 성공 일수
+    private int failDays;               // 수집 실패 일수
+    private long collectedRecords;      // 저장된 레코드 수
+
+    private long elapsedMillis;         // 총 소요 시간
+    private double daysPerMinute;       // 처리량 (일/분)
+    private double recordsPerSecond;    // 처리량 (건/초)
+}
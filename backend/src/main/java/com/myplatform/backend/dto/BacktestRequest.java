@@ -0,0 +1,54 @@
+package com.myplatform.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 퀀트 스크리너 백테스트 조건
+ * - 목록으로 받은 파라미터의 모든 조합(전략 × 종목 수 × 리밸런싱 주기 × 전략별 조건)을 병렬 실행
+ * - 비워 둔 항목은 기본값 사용
+ */
+@Schema(description = "퀀트 스크리너 백테스트 조건")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BacktestRequest {
+
+    @Schema(description = "시작일 (기본: 5년 전)")
+    private LocalDate startDate;
+
+    @Schema(description = "종료일 (기본: 오늘)")
+    private LocalDate endDate;
+
+    @Schema(description = "전략 (MAGIC_FORMULA, LOW_PEG, TURNAROUND, 기본: 전체)")
+    private List<String> strategies;
+
+    @Schema(description = "보유 종목 수 (기본: [10, 20, 30])")
+    private List<Integer> topN;
+
+    @Schema(description = "리밸런싱 주기 - 거래일 (기본: [20, 60])")
+    private List<Integer> rebalanceDays;
+
+    @Schema(description = "마법의 공식 최소 시가총액 (억원, 기본: 제한 없음)")
+    private List<BigDecimal> minMarketCap;
+
+    @Schema(description = "PEG 최대값 (기본: [1.0])")
+    private List<BigDecimal> maxPeg;
+
+    @Schema(description = "PEG 최소 EPS 성장률 % (기본: [10])")
+    private List<BigDecimal> minEpsGrowth;
+
+    @Schema(description = "재무 데이터 공시 지연 일수 - 기준일 + N일 이후부터 사용 (기본: 45)")
+    private Integer reportLagDays;
+
+    @Schema(description = "매매 비용 (거래대금 대비 bp, 기본: 25)")
+    private BigDecimal transactionCostBps;
+}
@@ -0,0 +1,44 @@
+package com.myplatform.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 퀀트 스크리너 백테스트 결과 DTO (파라미터 조합 1건)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BacktestResultDto {
+
+    // 파라미터
+    private String strategy;
+    private Integer topN;
+    private Integer rebalanceDays;
+    private BigDecimal minMarketCap;
+    private BigDecimal maxPeg;
+    private BigDecimal minEpsGrowth;
+
+    // 기간
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Integer tradingDays;
+
+    // 성과 (%)
+    private BigDecimal totalReturn;      // 누적 수익률
+    private BigDecimal cagr;             // 연환산 수익률
+    private BigDecimal maxDrawdown;      // 최대 낙폭 (양수)
+    private BigDecimal volatility;       // 연환산 변동성
+    private BigDecimal sharpeRatio;      // 무위험 수익률 0 기준
+
+    // 매매
+    private Integer rebalanceCount;
+    private BigDecimal averageTurnover;  // 리밸런싱당 평균 회전율 (단방향, %)
+    private BigDecimal averageHoldings;  // 리밸런싱당 평균 보유 종목 수
+}
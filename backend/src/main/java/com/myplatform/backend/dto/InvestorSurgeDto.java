@@ -17,7 +17,7 @@ import java.time.format.DateTimeFormatter;
  * 외국인/기관 수급 급증 종목 DTO
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class InvestorSurgeDto {
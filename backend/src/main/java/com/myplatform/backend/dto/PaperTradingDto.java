@@ -6,7 +6,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 모의투자 관련 DTO
@@ -23,6 +25,8 @@ public class PaperTradingDto {
     public static class AccountSummaryDto {
         private Long accountId;
         private String accountName;
+        private String ownerType;               // USER, BOT
+        private String ownerId;                 // 사용자명 또는 봇 전략 ID
         private BigDecimal initialBalance;      // 초기 자본
         private BigDecimal currentBalance;      // 현재 잔액 (현금)
         private BigDecimal totalInvested;       // 총 투자금액
@@ -140,4 +144,62 @@ public class PaperTradingDto {
         private BigDecimal profitFactor;        // 손익비
         private Long todayTrades;               // 오늘 거래 수
     }
+
+    /**
+     * 자동매매 봇 시뮬레이션 요청 DTO
+     * - 목록 항목의 모든 조합을 병렬 실행, 비워 둔 항목은 실거래 봇 기본값
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BotSimulationRequestDto {
+        private LocalDate startDate;                // 기본: 1년 전
+        private LocalDate endDate;                  // 기본: 오늘
+        private BigDecimal initialBalance;          // 기본: 1,000만원
+        private Integer reportLagDays;              // 재무 데이터 공시 지연 일수 (기본: 45)
+        private List<BigDecimal> stopLossRates;     // 손절 기준 % (기본: [-3])
+        private List<BigDecimal> takeProfitRates;   // 익절 기준 % (기본: [5])
+        private List<BigDecimal> maxInvestmentRatios; // 종목당 최대 비중 (기본: [0.2])
+        private List<Integer> maxBuysPerDay;        // 하루 최대 매수 종목 수 (기본: [3])
+        private List<Integer> candidateCounts;      // 마법의 공식 후보 수 (기본: [10])
+    }
+
+    /**
+     * 자동매매 봇 시뮬레이션 결과 DTO (파라미터 조합 1건)
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BotSimulationResultDto {
+        // 파라미터
+        private BigDecimal stopLossRate;
+        private BigDecimal takeProfitRate;
+        private BigDecimal maxInvestmentRatio;
+        private Integer maxBuysPerDay;
+        private Integer candidateCount;
+
+        // 기간
+        private LocalDate startDate;
+        private LocalDate endDate;
+        private Integer tradingDays;
+
+        // 성과
+        private BigDecimal initialBalance;
+        private BigDecimal finalValue;              // 최종 평가금액 (현금 + 보유 종목 종가 평가)
+        private BigDecimal totalProfitLoss;         // 총 손익
+        private BigDecimal totalReturn;             // 누적 수익률 (%)
+        private BigDecimal realizedProfitLoss;      // 실현손익
+        private BigDecimal maxDrawdown;             // 최대 낙폭 (%, 양수)
+
+        // 거래
+        private Integer buyCount;
+        private Integer sellCount;
+        private Integer stopLossCount;
+        private Integer takeProfitCount;
+        private Integer winCount;
+        private BigDecimal winRate;                 // 승률 (%, 청산 거래 기준)
+        private Integer openPositions;              // 종료 시점 보유 종목 수
+    }
 }
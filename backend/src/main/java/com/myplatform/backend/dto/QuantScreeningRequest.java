@@ -60,7 +60,7 @@ public class QuantScreeningRequest {
     @Schema(description = "업종")
     private String sector;
 
-    @Schema(description = "정렬 기준 (per, roe, pbr, marketCap, dividendYield)")
+    @Schema(description = "정렬 기준 (per, roe, pbr, marketCap, dividendYield 등 숫자 지표, score 식이 없을 때 사용)")
     private String sortBy;
 
     @Schema(description = "정렬 방향 (asc, desc)")
@@ -68,5 +68,9 @@ public class QuantScreeningRequest {
 
     @Schema(description = "결과 개수 제한")
     private Integer limit;
+
+    @Schema(description = "사용자 정의 스크리너 식 (필터; score = 가중 순위합)",
+            example = "roe > 15 and per < 10; score = rank(roe desc) + rank(peg asc)")
+    private String expression;
 }
 
@@ -57,4 +57,8 @@ public class ScreenerResultDto {
     // 성장성
     private BigDecimal revenueGrowth;
     private BigDecimal profitGrowth;
+
+    // 사용자 정의 스크리너 관련
+    private BigDecimal customScore; // 가중 순위 합 (낮을수록 좋음)
+    private Integer customRank;
 }
@@ -0,0 +1,42 @@
+package com.myplatform.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * SSE 작업 이벤트 DTO
+ * - type: CONNECTED, START, PROGRESS, LOG, COMPLETE, ERROR
+ * - 값이 없는 필드는 JSON에서 제외
+ * - details는 최상위 필드로 펼쳐서 직렬화 (COMPLETE 결과 등)
+ */
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SseEventDto {
+    private final String type;
+    private final String message;
+    private final String taskType;          // CONNECTED: 구독 토픽 (쉼표 구분)
+    private final Integer percent;          // PROGRESS
+    private final Integer current;
+    private final Integer total;
+    private final Integer success;
+    private final Integer fail;
+    private final Integer totalCount;       // START
+    private final String level;             // LOG
+    private final String timestamp;
+    private final Integer replayed;         // CONNECTED: 재전송 이벤트 수
+    private final Boolean replayComplete;   // CONNECTED: 놓친 이벤트를 모두 재전송했는지
+
+    @Getter(AccessLevel.NONE)
+    private final Map<String, Object> details;
+
+    @JsonAnyGetter
+    public Map<String, Object> getDetails() {
+        return details;
+    }
+}
@@ -30,6 +30,7 @@ public class ActivityLog {
     @Column(length = 50)
     private String ipAddress;
 
+    // 파티션 키 (월 단위 RANGE 파티션, setup-partitioning.sql)
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
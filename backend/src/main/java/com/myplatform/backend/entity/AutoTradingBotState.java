@@ -0,0 +1,51 @@
+package com.myplatform.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 자동매매 봇 상태 (노드 공유)
+ * - 시작/중지/상태 조회가 어느 노드로 들어와도 같은 상태를 보도록 DB에 저장
+ * - 봇은 리더 노드에서만 실행되며, 리더가 카운터/오류를 기록
+ * - 일일 카운터는 count_date가 오늘이 아니면 0으로 봄
+ */
+@Entity
+@Table(name = "auto_trading_bot_state")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutoTradingBotState {
+
+    @Id
+    @Column(name = "bot_id", length = 100)
+    private String botId;
+
+    @Column(nullable = false)
+    private Boolean active;
+
+    @Column(name = "last_trade_time")
+    private LocalDateTime lastTradeTime;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "last_error_time")
+    private LocalDateTime lastErrorTime;
+
+    @Column(name = "today_buy_count", nullable = false)
+    private Integer todayBuyCount;
+
+    @Column(name = "today_sell_count", nullable = false)
+    private Integer todaySellCount;
+
+    @Column(name = "count_date")
+    private LocalDate countDate;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
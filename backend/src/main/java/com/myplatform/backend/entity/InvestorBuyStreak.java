@@ -0,0 +1,72 @@
+package com.myplatform.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 투자자별 종목 연속 매수 기록
+ * - (투자자, 종목)당 1건, 일별 매수 순위 수집 시 증분 갱신
+ * - last_date가 가장 최근 거래일인 행이 현재 진행 중인 연속 매수
+ */
+@Entity
+@Table(name = "investor_buy_streak",
+       indexes = {
+           @Index(name = "idx_streak_lookup", columnList = "investor_type, last_date, streak_days")
+       },
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_investor_buy_streak", columnNames = {"investor_type", "stock_code"})
+       })
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvestorBuyStreak {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "investor_type", nullable = false, length = 20)
+    private String investorType;
+
+    @Column(name = "stock_code", nullable = false, length = 20)
+    private String stockCode;
+
+    @Column(name = "stock_name", nullable = false, length = 100)
+    private String stockName;
+
+    @Column(name = "streak_days", nullable = false)
+    private Integer streakDays;  // 연속 매수 일수
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;  // 연속 매수 시작일
+
+    @Column(name = "last_date", nullable = false)
+    private LocalDate lastDate;  // 마지막 매수일
+
+    @Column(name = "total_net_buy_amount", precision = 18, scale = 2)
+    private BigDecimal totalNetBuyAmount;  // 연속 구간 누적 순매수 금액 (억원)
+
+    @Column(name = "last_net_buy_amount", precision = 15, scale = 2)
+    private BigDecimal lastNetBuyAmount;  // 마지막 매수일 순매수 금액 (같은 날 재수집 시 되돌리기용)
+
+    @Column(name = "current_price", precision = 15, scale = 0)
+    private BigDecimal currentPrice;
+
+    @Column(name = "change_rate", precision = 8, scale = 2)
+    private BigDecimal changeRate;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -19,6 +19,12 @@ import java.time.LocalTime;
            @Index(name = "idx_snapshot_date_time", columnList = "snapshot_date, snapshot_time"),
            @Index(name = "idx_snapshot_stock", columnList = "stock_code, snapshot_date"),
            @Index(name = "idx_snapshot_investor", columnList = "investor_type, snapshot_date, snapshot_time")
+       },
+       uniqueConstraints = {
+           @UniqueConstraint(
+               name = "uk_intraday_snapshot",
+               columnNames = {"snapshot_date", "snapshot_time", "investor_type", "stock_code"}
+           )
        })
 @Getter
 @Setter
@@ -0,0 +1,76 @@
+package com.myplatform.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 투자자별 종목 누적 매매 집계 (최근 5/20/60 거래일)
+ * - (투자자, 시장, 종목, 거래유형, 기간)당 1건
+ * - 일별 매매 데이터 수집 시 해당 투자자 집계만 갱신
+ * - 누적 통계/누적 상위 종목 조회를 원본 테이블 GROUP BY 없이 처리
+ */
+@Entity
+@Table(name = "investor_trade_accumulation",
+       indexes = {
+           @Index(name = "idx_accum_ranking", columnList = "investor_type, window_days, market_type, trade_type, total_amount")
+       },
+       uniqueConstraints = {
+           @UniqueConstraint(
+               name = "uk_investor_trade_accumulation",
+               columnNames = {"investor_type", "market_type", "stock_code", "trade_type", "window_days"}
+           )
+       })
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvestorTradeAccumulation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "investor_type", nullable = false, length = 20)
+    private String investorType;
+
+    @Column(name = "market_type", nullable = false, length = 10)
+    private String marketType;
+
+    @Column(name = "stock_code", nullable = false, length = 20)
+    private String stockCode;
+
+    @Column(name = "stock_name", nullable = false, length = 100)
+    private String stockName;
+
+    @Column(name = "trade_type", nullable = false, length = 10)
+    private String tradeType;  // BUY, SELL
+
+    @Column(name = "window_days", nullable = false)
+    private Integer windowDays;  // 집계 기간 (최근 N 거래일: 5, 20, 60)
+
+    @Column(name = "total_amount", precision = 18, scale = 2)
+    private BigDecimal totalAmount;  // 기간 내 순매수 금액 합계 (억원)
+
+    @Column(name = "trade_days", nullable = false)
+    private Integer tradeDays;  // 기간 내 순위 등장 일수
+
+    @Column(name = "window_start", nullable = false)
+    private LocalDate windowStart;  // 집계 시작 거래일
+
+    @Column(name = "as_of_date", nullable = false)
+    private LocalDate asOfDate;  // 집계 기준일 (가장 최근 거래일)
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -21,11 +21,13 @@ import java.time.LocalDateTime;
 @Table(name = "stock_financial_data", indexes = {
     @Index(name = "idx_stock_code", columnList = "stockCode"),
     @Index(name = "idx_date", columnList = "reportDate"),
+    @Index(name = "idx_stock_code_date", columnList = "stockCode, reportDate"),
     @Index(name = "idx_per", columnList = "per"),
     @Index(name = "idx_roe", columnList = "roe"),
     @Index(name = "idx_pbr", columnList = "pbr"),
     @Index(name = "idx_peg", columnList = "peg"),
-    @Index(name = "idx_magic_formula_rank", columnList = "magicFormulaRank")
+    @Index(name = "idx_magic_formula_rank", columnList = "magicFormulaRank"),
+    @Index(name = "idx_updated_at", columnList = "updatedAt")
 })
 @Data
 @Builder
@@ -5,7 +5,9 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "stock_price")
+@Table(name = "stock_price", indexes = {
+    @Index(name = "idx_stock_price_code_fetched", columnList = "stock_code, fetched_at")
+})
 public class StockPrice {
 
     @Id
@@ -45,7 +47,8 @@ public class StockPrice {
     @Column(name = "base_date", length = 8)
     private String baseDate;
 
-    @Column(name = "fetched_at")
+    // 파티션 키 (월 단위 RANGE 파티션, setup-partitioning.sql)
+    @Column(name = "fetched_at", nullable = false)
     private LocalDateTime fetchedAt;
 
     @PrePersist
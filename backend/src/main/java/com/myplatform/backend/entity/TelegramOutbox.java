@@ -0,0 +1,63 @@
+package com.myplatform.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 텔레그램 발송 대기열
+ * - 알림은 먼저 이 테이블에 저장하고, 발송 스레드가 채팅방별 속도 제한에 맞춰 전송
+ * - 재기동/일시 장애에도 유실되지 않으며, 실패 시 next_attempt_at까지 대기 후 재시도
+ */
+@Entity
+@Table(name = "telegram_outbox",
+       indexes = {
+           @Index(name = "idx_telegram_outbox_due", columnList = "status, next_attempt_at")
+       })
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TelegramOutbox {
+
+    public static final String PENDING = "PENDING";  // 발송 대기
+    public static final String SENDING = "SENDING";  // 발송 중 (한 노드가 선점)
+    public static final String SENT = "SENT";
+    public static final String FAILED = "FAILED";    // 재시도 한도 초과 또는 재시도해도 소용없는 오류
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "chat_id", nullable = false, length = 50)
+    private String chatId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String text;
+
+    @Column(name = "parse_mode", length = 20)
+    private String parseMode;
+
+    @Column(nullable = false, length = 10)
+    private String status;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;  // SENDING 상태에서는 선점 만료 시각
+
+    @Column(name = "claim_token", length = 40)
+    private String claimToken;  // 선점한 발송 주기 식별자
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+}
@@ -12,15 +12,22 @@ import java.time.LocalDateTime;
 /**
  * 가상 계좌 엔티티
  * - 모의투자용 가상 계좌 정보
+ * - 소유자(사용자 또는 봇 전략)별로 활성 계좌 1개
  */
 @Entity
-@Table(name = "virtual_account")
+@Table(name = "virtual_account", indexes = {
+        @Index(name = "idx_va_owner_active", columnList = "owner_type, owner_id, is_active"),
+        @Index(name = "uk_va_active_owner", columnList = "active_owner_key", unique = true)
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class VirtualAccount {
 
+    public static final String OWNER_USER = "USER";
+    public static final String OWNER_BOT = "BOT";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -28,6 +35,12 @@ public class VirtualAccount {
     @Column(name = "account_name", nullable = false, length = 100)
     private String accountName;
 
+    @Column(name = "owner_type", length = 10)
+    private String ownerType; // USER, BOT (소유자 도입 이전 계좌는 null)
+
+    @Column(name = "owner_id", length = 100)
+    private String ownerId; // 사용자명 또는 봇 전략 ID
+
     @Column(name = "initial_balance", nullable = false, precision = 15, scale = 2)
     private BigDecimal initialBalance;
 
@@ -46,6 +59,9 @@ public class VirtualAccount {
     @Builder.Default
     private Boolean isActive = true;
 
+    @Column(name = "active_owner_key", length = 120)
+    private String activeOwnerKey; // 활성 계좌만 "소유자유형:소유자ID", 비활성은 NULL (소유자별 활성 계좌 1개를 DB가 보장)
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -56,10 +72,16 @@ public class VirtualAccount {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        activeOwnerKey = activeOwnerKey();
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        activeOwnerKey = activeOwnerKey();
+    }
+
+    private String activeOwnerKey() {
+        return Boolean.TRUE.equals(isActive) && ownerType != null ? ownerType + ":" + ownerId : null;
     }
 }
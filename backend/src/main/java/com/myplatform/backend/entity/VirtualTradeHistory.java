@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "virtual_trade_history", indexes = {
         @Index(name = "idx_vth_account_date", columnList = "account_id, trade_date"),
-        @Index(name = "idx_vth_stock_code", columnList = "stock_code")
+        @Index(name = "idx_vth_stock_code", columnList = "stock_code"),
+        @Index(name = "uk_vth_request_id", columnList = "request_id", unique = true)
 })
 @Data
 @Builder
@@ -66,6 +67,9 @@ public class VirtualTradeHistory {
     @Column(name = "trade_date", nullable = false)
     private LocalDateTime tradeDate;
 
+    @Column(name = "request_id", length = 40)
+    private String requestId; // 다른 노드가 리더 원장에 전달한 주문 ID (중복 체결 방지, 직접 주문은 NULL)
+
     @PrePersist
     protected void onCreate() {
         if (tradeDate == null) {
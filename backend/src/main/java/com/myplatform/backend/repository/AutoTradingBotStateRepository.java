@@ -0,0 +1,47 @@
+package com.myplatform.backend.repository;
+
+import com.myplatform.backend.entity.AutoTradingBotState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Repository
+public interface AutoTradingBotStateRepository extends JpaRepository<AutoTradingBotState, String> {
+
+    /**
+     * 활성 상태 변경 (이미 같은 상태면 0 - 중복 시작/중지 판별)
+     */
+    @Modifying
+    @Query("UPDATE AutoTradingBotState s SET s.active = :active, s.updatedAt = :now " +
+           "WHERE s.botId = :botId AND s.active <> :active")
+    int updateActive(@Param("botId") String botId,
+                     @Param("active") boolean active,
+                     @Param("now") LocalDateTime now);
+
+    /**
+     * 체결 기록 (날짜가 바뀌었으면 카운터를 새로 시작, 시작/중지와 겹쳐도 덮어쓰지 않도록 컬럼 단위 갱신)
+     */
+    @Modifying
+    @Query("UPDATE AutoTradingBotState s SET " +
+           "s.todayBuyCount = CASE WHEN s.countDate = :today THEN s.todayBuyCount + :buys ELSE :buys END, " +
+           "s.todaySellCount = CASE WHEN s.countDate = :today THEN s.todaySellCount + :sells ELSE :sells END, " +
+           "s.countDate = :today, s.lastTradeTime = :now, s.updatedAt = :now " +
+           "WHERE s.botId = :botId")
+    int recordTrade(@Param("botId") String botId,
+                    @Param("buys") int buys,
+                    @Param("sells") int sells,
+                    @Param("today") LocalDate today,
+                    @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE AutoTradingBotState s SET s.lastError = :error, s.lastErrorTime = :now, s.updatedAt = :now " +
+           "WHERE s.botId = :botId")
+    int recordError(@Param("botId") String botId,
+                    @Param("error") String error,
+                    @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,41 @@
+package com.myplatform.backend.repository;
+
+import com.myplatform.backend.entity.InvestorBuyStreak;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface InvestorBuyStreakRepository extends JpaRepository<InvestorBuyStreak, Long> {
+
+    /**
+     * 현재 진행 중인 연속 매수 종목 조회 (가장 최근 거래일 기준, idx_streak_lookup 사용)
+     */
+    @Query("SELECT s FROM InvestorBuyStreak s " +
+           "WHERE s.investorType = :investorType " +
+           "AND s.lastDate = (SELECT MAX(s2.lastDate) FROM InvestorBuyStreak s2 WHERE s2.investorType = :investorType) " +
+           "AND s.streakDays >= :minDays " +
+           "ORDER BY s.streakDays DESC, s.totalNetBuyAmount DESC")
+    List<InvestorBuyStreak> findActiveStreaks(@Param("investorType") String investorType,
+                                              @Param("minDays") int minDays);
+
+    /**
+     * 투자자의 마지막 반영 거래일
+     */
+    @Query("SELECT MAX(s.lastDate) FROM InvestorBuyStreak s WHERE s.investorType = :investorType")
+    LocalDate findLatestDate(@Param("investorType") String investorType);
+
+    List<InvestorBuyStreak> findByInvestorTypeAndStockCodeIn(String investorType, Collection<String> stockCodes);
+
+    List<InvestorBuyStreak> findByInvestorTypeAndLastDate(String investorType, LocalDate lastDate);
+
+    @Modifying
+    @Query("DELETE FROM InvestorBuyStreak s WHERE s.investorType = :investorType")
+    int deleteByInvestorType(@Param("investorType") String investorType);
+}
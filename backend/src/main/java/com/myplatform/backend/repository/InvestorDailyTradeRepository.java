@@ -76,6 +76,18 @@ public interface InvestorDailyTradeRepository extends JpaRepository<InvestorDail
      */
     boolean existsByInvestorTypeAndTradeDate(String investorType, LocalDate tradeDate);
 
+    /**
+     * 특정 일자, 투자자, 거래 유형의 기존 데이터 조회 (업서트 diff용, 시장 무관)
+     */
+    List<InvestorDailyTrade> findByInvestorTypeAndTradeTypeAndTradeDate(
+            String investorType, String tradeType, LocalDate tradeDate);
+
+    /**
+     * 특정 일자, 시장, 투자자의 기존 데이터 조회 (업서트 diff용)
+     */
+    List<InvestorDailyTrade> findByMarketTypeAndInvestorTypeAndTradeDate(
+            String marketType, String investorType, LocalDate tradeDate);
+
     /**
      * 특정 일자의 데이터 삭제 (재수집용)
      */
@@ -119,6 +131,42 @@ public interface InvestorDailyTradeRepository extends JpaRepository<InvestorDail
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
 
+    /**
+     * 특정 투자자의 전체 매수 순위 (연속 매수 기록 재계산용, 날짜 오름차순)
+     */
+    @Query("SELECT t FROM InvestorDailyTrade t " +
+           "WHERE t.investorType = :investorType AND t.tradeType = 'BUY' " +
+           "ORDER BY t.tradeDate ASC, t.rankNum ASC")
+    List<InvestorDailyTrade> findAllBuyTradesAsc(@Param("investorType") String investorType);
+
+    /**
+     * 특정 일자 직전 매수 거래일 (연속 매수 판정용)
+     */
+    @Query("SELECT MAX(t.tradeDate) FROM InvestorDailyTrade t " +
+           "WHERE t.investorType = :investorType AND t.tradeType = 'BUY' AND t.tradeDate < :tradeDate")
+    LocalDate findPreviousBuyTradeDate(@Param("investorType") String investorType,
+                                       @Param("tradeDate") LocalDate tradeDate);
+
+    /**
+     * 특정 투자자의 최근 거래일 목록 (매수/매도 무관, Pageable로 N일 제한)
+     */
+    @Query("SELECT DISTINCT t.tradeDate FROM InvestorDailyTrade t " +
+           "WHERE t.investorType = :investorType " +
+           "ORDER BY t.tradeDate DESC")
+    List<LocalDate> findRecentTradeDatesByInvestor(@Param("investorType") String investorType, Pageable pageable);
+
+    /**
+     * 데이터가 있는 투자자 유형 목록
+     */
+    @Query("SELECT DISTINCT t.investorType FROM InvestorDailyTrade t")
+    List<String> findDistinctInvestorTypes();
+
+    /**
+     * 매수 데이터가 있는 투자자 유형 목록
+     */
+    @Query("SELECT DISTINCT t.investorType FROM InvestorDailyTrade t WHERE t.tradeType = 'BUY'")
+    List<String> findDistinctBuyInvestorTypes();
+
     /**
      * 거래일 목록 조회 (최근 N일)
      */
@@ -0,0 +1,44 @@
+package com.myplatform.backend.repository;
+
+import com.myplatform.backend.entity.InvestorTradeAccumulation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface InvestorTradeAccumulationRepository extends JpaRepository<InvestorTradeAccumulation, Long> {
+
+    /**
+     * 투자자의 전체 집계 (갱신 시 diff 비교용)
+     */
+    List<InvestorTradeAccumulation> findByInvestorType(String investorType);
+
+    /**
+     * 투자자 + 시장 + 기간 누적 통계 (금액 내림차순)
+     */
+    List<InvestorTradeAccumulation> findByInvestorTypeAndMarketTypeAndWindowDaysOrderByTotalAmountDesc(
+            String investorType, String marketType, Integer windowDays);
+
+    /**
+     * 투자자 + 기간 + 거래유형 누적 상위 종목 (시장 무관, Pageable로 limit)
+     */
+    @Query("SELECT a FROM InvestorTradeAccumulation a " +
+           "WHERE a.investorType = :investorType " +
+           "AND a.windowDays = :windowDays " +
+           "AND a.tradeType = :tradeType " +
+           "ORDER BY a.totalAmount DESC")
+    List<InvestorTradeAccumulation> findTopAccumulated(
+            @Param("investorType") String investorType,
+            @Param("windowDays") Integer windowDays,
+            @Param("tradeType") String tradeType,
+            Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM InvestorTradeAccumulation a WHERE a.investorType = :investorType")
+    int deleteByInvestorType(@Param("investorType") String investorType);
+}
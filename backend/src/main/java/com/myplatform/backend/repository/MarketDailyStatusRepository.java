@@ -37,6 +37,20 @@ public interface MarketDailyStatusRepository extends JpaRepository<MarketDailySt
     List<MarketDailyStatus> findByMarketTypeAndTradeDateBetweenOrderByTradeDateDesc(
             String marketType, LocalDate startDate, LocalDate endDate);
 
+    /**
+     * 기간 내 전체 시장 데이터 조회 (ADR 시리즈 계산용, 일자 오름차순)
+     */
+    List<MarketDailyStatus> findByTradeDateBetweenOrderByTradeDateAsc(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * 특정 시장의 기간 내 데이터가 있는 거래일 목록 (백필 시 기수집 날짜 제외용)
+     */
+    @Query("SELECT m.tradeDate FROM MarketDailyStatus m WHERE m.marketType = :marketType " +
+           "AND m.tradeDate BETWEEN :startDate AND :endDate")
+    List<LocalDate> findTradeDatesBetween(@Param("marketType") String marketType,
+                                          @Param("startDate") LocalDate startDate,
+                                          @Param("endDate") LocalDate endDate);
+
     /**
      * 특정 날짜의 모든 시장 데이터 조회
      */
@@ -26,14 +26,14 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     // 읽지 않은 알림 목록
     List<Notification> findByUserIdAndIsReadOrderByCreatedAtDesc(Long userId, Boolean isRead);
 
-    // 모든 알림 읽음 처리
+    // 모든 알림 읽음 처리 (읽지 않은 행만 갱신, idx_notifications_user_read 사용)
     @Modifying
-    @Query("UPDATE Notification n SET n.isRead = true WHERE n.userId = :userId")
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.userId = :userId AND n.isRead = false")
     int markAllAsRead(@Param("userId") Long userId);
 
-    // 특정 알림 읽음 처리
+    // 특정 알림 읽음 처리 (이미 읽은 알림이면 0 반환)
     @Modifying
-    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :id AND n.userId = :userId")
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :id AND n.userId = :userId AND n.isRead = false")
     int markAsRead(@Param("id") Long id, @Param("userId") Long userId);
 
     // 오래된 알림 삭제 (30일 이상)
@@ -1,9 +1,11 @@
 package com.myplatform.backend.repository;
 
 import com.myplatform.backend.entity.StockFinancialData;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -11,11 +13,17 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface StockFinancialDataRepository extends JpaRepository<StockFinancialData, Long>,
                                                       JpaSpecificationExecutor<StockFinancialData> {
 
+    String LATEST_PER_STOCK_SQL = "SELECT * FROM (" +
+           "  SELECT s.*, ROW_NUMBER() OVER (PARTITION BY s.stock_code ORDER BY s.report_date DESC, s.id DESC) as rn " +
+           "  FROM stock_financial_data s " +
+           ") ranked WHERE rn = 1";
+
     Optional<StockFinancialData> findTopByStockCodeOrderByReportDateDesc(String stockCode);
 
     List<StockFinancialData> findByStockCode(String stockCode);
@@ -163,5 +171,41 @@ public interface StockFinancialDataRepository extends JpaRepository<StockFinanci
            ") ranked WHERE rn <= 2",
            nativeQuery = true)
     List<StockFinancialData> findLatestTwoQuartersPerStock();
+
+    // ========== [성능 최적화] 종목별 최신 데이터 단일 쿼리 ==========
+
+    /**
+     * 종목별 최신 재무 데이터 1건씩 조회 (N+1 방지)
+     * - 종목마다 findTopByStockCodeOrderByReportDateDesc를 호출하던 로직 대체
+     * - (stock_code, report_date) 복합 인덱스 사용
+     */
+    @Query(value = LATEST_PER_STOCK_SQL, nativeQuery = true)
+    List<StockFinancialData> findLatestPerStock();
+
+    /**
+     * 종목별 최신 재무 데이터 스트리밍 조회
+     * - 전 종목을 한 번에 메모리에 올리지 않고 fetch size 단위로 읽음
+     * - 트랜잭션 안에서 호출하고 try-with-resources로 닫아야 함
+     */
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query(value = LATEST_PER_STOCK_SQL, nativeQuery = true)
+    Stream<StockFinancialData> streamLatestPerStock();
+
+    /**
+     * 기준일 이전 전체 재무 데이터 (백테스트 시점별 스냅샷 구성용, 종목/기준일 순)
+     */
+    @Query("SELECT s FROM StockFinancialData s " +
+           "WHERE s.reportDate <= :maxDate " +
+           "ORDER BY s.stockCode ASC, s.reportDate ASC, s.id ASC")
+    List<StockFinancialData> findHistoryUntil(@Param("maxDate") LocalDate maxDate);
+
+    /**
+     * 데이터 버전 (행 수, 최종 수정 시각) - 스크리너 스냅샷 변경 감지용
+     */
+    @Query("SELECT COUNT(s), MAX(s.updatedAt) FROM StockFinancialData s")
+    List<Object[]> findDataVersion();
 }
 
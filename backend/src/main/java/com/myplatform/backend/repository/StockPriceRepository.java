@@ -4,6 +4,7 @@ import com.myplatform.backend.entity.StockPrice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +12,7 @@ public interface StockPriceRepository extends JpaRepository<StockPrice, Long> {
 
     // 특정 종목의 가장 최근 시세 조회
     Optional<StockPrice> findTopByStockCodeOrderByFetchedAtDesc(String stockCode);
+
+    // 특정 시각 이후 가장 최근 시세 조회 (fetched_at 조건으로 최근 파티션만 스캔)
+    Optional<StockPrice> findTopByStockCodeAndFetchedAtAfterOrderByFetchedAtDesc(String stockCode, LocalDateTime since);
 }
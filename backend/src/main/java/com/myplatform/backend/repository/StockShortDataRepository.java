@@ -1,10 +1,12 @@
 package com.myplatform.backend.repository;
 
 import com.myplatform.backend.entity.StockShortData;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -12,6 +14,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * 공매도/대차잔고 데이터 Repository
@@ -230,6 +233,15 @@ public interface StockShortDataRepository extends JpaRepository<StockShortData,
            "ORDER BY s.tradeDate DESC")
     List<LocalDate> findDistinctTradeDates();
 
+    /**
+     * 특정 기간 내 데이터가 있는 거래일 목록 조회 (백필 시 기수집 날짜 제외용)
+     */
+    @Query("SELECT DISTINCT s.tradeDate FROM StockShortData s " +
+           "WHERE s.tradeDate BETWEEN :startDate AND :endDate")
+    List<LocalDate> findDistinctTradeDatesBetween(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
     /**
      * 특정 기간 내 거래일 수 조회
      */
@@ -281,6 +293,22 @@ public interface StockShortDataRepository extends JpaRepository<StockShortData,
 
     // ========== 5. 전 종목 조회 ==========
 
+    /**
+     * 기간 내 일별 종가 스트리밍 조회 (백테스트 가격 행렬 구성용)
+     * - [종목코드, 거래일, 종가], 거래일 오름차순
+     * - 트랜잭션 안에서 호출하고 try-with-resources로 닫아야 함
+     */
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT s.stockCode, s.tradeDate, s.closePrice FROM StockShortData s " +
+           "WHERE s.tradeDate BETWEEN :startDate AND :endDate " +
+           "AND s.closePrice IS NOT NULL " +
+           "ORDER BY s.tradeDate ASC")
+    Stream<Object[]> streamClosePrices(@Param("startDate") LocalDate startDate,
+                                       @Param("endDate") LocalDate endDate);
+
     /**
      * 모든 종목 코드 조회 (중복 제거)
      * - 전 종목 재무 데이터 수집에 사용
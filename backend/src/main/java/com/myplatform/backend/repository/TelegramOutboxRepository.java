@@ -0,0 +1,54 @@
+package com.myplatform.backend.repository;
+
+import com.myplatform.backend.entity.TelegramOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TelegramOutboxRepository extends JpaRepository<TelegramOutbox, Long> {
+
+    /**
+     * 발송 시각이 된 대기 메시지 id (오래된 순, idx_telegram_outbox_due 사용)
+     */
+    @Query("SELECT o.id FROM TelegramOutbox o " +
+           "WHERE o.status = 'PENDING' AND o.nextAttemptAt <= :now " +
+           "ORDER BY o.id")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * 대기 메시지 선점 (여러 노드가 같은 메시지를 보내지 않도록, 이미 선점된 건은 건너뜀)
+     */
+    @Modifying
+    @Query("UPDATE TelegramOutbox o SET o.status = 'SENDING', o.claimToken = :token, o.nextAttemptAt = :leaseUntil " +
+           "WHERE o.id IN :ids AND o.status = 'PENDING'")
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("token") String token,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    List<TelegramOutbox> findByClaimTokenOrderByIdAsc(String claimToken);
+
+    /**
+     * 선점 후 발송하지 못하고 만료된 메시지를 다시 대기 상태로 (노드 중단 등)
+     */
+    @Modifying
+    @Query("UPDATE TelegramOutbox o SET o.status = 'PENDING', o.claimToken = NULL " +
+           "WHERE o.status = 'SENDING' AND o.nextAttemptAt < :now")
+    int releaseExpiredClaims(@Param("now") LocalDateTime now);
+
+    long countByStatus(String status);
+
+    /**
+     * 처리 끝난 메시지 정리
+     */
+    @Modifying
+    @Query("DELETE FROM TelegramOutbox o WHERE o.status IN ('SENT', 'FAILED') AND o.createdAt < :before")
+    int deleteFinishedBefore(@Param("before") LocalDateTime before);
+}
@@ -2,6 +2,8 @@ package com.myplatform.backend.repository;
 
 import com.myplatform.backend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,6 +17,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
     List<User> findByStatus(String status);
 
+    // 전체 알림 발송용 (엔티티 로딩 없이 id만)
+    @Query("SELECT u.id FROM User u WHERE u.status = :status")
+    List<Long> findIdsByStatus(@Param("status") String status);
+
     // 관리자 통계용
     Long countByStatus(String status);
     Long countByRole(String role);
@@ -4,6 +4,7 @@ import com.myplatform.backend.entity.VirtualAccount;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -13,9 +14,19 @@ import java.util.Optional;
 public interface VirtualAccountRepository extends JpaRepository<VirtualAccount, Long> {
 
     /**
-     * 활성화된 계좌 조회
+     * 활성화된 계좌 전체 조회
      */
-    Optional<VirtualAccount> findByIsActiveTrue();
+    List<VirtualAccount> findByIsActiveTrueOrderByIdAsc();
+
+    /**
+     * 소유자의 활성 계좌 조회
+     */
+    Optional<VirtualAccount> findFirstByOwnerTypeAndOwnerIdAndIsActiveTrueOrderByIdDesc(String ownerType, String ownerId);
+
+    /**
+     * 소유자가 없는 활성 계좌 조회 (소유자 도입 이전 계좌)
+     */
+    Optional<VirtualAccount> findFirstByOwnerTypeIsNullAndIsActiveTrueOrderByIdDesc();
 
     /**
      * 계좌명으로 조회
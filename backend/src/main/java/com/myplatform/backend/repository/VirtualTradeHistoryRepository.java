@@ -10,6 +10,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * 가상 거래 내역 Repository
@@ -22,6 +23,16 @@ public interface VirtualTradeHistoryRepository extends JpaRepository<VirtualTrad
      */
     List<VirtualTradeHistory> findByAccountIdOrderByTradeDateDesc(Long accountId);
 
+    /**
+     * 계좌별 거래 내역 조회 (기록 순서, 원장 복원용)
+     */
+    List<VirtualTradeHistory> findByAccountIdOrderByIdAsc(Long accountId);
+
+    /**
+     * 리더 원장에 전달한 주문의 체결 기록 (중복 전달/응답 유실 확인)
+     */
+    Optional<VirtualTradeHistory> findByRequestId(String requestId);
+
     /**
      * 계좌별 거래 내역 조회 (페이징)
      */
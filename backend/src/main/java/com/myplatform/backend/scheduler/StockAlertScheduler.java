@@ -1,5 +1,6 @@
 package com.myplatform.backend.scheduler;
 
+import com.myplatform.backend.service.ClusterLeader;
 import com.myplatform.backend.service.MarketTimingService;
 import com.myplatform.backend.service.QuantScreenerService;
 import com.myplatform.backend.service.ShortSellingService;
@@ -33,6 +34,7 @@ public class StockAlertScheduler {
     private final MarketTimingService marketTimingService;
     private final ShortSellingService shortSellingService;
     private final QuantScreenerService quantScreenerService;
+    private final ClusterLeader clusterLeader;
 
     @Value("${alert.scheduler.enabled:false}")
     private boolean schedulerEnabled;
@@ -49,6 +51,10 @@ public class StockAlertScheduler {
             log.debug("스케줄러 비활성화 상태");
             return;
         }
+        if (!clusterLeader.isLeader()) {
+            log.debug("리더 노드가 아님 - 알림 생략");
+            return;
+        }
 
         log.info("=== 장 마감 후 알림 시작 ===");
 
@@ -78,6 +84,10 @@ public class StockAlertScheduler {
             log.debug("스케줄러 비활성화 상태");
             return;
         }
+        if (!clusterLeader.isLeader()) {
+            log.debug("리더 노드가 아님 - 알림 생략");
+            return;
+        }
 
         log.info("=== 아침 알림 시작 (08:30) ===");
 
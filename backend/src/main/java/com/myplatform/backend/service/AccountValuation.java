@@ -0,0 +1,211 @@
+package com.myplatform.backend.service;
+
+import com.myplatform.backend.entity.VirtualAccount;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 계좌 평가 스냅샷 (불변)
+ * - 원장(VirtualLedger)이 체결/시세 반영 때마다 새로 만들어 게시하고, 조회 API는 DB 없이 이 값을 그대로 사용
+ * - 평가금액/평가손익은 double로 계산 (현금, 실현손익 등 체결 금액은 원장의 BigDecimal 값)
+ */
+final class AccountValuation {
+
+    private final VirtualAccount account;         // 원장 기준 계좌 사본
+    private final List<PositionValue> positions;
+    private final double totalInvested;
+    private final double totalEvaluation;
+    private final TradeStats stats;
+    private final LocalDateTime valuedAt;
+
+    AccountValuation(VirtualAccount account, List<PositionValue> positions, TradeStats stats) {
+        double invested = 0;
+        double evaluation = 0;
+        for (PositionValue position : positions) {
+            invested += position.getInvested();
+            evaluation += position.getEvaluation();
+        }
+        this.account = account;
+        this.positions = List.copyOf(positions);
+        this.totalInvested = invested;
+        this.totalEvaluation = evaluation;
+        this.stats = stats;
+        this.valuedAt = LocalDateTime.now();
+    }
+
+    VirtualAccount getAccount() {
+        return account;
+    }
+
+    List<PositionValue> getPositions() {
+        return positions;
+    }
+
+    double getTotalInvested() {
+        return totalInvested;
+    }
+
+    double getTotalEvaluation() {
+        return totalEvaluation;
+    }
+
+    double getUnrealizedProfitLoss() {
+        return totalEvaluation - totalInvested;
+    }
+
+    TradeStats getStats() {
+        return stats;
+    }
+
+    LocalDateTime getValuedAt() {
+        return valuedAt;
+    }
+
+    /**
+     * 보유 종목 평가 (불변)
+     */
+    static final class PositionValue {
+        private final Long id;
+        private final String stockCode;
+        private final String stockName;
+        private final int quantity;
+        private final double averagePrice;
+        private final double currentPrice;
+        private final LocalDateTime purchaseDate;
+        private final LocalDateTime updatedAt;
+
+        PositionValue(Long id, String stockCode, String stockName, int quantity, double averagePrice,
+                      double currentPrice, LocalDateTime purchaseDate, LocalDateTime updatedAt) {
+            this.id = id;
+            this.stockCode = stockCode;
+            this.stockName = stockName;
+            this.quantity = quantity;
+            this.averagePrice = averagePrice;
+            this.currentPrice = currentPrice;
+            this.purchaseDate = purchaseDate;
+            this.updatedAt = updatedAt;
+        }
+
+        Long getId() {
+            return id;
+        }
+
+        String getStockCode() {
+            return stockCode;
+        }
+
+        String getStockName() {
+            return stockName;
+        }
+
+        int getQuantity() {
+            return quantity;
+        }
+
+        double getAveragePrice() {
+            return averagePrice;
+        }
+
+        double getCurrentPrice() {
+            return currentPrice;
+        }
+
+        LocalDateTime getPurchaseDate() {
+            return purchaseDate;
+        }
+
+        LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+
+        double getInvested() {
+            return averagePrice * quantity;
+        }
+
+        double getEvaluation() {
+            return currentPrice * quantity;
+        }
+
+        double getProfitLoss() {
+            return (currentPrice - averagePrice) * quantity;
+        }
+
+        /**
+         * 손익률 (%)
+         */
+        double getProfitRate() {
+            return averagePrice > 0 ? (currentPrice - averagePrice) / averagePrice * 100 : 0;
+        }
+    }
+
+    /**
+     * 거래 통계 (저널 재생과 체결 시 누적, 불변)
+     */
+    static final class TradeStats {
+        static final TradeStats EMPTY = new TradeStats(0, 0, 0, 0, BigDecimal.ZERO, null, 0);
+
+        private final long buyCount;
+        private final long sellCount;
+        private final long winCount;
+        private final long loseCount;
+        private final BigDecimal realizedProfitLoss;
+        private final LocalDate lastTradeDay;
+        private final long lastTradeDayCount;
+
+        private TradeStats(long buyCount, long sellCount, long winCount, long loseCount,
+                           BigDecimal realizedProfitLoss, LocalDate lastTradeDay, long lastTradeDayCount) {
+            this.buyCount = buyCount;
+            this.sellCount = sellCount;
+            this.winCount = winCount;
+            this.loseCount = loseCount;
+            this.realizedProfitLoss = realizedProfitLoss;
+            this.lastTradeDay = lastTradeDay;
+            this.lastTradeDayCount = lastTradeDayCount;
+        }
+
+        /**
+         * 체결 1건을 더한 통계
+         */
+        TradeStats plus(boolean buy, BigDecimal profitLoss, LocalDate tradeDay) {
+            long dayCount = tradeDay.equals(lastTradeDay) ? lastTradeDayCount + 1 : 1;
+            if (buy) {
+                return new TradeStats(buyCount + 1, sellCount, winCount, loseCount, realizedProfitLoss, tradeDay, dayCount);
+            }
+            BigDecimal profit = profitLoss != null ? profitLoss : BigDecimal.ZERO;
+            return new TradeStats(buyCount, sellCount + 1,
+                    winCount + (profit.signum() > 0 ? 1 : 0),
+                    loseCount + (profit.signum() < 0 ? 1 : 0),
+                    realizedProfitLoss.add(profit), tradeDay, dayCount);
+        }
+
+        long getBuyCount() {
+            return buyCount;
+        }
+
+        long getSellCount() {
+            return sellCount;
+        }
+
+        long getWinCount() {
+            return winCount;
+        }
+
+        long getLoseCount() {
+            return loseCount;
+        }
+
+        BigDecimal getRealizedProfitLoss() {
+            return realizedProfitLoss;
+        }
+
+        /**
+         * 해당 날짜 거래 수
+         */
+        long getTradeCount(LocalDate day) {
+            return day.equals(lastTradeDay) ? lastTradeDayCount : 0;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.myplatform.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 외부 API 호출 공용 속도 제한기
+ * - 데이터 소스(KIS, NAVER 등)별로 최소 호출 간격을 보장
+ * - 여러 스레드(백필 파티션 등)가 동시에 호출해도 소스별 총 호출 속도는 설정값 이하로 유지
+ * - 기존의 스레드별 Thread.sleep() 대신 사용
+ */
+@Component
+@Slf4j
+public class ApiRateLimiter {
+
+    public static final String KIS = "KIS";
+    public static final String NAVER = "NAVER";
+
+    // 소스별 다음 호출 가능 시각 (nanoTime)
+    private final Map<String, Long> nextSlots = new ConcurrentHashMap<>();
+    private final Map<String, Long> intervals = new ConcurrentHashMap<>();
+
+    public ApiRateLimiter(@Value("${rate-limit.kis.permits-per-second:15}") double kisPermitsPerSecond,
+                          @Value("${rate-limit.naver.permits-per-second:3}") double naverPermitsPerSecond) {
+        register(KIS, kisPermitsPerSecond);
+        register(NAVER, naverPermitsPerSecond);
+    }
+
+    /**
+     * 소스별 초당 허용 호출 수 등록
+     */
+    public void register(String source, double permitsPerSecond) {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / Math.max(permitsPerSecond, 0.01));
+        intervals.put(source, intervalNanos);
+        log.info("API 속도 제한 설정: {} - 초당 {}회", source, permitsPerSecond);
+    }
+
+    /**
+     * 호출 허가 획득 (필요 시 대기)
+     * - 슬롯 예약은 원자적으로 처리하고, 대기는 락 밖에서 수행
+     *
+     * @throws InterruptedException 대기 중 인터럽트 발생 시
+     */
+    public void acquire(String source) throws InterruptedException {
+        Long interval = intervals.get(source);
+        if (interval == null) {
+            return;
+        }
+
+        long[] reserved = new long[1];
+        nextSlots.compute(source, (key, next) -> {
+            long now = System.nanoTime();
+            long slot = (next == null || next < now) ? now : next;
+            reserved[0] = slot;
+            return slot + interval;
+        });
+
+        long waitNanos = reserved[0] - System.nanoTime();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
@@ -62,13 +62,13 @@ public class AsyncCrawlerService {
             List<StockFinancialData> allData = stockFinancialDataRepository.findByReportDate(today);
 
             if (allData.isEmpty()) {
-                List<String> stockCodes = stockShortDataRepository.findDistinctStockCodes();
+                // 종목별 최신 데이터 단일 쿼리 조회 (종목당 쿼리 N회 방지)
+                Set<String> stockCodes = new HashSet<>(stockShortDataRepository.findDistinctStockCodes());
                 log.info("오늘 날짜 데이터 없음. StockShortData에서 {}개 종목 코드 조회", stockCodes.size());
 
-                for (String code : stockCodes) {
-                    stockFinancialDataRepository.findTopByStockCodeOrderByReportDateDesc(code)
-                            .ifPresent(allData::add);
-                }
+                stockFinancialDataRepository.findLatestPerStock().stream()
+                        .filter(d -> stockCodes.contains(d.getStockCode()))
+                        .forEach(allData::add);
             }
 
             int totalCount = allData.size();
@@ -197,6 +197,9 @@ public class AsyncCrawlerService {
             sseEmitterService.sendStart(taskType, totalCount, "분기별 재무제표 수집을 시작합니다.");
             sseEmitterService.sendLog(taskType, "INFO", String.format("총 %d개 종목 수집 시작", totalCount));
 
+            // 종목별 최신 데이터는 루프 전에 한 번만 조회 (종목명/기존 정보 조회를 종목마다 하지 않도록)
+            Map<String, StockFinancialData> latestByStock = financialDataCrawlerService.loadLatestPerStock();
+
             AtomicInteger successCount = new AtomicInteger(0);
             AtomicInteger failCount = new AtomicInteger(0);
             int progressInterval = Math.max(totalCount / 100, 1);
@@ -210,7 +213,8 @@ public class AsyncCrawlerService {
                         Thread.sleep(600);
                     }
 
-                    boolean collected = financialDataCrawlerService.collectSingleStockQuarterlyData(stockCode);
+                    StockFinancialData latest = latestByStock.get(stockCode);
+                    boolean collected = financialDataCrawlerService.collectSingleStockQuarterlyData(stockCode, latest);
                     if (collected) {
                         successCount.incrementAndGet();
                     } else {
@@ -219,7 +223,8 @@ public class AsyncCrawlerService {
 
                     // 진행률 전송
                     if ((i + 1) % progressInterval == 0 || i == totalCount - 1) {
-                        String stockName = getStockName(stockCode);
+                        String stockName = latest != null && latest.getStockName() != null
+                                ? latest.getStockName() : stockCode;
                         sseEmitterService.sendProgress(taskType, i + 1, totalCount,
                                 successCount.get(), failCount.get(), stockName);
                     }
@@ -316,13 +321,4 @@ public class AsyncCrawlerService {
             data.setDebtRatio(financials.get("debtRatio"));
         }
     }
-
-    /**
-     * 종목코드로 종목명 조회
-     */
-    private String getStockName(String stockCode) {
-        return stockFinancialDataRepository.findTopByStockCodeOrderByReportDateDesc(stockCode)
-                .map(StockFinancialData::getStockName)
-                .orElse(stockCode);
-    }
 }
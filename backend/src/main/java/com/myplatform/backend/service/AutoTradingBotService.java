@@ -4,30 +4,42 @@ import com.myplatform.backend.dto.PaperTradingDto.*;
 import com.myplatform.backend.dto.ScreenerResultDto;
 import com.myplatform.backend.dto.StockPriceDto;
 import com.myplatform.backend.dto.InvestorSurgeDto;
+import com.myplatform.backend.entity.AutoTradingBotState;
 import com.myplatform.backend.entity.VirtualAccount;
 import com.myplatform.backend.entity.VirtualPortfolio;
-import com.myplatform.backend.repository.VirtualPortfolioRepository;
+import com.myplatform.backend.repository.AutoTradingBotStateRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
  * 자동 매매 봇 서비스
  * - 마법의 공식 상위 종목 자동 매수
  * - 손절/익절 자동 실행
+ *   - 보유 종목별 손절가/익절가 트리거 인덱스(ExitTriggerIndex)를 틱마다 비교해 즉시 청산
+ *   - 인덱스는 매수/매도 커밋 이벤트로 갱신 (틱 처리 중에는 DB 조회 없음)
+ *   - 틱이 들어오지 않는 종목만 매분 시세 API로 보완 확인
+ * - 봇 전용 계좌(소유자 BOT / auto-trading)로 거래하며 다른 계좌의 변경은 무시
+ * - 시작/중지 상태와 일일 카운터는 DB(auto_trading_bot_state)에 두고, 봇은 리더 노드에서만 실행
  */
 @Service
 @RequiredArgsConstructor
@@ -35,38 +47,63 @@ import java.util.stream.Collectors;
 public class AutoTradingBotService {
 
     private final VirtualTradeService virtualTradeService;
-    private final VirtualPortfolioRepository portfolioRepository;
     private final QuantScreenerService quantScreenerService;
     private final InvestorSurgeService investorSurgeService;
     private final StockPriceService stockPriceService;
     private final TelegramNotificationService telegramService;
+    private final RealTimeDataCache realTimeDataCache;
+    private final Executor taskExecutor;
+    private final AutoTradingBotStateRepository botStateRepository;
+    private final ClusterLeader clusterLeader;
+    private final ClusterEventBus clusterEventBus;
+    private final TransactionTemplate transactionTemplate;
 
-    // 봇 상태
+    private static final String BOT_ID = VirtualTradeService.DEFAULT_BOT_ID;
+    private static final String STATE_CHANNEL = "auto-trading-bot-state";  // 시작/중지 알림 (본문 없음)
+
+    // 이 노드에서 봇 실행 중인지 (공유 상태가 활성이고 이 노드가 리더일 때만 true, 시작/중지는 DB 상태로)
     private final AtomicBoolean botActive = new AtomicBoolean(false);
-    private volatile LocalDateTime lastTradeTime;
-    private volatile String lastError;
-    private volatile LocalDateTime lastErrorTime;
-    private final AtomicInteger todayBuyCount = new AtomicInteger(0);
-    private final AtomicInteger todaySellCount = new AtomicInteger(0);
-    private volatile LocalDate lastResetDate;
-
-    // 손절/익절 기준
-    private static final BigDecimal STOP_LOSS_RATE = new BigDecimal("-3"); // -3%
-    private static final BigDecimal TAKE_PROFIT_RATE = new BigDecimal("5"); // +5%
-    private static final BigDecimal MAX_INVESTMENT_RATIO = new BigDecimal("0.2"); // 종목당 최대 20%
+    private volatile Long accountId;  // 봇 계좌 ID (계좌 초기화 시 바뀜)
+
+    // 매매 규칙 (손절 -3%, 익절 +5%, 종목당 최대 20%, 하루 최대 3종목 - 시뮬레이션과 공유)
+    private static final BotStrategy STRATEGY = BotStrategy.DEFAULT;
+    private static final long TICK_STALE_SECONDS = 60; // 이 시간 동안 틱이 없으면 매분 확인 대상
+
+    // 보유 종목 손절/익절 트리거
+    private final ExitTriggerIndex exitTriggers = STRATEGY.newExitIndex();
+
+    /**
+     * 실시간 틱 수신 시 손절/익절 확인, 시작/중지와 리더 변경 시 실행 상태 갱신
+     */
+    @PostConstruct
+    void registerListeners() {
+        realTimeDataCache.addTickListener(this::onTick);
+        clusterEventBus.subscribe(STATE_CHANNEL, (sequence, body) -> scheduleSync());
+        clusterLeader.addListener(leading -> scheduleSync());
+    }
+
+    /**
+     * 기동 시 공유 상태가 활성이면 (리더에서) 봇 재개
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeBot() {
+        try {
+            syncState();
+        } catch (Exception e) {
+            log.warn("[자동매매] 봇 상태 복원 실패 (다음 매분 체크에서 재시도): {}", e.getMessage());
+        }
+    }
 
     /**
-     * 봇 시작
+     * 봇 시작 (어느 노드에서 호출해도 리더 노드에서 실행)
      */
     public BotStatusDto startBot() {
-        if (botActive.get()) {
+        if (!changeActive(true)) {
             log.info("자동매매 봇이 이미 실행 중입니다.");
             return getBotStatus();
         }
 
-        botActive.set(true);
-        resetDailyCounters();
-        log.info("자동매매 봇 시작됨");
+        log.info("자동매매 봇 시작됨 (리더 노드에서 실행)");
 
         // 텔레그램 알림
         if (telegramService.isEnabled()) {
@@ -74,7 +111,7 @@ public class AutoTradingBotService {
                     "<b>🤖 [모의투자] 자동매매 봇 시작!</b>\n\n" +
                     "✅ 봇이 활성화되었습니다.\n" +
                     "⏰ 매수: 평일 09:30\n" +
-                    "⏰ 손절/익절 체크: 매분\n\n" +
+                    "⏰ 손절/익절 체크: 실시간 (틱 수신 시)\n\n" +
                     "━━━━━━━━━━━━━━━━\n" +
                     "🤖 MyPlatform 모의투자"
             );
@@ -87,12 +124,11 @@ public class AutoTradingBotService {
      * 봇 중지
      */
     public BotStatusDto stopBot() {
-        if (!botActive.get()) {
+        if (!changeActive(false)) {
             log.info("자동매매 봇이 이미 중지 상태입니다.");
             return getBotStatus();
         }
 
-        botActive.set(false);
         log.info("자동매매 봇 중지됨");
 
         // 텔레그램 알림
@@ -109,29 +145,31 @@ public class AutoTradingBotService {
     }
 
     /**
-     * 봇 상태 조회
+     * 봇 상태 조회 (공유 상태 기준)
      */
     public BotStatusDto getBotStatus() {
-        resetDailyCounters();
+        AutoTradingBotState state = loadState();
+        boolean active = Boolean.TRUE.equals(state.getActive());
+        boolean countedToday = LocalDate.now().equals(state.getCountDate());
 
         String status;
-        if (!botActive.get()) {
+        if (!active) {
             status = "STOPPED";
-        } else if (lastError != null && lastErrorTime != null &&
-                   lastErrorTime.isAfter(LocalDateTime.now().minusMinutes(30))) {
+        } else if (state.getLastError() != null && state.getLastErrorTime() != null &&
+                   state.getLastErrorTime().isAfter(LocalDateTime.now().minusMinutes(30))) {
             status = "ERROR";
         } else {
             status = "RUNNING";
         }
 
         return BotStatusDto.builder()
-                .active(botActive.get())
-                .lastTradeTime(lastTradeTime)
-                .lastError(lastError)
-                .lastErrorTime(lastErrorTime)
+                .active(active)
+                .lastTradeTime(state.getLastTradeTime())
+                .lastError(state.getLastError())
+                .lastErrorTime(state.getLastErrorTime())
                 .status(status)
-                .todayBuyCount(todayBuyCount.get())
-                .todaySellCount(todaySellCount.get())
+                .todayBuyCount(countedToday ? state.getTodayBuyCount() : 0)
+                .todaySellCount(countedToday ? state.getTodaySellCount() : 0)
                 .build();
     }
 
@@ -140,23 +178,23 @@ public class AutoTradingBotService {
      */
     @Scheduled(cron = "0 30 9 * * MON-FRI", zone = "Asia/Seoul")
     public void executeBuyLogic() {
-        if (!botActive.get()) {
-            log.debug("자동매매 봇이 비활성화 상태입니다.");
+        if (!syncState()) {
+            log.debug("자동매매 봇이 비활성화 상태이거나 리더 노드가 아닙니다.");
             return;
         }
 
         log.info("[자동매매] 매수 로직 실행 시작");
-        resetDailyCounters();
 
         try {
-            VirtualAccount account = virtualTradeService.getOrCreateActiveAccount();
+            VirtualAccount account = botAccount();
 
             // 종목당 최대 투자금액 계산
             BigDecimal totalAsset = account.getCurrentBalance().add(account.getTotalEvaluation());
-            BigDecimal maxPerStock = totalAsset.multiply(MAX_INVESTMENT_RATIO);
+            BigDecimal maxPerStock = STRATEGY.maxPerStock(totalAsset);
 
             // 마법의 공식 상위 종목 조회
-            List<ScreenerResultDto> magicFormulaStocks = quantScreenerService.getMagicFormulaStocks(10, null);
+            List<ScreenerResultDto> magicFormulaStocks =
+                    quantScreenerService.getMagicFormulaStocks(STRATEGY.getCandidateCount(), null);
 
             if (magicFormulaStocks.isEmpty()) {
                 log.info("[자동매매] 마법의 공식 종목이 없습니다.");
@@ -172,7 +210,7 @@ public class AutoTradingBotService {
             }
 
             // 이미 보유 중인 종목 코드
-            List<String> holdingCodes = portfolioRepository.findByAccountId(account.getId())
+            List<String> holdingCodes = virtualTradeService.getHoldings(account.getId())
                     .stream()
                     .map(VirtualPortfolio::getStockCode)
                     .collect(Collectors.toList());
@@ -180,7 +218,7 @@ public class AutoTradingBotService {
             int buyCount = 0;
             for (ScreenerResultDto stock : magicFormulaStocks) {
                 // 잔액 확인
-                if (account.getCurrentBalance().compareTo(new BigDecimal("100000")) < 0) {
+                if (!STRATEGY.canBuy(account.getCurrentBalance())) {
                     log.info("[자동매매] 잔액 부족으로 매수 중단");
                     break;
                 }
@@ -191,8 +229,7 @@ public class AutoTradingBotService {
                 }
 
                 // 수급 신호 확인 (외국인 또는 기관 순매수)
-                boolean hasSurgeSignal = checkSurgeSignal(stock.getStockCode(), surgeStocks);
-                if (!hasSurgeSignal && surgeStocks != null) {
+                if (!STRATEGY.hasSurgeSignal(stock.getStockCode(), surgeStocks)) {
                     log.debug("[자동매매] {} - 수급 신호 없음, 스킵", stock.getStockName());
                     continue;
                 }
@@ -207,10 +244,7 @@ public class AutoTradingBotService {
                 BigDecimal currentPrice = priceDto.getCurrentPrice();
 
                 // 매수 수량 계산 (최대 투자금액 내에서)
-                BigDecimal investAmount = account.getCurrentBalance().compareTo(maxPerStock) < 0
-                        ? account.getCurrentBalance()
-                        : maxPerStock;
-                int quantity = investAmount.divide(currentPrice, 0, RoundingMode.DOWN).intValue();
+                int quantity = STRATEGY.quantity(account.getCurrentBalance(), maxPerStock, currentPrice);
 
                 if (quantity <= 0) {
                     continue;
@@ -218,20 +252,19 @@ public class AutoTradingBotService {
 
                 // 매수 실행
                 try {
-                    virtualTradeService.buy(stock.getStockCode(), currentPrice, quantity, "AUTO_BUY");
-                    lastTradeTime = LocalDateTime.now();
-                    todayBuyCount.incrementAndGet();
+                    virtualTradeService.buy(account.getId(), stock.getStockCode(), currentPrice, quantity, "AUTO_BUY");
+                    recordTrade(1, 0);
                     buyCount++;
 
                     log.info("[자동매매] 매수 완료: {} x {} @ {}원",
                             stock.getStockName(), quantity, currentPrice);
 
                     // 계좌 정보 갱신
-                    account = virtualTradeService.getOrCreateActiveAccount();
+                    account = botAccount();
                     holdingCodes.add(stock.getStockCode());
 
-                    // 최대 3종목까지만 매수
-                    if (buyCount >= 3) {
+                    // 하루 최대 매수 종목 수
+                    if (buyCount >= STRATEGY.getMaxBuysPerDay()) {
                         log.info("[자동매매] 일일 최대 매수 종목 수 도달");
                         break;
                     }
@@ -247,18 +280,39 @@ public class AutoTradingBotService {
             log.info("[자동매매] 매수 로직 완료 - {}종목 매수", buyCount);
 
         } catch (Exception e) {
-            lastError = e.getMessage();
-            lastErrorTime = LocalDateTime.now();
+            recordError(e.getMessage());
             log.error("[자동매매] 매수 로직 오류", e);
         }
     }
 
     /**
-     * 손절/익절 체크 (평일 09:00~15:59, 매분)
+     * 틱 수신 시 손절/익절 확인
+     * - 기준을 넘지 않은 틱은 가격 비교 2번으로 끝남
+     * - 청산(DB 기록, 알림)은 틱 스레드를 막지 않도록 taskExecutor에서 실행
+     */
+    private void onTick(String stockCode, BigDecimal price) {
+        if (!botActive.get() || !clusterLeader.isLeader()) {
+            return;
+        }
+        for (ExitTriggerIndex.Trigger trigger : exitTriggers.onPrice(stockCode, price)) {
+            try {
+                taskExecutor.execute(() -> exit(trigger));
+            } catch (RejectedExecutionException e) {
+                log.warn("[자동매매] 청산 작업 등록 실패, 트리거 재등록: {}", stockCode);
+                exitTriggers.release(stockCode);
+                rearmExitTriggers(trigger.getPosition().getAccountId(), stockCode);
+            }
+        }
+    }
+
+    /**
+     * 손절/익절 보완 체크 (평일 09:00~15:59, 매분)
+     * - 실시간 틱이 최근 1분간 들어오지 않은 보유 종목만 시세 API로 확인
      */
     @Scheduled(cron = "0 * 9-15 * * MON-FRI", zone = "Asia/Seoul")
     public void checkStopLossAndTakeProfit() {
-        if (!botActive.get()) {
+        // 매분 공유 상태를 다시 읽어 시작/중지 알림을 놓친 경우에도 맞춤
+        if (!syncState()) {
             return;
         }
 
@@ -269,115 +323,202 @@ public class AutoTradingBotService {
         }
 
         try {
-            VirtualAccount account = virtualTradeService.getOrCreateActiveAccount();
-            List<VirtualPortfolio> portfolios = portfolioRepository.findByAccountId(account.getId());
+            LocalDateTime staleBefore = LocalDateTime.now().minusSeconds(TICK_STALE_SECONDS);
+            List<String> stockCodes = exitTriggers.symbols().stream()
+                    .filter(code -> {
+                        LocalDateTime lastTick = realTimeDataCache.getLastTickTime(code);
+                        return lastTick == null || lastTick.isBefore(staleBefore);
+                    })
+                    .collect(Collectors.toList());
 
-            if (portfolios.isEmpty()) {
+            if (stockCodes.isEmpty()) {
                 return;
             }
 
-            // 종목코드 리스트
-            List<String> stockCodes = portfolios.stream()
-                    .map(VirtualPortfolio::getStockCode)
-                    .collect(Collectors.toList());
-
             // 일괄 시세 조회
             Map<String, StockPriceDto> prices = stockPriceService.getStockPrices(stockCodes);
 
-            for (VirtualPortfolio portfolio : portfolios) {
-                StockPriceDto priceDto = prices.get(portfolio.getStockCode());
+            for (String stockCode : stockCodes) {
+                StockPriceDto priceDto = prices.get(stockCode);
                 if (priceDto == null || priceDto.getCurrentPrice() == null) {
                     continue;
                 }
+                for (ExitTriggerIndex.Trigger trigger : exitTriggers.onPrice(stockCode, priceDto.getCurrentPrice())) {
+                    exit(trigger);
+                }
+            }
 
-                BigDecimal currentPrice = priceDto.getCurrentPrice();
-                BigDecimal avgPrice = portfolio.getAveragePrice();
+        } catch (Exception e) {
+            recordError(e.getMessage());
+            log.error("[자동매매] 손절/익절 체크 오류", e);
+        }
+    }
 
-                // 손익률 계산
-                BigDecimal profitRate = currentPrice.subtract(avgPrice)
-                        .divide(avgPrice, 4, RoundingMode.HALF_UP)
-                        .multiply(new BigDecimal("100"));
+    /**
+     * 트리거 발동 포지션 청산
+     * - 매도가 커밋(또는 실패)될 때까지 종목 트리거는 해제 상태, 끝나면 DB 기준으로 재등록
+     */
+    private void exit(ExitTriggerIndex.Trigger trigger) {
+        ExitTriggerIndex.Position position = trigger.getPosition();
+        log.info("[자동매매] {} 조건 충족: {} - 손익률 {}%",
+                trigger.getReason(), position.getStockName(), trigger.getProfitRate());
+        try {
+            virtualTradeService.sell(
+                    position.getAccountId(),
+                    position.getStockCode(),
+                    trigger.getPrice(),
+                    position.getQuantity(),
+                    trigger.getReason()
+            );
+            recordTrade(0, 1);
 
-                String reason = null;
+            log.info("[자동매매] {} 완료: {} x {} @ {}원",
+                    trigger.getReason(), position.getStockName(), position.getQuantity(), trigger.getPrice());
 
-                // 손절 체크 (-3% 이하)
-                if (profitRate.compareTo(STOP_LOSS_RATE) <= 0) {
-                    reason = "STOP_LOSS";
-                    log.info("[자동매매] 손절 조건 충족: {} - 손익률 {}%", portfolio.getStockName(), profitRate);
-                }
-                // 익절 체크 (+5% 이상)
-                else if (profitRate.compareTo(TAKE_PROFIT_RATE) >= 0) {
-                    reason = "TAKE_PROFIT";
-                    log.info("[자동매매] 익절 조건 충족: {} - 손익률 {}%", portfolio.getStockName(), profitRate);
-                }
+        } catch (Exception e) {
+            log.error("[자동매매] 매도 실패: {} - {}", position.getStockName(), e.getMessage());
+        } finally {
+            exitTriggers.release(position.getStockCode());
+            rearmExitTriggers(position.getAccountId(), position.getStockCode());
+        }
+    }
 
-                if (reason != null) {
-                    try {
-                        virtualTradeService.sell(
-                                portfolio.getStockCode(),
-                                currentPrice,
-                                portfolio.getQuantity(),
-                                reason
-                        );
-                        lastTradeTime = LocalDateTime.now();
-                        todaySellCount.incrementAndGet();
-
-                        log.info("[자동매매] {} 완료: {} x {} @ {}원",
-                                reason, portfolio.getStockName(), portfolio.getQuantity(), currentPrice);
-
-                    } catch (Exception e) {
-                        log.error("[자동매매] 매도 실패: {} - {}", portfolio.getStockName(), e.getMessage());
-                    }
+    /**
+     * 보유 종목 변경 시 트리거 갱신 (매수/매도/계좌 초기화 커밋 후)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPortfolioChanged(PortfolioChangedEvent event) {
+        if (!botActive.get()) {
+            return;  // 실행 중이 아니면 트리거를 두지 않음 (실행 시작 시 전체 등록)
+        }
+        try {
+            if (event.getStockCode() == null) {
+                // 계좌 초기화: 봇 계좌가 바뀌었을 수 있으므로 다시 조회 (봇 계좌를 쓴 적이 없으면 무시)
+                if (accountId != null) {
+                    armExitTriggers();
                 }
+            } else if (event.getAccountId().equals(accountId)) {
+                rearmExitTriggers(event.getAccountId(), event.getStockCode());
             }
-
         } catch (Exception e) {
-            lastError = e.getMessage();
-            lastErrorTime = LocalDateTime.now();
-            log.error("[자동매매] 손절/익절 체크 오류", e);
+            log.warn("[자동매매] 손절/익절 트리거 갱신 실패: {}", e.getMessage());
         }
     }
 
     /**
-     * 수급 신호 확인
+     * 봇 계좌 (없으면 생성)
      */
-    private boolean checkSurgeSignal(String stockCode, Map<String, List<InvestorSurgeDto>> surgeStocks) {
-        if (surgeStocks == null) {
-            return true; // 수급 데이터 없으면 패스
+    private VirtualAccount botAccount() {
+        VirtualAccount account = virtualTradeService.getOrCreateActiveAccount(
+                VirtualAccount.OWNER_BOT, VirtualTradeService.DEFAULT_BOT_ID);
+        accountId = account.getId();
+        return account;
+    }
+
+    /**
+     * 봇 계좌 전체 보유 종목으로 트리거 등록
+     */
+    private void armExitTriggers() {
+        VirtualAccount account = botAccount();
+        exitTriggers.replaceAll(virtualTradeService.getHoldings(account.getId()));
+    }
+
+    private void rearmExitTriggers(Long accountId, String stockCode) {
+        exitTriggers.replace(stockCode, virtualTradeService.getHolding(accountId, stockCode)
+                .map(List::of)
+                .orElse(List.of()));
+    }
+
+    /**
+     * 공유 상태와 리더 여부에 맞춰 이 노드의 실행 상태 갱신
+     * - 실행을 시작하면 봇 계좌 보유 종목으로 트리거 등록, 멈추면 트리거를 비움
+     * @return 이 노드에서 봇을 실행해야 하는지
+     */
+    private synchronized boolean syncState() {
+        boolean run = clusterLeader.isLeader() && Boolean.TRUE.equals(loadState().getActive());
+        if (run && !botActive.get()) {
+            armExitTriggers();
+            botActive.set(true);
+            log.info("[자동매매] 이 노드에서 봇 실행 - 손절/익절 감시 {}종목", exitTriggers.size());
+        } else if (!run && botActive.getAndSet(false)) {
+            exitTriggers.clear();
+            log.info("[자동매매] 이 노드에서 봇 실행 중단");
         }
+        return run;
+    }
 
-        // 외국인 순매수 확인
-        List<InvestorSurgeDto> foreignStocks = surgeStocks.get("FOREIGN");
-        if (foreignStocks != null) {
-            boolean foreignBuying = foreignStocks.stream()
-                    .anyMatch(s -> s.getStockCode().equals(stockCode) &&
-                                   s.getNetBuyAmount() != null &&
-                                   s.getNetBuyAmount().compareTo(BigDecimal.ZERO) > 0);
-            if (foreignBuying) return true;
+    /**
+     * 실행 상태 갱신을 작업 스레드로 넘김 (버스/리더 선출 스레드에서 DB 조회하지 않도록)
+     */
+    private void scheduleSync() {
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    syncState();
+                } catch (Exception e) {
+                    log.warn("[자동매매] 봇 실행 상태 갱신 실패 (다음 매분 체크에서 재시도): {}", e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("[자동매매] 봇 실행 상태 갱신 작업 등록 실패 (다음 매분 체크에서 재시도)");
         }
+    }
 
-        // 기관 순매수 확인
-        List<InvestorSurgeDto> instStocks = surgeStocks.get("INSTITUTION");
-        if (instStocks != null) {
-            boolean instBuying = instStocks.stream()
-                    .anyMatch(s -> s.getStockCode().equals(stockCode) &&
-                                   s.getNetBuyAmount() != null &&
-                                   s.getNetBuyAmount().compareTo(BigDecimal.ZERO) > 0);
-            if (instBuying) return true;
+    /**
+     * 공유 활성 상태 변경 후 모든 노드에 알림 (리더가 받아 실행/중단)
+     * @return 상태가 바뀌었는지 (이미 같은 상태면 false)
+     */
+    private boolean changeActive(boolean active) {
+        loadState();
+        Integer updated = transactionTemplate.execute(status ->
+                botStateRepository.updateActive(BOT_ID, active, LocalDateTime.now()));
+        if (updated == null || updated == 0) {
+            return false;
         }
+        clusterEventBus.publish(STATE_CHANNEL, new byte[0]);
+        return true;
+    }
 
-        return false;
+    /**
+     * 공유 상태 조회 (없으면 중지 상태로 생성)
+     */
+    private AutoTradingBotState loadState() {
+        return botStateRepository.findById(BOT_ID).orElseGet(() -> {
+            AutoTradingBotState state = AutoTradingBotState.builder()
+                    .botId(BOT_ID)
+                    .active(false)
+                    .todayBuyCount(0)
+                    .todaySellCount(0)
+                    .updatedAt(LocalDateTime.now())
+                    .build();
+            try {
+                return botStateRepository.save(state);
+            } catch (DataIntegrityViolationException e) {
+                // 다른 노드가 먼저 생성
+                return botStateRepository.findById(BOT_ID).orElseThrow(() -> e);
+            }
+        });
     }
 
     /**
-     * 일일 카운터 초기화
+     * 체결 기록 (기록 실패가 매매 흐름을 막지 않도록 로그만 남김)
      */
-    private void resetDailyCounters() {
-        LocalDate today = LocalDate.now();
-        if (lastResetDate == null || !lastResetDate.equals(today)) {
-            todayBuyCount.set(0);
-            todaySellCount.set(0);
-            lastResetDate = today;
+    private void recordTrade(int buys, int sells) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> botStateRepository.recordTrade(
+                    BOT_ID, buys, sells, LocalDate.now(), LocalDateTime.now()));
+        } catch (Exception e) {
+            log.warn("[자동매매] 봇 체결 기록 실패: {}", e.getMessage());
+        }
+    }
+
+    private void recordError(String error) {
+        String message = error != null && error.length() > 500 ? error.substring(0, 500) : error;
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    botStateRepository.recordError(BOT_ID, message, LocalDateTime.now()));
+        } catch (Exception e) {
+            log.warn("[자동매매] 봇 오류 기록 실패: {}", e.getMessage());
         }
     }
 }
@@ -0,0 +1,167 @@
+package com.myplatform.backend.service;
+
+import com.myplatform.backend.entity.StockFinancialData;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * 백테스트 입력 데이터 (불변)
+ * - 일별 종가 행렬: 종목 × 거래일 double 배열, 거래가 없는 날은 직전 종가로 채움 (상장 전은 NaN)
+ * - 종목별 재무 데이터 이력 (기준일 오름차순)으로 시점별 FinancialColumns 구성
+ *
+ * 파라미터 스윕의 모든 조합이 같은 인스턴스를 읽기 전용으로 공유한다.
+ */
+final class BacktestData {
+
+    private final LocalDate[] tradeDates;
+    private final Map<String, Integer> stockIndex;
+    private final double[][] closes;  // [종목][거래일]
+    private final Map<String, StockFinancialData[]> history;
+    private final LocalDate[] reportDates;  // 재무 데이터 기준일 (중복 제거, 오름차순)
+    private final int reportLagDays;
+
+    private BacktestData(LocalDate[] tradeDates, Map<String, Integer> stockIndex, double[][] closes,
+                         Map<String, StockFinancialData[]> history, LocalDate[] reportDates, int reportLagDays) {
+        this.tradeDates = tradeDates;
+        this.stockIndex = stockIndex;
+        this.closes = closes;
+        this.history = history;
+        this.reportDates = reportDates;
+        this.reportLagDays = reportLagDays;
+    }
+
+    /**
+     * 데이터 구성
+     *
+     * @param tradeDates 거래일 (오름차순)
+     * @param closeByStock 종목별 거래일 인덱스 기준 종가 (없는 날은 NaN, 이 메서드에서 직전 값으로 채움)
+     * @param financialHistory 재무 데이터 (종목/기준일 오름차순)
+     * @param reportLagDays 재무 데이터 기준일 이후 사용 가능해지기까지의 일수
+     */
+    static BacktestData of(List<LocalDate> tradeDates, Map<String, double[]> closeByStock,
+                           List<StockFinancialData> financialHistory, int reportLagDays) {
+        Map<String, Integer> stockIndex = new HashMap<>(closeByStock.size() * 2);
+        double[][] closes = new double[closeByStock.size()][];
+        int s = 0;
+        for (Map.Entry<String, double[]> entry : closeByStock.entrySet()) {
+            double[] series = entry.getValue();
+            double last = Double.NaN;
+            for (int d = 0; d < series.length; d++) {
+                if (Double.isNaN(series[d])) {
+                    series[d] = last;
+                } else {
+                    last = series[d];
+                }
+            }
+            stockIndex.put(entry.getKey(), s);
+            closes[s++] = series;
+        }
+
+        Map<String, List<StockFinancialData>> grouped = new HashMap<>();
+        TreeSet<LocalDate> reportDates = new TreeSet<>();
+        for (StockFinancialData row : financialHistory) {
+            grouped.computeIfAbsent(row.getStockCode(), k -> new ArrayList<>()).add(row);
+            reportDates.add(row.getReportDate());
+        }
+        Map<String, StockFinancialData[]> history = new HashMap<>(grouped.size() * 2);
+        for (Map.Entry<String, List<StockFinancialData>> entry : grouped.entrySet()) {
+            history.put(entry.getKey(), entry.getValue().toArray(new StockFinancialData[0]));
+        }
+
+        return new BacktestData(tradeDates.toArray(new LocalDate[0]), stockIndex, closes, history,
+                reportDates.toArray(new LocalDate[0]), reportLagDays);
+    }
+
+    int days() {
+        return tradeDates.length;
+    }
+
+    int stocks() {
+        return closes.length;
+    }
+
+    LocalDate date(int day) {
+        return tradeDates[day];
+    }
+
+    /**
+     * 종가 (상장 전이면 NaN)
+     */
+    double close(int stock, int day) {
+        return closes[stock][day];
+    }
+
+    /**
+     * 가격 행렬의 종목 인덱스 (가격이 없는 종목이면 -1)
+     */
+    int indexOf(String stockCode) {
+        Integer index = stockIndex.get(stockCode);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * 거래일 시점에 알 수 있었던 재무 스냅샷
+     * - 기준일 + reportLagDays가 거래일 이전인 데이터만 사용 (미래 데이터 참조 방지)
+     * - 종목별 최신 1건 + 순이익이 있는 최근 2건으로 스크리너와 같은 방식으로 구성
+     */
+    FinancialColumns columnsAt(int day) {
+        LocalDate cutoff = tradeDates[day].minusDays(reportLagDays);
+        List<StockFinancialData> latest = new ArrayList<>(history.size());
+        List<StockFinancialData> lastTwoWithIncome = new ArrayList<>(history.size() * 2);
+
+        for (StockFinancialData[] rows : history.values()) {
+            int last = lastOnOrBefore(rows, cutoff);
+            if (last < 0) {
+                continue;
+            }
+            latest.add(rows[last]);
+            int withIncome = 0;
+            for (int i = last; i >= 0 && withIncome < 2; i--) {
+                if (rows[i].getNetIncome() != null) {
+                    lastTwoWithIncome.add(rows[i]);
+                    withIncome++;
+                }
+            }
+        }
+        return FinancialColumns.of(latest, lastTwoWithIncome, "backtest@" + cutoff);
+    }
+
+    /**
+     * 거래일 시점에 사용 가능한 재무 데이터 기준일 개수
+     * - 값이 같은 거래일끼리는 columnsAt 결과가 같으므로 스냅샷 재사용 키로 사용
+     */
+    int snapshotKey(int day) {
+        LocalDate cutoff = tradeDates[day].minusDays(reportLagDays);
+        int low = 0;
+        int high = reportDates.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (reportDates[mid].isAfter(cutoff)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 기준일이 cutoff 이하인 마지막 행 (없으면 -1)
+     */
+    private static int lastOnOrBefore(StockFinancialData[] rows, LocalDate cutoff) {
+        int low = 0;
+        int high = rows.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (rows[mid].getReportDate().isAfter(cutoff)) {
+                high = mid - 1;
+            } else {
+                found = mid;
+                low = mid + 1;
+            }
+        }
+        return found;
+    }
+}
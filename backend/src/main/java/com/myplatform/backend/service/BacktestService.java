@@ -0,0 +1,434 @@
+package com.myplatform.backend.service;
+
+import com.myplatform.backend.dto.BacktestRequest;
+import com.myplatform.backend.dto.BacktestResultDto;
+import com.myplatform.backend.entity.StockFinancialData;
+import com.myplatform.backend.repository.StockFinancialDataRepository;
+import com.myplatform.backend.repository.StockShortDataRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * 퀀트 스크리너 전략 백테스트
+ * - 리밸런싱일마다 그 시점에 알 수 있었던 재무 데이터(기준일 + 공시 지연)로 스크리너를 다시 실행
+ * - 선택 종목을 동일 비중으로 보유, 일별 종가(stock_short_data)로 평가
+ * - 누적/연환산 수익률, 최대 낙폭, 변동성, 샤프 지수, 회전율 계산
+ *
+ * 파라미터 스윕은 두 단계로 병렬 실행 (전용 ForkJoinPool)
+ * 1. 리밸런싱일별: 시점 스냅샷을 한 번만 만들고 그 날짜를 쓰는 모든 조합의 종목 선택
+ * 2. 조합별: 선택 결과로 일별 포트폴리오 시뮬레이션
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BacktestService {
+
+    public static final String MAGIC_FORMULA = "MAGIC_FORMULA";
+    public static final String LOW_PEG = "LOW_PEG";
+    public static final String TURNAROUND = "TURNAROUND";
+    private static final List<String> STRATEGIES = List.of(MAGIC_FORMULA, LOW_PEG, TURNAROUND);
+
+    private static final int MAX_COMBINATIONS = 500;
+    private static final int TRADING_DAYS_PER_YEAR = 252;
+    private static final double INITIAL_NAV = 1.0;
+    private static final int DEFAULT_REPORT_LAG_DAYS = 45;
+    private static final BigDecimal DEFAULT_COST_BPS = new BigDecimal("25");
+    private static final BigDecimal DEFAULT_MAX_PEG = new BigDecimal("1.0");
+    private static final BigDecimal DEFAULT_MIN_EPS_GROWTH = new BigDecimal("10.0");
+
+    private final StockFinancialDataRepository stockFinancialDataRepository;
+    private final StockShortDataRepository stockShortDataRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // 스윕 전용 풀 (공용 ForkJoinPool을 다른 병렬 스트림과 나눠 쓰지 않도록 분리)
+    private final ForkJoinPool sweepPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    @PreDestroy
+    void shutdown() {
+        sweepPool.shutdownNow();
+    }
+
+    /**
+     * 파라미터 스윕 실행
+     *
+     * @return 조합별 결과 (요청 파라미터 조합 순서)
+     * @throws IllegalArgumentException 잘못된 조건, 조합 수 초과, 기간 내 가격 데이터 부족
+     */
+    public List<BacktestResultDto> run(BacktestRequest request) {
+        LocalDate endDate = request.getEndDate() != null ? request.getEndDate() : LocalDate.now();
+        LocalDate startDate = request.getStartDate() != null ? request.getStartDate() : endDate.minusYears(5);
+        if (!startDate.isBefore(endDate)) {
+            throw new IllegalArgumentException("시작일은 종료일보다 이전이어야 합니다.");
+        }
+        int reportLagDays = request.getReportLagDays() != null ? request.getReportLagDays() : DEFAULT_REPORT_LAG_DAYS;
+        if (reportLagDays < 0) {
+            throw new IllegalArgumentException("공시 지연 일수는 0 이상이어야 합니다.");
+        }
+        BigDecimal costBps = request.getTransactionCostBps() != null ? request.getTransactionCostBps() : DEFAULT_COST_BPS;
+        if (costBps.signum() < 0) {
+            throw new IllegalArgumentException("매매 비용은 0 이상이어야 합니다.");
+        }
+
+        List<Params> combinations = combinations(request);
+        long start = System.currentTimeMillis();
+        BacktestData data = load(startDate, endDate, reportLagDays);
+        if (data.days() < 2) {
+            throw new IllegalArgumentException("기간 내 가격 데이터가 부족합니다: " + startDate + " ~ " + endDate);
+        }
+        long loaded = System.currentTimeMillis();
+
+        int[][][] selections = new int[combinations.size()][][];
+        for (int p = 0; p < combinations.size(); p++) {
+            selections[p] = new int[rebalanceCount(data.days(), combinations.get(p).rebalanceDays)][];
+        }
+        double costRate = costBps.doubleValue() / 10_000;
+
+        List<BacktestResultDto> results = inSweepPool(() -> {
+            // 1단계: 리밸런싱일별 스냅샷 1회 생성 → 해당 날짜를 쓰는 조합의 종목 선택
+            IntStream.range(0, data.days() - 1).parallel().forEach(day -> {
+                FinancialColumns columns = null;
+                for (int p = 0; p < combinations.size(); p++) {
+                    Params params = combinations.get(p);
+                    if (day % params.rebalanceDays != 0) {
+                        continue;
+                    }
+                    if (columns == null) {
+                        columns = data.columnsAt(day);
+                    }
+                    selections[p][day / params.rebalanceDays] = select(data, columns, day, params);
+                }
+            });
+
+            // 2단계: 조합별 시뮬레이션
+            return IntStream.range(0, combinations.size()).parallel()
+                    .mapToObj(p -> simulate(data, combinations.get(p), selections[p], costRate))
+                    .collect(Collectors.toList());
+        });
+
+        log.info("백테스트 완료 - {}개 조합, {}거래일 × {}종목, 데이터 로드 {}ms, 계산 {}ms",
+                combinations.size(), data.days(), data.stocks(),
+                loaded - start, System.currentTimeMillis() - loaded);
+        return results;
+    }
+
+    // ========== 파라미터 조합 ==========
+
+    private List<Params> combinations(BacktestRequest request) {
+        List<String> strategies = orDefault(request.getStrategies(), STRATEGIES);
+        List<Integer> topNs = orDefault(request.getTopN(), List.of(10, 20, 30));
+        List<Integer> rebalanceDays = orDefault(request.getRebalanceDays(), List.of(20, 60));
+        List<BigDecimal> minMarketCaps = orDefault(request.getMinMarketCap(), Collections.singletonList(null));
+        List<BigDecimal> maxPegs = orDefault(request.getMaxPeg(), List.of(DEFAULT_MAX_PEG));
+        List<BigDecimal> minEpsGrowths = orDefault(request.getMinEpsGrowth(), List.of(DEFAULT_MIN_EPS_GROWTH));
+
+        // 목록을 펼치기 전에 조합 수 확인 (큰 목록으로 조합 객체를 만들며 메모리를 쓰지 않도록)
+        long total = 0;
+        for (String strategy : new LinkedHashSet<>(strategies)) {
+            long perStrategy = MAGIC_FORMULA.equals(strategy) ? minMarketCaps.size()
+                    : LOW_PEG.equals(strategy) ? (long) maxPegs.size() * minEpsGrowths.size() : 1;
+            total += (long) topNs.size() * rebalanceDays.size() * perStrategy;
+        }
+        if (total > MAX_COMBINATIONS) {
+            throw new IllegalArgumentException(
+                    "파라미터 조합이 너무 많습니다: " + total + "개 (최대 " + MAX_COMBINATIONS + "개)");
+        }
+
+        for (String strategy : strategies) {
+            if (strategy == null || !STRATEGIES.contains(strategy)) {
+                throw new IllegalArgumentException("지원하지 않는 전략입니다: " + strategy + " (지원: " + STRATEGIES + ")");
+            }
+        }
+        for (Integer topN : topNs) {
+            if (topN == null || topN <= 0) {
+                throw new IllegalArgumentException("보유 종목 수는 1 이상이어야 합니다.");
+            }
+        }
+        for (Integer days : rebalanceDays) {
+            if (days == null || days <= 0) {
+                throw new IllegalArgumentException("리밸런싱 주기는 1 거래일 이상이어야 합니다.");
+            }
+        }
+        if (maxPegs.stream().anyMatch(Objects::isNull) || minEpsGrowths.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("PEG 조건 값은 비워 둘 수 없습니다.");
+        }
+
+        // 전략에 해당하는 조건만 조합 (다른 전략의 조건으로 중복 실행하지 않음)
+        List<Params> combinations = new ArrayList<>();
+        for (String strategy : new LinkedHashSet<>(strategies)) {
+            for (Integer topN : topNs) {
+                for (Integer days : rebalanceDays) {
+                    switch (strategy) {
+                        case MAGIC_FORMULA:
+                            for (BigDecimal minMarketCap : minMarketCaps) {
+                                combinations.add(new Params(strategy, topN, days, minMarketCap, null, null));
+                            }
+                            break;
+                        case LOW_PEG:
+                            for (BigDecimal maxPeg : maxPegs) {
+                                for (BigDecimal minEpsGrowth : minEpsGrowths) {
+                                    combinations.add(new Params(strategy, topN, days, null, maxPeg, minEpsGrowth));
+                                }
+                            }
+                            break;
+                        default:
+                            combinations.add(new Params(strategy, topN, days, null, null, null));
+                    }
+                }
+            }
+        }
+        return combinations;
+    }
+
+    private static <T> List<T> orDefault(List<T> values, List<T> defaults) {
+        return values == null || values.isEmpty() ? defaults : values;
+    }
+
+    // ========== 데이터 로드 ==========
+
+    /**
+     * 가격 행렬 + 재무 이력 로드 (종가는 스트리밍으로 읽어 바로 배열에 기록)
+     */
+    BacktestData load(LocalDate startDate, LocalDate endDate, int reportLagDays) {
+        return transactionTemplate.execute(status -> {
+            List<LocalDate> tradeDates = new ArrayList<>(
+                    stockShortDataRepository.findDistinctTradeDatesBetween(startDate, endDate));
+            Collections.sort(tradeDates);
+            Map<LocalDate, Integer> dayIndex = new HashMap<>(tradeDates.size() * 2);
+            for (int d = 0; d < tradeDates.size(); d++) {
+                dayIndex.put(tradeDates.get(d), d);
+            }
+
+            Map<String, double[]> closeByStock = new HashMap<>();
+            try (Stream<Object[]> rows = stockShortDataRepository.streamClosePrices(startDate, endDate)) {
+                rows.forEach(row -> {
+                    double[] series = closeByStock.computeIfAbsent((String) row[0], k -> {
+                        double[] empty = new double[tradeDates.size()];
+                        Arrays.fill(empty, Double.NaN);
+                        return empty;
+                    });
+                    double close = ((BigDecimal) row[2]).doubleValue();
+                    if (close > 0) {
+                        series[dayIndex.get((LocalDate) row[1])] = close;
+                    }
+                });
+            }
+
+            List<StockFinancialData> history = stockFinancialDataRepository.findHistoryUntil(endDate);
+            return BacktestData.of(tradeDates, closeByStock, history, reportLagDays);
+        });
+    }
+
+    // ========== 종목 선택 ==========
+
+    /**
+     * 리밸런싱일 종목 선택 (QuantScreenerService와 같은 규칙, 당일 종가가 없는 종목 제외)
+     *
+     * @return 가격 행렬의 종목 인덱스
+     */
+    private static int[] select(BacktestData data, FinancialColumns columns, int day, Params params) {
+        List<StockFinancialData> picked = new ArrayList<>();
+        switch (params.strategy) {
+            case MAGIC_FORMULA:
+                for (FinancialColumns.MagicFormulaHit hit : columns.magicFormula(params.minMarketCap, params.topN)) {
+                    picked.add(hit.getStock());
+                }
+                break;
+            case LOW_PEG:
+                picked = columns.lowPeg(params.maxPeg, params.minEpsGrowth, params.topN);
+                if (picked.isEmpty()) {
+                    picked = columns.lowPegByProfitGrowth(params.maxPeg, params.minEpsGrowth, params.topN);
+                }
+                break;
+            default:
+                for (FinancialColumns.TurnaroundHit hit : columns.turnaround(data.date(day).minusMonths(12), params.topN)) {
+                    picked.add(hit.getCurrent());
+                }
+                if (picked.isEmpty()) {
+                    picked = columns.highProfitGrowth(params.topN);
+                }
+        }
+
+        int[] stocks = new int[picked.size()];
+        int count = 0;
+        for (StockFinancialData stock : picked) {
+            int index = data.indexOf(stock.getStockCode());
+            if (index >= 0 && !Double.isNaN(data.close(index, day))) {
+                stocks[count++] = index;
+            }
+        }
+        return Arrays.copyOf(stocks, count);
+    }
+
+    // ========== 시뮬레이션 ==========
+
+    /**
+     * 동일 비중 포트폴리오 일별 평가
+     * - 리밸런싱일 종가에 목표 비중으로 교체 (매매 비용 = 거래대금 × costRate)
+     * - 선택 종목이 없으면 현금 보유
+     */
+    private static BacktestResultDto simulate(BacktestData data, Params params, int[][] selections, double costRate) {
+        int days = data.days();
+        double[] nav = new double[days];
+        double[] weightScratch = new double[data.stocks()];
+
+        int[] held = new int[0];
+        double[] value = new double[0];
+        double cash = INITIAL_NAV;
+        double turnoverSum = 0;
+        long holdingsSum = 0;
+
+        for (int d = 0; d < days; d++) {
+            double total = cash;
+            for (int k = 0; k < held.length; k++) {
+                if (d > 0) {
+                    double previous = data.close(held[k], d - 1);
+                    double current = data.close(held[k], d);
+                    if (previous > 0 && current > 0) {
+                        value[k] *= current / previous;
+                    }
+                }
+                total += value[k];
+            }
+
+            if (d % params.rebalanceDays == 0 && d < days - 1) {
+                int[] target = selections[d / params.rebalanceDays];
+                double targetValue = target.length > 0 ? total / target.length : 0;
+
+                // 거래대금 = Σ|목표 금액 - 현재 금액|
+                for (int k = 0; k < held.length; k++) {
+                    weightScratch[held[k]] += value[k];
+                }
+                double traded = 0;
+                for (int s : target) {
+                    traded += Math.abs(targetValue - weightScratch[s]);
+                    weightScratch[s] = 0;
+                }
+                for (int k = 0; k < held.length; k++) {
+                    traded += weightScratch[held[k]];
+                    weightScratch[held[k]] = 0;
+                }
+
+                total -= traded * costRate;
+                turnoverSum += total > 0 ? traded / 2 / total : 0;
+                holdingsSum += target.length;
+
+                held = target;
+                value = new double[target.length];
+                Arrays.fill(value, target.length > 0 ? total / target.length : 0);
+                cash = target.length > 0 ? 0 : total;
+            }
+            nav[d] = total;
+        }
+
+        int rebalances = selections.length;
+        double years = ChronoUnit.DAYS.between(data.date(0), data.date(days - 1)) / 365.25;
+        // 수익률/낙폭 기준은 첫 리밸런싱 비용을 치르기 전 원금 1.0 (nav[0]은 이미 첫 매수 비용이 빠진 값)
+        double totalReturn = nav[days - 1] / INITIAL_NAV - 1;
+
+        double peak = INITIAL_NAV;
+        double maxDrawdown = 0;
+        double sum = 0;
+        double sumSquares = 0;
+        for (int d = 0; d < days; d++) {
+            peak = Math.max(peak, nav[d]);
+            maxDrawdown = Math.max(maxDrawdown, 1 - nav[d] / peak);
+            if (d == 0) {
+                continue;
+            }
+            double r = nav[d] / nav[d - 1] - 1;
+            sum += r;
+            sumSquares += r * r;
+        }
+        int n = days - 1;
+        double mean = sum / n;
+        double variance = n > 1 ? (sumSquares - n * mean * mean) / (n - 1) : 0;
+        double volatility = Math.sqrt(Math.max(variance, 0) * TRADING_DAYS_PER_YEAR);
+
+        return BacktestResultDto.builder()
+                .strategy(params.strategy)
+                .topN(params.topN)
+                .rebalanceDays(params.rebalanceDays)
+                .minMarketCap(params.minMarketCap)
+                .maxPeg(params.maxPeg)
+                .minEpsGrowth(params.minEpsGrowth)
+                .startDate(data.date(0))
+                .endDate(data.date(days - 1))
+                .tradingDays(days)
+                .totalReturn(percent(totalReturn))
+                .cagr(years > 0 ? percent(Math.pow(1 + totalReturn, 1 / years) - 1) : null)
+                .maxDrawdown(percent(maxDrawdown))
+                .volatility(percent(volatility))
+                .sharpeRatio(volatility > 0 ? round(mean * TRADING_DAYS_PER_YEAR / volatility) : null)
+                .rebalanceCount(rebalances)
+                .averageTurnover(rebalances > 0 ? percent(turnoverSum / rebalances) : null)
+                .averageHoldings(rebalances > 0 ? round((double) holdingsSum / rebalances) : null)
+                .build();
+    }
+
+    private static int rebalanceCount(int days, int rebalanceDays) {
+        return (days - 2) / rebalanceDays + 1;
+    }
+
+    private static BigDecimal percent(double ratio) {
+        return round(ratio * 100);
+    }
+
+    private static BigDecimal round(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return null;
+        }
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    <T> T inSweepPool(Callable<T> task) {
+        try {
+            return sweepPool.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("백테스트가 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("백테스트 실행 실패", cause);
+        }
+    }
+
+    /**
+     * 파라미터 조합 1건
+     */
+    private static final class Params {
+        private final String strategy;
+        private final int topN;
+        private final int rebalanceDays;
+        private final BigDecimal minMarketCap;
+        private final BigDecimal maxPeg;
+        private final BigDecimal minEpsGrowth;
+
+        private Params(String strategy, int topN, int rebalanceDays, BigDecimal minMarketCap,
+                       BigDecimal maxPeg, BigDecimal minEpsGrowth) {
+            this.strategy = strategy;
+            this.topN = topN;
+            this.rebalanceDays = rebalanceDays;
+            this.minMarketCap = minMarketCap;
+            this.maxPeg = maxPeg;
+            this.minEpsGrowth = minEpsGrowth;
+        }
+    }
+}
@@ -0,0 +1,402 @@
+package com.myplatform.backend.service;
+
+import com.myplatform.backend.dto.InvestorSurgeDto;
+import com.myplatform.backend.dto.PaperTradingDto.BotSimulationRequestDto;
+import com.myplatform.backend.dto.PaperTradingDto.BotSimulationResultDto;
+import com.myplatform.backend.entity.InvestorDailyTrade;
+import com.myplatform.backend.entity.VirtualPortfolio;
+import com.myplatform.backend.repository.InvestorDailyTradeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 자동매매 봇 시뮬레이션
+ * - 실거래 봇과 같은 매매 규칙(BotStrategy)과 손절/익절 트리거(ExitTriggerIndex)를 과거 데이터로 재생
+ * - 시계는 거래일 단위: 매일 종가로 손절/익절 확인 → 마법의 공식 후보 + 수급 신호로 매수
+ * - 계좌는 메모리 원장 (VirtualTradeService와 같은 수수료/세율), DB에 기록하지 않음
+ * - 입력이 같으면 결과가 항상 같음 (난수/현재 시각 미사용)
+ *
+ * 과거 데이터 제약
+ * - 분봉은 저장되지 않으므로 일별 종가(stock_short_data)로 체결/평가
+ * - 장중 수급(InvestorSurgeService) 대신 직전 거래일 외국인/기관 순매수 상위 종목(investor_daily_trade) 사용
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BotSimulationService {
+
+    private static final int MAX_COMBINATIONS = 500;
+    private static final int DEFAULT_REPORT_LAG_DAYS = 45;
+    private static final BigDecimal DEFAULT_INITIAL_BALANCE = new BigDecimal("10000000");
+    private static final List<String> FLOW_INVESTORS = List.of("FOREIGN", "INSTITUTION");
+    private static final int MAX_FLOW_AGE_DAYS = 7;  // 이보다 오래된 수급 데이터만 있으면 수급 데이터 없음으로 처리
+
+    private final BacktestService backtestService;
+    private final InvestorDailyTradeRepository investorDailyTradeRepository;
+
+    /**
+     * 파라미터 조합별 시뮬레이션
+     *
+     * @return 조합별 결과 (요청 파라미터 조합 순서)
+     * @throws IllegalArgumentException 잘못된 조건, 조합 수 초과, 기간 내 가격 데이터 부족
+     */
+    public List<BotSimulationResultDto> run(BotSimulationRequestDto request) {
+        LocalDate endDate = request.getEndDate() != null ? request.getEndDate() : LocalDate.now();
+        LocalDate startDate = request.getStartDate() != null ? request.getStartDate() : endDate.minusYears(1);
+        if (!startDate.isBefore(endDate)) {
+            throw new IllegalArgumentException("시작일은 종료일보다 이전이어야 합니다.");
+        }
+        BigDecimal initialBalance = request.getInitialBalance() != null
+                ? request.getInitialBalance() : DEFAULT_INITIAL_BALANCE;
+        if (initialBalance.signum() <= 0) {
+            throw new IllegalArgumentException("초기 자본은 0보다 커야 합니다.");
+        }
+        int reportLagDays = request.getReportLagDays() != null ? request.getReportLagDays() : DEFAULT_REPORT_LAG_DAYS;
+        if (reportLagDays < 0) {
+            throw new IllegalArgumentException("공시 지연 일수는 0 이상이어야 합니다.");
+        }
+
+        List<BotStrategy> strategies = combinations(request);
+        long start = System.currentTimeMillis();
+        BacktestData data = backtestService.load(startDate, endDate, reportLagDays);
+        if (data.days() < 2) {
+            throw new IllegalArgumentException("기간 내 가격 데이터가 부족합니다: " + startDate + " ~ " + endDate);
+        }
+        List<Map<String, List<InvestorSurgeDto>>> flows = loadFlows(data);
+        long loaded = System.currentTimeMillis();
+
+        int maxCandidates = strategies.stream().mapToInt(BotStrategy::getCandidateCount).max().orElse(0);
+        List<List<String>> candidates = backtestService.inSweepPool(() -> candidates(data, maxCandidates));
+        List<BotSimulationResultDto> results = backtestService.inSweepPool(() -> strategies.parallelStream()
+                .map(strategy -> simulate(data, strategy, candidates, flows, initialBalance))
+                .collect(Collectors.toList()));
+
+        log.info("봇 시뮬레이션 완료 - {}개 조합, {}거래일, 데이터 로드 {}ms, 계산 {}ms",
+                strategies.size(), data.days(), loaded - start, System.currentTimeMillis() - loaded);
+        return results;
+    }
+
+    // ========== 파라미터 조합 ==========
+
+    private List<BotStrategy> combinations(BotSimulationRequestDto request) {
+        BotStrategy defaults = BotStrategy.DEFAULT;
+        List<BigDecimal> stopLossRates = orDefault(request.getStopLossRates(), defaults.getStopLossRate());
+        List<BigDecimal> takeProfitRates = orDefault(request.getTakeProfitRates(), defaults.getTakeProfitRate());
+        List<BigDecimal> ratios = orDefault(request.getMaxInvestmentRatios(), defaults.getMaxInvestmentRatio());
+        List<Integer> maxBuys = orDefault(request.getMaxBuysPerDay(), defaults.getMaxBuysPerDay());
+        List<Integer> candidateCounts = orDefault(request.getCandidateCounts(), defaults.getCandidateCount());
+
+        for (BigDecimal rate : stopLossRates) {
+            if (rate == null || rate.signum() >= 0 || rate.compareTo(new BigDecimal("-100")) <= 0) {
+                throw new IllegalArgumentException("손절 기준은 -100% ~ 0% 사이여야 합니다: " + rate);
+            }
+        }
+        for (BigDecimal rate : takeProfitRates) {
+            if (rate == null || rate.signum() <= 0) {
+                throw new IllegalArgumentException("익절 기준은 0%보다 커야 합니다: " + rate);
+            }
+        }
+        for (BigDecimal ratio : ratios) {
+            if (ratio == null || ratio.signum() <= 0 || ratio.compareTo(BigDecimal.ONE) > 0) {
+                throw new IllegalArgumentException("종목당 최대 비중은 0 ~ 1 사이여야 합니다: " + ratio);
+            }
+        }
+        for (Integer count : maxBuys) {
+            if (count == null || count <= 0) {
+                throw new IllegalArgumentException("하루 최대 매수 종목 수는 1 이상이어야 합니다.");
+            }
+        }
+        for (Integer count : candidateCounts) {
+            if (count == null || count <= 0) {
+                throw new IllegalArgumentException("후보 종목 수는 1 이상이어야 합니다.");
+            }
+        }
+
+        long total = (long) stopLossRates.size() * takeProfitRates.size() * ratios.size()
+                * maxBuys.size() * candidateCounts.size();
+        if (total > MAX_COMBINATIONS) {
+            throw new IllegalArgumentException(
+                    "파라미터 조합이 너무 많습니다: " + total + "개 (최대 " + MAX_COMBINATIONS + "개)");
+        }
+
+        List<BotStrategy> strategies = new ArrayList<>();
+        for (BigDecimal stopLoss : stopLossRates) {
+            for (BigDecimal takeProfit : takeProfitRates) {
+                for (BigDecimal ratio : ratios) {
+                    for (Integer buys : maxBuys) {
+                        for (Integer count : candidateCounts) {
+                            strategies.add(new BotStrategy(stopLoss, takeProfit, ratio, buys, count,
+                                    defaults.getMinCash()));
+                        }
+                    }
+                }
+            }
+        }
+        return strategies;
+    }
+
+    private static <T> List<T> orDefault(List<T> values, T defaultValue) {
+        return values == null || values.isEmpty() ? List.of(defaultValue) : values;
+    }
+
+    // ========== 입력 데이터 ==========
+
+    /**
+     * 거래일별 수급 신호 (직전 거래일 외국인/기관 순매수 상위 종목, 실거래 봇의 getAllSurgeStocks 결과 형태)
+     * - 해당 날짜에 쓸 수급 데이터가 없으면 null (실거래 봇에서 수급 조회가 실패한 경우와 같이 통과)
+     */
+    private List<Map<String, List<InvestorSurgeDto>>> loadFlows(BacktestData data) {
+        LocalDate from = data.date(0).minusDays(MAX_FLOW_AGE_DAYS);
+        LocalDate to = data.date(data.days() - 1);
+
+        TreeMap<LocalDate, Map<String, List<InvestorSurgeDto>>> byDate = new TreeMap<>();
+        for (String investorType : FLOW_INVESTORS) {
+            for (InvestorDailyTrade trade :
+                    investorDailyTradeRepository.findBuyTradesForConsecutiveAnalysis(investorType, from, to)) {
+                byDate.computeIfAbsent(trade.getTradeDate(), k -> {
+                            Map<String, List<InvestorSurgeDto>> empty = new HashMap<>();
+                            for (String type : FLOW_INVESTORS) {
+                                empty.put(type, new ArrayList<>());
+                            }
+                            return empty;
+                        })
+                        .get(investorType)
+                        .add(InvestorSurgeDto.builder()
+                                .stockCode(trade.getStockCode())
+                                .stockName(trade.getStockName())
+                                .investorType(investorType)
+                                .netBuyAmount(trade.getNetBuyAmount())
+                                .build());
+            }
+        }
+
+        List<Map<String, List<InvestorSurgeDto>>> flows = new ArrayList<>(data.days());
+        for (int d = 0; d < data.days(); d++) {
+            LocalDate date = data.date(d);
+            Map.Entry<LocalDate, Map<String, List<InvestorSurgeDto>>> previous = byDate.lowerEntry(date);
+            boolean usable = previous != null && !previous.getKey().isBefore(date.minusDays(MAX_FLOW_AGE_DAYS));
+            flows.add(usable ? previous.getValue() : null);
+        }
+        return flows;
+    }
+
+    /**
+     * 거래일별 마법의 공식 후보 (재무 스냅샷이 같은 거래일끼리 1회만 계산)
+     */
+    private static List<List<String>> candidates(BacktestData data, int limit) {
+        Map<Integer, Integer> firstDayByKey = new LinkedHashMap<>();
+        int[] keys = new int[data.days()];
+        for (int d = 0; d < data.days(); d++) {
+            keys[d] = data.snapshotKey(d);
+            firstDayByKey.putIfAbsent(keys[d], d);
+        }
+
+        Map<Integer, List<String>> picksByKey = firstDayByKey.entrySet().parallelStream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> {
+                    List<String> codes = new ArrayList<>(limit);
+                    for (FinancialColumns.MagicFormulaHit hit :
+                            data.columnsAt(entry.getValue()).magicFormula(null, limit)) {
+                        codes.add(hit.getStock().getStockCode());
+                    }
+                    return codes;
+                }));
+
+        List<List<String>> candidates = new ArrayList<>(data.days());
+        for (int d = 0; d < data.days(); d++) {
+            candidates.add(picksByKey.get(keys[d]));
+        }
+        return candidates;
+    }
+
+    // ========== 시뮬레이션 ==========
+
+    /**
+     * 조합 1건 시뮬레이션 (AutoTradingBotService.executeBuyLogic / 손절·익절 체크와 같은 순서와 규칙)
+     */
+    static BotSimulationResultDto simulate(BacktestData data, BotStrategy strategy,
+                                           List<List<String>> candidates,
+                                           List<Map<String, List<InvestorSurgeDto>>> flows,
+                                           BigDecimal initialBalance) {
+        int days = data.days();
+        Ledger ledger = new Ledger(initialBalance);
+        ExitTriggerIndex exits = strategy.newExitIndex();
+        double peak = initialBalance.doubleValue();
+        double maxDrawdown = 0;
+
+        for (int d = 0; d < days; d++) {
+            // 1. 손절/익절 (당일 종가)
+            for (String stockCode : new ArrayList<>(exits.symbols())) {
+                BigDecimal price = price(data, stockCode, d);
+                for (ExitTriggerIndex.Trigger trigger : exits.onPrice(stockCode, price)) {
+                    ledger.sell(stockCode, trigger.getPrice(), trigger.getReason());
+                    // 매도가 바로 끝나므로 청산 완료 표시 (재매수한 포지션을 다시 등록할 수 있도록)
+                    exits.release(stockCode);
+                }
+            }
+
+            // 2. 매수
+            BigDecimal totalAsset = ledger.cash.add(BigDecimal.valueOf(ledger.evaluation(data, d)));
+            BigDecimal maxPerStock = strategy.maxPerStock(totalAsset);
+            List<String> picks = candidates.get(d);
+            int buyCount = 0;
+            for (int k = 0; k < Math.min(strategy.getCandidateCount(), picks.size()); k++) {
+                String stockCode = picks.get(k);
+                if (!strategy.canBuy(ledger.cash)) {
+                    break;
+                }
+                if (ledger.positions.containsKey(stockCode)
+                        || !strategy.hasSurgeSignal(stockCode, flows.get(d))) {
+                    continue;
+                }
+                BigDecimal price = price(data, stockCode, d);
+                if (price == null || price.signum() <= 0) {
+                    continue;
+                }
+                int quantity = strategy.quantity(ledger.cash, maxPerStock, price);
+                if (quantity <= 0 || !ledger.buy(stockCode, price, quantity)) {
+                    continue;
+                }
+                exits.replace(stockCode, List.of(ledger.positions.get(stockCode)));
+                if (++buyCount >= strategy.getMaxBuysPerDay()) {
+                    break;
+                }
+            }
+
+            double nav = ledger.cash.doubleValue() + ledger.evaluation(data, d);
+            peak = Math.max(peak, nav);
+            maxDrawdown = Math.max(maxDrawdown, 1 - nav / peak);
+        }
+
+        BigDecimal finalValue = ledger.cash.add(BigDecimal.valueOf(ledger.evaluation(data, days - 1)))
+                .setScale(0, RoundingMode.HALF_UP);
+        BigDecimal totalProfitLoss = finalValue.subtract(initialBalance);
+        int closed = ledger.sellCount;
+
+        return BotSimulationResultDto.builder()
+                .stopLossRate(strategy.getStopLossRate())
+                .takeProfitRate(strategy.getTakeProfitRate())
+                .maxInvestmentRatio(strategy.getMaxInvestmentRatio())
+                .maxBuysPerDay(strategy.getMaxBuysPerDay())
+                .candidateCount(strategy.getCandidateCount())
+                .startDate(data.date(0))
+                .endDate(data.date(days - 1))
+                .tradingDays(days)
+                .initialBalance(initialBalance)
+                .finalValue(finalValue)
+                .totalProfitLoss(totalProfitLoss)
+                .totalReturn(totalProfitLoss.multiply(new BigDecimal("100"))
+                        .divide(initialBalance, 2, RoundingMode.HALF_UP))
+                .realizedProfitLoss(ledger.realizedProfitLoss)
+                .maxDrawdown(BigDecimal.valueOf(maxDrawdown * 100).setScale(2, RoundingMode.HALF_UP))
+                .buyCount(ledger.buyCount)
+                .sellCount(ledger.sellCount)
+                .stopLossCount(ledger.stopLossCount)
+                .takeProfitCount(ledger.takeProfitCount)
+                .winCount(ledger.winCount)
+                .winRate(closed > 0
+                        ? BigDecimal.valueOf(ledger.winCount * 100.0 / closed).setScale(2, RoundingMode.HALF_UP)
+                        : null)
+                .openPositions(ledger.positions.size())
+                .build();
+    }
+
+    /**
+     * 종가 (가격이 없으면 null)
+     */
+    private static BigDecimal price(BacktestData data, String stockCode, int day) {
+        int index = data.indexOf(stockCode);
+        if (index < 0) {
+            return null;
+        }
+        double close = data.close(index, day);
+        return Double.isNaN(close) ? null : BigDecimal.valueOf(close);
+    }
+
+    /**
+     * 메모리 원장 (VirtualTradeService.buy/sell과 같은 수수료/세금 계산, 조합마다 독립)
+     */
+    private static final class Ledger {
+        private BigDecimal cash;
+        private final Map<String, VirtualPortfolio> positions = new LinkedHashMap<>();
+        private BigDecimal realizedProfitLoss = BigDecimal.ZERO;
+        private int buyCount;
+        private int sellCount;
+        private int winCount;
+        private int stopLossCount;
+        private int takeProfitCount;
+
+        private Ledger(BigDecimal initialBalance) {
+            this.cash = initialBalance;
+        }
+
+        /**
+         * @return 잔액 부족이면 false (실거래에서는 예외 후 다음 후보로 진행)
+         */
+        private boolean buy(String stockCode, BigDecimal price, int quantity) {
+            BigDecimal totalAmount = price.multiply(BigDecimal.valueOf(quantity));
+            BigDecimal commission = totalAmount.multiply(VirtualTradeService.COMMISSION_RATE)
+                    .setScale(0, RoundingMode.CEILING);
+            BigDecimal requiredAmount = totalAmount.add(commission);
+            if (cash.compareTo(requiredAmount) < 0) {
+                return false;
+            }
+            cash = cash.subtract(requiredAmount);
+            positions.put(stockCode, VirtualPortfolio.builder()
+                    .stockCode(stockCode)
+                    .stockName(stockCode)
+                    .quantity(quantity)
+                    .averagePrice(price)
+                    .currentPrice(price)
+                    .build());
+            buyCount++;
+            return true;
+        }
+
+        private void sell(String stockCode, BigDecimal price, String reason) {
+            VirtualPortfolio position = positions.remove(stockCode);
+            if (position == null) {
+                return;
+            }
+            BigDecimal quantity = BigDecimal.valueOf(position.getQuantity());
+            BigDecimal totalAmount = price.multiply(quantity);
+            BigDecimal commission = totalAmount.multiply(VirtualTradeService.COMMISSION_RATE)
+                    .setScale(0, RoundingMode.CEILING);
+            BigDecimal tax = totalAmount.multiply(VirtualTradeService.TAX_RATE).setScale(0, RoundingMode.CEILING);
+            BigDecimal netAmount = totalAmount.subtract(commission).subtract(tax);
+            BigDecimal profitLoss = netAmount.subtract(position.getAveragePrice().multiply(quantity));
+
+            cash = cash.add(netAmount);
+            realizedProfitLoss = realizedProfitLoss.add(profitLoss);
+            sellCount++;
+            if (profitLoss.signum() > 0) {
+                winCount++;
+            }
+            if (ExitTriggerIndex.STOP_LOSS.equals(reason)) {
+                stopLossCount++;
+            } else if (ExitTriggerIndex.TAKE_PROFIT.equals(reason)) {
+                takeProfitCount++;
+            }
+        }
+
+        /**
+         * 보유 종목 종가 평가금액
+         */
+        private double evaluation(BacktestData data, int day) {
+            double total = 0;
+            for (VirtualPortfolio position : positions.values()) {
+                int index = data.indexOf(position.getStockCode());
+                double close = index >= 0 ? data.close(index, day) : Double.NaN;
+                double price = Double.isNaN(close) ? position.getAveragePrice().doubleValue() : close;
+                total += price * position.getQuantity();
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.myplatform.backend.service;
+
+import com.myplatform.backend.dto.InvestorSurgeDto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 자동매매 봇 매매 규칙 (불변)
+ * - 실거래 봇(AutoTradingBotService)과 시뮬레이션(BotSimulationService)이 같은 규칙 코드를 사용
+ * - 매수: 마법의 공식 상위 candidateCount 종목 중 미보유 + 외국인/기관 순매수 종목, 하루 최대 maxBuysPerDay 종목
+ * - 매도: 평균 매입가 대비 손절/익절 기준 도달 시 전량 (ExitTriggerIndex)
+ */
+final class BotStrategy {
+
+    static final BotStrategy DEFAULT = new BotStrategy(
+            new BigDecimal("-3"),       // 손절 -3%
+            new BigDecimal("5"),        // 익절 +5%
+            new BigDecimal("0.2"),      // 종목당 최대 20%
+            3,                          // 하루 최대 3종목 매수
+            10,                         // 마법의 공식 상위 10종목 중 선택
+            new BigDecimal("100000"));  // 잔액 10만원 미만이면 매수 중단
+
+    private final BigDecimal stopLossRate;
+    private final BigDecimal takeProfitRate;
+    private final BigDecimal maxInvestmentRatio;
+    private final int maxBuysPerDay;
+    private final int candidateCount;
+    private final BigDecimal minCash;
+
+    BotStrategy(BigDecimal stopLossRate, BigDecimal takeProfitRate, BigDecimal maxInvestmentRatio,
+                int maxBuysPerDay, int candidateCount, BigDecimal minCash) {
+        this.stopLossRate = stopLossRate;
+        this.takeProfitRate = takeProfitRate;
+        this.maxInvestmentRatio = maxInvestmentRatio;
+        this.maxBuysPerDay = maxBuysPerDay;
+        this.candidateCount = candidateCount;
+        this.minCash = minCash;
+    }
+
+    BigDecimal getStopLossRate() {
+        return stopLossRate;
+    }
+
+    BigDecimal getTakeProfitRate() {
+        return takeProfitRate;
+    }
+
+    BigDecimal getMaxInvestmentRatio() {
+        return maxInvestmentRatio;
+    }
+
+    int getMaxBuysPerDay() {
+        return maxBuysPerDay;
+    }
+
+    int getCandidateCount() {
+        return candidateCount;
+    }
+
+    BigDecimal getMinCash() {
+        return minCash;
+    }
+
+    /**
+     * 이 규칙의 손절/익절 기준으로 트리거 인덱스 생성
+     */
+    ExitTriggerIndex newExitIndex() {
+        return new ExitTriggerIndex(stopLossRate, takeProfitRate);
+    }
+
+    /**
+     * 종목당 최대 투자금액
+     */
+    BigDecimal maxPerStock(BigDecimal totalAsset) {
+        return totalAsset.multiply(maxInvestmentRatio);
+    }
+
+    /**
+     * 매수를 계속할 만큼 잔액이 있는지
+     */
+    boolean canBuy(BigDecimal cash) {
+        return cash.compareTo(minCash) >= 0;
+    }
+
+    /**
+     * 매수 수량 (잔액과 종목당 최대 투자금액 중 작은 금액 내에서)
+     */
+    int quantity(BigDecimal cash, BigDecimal maxPerStock, BigDecimal price) {
+        BigDecimal investAmount = cash.compareTo(maxPerStock) < 0 ? cash : maxPerStock;
+        return investAmount.divide(price, 0, RoundingMode.DOWN).intValue();
+    }
+
+    /**
+     * 수급 신호 확인 (외국인 또는 기관 순매수, 수급 데이터가 없으면 통과)
+     */
+    boolean hasSurgeSignal(String stockCode, Map<String, List<InvestorSurgeDto>> surgeStocks) {
+        if (surgeStocks == null) {
+            return true;
+        }
+        return isNetBuying(stockCode, surgeStocks.get("FOREIGN"))
+                || isNetBuying(stockCode, surgeStocks.get("INSTITUTION"));
+    }
+
+    private static boolean isNetBuying(String stockCode, List<InvestorSurgeDto> stocks) {
+        if (stocks == null) {
+            return false;
+        }
+        return stocks.stream()
+                .anyMatch(s -> s.getStockCode().equals(stockCode) &&
+                               s.getNetBuyAmount() != null &&
+                               s.getNetBuyAmount().compareTo(BigDecimal.ZERO) > 0);
+    }
+
+    @Override
+    public String toString() {
+        return "BotStrategy{stopLoss=" + stopLossRate + "%, takeProfit=" + takeProfitRate
+                + "%, maxInvestmentRatio=" + maxInvestmentRatio + ", maxBuysPerDay=" + maxBuysPerDay
+                + ", candidates=" + candidateCount + "}";
+    }
+}
@@ -0,0 +1,71 @@
+package com.myplatform.backend.service;
+
+import java.time.Duration;
+
+/**
+ * 노드 간 이벤트 버스
+ * - 기본은 단일 노드용 메모리 구현 (LocalClusterEventBus)
+ * - cluster.redis.enabled=true 이고 Redis가 클래스패스에 있으면 Redis pub/sub 구현 (RedisClusterEventBus)
+ * - 발행한 노드도 구독 콜백으로 메시지를 받음 (모든 노드가 같은 경로로 처리)
+ */
+public interface ClusterEventBus {
+
+    /**
+     * 채널 메시지 수신
+     */
+    @FunctionalInterface
+    interface Listener {
+        /**
+         * @param sequence publishSequenced로 발행된 메시지의 id (publish면 0)
+         * @param body 메시지 본문
+         */
+        void onMessage(long sequence, byte[] body);
+    }
+
+    /**
+     * 채널 구독
+     */
+    void subscribe(String channel, Listener listener);
+
+    /**
+     * 메시지 발행 (순서/id 없음)
+     */
+    void publish(String channel, byte[] body);
+
+    /**
+     * 클러스터 전체에서 단조 증가하는 id를 붙여 발행
+     * - id 발급과 발행이 원자적이므로 모든 노드가 id 순서대로 받음
+     */
+    void publishSequenced(String channel, byte[] body);
+
+    /**
+     * 채널에서 지금까지 발급된 마지막 id
+     */
+    long lastSequence(String channel);
+
+    /**
+     * ttl 동안 key 선점 (클러스터 전체에서 한 번만 true, 알림 중복 방지 등)
+     */
+    boolean tryAcquire(String key, Duration ttl);
+
+    /**
+     * ttl 동안 key를 이 노드 소유로 선점하거나, 이미 이 노드 소유면 만료를 연장 (리더 임대 등)
+     * - 다른 노드가 가지고 있거나 확인할 수 없으면 false (선점을 허용하지 않음)
+     */
+    boolean acquireOrRenew(String key, Duration ttl);
+
+    /**
+     * 선점한 key 해제 (선점한 노드에서만 호출)
+     */
+    void release(String key);
+
+    /**
+     * 이 노드 ID
+     */
+    long nodeId();
+
+    /**
+     * 여러 노드에 걸친 구현인지 (false면 다른 노드로 보낼 필요 없음)
+     */
+    boolean isDistributed();
+}
@@ -0,0 +1,117 @@
+package com.myplatform.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 클러스터 리더 선출 (이벤트 버스 임대)
+ * - 수집 스케줄러와 모의투자 원장은 리더 노드에서만 실행 (여러 노드가 같은 데이터를 수집/반영하지 않도록)
+ * - 리더는 RENEW_MILLIS마다 임대를 연장하고, 다른 노드는 같은 주기로 빈 임대 선점을 시도
+ * - 연장하지 못하면 임대가 만료되기 전(LOCAL_VALIDITY_MILLIS)에 스스로 리더에서 물러남 (두 노드가 동시에 리더가 되지 않도록)
+ * - 스케줄러 스레드가 긴 수집 작업에 묶여도 연장이 밀리지 않게 전용 스레드에서 실행
+ * - 단일 노드 버스면 항상 리더
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ClusterLeader {
+
+    private static final String LEASE_KEY = "leader";
+    private static final Duration LEASE_TTL = Duration.ofSeconds(30);
+    private static final long RENEW_MILLIS = 10_000L;
+    private static final long LOCAL_VALIDITY_MILLIS = 20_000L;  // LEASE_TTL보다 짧게
+
+    private final ClusterEventBus clusterEventBus;
+
+    private final ScheduledExecutorService renewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Cluster-leader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final List<Consumer<Boolean>> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile boolean leader;
+    private volatile long validUntil;  // System.nanoTime 기준, 이 시각까지 리더로 행동
+
+    /**
+     * 기동 시 한 번 바로 선출 (ApplicationReadyEvent 처리 전에 리더 여부가 정해지도록)
+     */
+    @PostConstruct
+    void start() {
+        if (!clusterEventBus.isDistributed()) {
+            leader = true;
+            return;
+        }
+        renew();
+        renewer.scheduleWithFixedDelay(this::renew, RENEW_MILLIS, RENEW_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 종료 시 임대를 바로 풀어 다른 노드가 다음 주기에 이어받도록
+     */
+    @PreDestroy
+    void shutdown() {
+        renewer.shutdownNow();
+        if (clusterEventBus.isDistributed() && isLeader()) {
+            leader = false;
+            clusterEventBus.release(LEASE_KEY);
+        }
+    }
+
+    /**
+     * 이 노드가 리더인지 (수집 스케줄러, 원장 반영 전에 확인)
+     */
+    public boolean isLeader() {
+        return leader && (!clusterEventBus.isDistributed() || System.nanoTime() - validUntil < 0);
+    }
+
+    /**
+     * 리더 임기 변경 알림 등록 (true: 새 임기 시작, false: 리더에서 물러남, 선출 스레드에서 호출)
+     */
+    public void addListener(Consumer<Boolean> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 임대 연장/선점
+     * - 이전 임기가 이미 끝난 뒤 다시 얻은 임대는 새 임기로 봄 (그 사이 다른 노드가 리더였을 수 있음)
+     */
+    private void renew() {
+        long requestedAt = System.nanoTime();
+        boolean wasLeader = isLeader();
+        boolean acquired = clusterEventBus.acquireOrRenew(LEASE_KEY, LEASE_TTL);
+        if (acquired) {
+            validUntil = requestedAt + TimeUnit.MILLISECONDS.toNanos(LOCAL_VALIDITY_MILLIS);
+            if (!wasLeader) {
+                leader = true;
+                log.info("클러스터 리더 선출: 노드 {}", clusterEventBus.nodeId());
+                notifyListeners(true);
+            }
+        } else if (leader && !isLeader()) {
+            leader = false;
+            log.warn("클러스터 리더 임대 연장 실패 - 리더에서 물러남: 노드 {}", clusterEventBus.nodeId());
+            notifyListeners(false);
+        }
+    }
+
+    private void notifyListeners(boolean leading) {
+        for (Consumer<Boolean> listener : listeners) {
+            try {
+                listener.accept(leading);
+            } catch (Exception e) {
+                log.error("클러스터 리더 변경 처리 실패", e);
+            }
+        }
+    }
+}
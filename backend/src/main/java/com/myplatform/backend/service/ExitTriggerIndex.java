@@ -0,0 +1,256 @@
+package com.myplatform.backend.service;
+
+import com.myplatform.backend.entity.VirtualPortfolio;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 보유 종목 손절/익절 트리거 인덱스
+ * - 포지션별 손절가/익절가를 등록 시점에 한 번 계산하고, 종목별로 가장 높은 손절가와 가장 낮은 익절가를 보관
+ * - 평소 틱은 그 두 값과의 double 비교로 끝남 (DB 조회/할당/BigDecimal 연산 없음)
+ * - 가격이 기준을 넘으면 해당 포지션을 원자적으로 인덱스에서 빼고 반환 (같은 포지션 중복 청산 방지)
+ * - 발동된 종목은 청산이 끝나(release) 때까지 재등록하지 않음 (매도 커밋 전 매수 이벤트 등으로 다시 발동 방지)
+ */
+final class ExitTriggerIndex {
+
+    static final String STOP_LOSS = "STOP_LOSS";
+    static final String TAKE_PROFIT = "TAKE_PROFIT";
+
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+
+    private final BigDecimal stopLossRate;
+    private final BigDecimal takeProfitRate;
+    private final Map<String, SymbolTriggers> bySymbol = new ConcurrentHashMap<>();
+    private final Map<String, Integer> exiting = new ConcurrentHashMap<>();  // 종목코드 -> 청산 진행 중 포지션 수
+
+    /**
+     * @param stopLossRate 손절 기준 손익률 (%, 예: -3)
+     * @param takeProfitRate 익절 기준 손익률 (%, 예: 5)
+     */
+    ExitTriggerIndex(BigDecimal stopLossRate, BigDecimal takeProfitRate) {
+        this.stopLossRate = stopLossRate;
+        this.takeProfitRate = takeProfitRate;
+    }
+
+    /**
+     * 전체 보유 종목으로 교체 (목록에 없는 종목은 해제)
+     */
+    void replaceAll(Collection<VirtualPortfolio> portfolios) {
+        Map<String, List<Position>> grouped = new HashMap<>();
+        for (VirtualPortfolio portfolio : portfolios) {
+            Position position = toPosition(portfolio);
+            if (position != null) {
+                grouped.computeIfAbsent(position.stockCode, k -> new ArrayList<>()).add(position);
+            }
+        }
+        bySymbol.keySet().retainAll(grouped.keySet());
+        for (Map.Entry<String, List<Position>> entry : grouped.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * 한 종목의 보유 포지션 교체 (비어 있으면 해제, 청산 진행 중인 종목은 그대로 둠)
+     */
+    void replace(String stockCode, Collection<VirtualPortfolio> portfolios) {
+        List<Position> positions = new ArrayList<>();
+        for (VirtualPortfolio portfolio : portfolios) {
+            Position position = toPosition(portfolio);
+            if (position != null) {
+                positions.add(position);
+            }
+        }
+        put(stockCode, positions);
+    }
+
+    /**
+     * 청산 완료(성공/실패) 표시 - 이후 replace로 DB 기준 포지션을 다시 등록할 수 있음
+     */
+    void release(String stockCode) {
+        exiting.computeIfPresent(stockCode, (code, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private void put(String stockCode, List<Position> positions) {
+        // onPrice와 같은 키 잠금 안에서 확인하므로 발동 직후의 재등록과 경쟁하지 않음
+        bySymbol.compute(stockCode, (code, current) -> {
+            if (exiting.containsKey(code)) {
+                return current;
+            }
+            return positions.isEmpty() ? null : new SymbolTriggers(positions);
+        });
+    }
+
+    void clear() {
+        bySymbol.clear();
+    }
+
+    boolean isEmpty() {
+        return bySymbol.isEmpty();
+    }
+
+    Set<String> symbols() {
+        return Collections.unmodifiableSet(bySymbol.keySet());
+    }
+
+    int size() {
+        int count = 0;
+        for (SymbolTriggers triggers : bySymbol.values()) {
+            count += triggers.positions.length;
+        }
+        return count;
+    }
+
+    /**
+     * 가격 수신 시 기준을 넘은 포지션 반환 (반환된 포지션은 인덱스에서 제거됨)
+     * - 반환된 포지션마다 청산이 끝나면 호출자가 release 후 replace로 다시 등록
+     */
+    List<Trigger> onPrice(String stockCode, BigDecimal price) {
+        SymbolTriggers triggers = bySymbol.get(stockCode);
+        if (triggers == null || price == null) {
+            return Collections.emptyList();
+        }
+        double value = price.doubleValue();
+        if (!triggers.crosses(value)) {
+            return Collections.emptyList();
+        }
+
+        List<Trigger> fired = new ArrayList<>();
+        bySymbol.computeIfPresent(stockCode, (code, current) -> {
+            List<Position> remaining = new ArrayList<>(current.positions.length);
+            for (Position position : current.positions) {
+                if (value <= position.stopPrice) {
+                    fired.add(new Trigger(position, STOP_LOSS, price));
+                } else if (value >= position.takePrice) {
+                    fired.add(new Trigger(position, TAKE_PROFIT, price));
+                } else {
+                    remaining.add(position);
+                }
+            }
+            if (!fired.isEmpty()) {
+                exiting.merge(code, fired.size(), Integer::sum);
+            }
+            return remaining.isEmpty() ? null : new SymbolTriggers(remaining);
+        });
+        return fired;
+    }
+
+    private Position toPosition(VirtualPortfolio portfolio) {
+        BigDecimal averagePrice = portfolio.getAveragePrice();
+        if (averagePrice == null || averagePrice.signum() <= 0
+                || portfolio.getQuantity() == null || portfolio.getQuantity() <= 0) {
+            return null;
+        }
+        // 손익률 = (현재가 - 평균가) / 평균가 × 100 이므로 기준 가격 = 평균가 × (1 + 기준률 / 100)
+        double stopPrice = averagePrice.multiply(HUNDRED.add(stopLossRate)).divide(HUNDRED).doubleValue();
+        double takePrice = averagePrice.multiply(HUNDRED.add(takeProfitRate)).divide(HUNDRED).doubleValue();
+        return new Position(portfolio.getAccountId(), portfolio.getStockCode(), portfolio.getStockName(),
+                portfolio.getQuantity(), averagePrice, stopPrice, takePrice);
+    }
+
+    /**
+     * 종목별 트리거 (불변)
+     */
+    private static final class SymbolTriggers {
+        private final Position[] positions;  // 손절가 내림차순 (먼저 닿는 손절부터)
+        private final double highestStop;    // 가격이 이 값 이하로 내려오면 손절 대상 존재
+        private final double lowestTake;     // 가격이 이 값 이상으로 올라가면 익절 대상 존재
+
+        private SymbolTriggers(List<Position> list) {
+            positions = list.toArray(new Position[0]);
+            Arrays.sort(positions, (a, b) -> Double.compare(b.stopPrice, a.stopPrice));
+            double take = Double.POSITIVE_INFINITY;
+            for (Position position : positions) {
+                take = Math.min(take, position.takePrice);
+            }
+            highestStop = positions[0].stopPrice;
+            lowestTake = take;
+        }
+
+        private boolean crosses(double price) {
+            return price <= highestStop || price >= lowestTake;
+        }
+    }
+
+    /**
+     * 보유 포지션 (인덱스 등록 시점 값)
+     */
+    static final class Position {
+        private final Long accountId;
+        private final String stockCode;
+        private final String stockName;
+        private final int quantity;
+        private final BigDecimal averagePrice;
+        private final double stopPrice;
+        private final double takePrice;
+
+        private Position(Long accountId, String stockCode, String stockName, int quantity,
+                         BigDecimal averagePrice, double stopPrice, double takePrice) {
+            this.accountId = accountId;
+            this.stockCode = stockCode;
+            this.stockName = stockName;
+            this.quantity = quantity;
+            this.averagePrice = averagePrice;
+            this.stopPrice = stopPrice;
+            this.takePrice = takePrice;
+        }
+
+        Long getAccountId() {
+            return accountId;
+        }
+
+        String getStockCode() {
+            return stockCode;
+        }
+
+        String getStockName() {
+            return stockName;
+        }
+
+        int getQuantity() {
+            return quantity;
+        }
+
+        BigDecimal getAveragePrice() {
+            return averagePrice;
+        }
+    }
+
+    /**
+     * 발동된 트리거
+     */
+    static final class Trigger {
+        private final Position position;
+        private final String reason;
+        private final BigDecimal price;
+
+        private Trigger(Position position, String reason, BigDecimal price) {
+            this.position = position;
+            this.reason = reason;
+            this.price = price;
+        }
+
+        Position getPosition() {
+            return position;
+        }
+
+        String getReason() {
+            return reason;
+        }
+
+        BigDecimal getPrice() {
+            return price;
+        }
+
+        /**
+         * 발동 시점 손익률 (%)
+         */
+        BigDecimal getProfitRate() {
+            return price.subtract(position.averagePrice)
+                    .divide(position.averagePrice, 4, RoundingMode.HALF_UP)
+                    .multiply(HUNDRED);
+        }
+    }
+}
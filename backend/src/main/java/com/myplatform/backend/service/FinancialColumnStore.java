@@ -0,0 +1,124 @@
+package com.myplatform.backend.service;
+
+import com.myplatform.backend.repository.StockFinancialDataRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 스크리너용 컬럼형 재무 스냅샷 관리
+ * - 최초 조회 시 종목별 최신 재무 데이터로 FinancialColumns 생성
+ * - 1분마다 데이터 버전(행 수 + 최종 수정 시각)을 확인해 수집/수정이 있었으면 재생성
+ * - 재생성은 새 스냅샷을 만든 뒤 참조만 교체하므로 조회 중인 요청에 영향 없음
+ * - 수집 서비스는 저장 커밋 직후 refreshAfterCommit()으로 바로 반영, 재생성 시 리스너에 통지
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FinancialColumnStore {
+
+    private final StockFinancialDataRepository stockFinancialDataRepository;
+
+    private final List<Consumer<FinancialColumns>> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile FinancialColumns columns;
+
+    /**
+     * 스냅샷 재생성 시 호출될 리스너 등록 (결과 스냅샷 재계산 등)
+     */
+    void onRefresh(Consumer<FinancialColumns> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 현재 스냅샷 (없으면 생성)
+     */
+    FinancialColumns current() {
+        FinancialColumns snapshot = columns;
+        if (snapshot == null) {
+            synchronized (this) {
+                snapshot = columns;
+                if (snapshot == null) {
+                    snapshot = rebuild(loadVersion());
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * 재무 데이터가 바뀌었으면 스냅샷 재생성
+     */
+    @Scheduled(cron = "0 * * * * *")
+    public void refreshIfChanged() {
+        FinancialColumns snapshot = columns;
+        if (snapshot == null) {
+            return;  // 아직 조회된 적 없음 - 첫 조회 시 생성
+        }
+        String version = loadVersion();
+        if (!version.equals(snapshot.getVersion())) {
+            synchronized (this) {
+                rebuild(version);
+            }
+        }
+    }
+
+    /**
+     * 즉시 재생성 (대량 삭제/재수집 직후 등)
+     */
+    public synchronized void refresh() {
+        rebuild(loadVersion());
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋된 뒤 재생성 (트랜잭션 밖이면 즉시)
+     * - 수집 직후 호출하면 1분 주기 확인을 기다리지 않고 새 데이터로 조회
+     */
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+
+    private FinancialColumns rebuild(String version) {
+        long start = System.currentTimeMillis();
+        FinancialColumns snapshot = FinancialColumns.of(
+                stockFinancialDataRepository.findLatestPerStock(),
+                stockFinancialDataRepository.findLatestTwoQuartersPerStock(),
+                version);
+        columns = snapshot;
+        log.info("재무 컬럼 스냅샷 생성: {}종목, {}ms (version={})",
+                snapshot.size(), System.currentTimeMillis() - start, version);
+        for (Consumer<FinancialColumns> listener : listeners) {
+            try {
+                listener.accept(snapshot);
+            } catch (Exception e) {
+                log.warn("재무 스냅샷 리스너 처리 실패: {}", e.getMessage());
+            }
+        }
+        return snapshot;
+    }
+
+    private String loadVersion() {
+        List<Object[]> rows = stockFinancialDataRepository.findDataVersion();
+        if (rows.isEmpty()) {
+            return "0|";
+        }
+        Object[] row = rows.get(0);
+        return row[0] + "|" + row[1];
+    }
+}
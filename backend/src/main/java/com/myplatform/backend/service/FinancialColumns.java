@@ -0,0 +1,560 @@
+package com.myplatform.backend.service;
+
+import com.myplatform.backend.entity.StockFinancialData;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 종목별 최신 재무 지표 컬럼형 스냅샷 (불변)
+ * - 지표별 double 배열(null은 NaN) + 종목코드 사전으로 구성
+ * - 스크리너별 정렬 순서와 순위 배열을 생성 시점에 미리 계산
+ * - 조회는 미리 정렬된 인덱스 배열을 한 번 훑으며 원시 타입 비교만 수행 (요청마다 정렬 없음)
+ *
+ * 결과 DTO 생성에 필요한 원본 값은 rows의 엔티티(detached)에서 읽는다.
+ */
+final class FinancialColumns {
+
+    /**
+     * 사용자 정의 스크리너에서 참조 가능한 숫자 지표 (필드명 → 값)
+     */
+    static final Map<String, Function<StockFinancialData, BigDecimal>> NUMERIC_FIELDS;
+
+    /**
+     * 사용자 정의 스크리너에서 참조 가능한 문자열 속성 (필드명 → 값)
+     */
+    static final Map<String, Function<StockFinancialData, String>> TEXT_FIELDS;
+
+    static {
+        Map<String, Function<StockFinancialData, BigDecimal>> numeric = new LinkedHashMap<>();
+        numeric.put("currentPrice", StockFinancialData::getCurrentPrice);
+        numeric.put("marketCap", StockFinancialData::getMarketCap);
+        numeric.put("per", StockFinancialData::getPer);
+        numeric.put("pbr", StockFinancialData::getPbr);
+        numeric.put("pcr", StockFinancialData::getPcr);
+        numeric.put("psr", StockFinancialData::getPsr);
+        numeric.put("roe", StockFinancialData::getRoe);
+        numeric.put("roa", StockFinancialData::getRoa);
+        numeric.put("operatingMargin", StockFinancialData::getOperatingMargin);
+        numeric.put("netMargin", StockFinancialData::getNetMargin);
+        numeric.put("revenueGrowth", StockFinancialData::getRevenueGrowth);
+        numeric.put("profitGrowth", StockFinancialData::getProfitGrowth);
+        numeric.put("eps", StockFinancialData::getEps);
+        numeric.put("bps", StockFinancialData::getBps);
+        numeric.put("epsGrowth", StockFinancialData::getEpsGrowth);
+        numeric.put("peg", StockFinancialData::getPeg);
+        numeric.put("debtRatio", StockFinancialData::getDebtRatio);
+        numeric.put("currentRatio", StockFinancialData::getCurrentRatio);
+        numeric.put("dividendYield", StockFinancialData::getDividendYield);
+        numeric.put("dividendPayoutRatio", StockFinancialData::getDividendPayoutRatio);
+        numeric.put("revenue", StockFinancialData::getRevenue);
+        numeric.put("operatingProfit", StockFinancialData::getOperatingProfit);
+        numeric.put("netIncome", StockFinancialData::getNetIncome);
+        numeric.put("totalAssets", StockFinancialData::getTotalAssets);
+        numeric.put("totalEquity", StockFinancialData::getTotalEquity);
+        numeric.put("totalDebt", StockFinancialData::getTotalDebt);
+        NUMERIC_FIELDS = Collections.unmodifiableMap(numeric);
+
+        Map<String, Function<StockFinancialData, String>> text = new LinkedHashMap<>();
+        text.put("market", StockFinancialData::getMarket);
+        text.put("sector", StockFinancialData::getSector);
+        TEXT_FIELDS = Collections.unmodifiableMap(text);
+    }
+
+    static final String LOSS_TO_PROFIT = "LOSS_TO_PROFIT";
+    static final String PROFIT_GROWTH = "PROFIT_GROWTH";
+
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+    private static final BigDecimal TURNAROUND_MIN_GROWTH = new BigDecimal("50");
+    private static final BigDecimal LOSS_TO_PROFIT_RATE = new BigDecimal("999.99");  // 흑자전환 특별 표기
+    private static final double PROFIT_GROWTH_FALLBACK_MIN = 50.0;
+
+    private final String version;
+
+    // ===== 최신 재무 데이터 (종목당 1행) =====
+    private final StockFinancialData[] rows;
+    private final Map<String, Integer> symbolIndex;
+    private final double[] per;
+    private final double[] roe;
+    private final double[] operatingMargin;
+    private final double[] marketCap;
+    private final double[] peg;
+    private final double[] epsGrowth;
+    private final double[] profitGrowth;
+    private final double[] derivedPeg;      // PER / 순이익 증가율 (소수 둘째 자리 반올림)
+    private final double[] effectivePeg;    // 저장된 PEG, 없으면 derivedPeg
+    private final Map<String, double[]> numericColumns;
+    private final Map<String, String[]> textColumns;
+    private final Map<String, int[]> fieldOrders = new ConcurrentHashMap<>();  // 필드별 정렬 순서 (조회 시 지연 생성)
+
+    // 마법의 공식 대상(PER/ROE/영업이익률 모두 양수) 지표별 정렬 순서 + 필터 없을 때의 순위
+    private final int[] operatingMarginOrder;
+    private final int[] roeOrder;
+    private final int[] perOrder;
+    private final int[] operatingMarginRank;
+    private final int[] roeRank;
+    private final int[] perRank;
+    private final int[] magicScoreOrder;     // 필터 없을 때 종합 점수 오름차순 (동점이면 영업이익률 순서)
+
+    private final int[] pegOrder;            // 저장된 PEG > 0, 오름차순
+    private final int[] effectivePegOrder;   // effectivePeg > 0, 오름차순
+    private final int[] profitGrowthOrder;   // 순이익 증가율 50% 이상, 내림차순
+
+    // ===== 턴어라운드 (순이익 있는 최근 2개 분기) =====
+    private final StockFinancialData[] turnaroundRows;
+    private final BigDecimal[] previousNetIncome;
+    private final BigDecimal[] netIncomeChangeRate;
+    private final String[] turnaroundType;
+    private final long[] previousReportDay;  // 직전 분기 기준일 (epoch day)
+    private final int[] turnaroundOrder;     // 흑자전환 우선, 변화율 내림차순
+
+    private FinancialColumns(String version, List<StockFinancialData> latest,
+                             List<StockFinancialData> lastTwoWithIncome) {
+        this.version = version;
+
+        int n = latest.size();
+        rows = latest.toArray(new StockFinancialData[0]);
+        symbolIndex = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            symbolIndex.putIfAbsent(rows[i].getStockCode(), i);
+        }
+
+        numericColumns = new HashMap<>();
+        for (Map.Entry<String, Function<StockFinancialData, BigDecimal>> field : NUMERIC_FIELDS.entrySet()) {
+            double[] column = new double[n];
+            for (int i = 0; i < n; i++) {
+                column[i] = value(field.getValue().apply(rows[i]));
+            }
+            numericColumns.put(field.getKey(), column);
+        }
+        textColumns = new HashMap<>();
+        for (Map.Entry<String, Function<StockFinancialData, String>> field : TEXT_FIELDS.entrySet()) {
+            String[] column = new String[n];
+            for (int i = 0; i < n; i++) {
+                column[i] = field.getValue().apply(rows[i]);
+            }
+            textColumns.put(field.getKey(), column);
+        }
+
+        per = numericColumns.get("per");
+        roe = numericColumns.get("roe");
+        operatingMargin = numericColumns.get("operatingMargin");
+        marketCap = numericColumns.get("marketCap");
+        peg = numericColumns.get("peg");
+        epsGrowth = numericColumns.get("epsGrowth");
+        profitGrowth = numericColumns.get("profitGrowth");
+        derivedPeg = new double[n];
+        effectivePeg = new double[n];
+
+        for (int i = 0; i < n; i++) {
+            StockFinancialData row = rows[i];
+            derivedPeg[i] = Double.NaN;
+            if (per[i] > 0 && row.getProfitGrowth() != null && row.getProfitGrowth().signum() != 0) {
+                derivedPeg[i] = row.getPer().divide(row.getProfitGrowth(), 2, RoundingMode.HALF_UP).doubleValue();
+            }
+            effectivePeg[i] = peg[i];
+            if (Double.isNaN(effectivePeg[i]) && profitGrowth[i] > 0) {
+                effectivePeg[i] = derivedPeg[i];
+            }
+        }
+
+        // 마법의 공식 대상 종목별 지표 순위 (동률은 종목 순서 유지)
+        int[] magic = filter(n, i -> per[i] > 0 && roe[i] > 0 && operatingMargin[i] > 0);
+        operatingMarginOrder = sort(magic, (a, b) -> Double.compare(operatingMargin[b], operatingMargin[a]));
+        roeOrder = sort(magic, (a, b) -> Double.compare(roe[b], roe[a]));
+        perOrder = sort(magic, (a, b) -> Double.compare(per[a], per[b]));
+        operatingMarginRank = ranks(operatingMarginOrder, null, n);
+        roeRank = ranks(roeOrder, null, n);
+        perRank = ranks(perOrder, null, n);
+        magicScoreOrder = sort(operatingMarginOrder,
+                (a, b) -> Integer.compare(operatingMarginRank[a] + roeRank[a] + perRank[a],
+                        operatingMarginRank[b] + roeRank[b] + perRank[b]));
+
+        pegOrder = sort(filter(n, i -> peg[i] > 0), (a, b) -> Double.compare(peg[a], peg[b]));
+        effectivePegOrder = sort(filter(n, i -> effectivePeg[i] > 0),
+                (a, b) -> Double.compare(effectivePeg[a], effectivePeg[b]));
+        profitGrowthOrder = sort(filter(n, i -> profitGrowth[i] >= PROFIT_GROWTH_FALLBACK_MIN),
+                (a, b) -> Double.compare(profitGrowth[b], profitGrowth[a]));
+
+        // 턴어라운드: 종목별 (최신, 직전) 분기 쌍으로 판정해 두고 조회 시 기간만 확인
+        Map<String, StockFinancialData[]> pairs = new LinkedHashMap<>();
+        for (StockFinancialData row : lastTwoWithIncome) {
+            StockFinancialData[] pair = pairs.computeIfAbsent(row.getStockCode(), k -> new StockFinancialData[2]);
+            if (pair[0] == null || isNewer(row, pair[0])) {
+                pair[1] = pair[0];
+                pair[0] = row;
+            } else if (pair[1] == null || isNewer(row, pair[1])) {
+                pair[1] = row;
+            }
+        }
+
+        List<StockFinancialData> currents = new ArrayList<>();
+        List<StockFinancialData> previouses = new ArrayList<>();
+        List<String> types = new ArrayList<>();
+        List<BigDecimal> rates = new ArrayList<>();
+        for (StockFinancialData[] pair : pairs.values()) {
+            if (pair[1] == null) {
+                continue;
+            }
+            BigDecimal current = pair[0].getNetIncome();
+            BigDecimal previous = pair[1].getNetIncome();
+            if (previous.signum() < 0 && current.signum() > 0) {
+                types.add(LOSS_TO_PROFIT);
+                rates.add(LOSS_TO_PROFIT_RATE);
+            } else if (previous.signum() > 0 && current.compareTo(previous) > 0) {
+                BigDecimal rate = current.subtract(previous)
+                        .divide(previous.abs(), 4, RoundingMode.HALF_UP)
+                        .multiply(HUNDRED);
+                if (rate.compareTo(TURNAROUND_MIN_GROWTH) < 0) {
+                    continue;
+                }
+                types.add(PROFIT_GROWTH);
+                rates.add(rate);
+            } else {
+                continue;
+            }
+            currents.add(pair[0]);
+            previouses.add(pair[1]);
+        }
+
+        int m = currents.size();
+        turnaroundRows = currents.toArray(new StockFinancialData[0]);
+        turnaroundType = types.toArray(new String[0]);
+        netIncomeChangeRate = rates.toArray(new BigDecimal[0]);
+        previousNetIncome = new BigDecimal[m];
+        previousReportDay = new long[m];
+        for (int i = 0; i < m; i++) {
+            previousNetIncome[i] = previouses.get(i).getNetIncome();
+            previousReportDay[i] = previouses.get(i).getReportDate().toEpochDay();
+        }
+        turnaroundOrder = sort(filter(m, i -> true), (a, b) -> {
+            boolean aLoss = LOSS_TO_PROFIT.equals(turnaroundType[a]);
+            boolean bLoss = LOSS_TO_PROFIT.equals(turnaroundType[b]);
+            if (aLoss != bLoss) {
+                return aLoss ? -1 : 1;
+            }
+            return netIncomeChangeRate[b].compareTo(netIncomeChangeRate[a]);
+        });
+    }
+
+    /**
+     * 스냅샷 생성
+     *
+     * @param latest 종목별 최신 재무 데이터
+     * @param lastTwoWithIncome 종목별 순이익이 있는 최근 2개 분기 데이터
+     * @param version 생성 기준 데이터 버전 (변경 감지용)
+     */
+    static FinancialColumns of(List<StockFinancialData> latest, List<StockFinancialData> lastTwoWithIncome,
+                               String version) {
+        return new FinancialColumns(version, latest, lastTwoWithIncome);
+    }
+
+    String getVersion() {
+        return version;
+    }
+
+    int size() {
+        return rows.length;
+    }
+
+    StockFinancialData row(int index) {
+        return rows[index];
+    }
+
+    /**
+     * 종목코드로 최신 재무 데이터 조회
+     */
+    StockFinancialData find(String stockCode) {
+        Integer index = symbolIndex.get(stockCode);
+        return index != null ? rows[index] : null;
+    }
+
+    /**
+     * 숫자 지표 컬럼 (NUMERIC_FIELDS의 필드명, 값이 없으면 NaN)
+     */
+    double[] numeric(String field) {
+        return numericColumns.get(field);
+    }
+
+    /**
+     * 문자열 속성 컬럼 (TEXT_FIELDS의 필드명)
+     */
+    String[] text(String field) {
+        return textColumns.get(field);
+    }
+
+    /**
+     * 숫자 지표 정렬 순서 (값이 없는 종목 제외, 동률은 종목 순서 유지)
+     * - 필드/방향별로 처음 요청될 때 한 번 정렬하고 스냅샷이 교체될 때까지 재사용
+     */
+    int[] order(String field, boolean descending) {
+        return fieldOrders.computeIfAbsent(field + (descending ? ":desc" : ":asc"), key -> {
+            double[] column = numericColumns.get(field);
+            int[] present = filter(column.length, i -> !Double.isNaN(column[i]));
+            return descending
+                    ? sort(present, (a, b) -> Double.compare(column[b], column[a]))
+                    : sort(present, (a, b) -> Double.compare(column[a], column[b]));
+        });
+    }
+
+    // ========== 마법의 공식 ==========
+
+    /**
+     * 마법의 공식 상위 종목
+     * - 시가총액 필터가 없으면 미리 정렬된 종합 점수 순서에서 앞의 limit개만 사용 (O(limit))
+     * - 필터가 있으면 미리 정렬된 지표 순서를 훑으며 통과 종목만 다시 번호 매기고 (O(n))
+     *   크기 limit의 힙으로 상위 종목만 선택 (O(n log limit))
+     * - 결과 객체는 선택된 종목만 생성
+     *
+     * @param limit 선택 개수 (0 이하이면 전체)
+     * @return 종합 점수 오름차순 결과 (동점이면 영업이익률 순서)
+     */
+    List<MagicFormulaHit> magicFormula(BigDecimal minMarketCap, int limit) {
+        if (minMarketCap == null) {
+            int count = limit > 0 ? Math.min(limit, magicScoreOrder.length) : magicScoreOrder.length;
+            List<MagicFormulaHit> hits = new ArrayList<>(count);
+            for (int k = 0; k < count; k++) {
+                int i = magicScoreOrder[k];
+                hits.add(new MagicFormulaHit(rows[i], operatingMarginRank[i], roeRank[i], perRank[i]));
+            }
+            return hits;
+        }
+
+        double minCap = minMarketCap.doubleValue();
+        boolean[] eligible = new boolean[rows.length];
+        for (int i : operatingMarginOrder) {
+            eligible[i] = marketCap[i] >= minCap;
+        }
+        int[] omRank = ranks(operatingMarginOrder, eligible, rows.length);
+        int[] rRank = ranks(roeOrder, eligible, rows.length);
+        int[] pRank = ranks(perOrder, eligible, rows.length);
+
+        int[] candidates = new int[operatingMarginOrder.length];
+        int count = 0;
+        for (int i : operatingMarginOrder) {
+            if (eligible[i]) {
+                candidates[count++] = i;
+            }
+        }
+        int[] top = TopK.smallest(Arrays.copyOf(candidates, count), i -> omRank[i] + rRank[i] + pRank[i], limit);
+
+        List<MagicFormulaHit> hits = new ArrayList<>(top.length);
+        for (int i : top) {
+            hits.add(new MagicFormulaHit(rows[i], omRank[i], rRank[i], pRank[i]));
+        }
+        return hits;
+    }
+
+    // ========== PEG ==========
+
+    /**
+     * 저장된 PEG 기준 저평가 성장주 (PEG 오름차순, limit개 채우면 중단)
+     */
+    List<StockFinancialData> lowPeg(BigDecimal maxPeg, BigDecimal minEpsGrowth, int limit) {
+        double max = maxPeg != null ? maxPeg.doubleValue() : Double.POSITIVE_INFINITY;
+        double minGrowth = minEpsGrowth != null ? minEpsGrowth.doubleValue() : Double.NEGATIVE_INFINITY;
+
+        List<StockFinancialData> result = new ArrayList<>();
+        for (int i : pegOrder) {
+            if (peg[i] > max) {
+                break;
+            }
+            if (epsGrowth[i] >= minGrowth) {
+                result.add(rows[i]);
+                if (result.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 순이익 증가율로 계산한 PEG 기준 저평가 성장주 (PEG가 없을 때 대체, 유효 PEG 오름차순, limit개 채우면 중단)
+     */
+    List<StockFinancialData> lowPegByProfitGrowth(BigDecimal maxPeg, BigDecimal minGrowth, int limit) {
+        double max = maxPeg.doubleValue();
+        double min = minGrowth.doubleValue();
+
+        List<StockFinancialData> result = new ArrayList<>();
+        for (int i : effectivePegOrder) {
+            if (per[i] > 0 && profitGrowth[i] >= min && derivedPeg[i] > 0 && derivedPeg[i] <= max) {
+                result.add(rows[i]);
+                if (result.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    // ========== 턴어라운드 ==========
+
+    /**
+     * 분기 비교 턴어라운드 종목 (흑자전환 우선, 변화율 내림차순)
+     *
+     * @param minDate 비교할 두 분기 모두 이 날짜 이후여야 함
+     */
+    List<TurnaroundHit> turnaround(LocalDate minDate, int limit) {
+        long minDay = minDate.toEpochDay();
+        List<TurnaroundHit> hits = new ArrayList<>();
+        for (int i : turnaroundOrder) {
+            if (previousReportDay[i] < minDay) {
+                continue;
+            }
+            hits.add(new TurnaroundHit(turnaroundRows[i], turnaroundType[i],
+                    previousNetIncome[i], netIncomeChangeRate[i]));
+            if (limit > 0 && hits.size() >= limit) {
+                break;
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * 순이익 증가율 50% 이상 종목 (증가율 내림차순, 분기 비교 데이터가 없을 때 대체)
+     */
+    List<StockFinancialData> highProfitGrowth(int limit) {
+        int count = limit > 0 ? Math.min(limit, profitGrowthOrder.length) : profitGrowthOrder.length;
+        List<StockFinancialData> result = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) {
+            result.add(rows[profitGrowthOrder[k]]);
+        }
+        return result;
+    }
+
+    // ========== 내부 유틸 ==========
+
+    private static double value(BigDecimal value) {
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+
+    private static boolean isNewer(StockFinancialData a, StockFinancialData b) {
+        int compare = a.getReportDate().compareTo(b.getReportDate());
+        return compare > 0 || (compare == 0 && a.getId() != null && b.getId() != null && a.getId() > b.getId());
+    }
+
+    private interface IndexFilter {
+        boolean test(int index);
+    }
+
+    private interface IndexComparator {
+        int compare(int a, int b);
+    }
+
+    private static int[] filter(int n, IndexFilter filter) {
+        int[] out = new int[n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            if (filter.test(i)) {
+                out[count++] = i;
+            }
+        }
+        return Arrays.copyOf(out, count);
+    }
+
+    /**
+     * 인덱스 배열 안정 정렬 (스냅샷 생성 시 1회)
+     */
+    private static int[] sort(int[] indexes, IndexComparator comparator) {
+        Integer[] boxed = new Integer[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            boxed[i] = indexes[i];
+        }
+        Arrays.sort(boxed, comparator::compare);
+        int[] out = new int[boxed.length];
+        for (int i = 0; i < boxed.length; i++) {
+            out[i] = boxed[i];
+        }
+        return out;
+    }
+
+    /**
+     * 정렬 순서대로 1부터 순위 부여 (eligible이 null이면 전체, 순위 없는 종목은 0)
+     */
+    private static int[] ranks(int[] order, boolean[] eligible, int n) {
+        int[] rank = new int[n];
+        int next = 1;
+        for (int i : order) {
+            if (eligible == null || eligible[i]) {
+                rank[i] = next++;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * 마법의 공식 결과 1건
+     */
+    static final class MagicFormulaHit {
+        private final StockFinancialData stock;
+        private final int operatingMarginRank;
+        private final int roeRank;
+        private final int perRank;
+
+        private MagicFormulaHit(StockFinancialData stock, int operatingMarginRank, int roeRank, int perRank) {
+            this.stock = stock;
+            this.operatingMarginRank = operatingMarginRank;
+            this.roeRank = roeRank;
+            this.perRank = perRank;
+        }
+
+        StockFinancialData getStock() {
+            return stock;
+        }
+
+        int getOperatingMarginRank() {
+            return operatingMarginRank;
+        }
+
+        int getRoeRank() {
+            return roeRank;
+        }
+
+        int getPerRank() {
+            return perRank;
+        }
+
+        int getScore() {
+            return operatingMarginRank + roeRank + perRank;
+        }
+    }
+
+    /**
+     * 턴어라운드 결과 1건
+     */
+    static final class TurnaroundHit {
+        private final StockFinancialData current;
+        private final String type;
+        private final BigDecimal previousNetIncome;
+        private final BigDecimal changeRate;
+
+        private TurnaroundHit(StockFinancialData current, String type,
+                              BigDecimal previousNetIncome, BigDecimal changeRate) {
+            this.current = current;
+            this.type = type;
+            this.previousNetIncome = previousNetIncome;
+            this.changeRate = changeRate;
+        }
+
+        StockFinancialData getCurrent() {
+            return current;
+        }
+
+        String getType() {
+            return type;
+        }
+
+        BigDecimal getPreviousNetIncome() {
+            return previousNetIncome;
+        }
+
+        BigDecimal getChangeRate() {
+            return changeRate;
+        }
+    }
+}
@@ -17,6 +17,7 @@ import org.springframework.data.domain.PageRequest;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * 재무 데이터 크롤링 서비스
@@ -56,14 +57,13 @@ public class FinancialDataCrawlerService {
         List<StockFinancialData> allData = stockFinancialDataRepository.findByReportDate(today);
 
         if (allData.isEmpty()) {
-            // 오늘 날짜 데이터가 없으면 최신 데이터 조회
-            List<String> stockCodes = stockShortDataRepository.findDistinctStockCodes();
+            // 오늘 날짜 데이터가 없으면 종목별 최신 데이터 조회 (단일 쿼리)
+            Set<String> stockCodes = new HashSet<>(stockShortDataRepository.findDistinctStockCodes());
             log.info("오늘 날짜 데이터 없음. StockShortData에서 {}개 종목 코드 조회", stockCodes.size());
 
-            for (String code : stockCodes) {
-                stockFinancialDataRepository.findTopByStockCodeOrderByReportDateDesc(code)
-                        .ifPresent(allData::add);
-            }
+            stockFinancialDataRepository.findLatestPerStock().stream()
+                    .filter(d -> stockCodes.contains(d.getStockCode()))
+                    .forEach(allData::add);
         }
 
         int totalCount = allData.size();
@@ -372,23 +372,27 @@ public class FinancialDataCrawlerService {
     }
 
     /**
-     * 영업이익률이 없는 종목 수 조회
+     * 영업이익률이 없는 종목 수 조회 (종목별 최신 데이터 기준)
      */
+    @Transactional(readOnly = true)
     public long countMissingOperatingMargin() {
-        List<StockFinancialData> allData = stockFinancialDataRepository.findAll();
-        return allData.stream()
-                .filter(d -> d.getOperatingMargin() == null || d.getOperatingMargin().compareTo(BigDecimal.ZERO) == 0)
-                .count();
+        try (Stream<StockFinancialData> latest = stockFinancialDataRepository.streamLatestPerStock()) {
+            return latest
+                    .filter(d -> d.getOperatingMargin() == null || d.getOperatingMargin().compareTo(BigDecimal.ZERO) == 0)
+                    .count();
+        }
     }
 
     /**
-     * 영업이익률이 있는 종목 수 조회
+     * 영업이익률이 있는 종목 수 조회 (종목별 최신 데이터 기준)
      */
+    @Transactional(readOnly = true)
     public long countWithOperatingMargin() {
-        List<StockFinancialData> allData = stockFinancialDataRepository.findAll();
-        return allData.stream()
-                .filter(d -> d.getOperatingMargin() != null && d.getOperatingMargin().compareTo(BigDecimal.ZERO) != 0)
-                .count();
+        try (Stream<StockFinancialData> latest = stockFinancialDataRepository.streamLatestPerStock()) {
+            return latest
+                    .filter(d -> d.getOperatingMargin() != null && d.getOperatingMargin().compareTo(BigDecimal.ZERO) != 0)
+                    .count();
+        }
     }
 
     /**
@@ -582,6 +586,9 @@ public class FinancialDataCrawlerService {
             return result;
         }
 
+        // 종목별 최신 데이터는 루프 전에 한 번만 조회 (종목마다 조회하지 않도록)
+        Map<String, StockFinancialData> latestByStock = loadLatestPerStock();
+
         int successCount = 0;
         int failCount = 0;
         int progressInterval = Math.max(totalCount / 20, 1);
@@ -595,7 +602,7 @@ public class FinancialDataCrawlerService {
                     Thread.sleep(600);
                 }
 
-                boolean collected = collectSingleStockQuarterlyData(stockCode);
+                boolean collected = collectSingleStockQuarterlyData(stockCode, latestByStock.get(stockCode));
                 if (collected) {
                     successCount++;
                 } else {
@@ -642,6 +649,30 @@ public class FinancialDataCrawlerService {
      * @return 성공 여부
      */
     public boolean collectSingleStockQuarterlyData(String stockCode) {
+        return collectSingleStockQuarterlyData(stockCode,
+                stockFinancialDataRepository.findTopByStockCodeOrderByReportDateDesc(stockCode).orElse(null));
+    }
+
+    /**
+     * 종목별 최신 재무 데이터 (종목코드 → 최신 1건, 단일 쿼리)
+     * - 여러 종목을 수집하는 루프에서 루프 전에 한 번 조회해 collectSingleStockQuarterlyData에 전달
+     */
+    public Map<String, StockFinancialData> loadLatestPerStock() {
+        Map<String, StockFinancialData> latestByStock = new HashMap<>();
+        for (StockFinancialData data : stockFinancialDataRepository.findLatestPerStock()) {
+            latestByStock.putIfAbsent(data.getStockCode(), data);
+        }
+        return latestByStock;
+    }
+
+    /**
+     * 단일 종목 분기별 재무제표 수집 (기존 최신 데이터를 미리 조회한 경우)
+     *
+     * @param stockCode 종목코드
+     * @param existing 종목의 최신 재무 데이터 (종목명, 시장, 가격 정보 승계용, 없으면 null)
+     * @return 성공 여부
+     */
+    public boolean collectSingleStockQuarterlyData(String stockCode, StockFinancialData existing) {
         try {
             // 네이버 금융 종목분석 페이지 크롤링
             List<QuarterlyFinancialData> quarterlyData = crawlQuarterlyFinancials(stockCode);
@@ -651,10 +682,6 @@ public class FinancialDataCrawlerService {
                 return false;
             }
 
-            // 기존 종목 정보 조회 (종목명, 시장 등)
-            Optional<StockFinancialData> existingOpt = stockFinancialDataRepository
-                    .findTopByStockCodeOrderByReportDateDesc(stockCode);
-
             String stockName = stockCode;
             String market = "KOSPI";
             BigDecimal currentPrice = null;
@@ -663,8 +690,8 @@ public class FinancialDataCrawlerService {
             BigDecimal pbr = null;
             BigDecimal roe = null;
 
-            if (existingOpt.isPresent()) {
-                StockFinancialData existing = existingOpt.get();
+            // 기존 종목 정보 승계 (종목명, 시장 등)
+            if (existing != null) {
                 stockName = existing.getStockName() != null ? existing.getStockName() : stockCode;
                 market = existing.getMarket() != null ? existing.getMarket() : "KOSPI";
                 currentPrice = existing.getCurrentPrice();
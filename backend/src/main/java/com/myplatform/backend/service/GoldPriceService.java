@@ -38,6 +38,7 @@ public class GoldPriceService {
 
     private final RestTemplate restTemplate;
     private final GoldPriceRepository goldPriceRepository;
+    private final ClusterLeader clusterLeader;
 
     @Value("${gold.api.url}")
     private String apiUrl;
@@ -51,9 +52,11 @@ public class GoldPriceService {
     // 캐시된 금 시세 데이터
     private final AtomicReference<GoldPriceDto> cachedGoldPrice = new AtomicReference<>();
 
-    public GoldPriceService(RestTemplate restTemplate, GoldPriceRepository goldPriceRepository) {
+    public GoldPriceService(RestTemplate restTemplate, GoldPriceRepository goldPriceRepository,
+                            ClusterLeader clusterLeader) {
         this.restTemplate = restTemplate;
         this.goldPriceRepository = goldPriceRepository;
+        this.clusterLeader = clusterLeader;
     }
 
     /**
@@ -86,10 +89,25 @@ public class GoldPriceService {
     @Scheduled(cron = "0 0 9,12,18 * * MON-FRI")
     @Scheduled(cron = "0 30 15 * * MON-FRI")
     public void scheduledFetchGoldPrice() {
+        if (!clusterLeader.isLeader()) {
+            log.debug("리더 노드가 아님 - 금 시세 갱신 생략");
+            return;
+        }
         log.info("스케줄 작업: 금 시세 갱신 시작");
         fetchAndCacheGoldPrice();
     }
 
+    /**
+     * 리더가 아닌 노드는 갱신 5분 후 리더가 저장한 시세를 DB에서 다시 읽음 (API 호출 안 함)
+     */
+    @Scheduled(cron = "0 5 9,12,18 * * MON-FRI")
+    @Scheduled(cron = "0 35 15 * * MON-FRI")
+    public void reloadFromLeader() {
+        if (!clusterLeader.isLeader()) {
+            loadFromDatabase();
+        }
+    }
+
     /**
      * GoldAPI.io API 호출 및 캐시/DB 저장
      */
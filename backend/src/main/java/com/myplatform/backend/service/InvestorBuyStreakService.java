@@ -0,0 +1,211 @@
+package com.myplatform.backend.service;
+
+import com.myplatform.backend.entity.InvestorBuyStreak;
+import com.myplatform.backend.entity.InvestorDailyTrade;
+import com.myplatform.backend.repository.InvestorBuyStreakRepository;
+import com.myplatform.backend.repository.InvestorDailyTradeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 투자자별 연속 매수 기록 관리
+ * - 일별 매수 순위가 저장될 때마다 해당 날짜 종목만 O(1)로 갱신
+ *   (직전 거래일에 이어지면 +1, 아니면 1일부터 다시 시작)
+ * - 같은 날짜 재수집은 마지막 날 기여분을 되돌린 뒤 다시 반영하므로 멱등
+ * - 과거 날짜가 뒤늦게 들어오거나 누락 구간이 있으면 원본 데이터로 전체 재계산
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+@Slf4j
+public class InvestorBuyStreakService {
+
+    private static final String TRADE_TYPE_BUY = "BUY";
+
+    private final InvestorBuyStreakRepository streakRepository;
+    private final InvestorDailyTradeRepository tradeRepository;
+
+    /**
+     * 기존 매수 데이터는 있는데 연속 매수 기록이 비어 있으면 1회 생성 (최초 배포 시)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (streakRepository.count() == 0 && tradeRepository.findLatestTradeDate() != null) {
+            log.info("연속 매수 기록 초기 생성 시작");
+            rebuildAll();
+        }
+    }
+
+    /**
+     * 현재 진행 중인 연속 매수 종목 조회 (최소 일수 이상)
+     */
+    @Transactional(readOnly = true)
+    public List<InvestorBuyStreak> getActiveStreaks(String investorType, int minDays) {
+        return streakRepository.findActiveStreaks(investorType, minDays);
+    }
+
+    /**
+     * 특정 일자의 매수 순위를 연속 매수 기록에 반영 (수집 직후 호출)
+     */
+    public void applyDay(String investorType, LocalDate tradeDate) {
+        LocalDate latestApplied = streakRepository.findLatestDate(investorType);
+        LocalDate prevDate = tradeRepository.findPreviousBuyTradeDate(investorType, tradeDate);
+
+        // 과거 날짜 반영, 최초 반영(기존 데이터 존재), 중간 누락 → 증분 갱신 불가
+        boolean outOfOrder = latestApplied != null && tradeDate.isBefore(latestApplied);
+        boolean missingHistory = prevDate != null && (latestApplied == null || latestApplied.isBefore(prevDate));
+        if (outOfOrder || missingHistory) {
+            rebuild(investorType);
+            return;
+        }
+
+        Map<String, InvestorDailyTrade> dayBuys = firstByStock(
+                tradeRepository.findByInvestorTypeAndTradeTypeAndTradeDate(investorType, TRADE_TYPE_BUY, tradeDate));
+
+        Map<String, InvestorBuyStreak> streaks = new HashMap<>();
+        for (InvestorBuyStreak s : streakRepository.findByInvestorTypeAndLastDate(investorType, tradeDate)) {
+            streaks.put(s.getStockCode(), s);
+        }
+        if (!dayBuys.isEmpty()) {
+            for (InvestorBuyStreak s : streakRepository.findByInvestorTypeAndStockCodeIn(investorType, dayBuys.keySet())) {
+                streaks.put(s.getStockCode(), s);
+            }
+        }
+
+        List<InvestorBuyStreak> toSave = new ArrayList<>();
+        for (InvestorDailyTrade trade : dayBuys.values()) {
+            InvestorBuyStreak streak = streaks.get(trade.getStockCode());
+            if (streak != null && tradeDate.equals(streak.getLastDate())) {
+                undoLastDay(streak, prevDate, null);
+            }
+            toSave.add(advance(streak, trade, prevDate));
+        }
+
+        // 재수집으로 이날 순위에서 빠진 종목은 이날 기여분 되돌림
+        List<InvestorBuyStreak> toDelete = new ArrayList<>();
+        Map<String, InvestorDailyTrade> prevBuys = null;
+        for (InvestorBuyStreak streak : streaks.values()) {
+            if (!tradeDate.equals(streak.getLastDate()) || dayBuys.containsKey(streak.getStockCode())) {
+                continue;
+            }
+            if (streak.getStreakDays() <= 1) {
+                toDelete.add(streak);
+                continue;
+            }
+            if (prevBuys == null) {
+                prevBuys = firstByStock(tradeRepository
+                        .findByInvestorTypeAndTradeTypeAndTradeDate(investorType, TRADE_TYPE_BUY, prevDate));
+            }
+            undoLastDay(streak, prevDate, prevBuys.get(streak.getStockCode()));
+            toSave.add(streak);
+        }
+
+        streakRepository.deleteAll(toDelete);
+        streakRepository.saveAll(toSave);
+        log.debug("연속 매수 기록 반영 [{} {}]: 갱신 {}건, 제거 {}건",
+                investorType, tradeDate, toSave.size(), toDelete.size());
+    }
+
+    /**
+     * 투자자의 연속 매수 기록 전체 재계산 (원본 매수 순위 기준)
+     */
+    public void rebuild(String investorType) {
+        streakRepository.deleteByInvestorType(investorType);
+
+        Map<LocalDate, Map<String, InvestorDailyTrade>> byDate = new TreeMap<>();
+        for (InvestorDailyTrade trade : tradeRepository.findAllBuyTradesAsc(investorType)) {
+            byDate.computeIfAbsent(trade.getTradeDate(), k -> new LinkedHashMap<>())
+                    .putIfAbsent(trade.getStockCode(), trade);
+        }
+
+        Map<String, InvestorBuyStreak> streaks = new HashMap<>();
+        LocalDate prevDate = null;
+        for (Map.Entry<LocalDate, Map<String, InvestorDailyTrade>> day : byDate.entrySet()) {
+            for (InvestorDailyTrade trade : day.getValue().values()) {
+                streaks.put(trade.getStockCode(), advance(streaks.get(trade.getStockCode()), trade, prevDate));
+            }
+            prevDate = day.getKey();
+        }
+
+        streakRepository.saveAll(streaks.values());
+        log.info("연속 매수 기록 재계산 완료: {} - 거래일 {}일, 종목 {}개", investorType, byDate.size(), streaks.size());
+    }
+
+    /**
+     * 전체 투자자 재계산 (원본 데이터 일괄 삭제/정리 후 호출)
+     */
+    public void rebuildAll() {
+        streakRepository.deleteAllInBatch();
+        for (String investorType : tradeRepository.findDistinctBuyInvestorTypes()) {
+            rebuild(investorType);
+        }
+    }
+
+    /**
+     * 하루치 매수 반영: 직전 거래일까지 이어진 기록이면 연장, 아니면 새로 시작
+     */
+    private InvestorBuyStreak advance(InvestorBuyStreak streak, InvestorDailyTrade trade, LocalDate prevDate) {
+        BigDecimal amount = trade.getNetBuyAmount() != null ? trade.getNetBuyAmount() : BigDecimal.ZERO;
+
+        if (streak == null) {
+            streak = InvestorBuyStreak.builder()
+                    .investorType(trade.getInvestorType())
+                    .stockCode(trade.getStockCode())
+                    .build();
+        }
+
+        boolean continues = prevDate != null && streak.getStreakDays() != null && streak.getStreakDays() > 0
+                && prevDate.equals(streak.getLastDate());
+        if (continues) {
+            streak.setStreakDays(streak.getStreakDays() + 1);
+            streak.setTotalNetBuyAmount(streak.getTotalNetBuyAmount().add(amount));
+        } else {
+            streak.setStreakDays(1);
+            streak.setStartDate(trade.getTradeDate());
+            streak.setTotalNetBuyAmount(amount);
+        }
+
+        streak.setLastDate(trade.getTradeDate());
+        streak.setLastNetBuyAmount(amount);
+        streak.setStockName(trade.getStockName());
+        streak.setCurrentPrice(trade.getCurrentPrice());
+        streak.setChangeRate(trade.getChangeRate());
+        return streak;
+    }
+
+    /**
+     * 마지막 날 기여분 되돌리기 (같은 날 재수집 대비)
+     *
+     * @param prevTrade 직전 거래일 매수 행 (알 수 없으면 null, 바로 다시 advance되는 경우)
+     */
+    private void undoLastDay(InvestorBuyStreak streak, LocalDate prevDate, InvestorDailyTrade prevTrade) {
+        streak.setStreakDays(streak.getStreakDays() - 1);
+        streak.setTotalNetBuyAmount(streak.getTotalNetBuyAmount().subtract(streak.getLastNetBuyAmount()));
+        streak.setLastDate(prevDate);
+        if (prevTrade != null) {
+            streak.setLastNetBuyAmount(prevTrade.getNetBuyAmount() != null ? prevTrade.getNetBuyAmount() : BigDecimal.ZERO);
+            streak.setCurrentPrice(prevTrade.getCurrentPrice());
+            streak.setChangeRate(prevTrade.getChangeRate());
+        }
+    }
+
+    /**
+     * 종목별 첫 행만 유지 (순위순, 같은 날 두 시장에 중복 등장 시)
+     */
+    private Map<String, InvestorDailyTrade> firstByStock(List<InvestorDailyTrade> trades) {
+        return trades.stream()
+                .sorted(Comparator.comparing(InvestorDailyTrade::getRankNum))
+                .collect(Collectors.toMap(InvestorDailyTrade::getStockCode, Function.identity(),
+                        (a, b) -> a, LinkedHashMap::new));
+    }
+}
@@ -3,6 +3,7 @@ package com.myplatform.backend.service;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.myplatform.backend.entity.InvestorDailyTrade;
+import com.myplatform.backend.entity.InvestorTradeAccumulation;
 import com.myplatform.backend.repository.InvestorDailyTradeRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,7 +19,7 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 /**
  * 투자자별 일별 상위 매수/매도 종목 서비스
@@ -53,68 +54,28 @@ public class InvestorDailyTradeService {
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
     private final InvestorDailyTradeRepository tradeRepository;
+    private final InvestorDailyTradeUpsertService upsertService;
+    private final InvestorBuyStreakService streakService;
+    private final InvestorTradeAccumulationService accumulationService;
     private final StockPriceRepository stockPriceRepository;
 
-    // 시장 구분 캐시 (종목코드 -> 시장타입)
-    private final Map<String, String> marketTypeCache = new ConcurrentHashMap<>();
-
     public InvestorDailyTradeService(RestTemplate restTemplate, ObjectMapper objectMapper,
                                       InvestorDailyTradeRepository tradeRepository,
+                                      InvestorDailyTradeUpsertService upsertService,
+                                      InvestorBuyStreakService streakService,
+                                      InvestorTradeAccumulationService accumulationService,
                                       KoreaInvestmentService kisService,
                                       StockPriceRepository stockPriceRepository) {
         this.restTemplate = restTemplate;
         this.objectMapper = objectMapper;
         this.tradeRepository = tradeRepository;
+        this.upsertService = upsertService;
+        this.streakService = streakService;
+        this.accumulationService = accumulationService;
         this.kisService = kisService;
         this.stockPriceRepository = stockPriceRepository;
     }
 
-    /**
-     * 종목 코드로 시장 구분 판별
-     * - 한국 주식 시장의 종목 코드 규칙 기반
-     * - KOSPI: 00xxxx, 01xxxx, 02xxxx (주로 0으로 시작)
-     * - KOSDAQ: 그 외 (1, 2, 3, 4 등으로 시작)
-     */
-    private String determineMarketType(String stockCode) {
-        if (stockCode == null || stockCode.length() < 6) {
-            return "UNKNOWN";
-        }
-
-        // 캐시에서 먼저 조회
-        String cachedMarket = marketTypeCache.get(stockCode);
-        if (cachedMarket != null) {
-            return cachedMarket;
-        }
-
-        String marketType;
-
-        // 종목 코드 첫 자리 기반 판별 (일반적인 규칙)
-        char firstChar = stockCode.charAt(0);
-
-        // KOSPI 종목: 0으로 시작 (삼성전자 005930, SK하이닉스 000660 등)
-        // KOSDAQ 종목: 1~9로 시작 (카카오 035720은 예외지만, 대부분 패턴 따름)
-        // 추가 규칙: 종목 코드가 0으로 시작하고, 두 번째 자리도 0~2면 KOSPI 확률 높음
-        if (firstChar == '0') {
-            char secondChar = stockCode.charAt(1);
-            // 00xxxx, 01xxxx, 02xxxx, 03xxxx -> KOSPI
-            // 035720(카카오) 같은 예외가 있지만, 대부분 KOSPI
-            if (secondChar >= '0' && secondChar <= '3') {
-                marketType = "KOSPI";
-            } else {
-                // 04~09 시작은 KOSDAQ 가능성
-                marketType = "KOSDAQ";
-            }
-        } else {
-            // 1~9로 시작하면 KOSDAQ
-            marketType = "KOSDAQ";
-        }
-
-        // 캐시에 저장
-        marketTypeCache.put(stockCode, marketType);
-
-        return marketType;
-    }
-
     /**
      * 모든 투자자 유형의 상위 종목 데이터 수집 및 저장 (당일)
      */
@@ -154,8 +115,16 @@ public class InvestorDailyTradeService {
      * - 한투 API는 KOSPI/KOSDAQ 통합 조회이므로, 투자자+날짜로 중복 체크
      */
     public int collectFromKisApi(String investorType, LocalDate tradeDate) {
+        return collectFromKisApi(investorType, tradeDate, false);
+    }
+
+    /**
+     * 한국투자증권 API에서 투자자별 상위 종목 수집
+     * @param force true면 기존 데이터가 있어도 수집하여 변경분만 업서트
+     */
+    public int collectFromKisApi(String investorType, LocalDate tradeDate, boolean force) {
         // 이미 해당 투자자, 날짜로 데이터가 있으면 스킵 (시장 구분 없이 체크)
-        if (tradeRepository.existsByInvestorTypeAndTradeDate(investorType, tradeDate)) {
+        if (!force && tradeRepository.existsByInvestorTypeAndTradeDate(investorType, tradeDate)) {
             log.info("이미 수집됨: {} {}", investorType, tradeDate);
             return 0;
         }
@@ -203,7 +172,7 @@ public class InvestorDailyTradeService {
 
                         InvestorDailyTrade trade = new InvestorDailyTrade();
                         // 종목 코드 기반으로 시장 구분 판별
-                        trade.setMarketType(determineMarketType(stockCode));
+                        trade.setMarketType(InvestorDailyTradeUpsertService.determineMarketType(stockCode));
                         trade.setTradeDate(tradeDate);
                         trade.setInvestorType(investorType);
                         trade.setTradeType(tradeType);
@@ -246,7 +215,8 @@ public class InvestorDailyTradeService {
             }
 
             if (!trades.isEmpty()) {
-                tradeRepository.saveAll(trades);
+                // 자연키 기준 diff 업서트 (변경된 행만 기록)
+                upsertService.upsertRanking(investorType, tradeType, tradeDate, trades);
                 log.info("한투API 저장 완료: {} {} {} - {}건", investorType, tradeType, tradeDate, trades.size());
             }
 
@@ -262,8 +232,16 @@ public class InvestorDailyTradeService {
      * KRX에서 연기금 투자자 데이터 수집
      */
     public int collectPensionFromKrx(String marketType, LocalDate tradeDate) {
+        return collectPensionFromKrx(marketType, tradeDate, false);
+    }
+
+    /**
+     * KRX에서 연기금 투자자 데이터 수집
+     * @param force true면 기존 데이터가 있어도 수집하여 변경분만 업서트
+     */
+    public int collectPensionFromKrx(String marketType, LocalDate tradeDate, boolean force) {
         // 이미 데이터가 있으면 스킵
-        if (tradeRepository.existsByMarketTypeAndInvestorTypeAndTradeDate(marketType, INVESTOR_PENSION, tradeDate)) {
+        if (!force && tradeRepository.existsByMarketTypeAndInvestorTypeAndTradeDate(marketType, INVESTOR_PENSION, tradeDate)) {
             log.info("이미 수집됨: {} {} {}", marketType, INVESTOR_PENSION, tradeDate);
             return 0;
         }
@@ -364,7 +342,8 @@ public class InvestorDailyTradeService {
             }
 
             if (!trades.isEmpty()) {
-                tradeRepository.saveAll(trades);
+                // 자연키 기준 diff 업서트 (변경된 행만 기록)
+                upsertService.upsertMarket(marketType, INVESTOR_PENSION, tradeDate, trades);
                 log.info("연기금 데이터 저장 완료: {} {} - {}건", marketType, tradeDate, trades.size());
             }
 
@@ -452,9 +431,18 @@ public class InvestorDailyTradeService {
 
     /**
      * 기간별 투자자의 누적 매수/매도 종목 통계
+     * - 요청 기간이 최근 5/20/60 거래일과 일치하면 사전 집계 테이블에서 조회
+     * - 그 외 임의 기간만 원본 테이블 GROUP BY 수행
      */
     public List<Map<String, Object>> getAccumulatedTrades(
             String investorType, String marketType, LocalDate startDate, LocalDate endDate) {
+        Integer window = accumulationService.resolveWindow(investorType, startDate, endDate);
+        if (window != null) {
+            return accumulationService.getAccumulated(investorType, marketType, window).stream()
+                    .map(this::accumulationToMap)
+                    .collect(Collectors.toList());
+        }
+
         List<Object[]> results = tradeRepository.findAccumulatedTradesByInvestor(
                 investorType, marketType, startDate, endDate);
 
@@ -471,6 +459,35 @@ public class InvestorDailyTradeService {
         return stats;
     }
 
+    /**
+     * 최근 N 거래일 누적 순매수/순매도 상위 종목 (사전 집계 테이블)
+     *
+     * @param windowDays 5, 20, 60 중 하나
+     */
+    public List<Map<String, Object>> getTopAccumulatedTrades(
+            String investorType, int windowDays, String tradeType, int limit) {
+        if (Arrays.stream(InvestorTradeAccumulationService.WINDOWS).noneMatch(w -> w == windowDays)) {
+            throw new IllegalArgumentException("지원하지 않는 기간입니다: " + windowDays + " (5, 20, 60 중 선택)");
+        }
+        return accumulationService.getTopAccumulated(investorType, windowDays, tradeType, limit).stream()
+                .map(this::accumulationToMap)
+                .collect(Collectors.toList());
+    }
+
+    private Map<String, Object> accumulationToMap(InvestorTradeAccumulation acc) {
+        Map<String, Object> stat = new HashMap<>();
+        stat.put("stockCode", acc.getStockCode());
+        stat.put("stockName", acc.getStockName());
+        stat.put("marketType", acc.getMarketType());
+        stat.put("tradeType", acc.getTradeType());
+        stat.put("totalAmount", acc.getTotalAmount());
+        stat.put("tradeDays", acc.getTradeDays());
+        stat.put("windowDays", acc.getWindowDays());
+        stat.put("startDate", acc.getWindowStart());
+        stat.put("endDate", acc.getAsOfDate());
+        return stat;
+    }
+
     /**
      * 데이터가 있는 날짜 목록 조회
      */
@@ -479,18 +496,16 @@ public class InvestorDailyTradeService {
     }
 
     /**
-     * 특정 일자 데이터 재수집 (기존 데이터 삭제 후 재수집)
+     * 특정 일자 데이터 재수집 (자연키 기준 업서트)
+     * - 기존 데이터를 삭제하지 않고 변경된 행만 UPDATE/INSERT/DELETE
+     * - 수집 실패(빈 응답) 시 기존 데이터는 그대로 유지
      */
     public int recollect(String marketType, String investorType, LocalDate tradeDate) {
-        // 기존 데이터 삭제
-        tradeRepository.deleteByMarketTypeAndInvestorTypeAndTradeDate(marketType, investorType, tradeDate);
-
-        // 재수집
         if (INVESTOR_PENSION.equals(investorType)) {
-            return collectPensionFromKrx(marketType, tradeDate);
+            return collectPensionFromKrx(marketType, tradeDate, true);
         } else {
-            // 한국투자증권 API 사용
-            return collectFromKisApi(investorType, tradeDate);
+            // 한국투자증권 API 사용 (시장 통합 순위)
+            return collectFromKisApi(investorType, tradeDate, true);
         }
     }
 
@@ -500,6 +515,10 @@ public class InvestorDailyTradeService {
      */
     public int cleanupDuplicates() {
         int deleted = tradeRepository.deleteDuplicates();
+        if (deleted > 0) {
+            streakService.rebuildAll();
+            accumulationService.refreshAll();
+        }
         log.info("중복 데이터 정리 완료: {}건 삭제", deleted);
         return deleted;
     }
@@ -509,6 +528,8 @@ public class InvestorDailyTradeService {
      */
     public void deleteByDate(LocalDate tradeDate) {
         tradeRepository.deleteByTradeDate(tradeDate);
+        streakService.rebuildAll();
+        accumulationService.refreshAll();
         log.info("날짜별 데이터 삭제 완료: {}", tradeDate);
     }
 
@@ -0,0 +1,170 @@
+package com.myplatform.backend.service;
+
+import com.myplatform.backend.entity.InvestorDailyTrade;
+import com.myplatform.backend.repository.InvestorDailyTradeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 투자자별 일별 거래 데이터 업서트 서비스
+ * - 자연키 uk_investor_daily_trade (trade_date, market_type, investor_type, trade_type, rank_num) 기준
+ * - 변경된 행만 UPDATE, 새 행만 INSERT, 범위 내에서 사라진 행만 DELETE
+ * - 같은 날짜를 여러 번 재수집해도 결과가 동일 (멱등)
+ * - 매수 순위 저장 후 연속 매수 기록(InvestorBuyStreak) 증분 갱신
+ * - 저장 후 해당 투자자의 누적 매매 집계(InvestorTradeAccumulation) 갱신
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+@Slf4j
+public class InvestorDailyTradeUpsertService {
+
+    private final InvestorDailyTradeRepository tradeRepository;
+    private final InvestorBuyStreakService streakService;
+    private final InvestorTradeAccumulationService accumulationService;
+
+    /**
+     * 종목 코드로 시장 구분 판별
+     * - 한국 주식 시장의 종목 코드 규칙 기반
+     * - KOSPI: 00xxxx, 01xxxx, 02xxxx (주로 0으로 시작)
+     * - KOSDAQ: 그 외 (1, 2, 3, 4 등으로 시작)
+     * - 한투 API 순위는 KOSPI/KOSDAQ 통합이므로 수집 경로 모두 이 규칙으로 행별 시장을 기록
+     */
+    static String determineMarketType(String stockCode) {
+        if (stockCode == null || stockCode.length() < 6) {
+            return "UNKNOWN";
+        }
+
+        String marketType;
+
+        // 종목 코드 첫 자리 기반 판별 (일반적인 규칙)
+        char firstChar = stockCode.charAt(0);
+
+        // KOSPI 종목: 0으로 시작 (삼성전자 005930, SK하이닉스 000660 등)
+        // KOSDAQ 종목: 1~9로 시작 (카카오 035720은 예외지만, 대부분 패턴 따름)
+        // 추가 규칙: 종목 코드가 0으로 시작하고, 두 번째 자리도 0~2면 KOSPI 확률 높음
+        if (firstChar == '0') {
+            char secondChar = stockCode.charAt(1);
+            // 00xxxx, 01xxxx, 02xxxx, 03xxxx -> KOSPI
+            // 035720(카카오) 같은 예외가 있지만, 대부분 KOSPI
+            if (secondChar >= '0' && secondChar <= '3') {
+                marketType = "KOSPI";
+            } else {
+                // 04~09 시작은 KOSDAQ 가능성
+                marketType = "KOSDAQ";
+            }
+        } else {
+            // 1~9로 시작하면 KOSDAQ
+            marketType = "KOSDAQ";
+        }
+
+        return marketType;
+    }
+
+    /**
+     * 투자자 + 거래유형 + 날짜 범위 업서트 (한투 API 수집용)
+     * - 한투 API는 KOSPI/KOSDAQ 통합 순위이므로 시장 구분 없이 범위를 잡는다
+     */
+    public UpsertPlan<InvestorDailyTrade> upsertRanking(String investorType, String tradeType,
+                                                        LocalDate tradeDate, List<InvestorDailyTrade> incoming) {
+        if (incoming.isEmpty()) {
+            return null;
+        }
+        List<InvestorDailyTrade> existing = tradeRepository
+                .findByInvestorTypeAndTradeTypeAndTradeDate(investorType, tradeType, tradeDate);
+        UpsertPlan<InvestorDailyTrade> plan = apply(existing, incoming, investorType + "/" + tradeType + "/" + tradeDate);
+        if ("BUY".equals(tradeType)) {
+            streakService.applyDay(investorType, tradeDate);
+        }
+        accumulationService.refresh(investorType);
+        return plan;
+    }
+
+    /**
+     * 시장 + 투자자 + 날짜 범위 업서트 (KRX 연기금 수집용, BUY/SELL 동시)
+     */
+    public UpsertPlan<InvestorDailyTrade> upsertMarket(String marketType, String investorType,
+                                                       LocalDate tradeDate, List<InvestorDailyTrade> incoming) {
+        if (incoming.isEmpty()) {
+            return null;
+        }
+        List<InvestorDailyTrade> existing = tradeRepository
+                .findByMarketTypeAndInvestorTypeAndTradeDate(marketType, investorType, tradeDate);
+        UpsertPlan<InvestorDailyTrade> plan = apply(existing, incoming, marketType + "/" + investorType + "/" + tradeDate);
+        streakService.applyDay(investorType, tradeDate);
+        accumulationService.refresh(investorType);
+        return plan;
+    }
+
+    private UpsertPlan<InvestorDailyTrade> apply(List<InvestorDailyTrade> existing,
+                                                 List<InvestorDailyTrade> incoming, String scope) {
+        UpsertPlan<InvestorDailyTrade> plan = UpsertPlan.of(
+                existing, incoming, InvestorDailyTradeUpsertService::naturalKey,
+                InvestorDailyTradeUpsertService::merge, true);
+
+        if (!plan.getDeletes().isEmpty()) {
+            tradeRepository.deleteAll(plan.getDeletes());
+        }
+        if (!plan.getInserts().isEmpty()) {
+            tradeRepository.saveAll(plan.getInserts());
+        }
+        // 변경된 기존 행은 영속 상태이므로 flush 시 dirty checking으로 UPDATE
+
+        log.info("투자자 거래 업서트 [{}]: {}", scope, plan);
+        return plan;
+    }
+
+    /**
+     * uk_investor_daily_trade 자연키
+     */
+    static String naturalKey(InvestorDailyTrade t) {
+        return t.getTradeDate() + "|" + t.getMarketType() + "|" + t.getInvestorType()
+                + "|" + t.getTradeType() + "|" + t.getRankNum();
+    }
+
+    /**
+     * source 값을 target에 복사 (값이 다를 때만)
+     * @return 변경 여부
+     */
+    private static boolean merge(InvestorDailyTrade target, InvestorDailyTrade source) {
+        boolean changed = false;
+        if (!UpsertPlan.same(target.getStockCode(), source.getStockCode())) {
+            target.setStockCode(source.getStockCode());
+            changed = true;
+        }
+        if (!UpsertPlan.same(target.getStockName(), source.getStockName())) {
+            target.setStockName(source.getStockName());
+            changed = true;
+        }
+        if (!UpsertPlan.same(target.getNetBuyAmount(), source.getNetBuyAmount())) {
+            target.setNetBuyAmount(source.getNetBuyAmount());
+            changed = true;
+        }
+        if (!UpsertPlan.same(target.getBuyAmount(), source.getBuyAmount())) {
+            target.setBuyAmount(source.getBuyAmount());
+            changed = true;
+        }
+        if (!UpsertPlan.same(target.getSellAmount(), source.getSellAmount())) {
+            target.setSellAmount(source.getSellAmount());
+            changed = true;
+        }
+        if (!UpsertPlan.same(target.getCurrentPrice(), source.getCurrentPrice())) {
+            target.setCurrentPrice(source.getCurrentPrice());
+            changed = true;
+        }
+        if (!UpsertPlan.same(target.getChangeRate(), source.getChangeRate())) {
+            target.setChangeRate(source.getChangeRate());
+            changed = true;
+        }
+        if (!UpsertPlan.same(target.getTradeVolume(), source.getTradeVolume())) {
+            target.setTradeVolume(source.getTradeVolume());
+            changed = true;
+        }
+        return changed;
+    }
+}
@@ -4,21 +4,31 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.myplatform.backend.dto.InvestorSurgeDto;
 import com.myplatform.backend.entity.InvestorIntradaySnapshot;
 import com.myplatform.backend.repository.InvestorIntradaySnapshotRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 
 /**
@@ -26,6 +36,8 @@ import java.util.stream.Collectors;
  * - 장중 10분 단위로 순매수 데이터 수집
  * - 이전 스냅샷 대비 변화량 계산
  * - 급증 종목 감지
+ * - 투자자별 현재/직전 스냅샷은 메모리에 유지하고 변화량도 메모리에서 계산
+ * - 급증 종목 조회는 수집 시점에 미리 만들어 둔 불변 뷰로 응답 (DB는 영구 기록용)
  */
 @Service
 @Transactional
@@ -36,21 +48,40 @@ public class InvestorSurgeService {
     private final InvestorIntradaySnapshotRepository snapshotRepository;
     private final KoreaInvestmentService koreaInvestmentService;
     private final TelegramNotificationService telegramService;
+    private final PartitionMaintenanceService partitionMaintenanceService;
+    private final ClusterEventBus clusterEventBus;
+    private final ClusterLeader clusterLeader;
 
     // 급증 기준값 (억원)
     private static final BigDecimal SURGE_THRESHOLD_HOT = new BigDecimal("100");   // 100억 이상
     private static final BigDecimal SURGE_THRESHOLD_WARM = new BigDecimal("50");   // 50억 이상
 
-    // 알림 재발송 금지 (30분 내 동일 종목)
-    private static final long ALERT_COOLDOWN_MINUTES = 30;
-    private final Map<String, LocalDateTime> alertSentMap = new ConcurrentHashMap<>();
+    // 알림 재발송 금지 (30분 내 동일 종목, 수동 수집이 겹쳐도 한 번만 발송)
+    private static final Duration ALERT_COOLDOWN = Duration.ofMinutes(30);
+
+    // 스냅샷 저장 알림 (다른 노드는 메모리 뷰를 버리고 DB에서 다시 읽음)
+    private static final String SNAPSHOT_CHANNEL = "investor-surge-snapshot";
+
+    // 투자자 유형 → 현재/직전 스냅샷 상태 (수집 스레드가 통째로 교체, 조회 스레드는 읽기만)
+    private final Map<String, IntradayState> intradayStates = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void subscribeSnapshots() {
+        if (clusterEventBus.isDistributed()) {
+            clusterEventBus.subscribe(SNAPSHOT_CHANNEL, (sequence, body) -> onRemoteSnapshot(body));
+        }
+    }
 
     /**
-     * 장중 10분마다 외국인/기관 순매수 데이터 수집
+     * 장중 10분마다 외국인/기관 순매수 데이터 수집 (리더만, 다른 노드는 저장 알림을 받아 DB에서 읽음)
      * 평일 09:10 ~ 15:20 사이에만 실행
      */
     @Scheduled(cron = "0 0/10 9-15 * * MON-FRI")
     public void collectIntradaySnapshot() {
+        if (!clusterLeader.isLeader()) {
+            log.debug("리더 노드가 아님 - 장중 스냅샷 수집 생략");
+            return;
+        }
         LocalTime now = LocalTime.now();
 
         // 09:00 이전, 15:30 이후는 수집하지 않음
@@ -88,19 +119,10 @@ public class InvestorSurgeService {
                     .withSecond(0).withNano(0)
                     .withMinute((LocalTime.now().getMinute() / 10) * 10);
 
-            // 직전 스냅샷 시간 조회
-            Optional<LocalTime> prevTimeOpt = snapshotRepository.findPreviousSnapshotTime(
-                    today, investorType, snapshotTime);
-
-            // 직전 스냅샷 데이터 맵 (종목코드 -> 스냅샷)
-            Map<String, InvestorIntradaySnapshot> prevSnapshots = new HashMap<>();
-            if (prevTimeOpt.isPresent()) {
-                List<InvestorIntradaySnapshot> prevList = snapshotRepository
-                        .findBySnapshotDateAndSnapshotTimeAndInvestorTypeOrderByRankNumAsc(
-                                today, prevTimeOpt.get(), investorType);
-                prevSnapshots = prevList.stream()
-                        .collect(Collectors.toMap(InvestorIntradaySnapshot::getStockCode, s -> s, (a, b) -> a));
-            }
+            // 직전 스냅샷 (메모리 우선, 재기동 직후에만 DB 조회)
+            SurgeView prevView = findPreviousView(investorType, today, snapshotTime);
+            Map<String, InvestorIntradaySnapshot> prevSnapshots = prevView != null
+                    ? prevView.snapshots : Collections.emptyMap();
 
             // API 호출하여 현재 데이터 수집
             snapshots = fetchCurrentRanking(investorType, today, snapshotTime);
@@ -122,10 +144,16 @@ public class InvestorSurgeService {
                 }
             }
 
-            // 중복 방지: 동일 시간대 기존 데이터 삭제 후 저장
-            snapshotRepository.deleteBySnapshotDateAndSnapshotTimeAndInvestorType(today, snapshotTime, investorType);
-            snapshotRepository.saveAll(snapshots);
-            log.info("스냅샷 저장 완료: {} - {}건", investorType, snapshots.size());
+            // 중복 방지: 동일 시간대 기존 데이터와 종목코드 기준 diff 업서트
+            if (!snapshots.isEmpty()) {
+                UpsertPlan<InvestorIntradaySnapshot> plan = upsertSnapshots(
+                        today, snapshotTime, investorType, snapshots);
+                log.info("스냅샷 저장 완료: {} - {}건 ({})", investorType, snapshots.size(), plan);
+
+                intradayStates.put(investorType,
+                        new IntradayState(buildView(today, snapshotTime, snapshots), prevView));
+                afterCommit(() -> publishSnapshot(investorType));
+            }
 
         } catch (Exception e) {
             log.error("스냅샷 수집 실패: {}", investorType, e);
@@ -133,6 +161,161 @@ public class InvestorSurgeService {
         return snapshots;
     }
 
+    /**
+     * 커밋 후 실행 (트랜잭션 밖이면 즉시)
+     */
+    private static void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    /**
+     * 저장 알림: nodeId(long) + 투자자 유형(UTF)
+     */
+    private void publishSnapshot(String investorType) {
+        if (!clusterEventBus.isDistributed()) {
+            return;
+        }
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(32);
+            DataOutputStream out = new DataOutputStream(buffer);
+            out.writeLong(clusterEventBus.nodeId());
+            out.writeUTF(investorType);
+            clusterEventBus.publish(SNAPSHOT_CHANNEL, buffer.toByteArray());
+        } catch (IOException e) {
+            log.warn("스냅샷 저장 알림 발행 실패: {}", e.getMessage());
+        }
+    }
+
+    private void onRemoteSnapshot(byte[] body) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+            if (in.readLong() == clusterEventBus.nodeId()) {
+                return;
+            }
+            intradayStates.remove(in.readUTF());
+        } catch (IOException e) {
+            log.warn("스냅샷 저장 알림 형식 오류: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 변화량 계산 기준이 되는 직전 스냅샷
+     * - 같은 시간대 재수집이면 그 시간대의 직전 스냅샷, 이후 시간대면 현재 스냅샷
+     * - 메모리 상태가 없거나 날짜가 바뀐 경우 DB에서 당일 직전 스냅샷 조회
+     */
+    private SurgeView findPreviousView(String investorType, LocalDate date, LocalTime snapshotTime) {
+        IntradayState state = intradayStates.get(investorType);
+        if (state != null && date.equals(state.current.date)) {
+            if (state.current.time.isBefore(snapshotTime)) {
+                return state.current;
+            }
+            if (state.current.time.equals(snapshotTime)) {
+                return state.previous;
+            }
+        }
+
+        Optional<LocalTime> prevTimeOpt = snapshotRepository.findPreviousSnapshotTime(
+                date, investorType, snapshotTime);
+        if (prevTimeOpt.isEmpty()) {
+            return null;
+        }
+        List<InvestorIntradaySnapshot> prevList = snapshotRepository
+                .findBySnapshotDateAndSnapshotTimeAndInvestorTypeOrderByRankNumAsc(
+                        date, prevTimeOpt.get(), investorType);
+        return buildView(date, prevTimeOpt.get(), prevList);
+    }
+
+    /**
+     * 스냅샷 목록으로 조회용 뷰 생성 (순매수 금액 내림차순, 종목코드 중복 제거, DTO 미리 계산)
+     */
+    private SurgeView buildView(LocalDate date, LocalTime time, List<InvestorIntradaySnapshot> snapshots) {
+        List<InvestorIntradaySnapshot> sorted = new ArrayList<>(snapshots);
+        sorted.sort(Comparator.comparing(InvestorIntradaySnapshot::getNetBuyAmount,
+                Comparator.nullsLast(Comparator.reverseOrder())));
+
+        Map<String, InvestorIntradaySnapshot> byCode = new LinkedHashMap<>();
+        for (InvestorIntradaySnapshot snapshot : sorted) {
+            byCode.putIfAbsent(snapshot.getStockCode(), snapshot);
+        }
+
+        List<InvestorSurgeDto> dtos = byCode.values().stream()
+                .map(this::toSurgeDto)
+                .collect(Collectors.toList());
+        return new SurgeView(date, time, Collections.unmodifiableMap(byCode), Collections.unmodifiableList(dtos));
+    }
+
+    /**
+     * 동일 시점 스냅샷 업서트
+     * - 자연키 uk_intraday_snapshot (snapshot_date, snapshot_time, investor_type, stock_code)
+     * - 값이 바뀐 행만 UPDATE, 새 종목만 INSERT, 순위에서 빠진 종목만 DELETE
+     */
+    private UpsertPlan<InvestorIntradaySnapshot> upsertSnapshots(LocalDate date, LocalTime time, String investorType,
+                                                                 List<InvestorIntradaySnapshot> snapshots) {
+        List<InvestorIntradaySnapshot> existing = snapshotRepository
+                .findBySnapshotDateAndSnapshotTimeAndInvestorTypeOrderByRankNumAsc(date, time, investorType);
+
+        UpsertPlan<InvestorIntradaySnapshot> plan = UpsertPlan.of(
+                existing, snapshots, InvestorIntradaySnapshot::getStockCode, this::mergeSnapshot, true);
+
+        if (!plan.getDeletes().isEmpty()) {
+            snapshotRepository.deleteAll(plan.getDeletes());
+        }
+        if (!plan.getInserts().isEmpty()) {
+            snapshotRepository.saveAll(plan.getInserts());
+        }
+        return plan;
+    }
+
+    /**
+     * source 값을 target에 복사 (값이 다를 때만)
+     * @return 변경 여부
+     */
+    private boolean mergeSnapshot(InvestorIntradaySnapshot target, InvestorIntradaySnapshot source) {
+        boolean changed = false;
+        if (!UpsertPlan.same(target.getStockName(), source.getStockName())) {
+            target.setStockName(source.getStockName());
+            changed = true;
+        }
+        if (!UpsertPlan.same(target.getNetBuyAmount(), source.getNetBuyAmount())) {
+            target.setNetBuyAmount(source.getNetBuyAmount());
+            changed = true;
+        }
+        if (!UpsertPlan.same(target.getNetBuyVolume(), source.getNetBuyVolume())) {
+            target.setNetBuyVolume(source.getNetBuyVolume());
+            changed = true;
+        }
+        if (!UpsertPlan.same(target.getCurrentPrice(), source.getCurrentPrice())) {
+            target.setCurrentPrice(source.getCurrentPrice());
+            changed = true;
+        }
+        if (!UpsertPlan.same(target.getChangeRate(), source.getChangeRate())) {
+            target.setChangeRate(source.getChangeRate());
+            changed = true;
+        }
+        if (!UpsertPlan.same(target.getRankNum(), source.getRankNum())) {
+            target.setRankNum(source.getRankNum());
+            changed = true;
+        }
+        if (!UpsertPlan.same(target.getAmountChange(), source.getAmountChange())) {
+            target.setAmountChange(source.getAmountChange());
+            changed = true;
+        }
+        if (!UpsertPlan.same(target.getRankChange(), source.getRankChange())) {
+            target.setRankChange(source.getRankChange());
+            changed = true;
+        }
+        return changed;
+    }
+
     /**
      * 현재 순매수 순위 조회 (KoreaInvestmentService 사용)
      */
@@ -226,9 +409,44 @@ public class InvestorSurgeService {
 
     /**
      * 수급 급증 종목 조회
+     * - 최신 스냅샷 뷰(메모리)를 필터링해서 DTO 사본으로 반환
      */
     @Transactional(readOnly = true)
     public List<InvestorSurgeDto> getSurgeStocks(String investorType, BigDecimal minChange) {
+        SurgeView view = getLatestView(investorType);
+        if (view == null) {
+            log.info("스냅샷 데이터 없음: investorType={}", investorType);
+            return Collections.emptyList();
+        }
+
+        // minChange 필터 적용 (선택적), 캐시된 DTO는 호출자가 수정해도 뷰에 영향이 없도록 복사해서 반환
+        boolean filter = minChange != null && minChange.compareTo(BigDecimal.ZERO) > 0;
+        return view.dtos.stream()
+                .filter(s -> !filter || (s.getNetBuyAmount() != null && s.getNetBuyAmount().compareTo(minChange) >= 0))
+                .map(s -> s.toBuilder().build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 투자자 유형의 최신 스냅샷 뷰
+     * - 메모리 상태가 없으면(재기동 직후) DB에서 최근 영업일의 최신 스냅샷을 읽어 채움
+     */
+    private SurgeView getLatestView(String investorType) {
+        IntradayState state = intradayStates.get(investorType);
+        if (state != null) {
+            return state.current;
+        }
+
+        SurgeView view = loadLatestView(investorType);
+        if (view != null) {
+            intradayStates.putIfAbsent(investorType, new IntradayState(view, null));
+            log.info("최신 스냅샷 적재: date={}, time={}, investorType={}, {}건",
+                    view.date, view.time, investorType, view.dtos.size());
+        }
+        return view;
+    }
+
+    private SurgeView loadLatestView(String investorType) {
         LocalDate today = LocalDate.now();
 
         // 주말이면 금요일 데이터 조회
@@ -259,40 +477,12 @@ public class InvestorSurgeService {
         }
 
         if (latestTimeOpt.isEmpty()) {
-            log.info("스냅샷 데이터 없음: investorType={}", investorType);
-            return Collections.emptyList();
+            return null;
         }
 
         LocalTime latestTime = latestTimeOpt.get();
-        log.info("최신 스냅샷 조회: date={}, time={}, investorType={}", today, latestTime, investorType);
-
-        // 전체 스냅샷을 가져와서 금액 기준 정렬
-        List<InvestorIntradaySnapshot> surgeSnapshots = snapshotRepository.findLatestSnapshots(
-                today, latestTime, investorType);
-
-        log.info("스냅샷 조회 결과: {} 건, date={}, time={}, investorType={}",
-                surgeSnapshots.size(), today, latestTime, investorType);
-
-        // minChange 필터 적용 (선택적)
-        if (minChange != null && minChange.compareTo(BigDecimal.ZERO) > 0) {
-            final BigDecimal filterAmount = minChange;
-            surgeSnapshots = surgeSnapshots.stream()
-                    .filter(s -> (s.getNetBuyAmount() != null && s.getNetBuyAmount().compareTo(filterAmount) >= 0))
-                    .collect(Collectors.toList());
-        }
-
-        // 종목코드 기준 중복 제거 (가장 최신 데이터만 유지)
-        Map<String, InvestorIntradaySnapshot> uniqueSnapshots = new LinkedHashMap<>();
-        for (InvestorIntradaySnapshot snapshot : surgeSnapshots) {
-            String key = snapshot.getStockCode();
-            if (!uniqueSnapshots.containsKey(key)) {
-                uniqueSnapshots.put(key, snapshot);
-            }
-        }
-
-        return uniqueSnapshots.values().stream()
-                .map(this::toSurgeDto)
-                .collect(Collectors.toList());
+        return buildView(today, latestTime,
+                snapshotRepository.findLatestSnapshots(today, latestTime, investorType));
     }
 
     /**
@@ -484,9 +674,19 @@ public class InvestorSurgeService {
 
     /**
      * 오래된 스냅샷 정리 (7일 이전)
+     * - 일 단위 파티션이 적용된 경우 PartitionMaintenanceService가 파티션 DROP으로 처리
+     * - 파티션 미적용 테이블만 DELETE로 정리
      */
     @Scheduled(cron = "0 0 6 * * *")
     public void cleanupOldSnapshots() {
+        if (!clusterLeader.isLeader()) {
+            log.debug("리더 노드가 아님 - 스냅샷 정리 생략");
+            return;
+        }
+        if (partitionMaintenanceService.isPartitioned(PartitionMaintenanceService.INTRADAY_SNAPSHOT)) {
+            log.debug("스냅샷 테이블 파티션 적용됨 - 파티션 유지보수 작업에서 정리");
+            return;
+        }
         LocalDate cutoffDate = LocalDate.now().minusDays(7);
         snapshotRepository.deleteBySnapshotDateBefore(cutoffDate);
         log.info("오래된 스냅샷 정리 완료: {} 이전", cutoffDate);
@@ -599,9 +799,6 @@ public class InvestorSurgeService {
             return;
         }
 
-        // 만료된 알림 기록 정리
-        cleanupExpiredAlerts();
-
         // 외국인/기관 HOT 종목 추출
         Set<String> foreignHotCodes = extractHotStockCodes(foreignSnapshots);
         Set<String> institutionHotCodes = extractHotStockCodes(institutionSnapshots);
@@ -618,29 +815,22 @@ public class InvestorSurgeService {
 
         // 1. 쌍끌이 종목 알림 (최우선)
         for (String stockCode : commonHotCodes) {
-            if (canSendAlert(stockCode, "COMMON")) {
-                InvestorIntradaySnapshot foreign = foreignMap.get(stockCode);
-                InvestorIntradaySnapshot institution = institutionMap.get(stockCode);
-                sendCommonSurgeAlert(foreign, institution);
-                markAlertSent(stockCode, "COMMON");
-            }
+            sendAlert(stockCode, "COMMON",
+                    () -> sendCommonSurgeAlert(foreignMap.get(stockCode), institutionMap.get(stockCode)));
         }
 
         // 2. 외국인 단독 HOT 종목 알림
         for (String stockCode : foreignHotCodes) {
-            if (!commonHotCodes.contains(stockCode) && canSendAlert(stockCode, "FOREIGN")) {
-                InvestorIntradaySnapshot snapshot = foreignMap.get(stockCode);
-                sendSingleSurgeAlert(snapshot, "FOREIGN");
-                markAlertSent(stockCode, "FOREIGN");
+            if (!commonHotCodes.contains(stockCode)) {
+                sendAlert(stockCode, "FOREIGN", () -> sendSingleSurgeAlert(foreignMap.get(stockCode), "FOREIGN"));
             }
         }
 
         // 3. 기관 단독 HOT 종목 알림
         for (String stockCode : institutionHotCodes) {
-            if (!commonHotCodes.contains(stockCode) && canSendAlert(stockCode, "INSTITUTION")) {
-                InvestorIntradaySnapshot snapshot = institutionMap.get(stockCode);
-                sendSingleSurgeAlert(snapshot, "INSTITUTION");
-                markAlertSent(stockCode, "INSTITUTION");
+            if (!commonHotCodes.contains(stockCode)) {
+                sendAlert(stockCode, "INSTITUTION",
+                        () -> sendSingleSurgeAlert(institutionMap.get(stockCode), "INSTITUTION"));
             }
         }
     }
@@ -658,8 +848,10 @@ public class InvestorSurgeService {
 
     /**
      * 쌍끌이 종목 알림 발송
+     *
+     * @return 대기열에 저장했으면 true
      */
-    private void sendCommonSurgeAlert(InvestorIntradaySnapshot foreign, InvestorIntradaySnapshot institution) {
+    private boolean sendCommonSurgeAlert(InvestorIntradaySnapshot foreign, InvestorIntradaySnapshot institution) {
         BigDecimal foreignNetBuy = foreign.getNetBuyAmount() != null ? foreign.getNetBuyAmount() : BigDecimal.ZERO;
         BigDecimal instNetBuy = institution.getNetBuyAmount() != null ? institution.getNetBuyAmount() : BigDecimal.ZERO;
         BigDecimal totalNetBuy = foreignNetBuy.add(instNetBuy);
@@ -691,14 +883,19 @@ public class InvestorSurgeService {
             LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss"))
         );
 
-        telegramService.sendMessage(message);
+        if (!telegramService.sendMessage(message)) {
+            return false;
+        }
         log.info("쌍끌이 수급 알림 발송: {} ({})", foreign.getStockName(), foreign.getStockCode());
+        return true;
     }
 
     /**
      * 단일 투자자 HOT 종목 알림 발송
+     *
+     * @return 대기열에 저장했으면 true
      */
-    private void sendSingleSurgeAlert(InvestorIntradaySnapshot snapshot, String investorType) {
+    private boolean sendSingleSurgeAlert(InvestorIntradaySnapshot snapshot, String investorType) {
         String investorEmoji = "FOREIGN".equals(investorType) ? "🌍" : "🏢";
         String investorName = "FOREIGN".equals(investorType) ? "외국인" : "기관";
 
@@ -726,38 +923,31 @@ public class InvestorSurgeService {
             LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss"))
         );
 
-        telegramService.sendMessage(message);
+        if (!telegramService.sendMessage(message)) {
+            return false;
+        }
         log.info("{} 수급 알림 발송: {} ({})", investorName, snapshot.getStockName(), snapshot.getStockCode());
+        return true;
     }
 
     /**
-     * 알림 발송 가능 여부 확인 (30분 내 재발송 금지)
+     * 알림 발송권을 선점한 뒤 발송 (30분 내 재발송 금지)
+     * - 클러스터 전체에서 한 노드만 선점하며, 선점은 쿨다운이 지나면 자동 만료
+     * - 대기열에 넣지 못하면(예외 포함) 선점을 풀어 다음 수집 때 다시 발송
      */
-    private boolean canSendAlert(String stockCode, String investorType) {
-        String key = stockCode + "_" + investorType;
-        LocalDateTime lastSent = alertSentMap.get(key);
-
-        if (lastSent == null) {
-            return true;
+    private void sendAlert(String stockCode, String investorType, BooleanSupplier send) {
+        String key = "surge-alert:" + stockCode + "_" + investorType;
+        if (!clusterEventBus.tryAcquire(key, ALERT_COOLDOWN)) {
+            return;
+        }
+        boolean sent = false;
+        try {
+            sent = send.getAsBoolean();
+        } finally {
+            if (!sent) {
+                clusterEventBus.release(key);
+            }
         }
-
-        return LocalDateTime.now().isAfter(lastSent.plusMinutes(ALERT_COOLDOWN_MINUTES));
-    }
-
-    /**
-     * 알림 발송 기록
-     */
-    private void markAlertSent(String stockCode, String investorType) {
-        String key = stockCode + "_" + investorType;
-        alertSentMap.put(key, LocalDateTime.now());
-    }
-
-    /**
-     * 만료된 알림 기록 정리 (1시간 이상 지난 기록 삭제)
-     */
-    private void cleanupExpiredAlerts() {
-        LocalDateTime cutoff = LocalDateTime.now().minusHours(1);
-        alertSentMap.entrySet().removeIf(entry -> entry.getValue().isBefore(cutoff));
     }
 
     /**
@@ -784,4 +974,35 @@ public class InvestorSurgeService {
         String sign = rate.compareTo(BigDecimal.ZERO) > 0 ? "+" : "";
         return String.format("%s%.2f%%", sign, rate);
     }
+
+    /**
+     * 특정 시점 스냅샷의 조회용 뷰 (생성 후 변경하지 않음)
+     */
+    private static final class SurgeView {
+        private final LocalDate date;
+        private final LocalTime time;
+        private final Map<String, InvestorIntradaySnapshot> snapshots;  // 종목코드 → 스냅샷 (변화량 계산용)
+        private final List<InvestorSurgeDto> dtos;                      // 순매수 금액 내림차순
+
+        private SurgeView(LocalDate date, LocalTime time,
+                          Map<String, InvestorIntradaySnapshot> snapshots, List<InvestorSurgeDto> dtos) {
+            this.date = date;
+            this.time = time;
+            this.snapshots = snapshots;
+            this.dtos = dtos;
+        }
+    }
+
+    /**
+     * 투자자 유형별 현재/직전 스냅샷 (같은 시간대 재수집 시 직전 뷰로 변화량 재계산)
+     */
+    private static final class IntradayState {
+        private final SurgeView current;
+        private final SurgeView previous;
+
+        private IntradayState(SurgeView current, SurgeView previous) {
+            this.current = current;
+            this.previous = previous;
+        }
+    }
 }
@@ -0,0 +1,203 @@
+package com.myplatform.backend.service;
+
+import com.myplatform.backend.entity.InvestorDailyTrade;
+import com.myplatform.backend.entity.InvestorTradeAccumulation;
+import com.myplatform.backend.repository.InvestorDailyTradeRepository;
+import com.myplatform.backend.repository.InvestorTradeAccumulationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * 투자자별 누적 매매 집계 관리 (최근 5/20/60 거래일)
+ * - 일별 매매 데이터가 저장될 때 해당 투자자의 최근 60 거래일 구간만 다시 집계
+ * - 자연키 diff 업서트(UpsertPlan)로 값이 바뀐 집계 행만 기록
+ * - 조회는 (투자자, 기간, 시장, 거래유형) 인덱스로 바로 응답
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+@Slf4j
+public class InvestorTradeAccumulationService {
+
+    public static final int[] WINDOWS = {5, 20, 60};
+    private static final int MAX_WINDOW = 60;
+
+    private final InvestorTradeAccumulationRepository accumulationRepository;
+    private final InvestorDailyTradeRepository tradeRepository;
+
+    /**
+     * 기존 매매 데이터는 있는데 집계가 비어 있으면 1회 생성 (최초 배포 시)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (accumulationRepository.count() == 0 && tradeRepository.findLatestTradeDate() != null) {
+            log.info("투자자 누적 매매 집계 초기 생성 시작");
+            refreshAll();
+        }
+    }
+
+    /**
+     * 투자자의 누적 집계 갱신 (일별 데이터 수집 직후 호출)
+     */
+    public void refresh(String investorType) {
+        List<LocalDate> tradeDates = tradeRepository.findRecentTradeDatesByInvestor(
+                investorType, PageRequest.of(0, MAX_WINDOW));
+        if (tradeDates.isEmpty()) {
+            accumulationRepository.deleteByInvestorType(investorType);
+            return;
+        }
+
+        LocalDate asOfDate = tradeDates.get(0);
+        List<InvestorDailyTrade> trades = tradeRepository.findByInvestorTypeAndDateRange(
+                investorType, tradeDates.get(tradeDates.size() - 1), asOfDate);
+
+        // 거래일 → 최근 몇 번째 거래일인지 (0부터)
+        Map<LocalDate, Integer> dayIndex = new HashMap<>();
+        for (int i = 0; i < tradeDates.size(); i++) {
+            dayIndex.put(tradeDates.get(i), i);
+        }
+
+        // 최신순 정렬된 행을 순회하며 각 기간에 누적 (종목명은 가장 최근 값 사용)
+        Map<String, InvestorTradeAccumulation> aggregated = new LinkedHashMap<>();
+        for (InvestorDailyTrade trade : trades) {
+            int index = dayIndex.get(trade.getTradeDate());
+            BigDecimal amount = trade.getNetBuyAmount() != null ? trade.getNetBuyAmount() : BigDecimal.ZERO;
+            for (int window : WINDOWS) {
+                if (index >= window) {
+                    continue;
+                }
+                InvestorTradeAccumulation acc = aggregated.computeIfAbsent(
+                        key(trade.getMarketType(), trade.getStockCode(), trade.getTradeType(), window),
+                        k -> InvestorTradeAccumulation.builder()
+                                .investorType(investorType)
+                                .marketType(trade.getMarketType())
+                                .stockCode(trade.getStockCode())
+                                .stockName(trade.getStockName())
+                                .tradeType(trade.getTradeType())
+                                .windowDays(window)
+                                .totalAmount(BigDecimal.ZERO)
+                                .tradeDays(0)
+                                .windowStart(tradeDates.get(Math.min(window, tradeDates.size()) - 1))
+                                .asOfDate(asOfDate)
+                                .build());
+                acc.setTotalAmount(acc.getTotalAmount().add(amount));
+                acc.setTradeDays(acc.getTradeDays() + 1);
+            }
+        }
+
+        UpsertPlan<InvestorTradeAccumulation> plan = UpsertPlan.of(
+                accumulationRepository.findByInvestorType(investorType), aggregated.values(),
+                InvestorTradeAccumulationService::naturalKey,
+                InvestorTradeAccumulationService::merge, true);
+
+        if (!plan.getDeletes().isEmpty()) {
+            accumulationRepository.deleteAll(plan.getDeletes());
+        }
+        if (!plan.getInserts().isEmpty()) {
+            accumulationRepository.saveAll(plan.getInserts());
+        }
+
+        log.debug("누적 매매 집계 갱신 [{} ~{}]: {}", investorType, asOfDate, plan);
+    }
+
+    /**
+     * 전체 투자자 재집계 (원본 데이터 일괄 삭제/정리 후 호출)
+     */
+    public void refreshAll() {
+        Set<String> investorTypes = new HashSet<>(tradeRepository.findDistinctInvestorTypes());
+        for (InvestorTradeAccumulation acc : accumulationRepository.findAll()) {
+            investorTypes.add(acc.getInvestorType());
+        }
+        for (String investorType : investorTypes) {
+            refresh(investorType);
+        }
+    }
+
+    /**
+     * 요청 기간이 최근 N 거래일 집계와 정확히 일치하면 N 반환, 아니면 null
+     * - endDate가 최근 거래일 이후이고, startDate가 N번째 거래일 이하 ~ N+1번째 거래일 초과
+     */
+    @Transactional(readOnly = true)
+    public Integer resolveWindow(String investorType, LocalDate startDate, LocalDate endDate) {
+        List<LocalDate> tradeDates = tradeRepository.findRecentTradeDatesByInvestor(
+                investorType, PageRequest.of(0, MAX_WINDOW + 1));
+        if (tradeDates.isEmpty() || endDate.isBefore(tradeDates.get(0))) {
+            return null;
+        }
+        for (int window : WINDOWS) {
+            if (tradeDates.size() < window) {
+                break;
+            }
+            boolean coversWindow = !startDate.isAfter(tradeDates.get(window - 1));
+            boolean excludesOlder = tradeDates.size() == window || startDate.isAfter(tradeDates.get(window));
+            if (coversWindow && excludesOlder) {
+                return window;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 투자자 + 시장 + 기간 누적 통계
+     */
+    @Transactional(readOnly = true)
+    public List<InvestorTradeAccumulation> getAccumulated(String investorType, String marketType, int windowDays) {
+        return accumulationRepository.findByInvestorTypeAndMarketTypeAndWindowDaysOrderByTotalAmountDesc(
+                investorType, marketType, windowDays);
+    }
+
+    /**
+     * 누적 순매수/순매도 상위 종목
+     */
+    @Transactional(readOnly = true)
+    public List<InvestorTradeAccumulation> getTopAccumulated(String investorType, int windowDays,
+                                                             String tradeType, int limit) {
+        return accumulationRepository.findTopAccumulated(
+                investorType, windowDays, tradeType, PageRequest.of(0, limit));
+    }
+
+    private static String key(String marketType, String stockCode, String tradeType, int windowDays) {
+        return marketType + "|" + stockCode + "|" + tradeType + "|" + windowDays;
+    }
+
+    /**
+     * uk_investor_trade_accumulation 자연키 (투자자는 갱신 범위로 고정)
+     */
+    private static String naturalKey(InvestorTradeAccumulation a) {
+        return key(a.getMarketType(), a.getStockCode(), a.getTradeType(), a.getWindowDays());
+    }
+
+    private static boolean merge(InvestorTradeAccumulation target, InvestorTradeAccumulation source) {
+        boolean changed = false;
+        if (!UpsertPlan.same(target.getStockName(), source.getStockName())) {
+            target.setStockName(source.getStockName());
+            changed = true;
+        }
+        if (!UpsertPlan.same(target.getTotalAmount(), source.getTotalAmount())) {
+            target.setTotalAmount(source.getTotalAmount());
+            changed = true;
+        }
+        if (!UpsertPlan.same(target.getTradeDays(), source.getTradeDays())) {
+            target.setTradeDays(source.getTradeDays());
+            changed = true;
+        }
+        if (!UpsertPlan.same(target.getWindowStart(), source.getWindowStart())) {
+            target.setWindowStart(source.getWindowStart());
+            changed = true;
+        }
+        if (!UpsertPlan.same(target.getAsOfDate(), source.getAsOfDate())) {
+            target.setAsOfDate(source.getAsOfDate());
+            changed = true;
+        }
+        return changed;
+    }
+}
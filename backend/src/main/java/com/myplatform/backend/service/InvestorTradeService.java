@@ -7,11 +7,8 @@ import com.myplatform.backend.entity.InvestorDailyTrade;
 import com.myplatform.backend.repository.InvestorDailyTradeRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,6 +28,8 @@ public class InvestorTradeService {
 
     private final InvestorDailyTradeRepository investorTradeRepository;
     private final KisInvestorDataCollector kisInvestorDataCollector;
+    private final InvestorBuyStreakService streakService;
+    private final InvestorTradeAccumulationService accumulationService;
 
     /**
      * 투자자 유형별 상위 매수/매도 종목 조회 (최대 50개)
@@ -222,14 +221,11 @@ public class InvestorTradeService {
 
     /**
      * 특정 일자의 투자자별 매매 데이터 수집 (한국투자증권 API 호출)
-     *
-     * [캐시 초기화] 새 데이터가 수집되면 연속 매수 캐시 전체 초기화
-     * - 신규 데이터가 들어오면 연속 매수 패턴이 변경될 수 있으므로
+     * - 저장 시 연속 매수 기록도 함께 갱신됨
      */
     @Transactional
-    @CacheEvict(value = "consecutiveBuys", allEntries = true)
     public Map<String, Integer> collectInvestorTradeData(LocalDate tradeDate) {
-        log.info("투자자별 매매 데이터 수집 시작: {} (consecutiveBuys 캐시 초기화)", tradeDate);
+        log.info("투자자별 매매 데이터 수집 시작: {}", tradeDate);
         return kisInvestorDataCollector.collectDailyInvestorTrades(tradeDate);
     }
 
@@ -297,6 +293,8 @@ public class InvestorTradeService {
     public long deleteAllData() {
         long count = investorTradeRepository.count();
         investorTradeRepository.deleteAll();
+        streakService.rebuildAll();
+        accumulationService.refreshAll();
         return count;
     }
 
@@ -305,159 +303,35 @@ public class InvestorTradeService {
      * 특정 투자자가 N일 연속으로 순매수 상위에 오른 종목 찾기
      *
      * [성능 최적화]
-     * - 기존: 30일간 등장한 모든 종목을 전수 조사 (비효율적)
-     * - 개선: 가장 최근 거래일에 매수한 종목만 후보군으로 추려서 분석
-     *         (오늘 매수하지 않은 종목은 이미 연속이 끊긴 것이므로 제외)
-     *
-     * [캐싱] 장 마감 후 하루에 한 번 변경되므로 1시간 TTL 캐시 적용
-     * - Cache Key: investorType + "_" + minDays (예: "FOREIGN_5")
-     * - 데이터 수집 시 캐시 자동 초기화
+     * - 수집 시 InvestorBuyStreakService가 (투자자, 종목)별 연속 매수 기록을 증분 갱신
+     * - 조회는 가장 최근 거래일 기준 streak_days >= minDays 인덱스 조회 1회
      *
      * @param investorType 투자자 유형 (FOREIGN, INSTITUTION, INDIVIDUAL)
      * @param minDays 최소 연속 일수 (기본 3일)
      */
-    @Cacheable(value = "consecutiveBuys", key = "#investorType + '_' + (#minDays != null ? #minDays : 3)")
     public List<ConsecutiveBuyDto> getConsecutiveBuyStocks(String investorType, Integer minDays) {
         if (minDays == null || minDays < 1) {
             minDays = 3;
         }
 
-        // 최근 거래일 목록 조회 (최대 30일)
-        List<LocalDate> tradeDates = investorTradeRepository.findDistinctTradeDates(investorType);
-        if (tradeDates.isEmpty()) {
-            log.info("거래 데이터가 없습니다. 투자자: {}", investorType);
-            return Collections.emptyList();
-        }
-
-        log.info("거래일 수: {} (투자자: {})", tradeDates.size(), investorType);
-
-        // 데이터가 minDays보다 적으면 빈 결과 반환 (사용자가 요청한 기준을 낮추지 않음)
-        if (tradeDates.size() < minDays) {
-            log.info("데이터가 {}일뿐이므로 {}일 연속 매수 종목을 찾을 수 없습니다.", tradeDates.size(), minDays);
-            return Collections.emptyList();
-        }
-
-        // 최근 30일 데이터만 분석
-        int daysToAnalyze = Math.min(tradeDates.size(), 30);
-        LocalDate latestDate = tradeDates.get(0);  // 가장 최근 거래일
-        LocalDate startDate = tradeDates.get(daysToAnalyze - 1);
-
-        // 해당 기간의 매수 데이터 조회
-        List<InvestorDailyTrade> buyTrades = investorTradeRepository
-                .findBuyTradesForConsecutiveAnalysis(investorType, startDate, latestDate);
-
-        if (buyTrades.isEmpty()) {
-            log.info("매수 데이터가 없습니다. 투자자: {}, 기간: {} ~ {}", investorType, startDate, latestDate);
-            return Collections.emptyList();
-        }
-
-        // ========== [개선 1] 후보군 추출: 가장 최근 거래일에 매수한 종목만 ==========
-        // 오늘(latestDate) 매수하지 않은 종목은 이미 연속이 끊긴 것이므로 분석 대상에서 제외
-        Set<String> candidateStocks = buyTrades.stream()
-                .filter(t -> t.getTradeDate().equals(latestDate))
-                .map(InvestorDailyTrade::getStockCode)
-                .collect(Collectors.toSet());
-
-        log.debug("후보 종목 수: {} (최근 거래일 {} 매수 종목)", candidateStocks.size(), latestDate);
-
-        // 일자별로 종목 코드 집합 만들기
-        Map<LocalDate, Set<String>> dailyStocks = new LinkedHashMap<>();
-
-        // ========== [개선 3] 날짜 비교로 확실하게 최신 데이터 저장 ==========
-        Map<String, InvestorDailyTrade> latestTradeByStock = new HashMap<>();
-
-        for (InvestorDailyTrade trade : buyTrades) {
-            dailyStocks.computeIfAbsent(trade.getTradeDate(), k -> new HashSet<>())
-                    .add(trade.getStockCode());
-
-            // merge로 날짜 비교하여 확실하게 최신 데이터 저장
-            latestTradeByStock.merge(
-                    trade.getStockCode(),
-                    trade,
-                    (existing, newTrade) -> newTrade.getTradeDate().isAfter(existing.getTradeDate())
-                            ? newTrade : existing
-            );
-        }
-
-        // 종목별 일별 순매수 금액 맵 (null 처리)
-        Map<String, Map<LocalDate, BigDecimal>> stockDailyAmounts = buyTrades.stream()
-                .collect(Collectors.groupingBy(
-                        InvestorDailyTrade::getStockCode,
-                        Collectors.toMap(
-                                InvestorDailyTrade::getTradeDate,
-                                t -> t.getNetBuyAmount() != null ? t.getNetBuyAmount() : BigDecimal.ZERO,
-                                (a, b) -> a
-                        )
-                ));
-
-        // 연속 매수 종목 찾기
-        List<ConsecutiveBuyDto> result = new ArrayList<>();
-
-        // 정렬된 거래일 리스트 (최신순)
-        List<LocalDate> sortedDates = new ArrayList<>(dailyStocks.keySet());
-        sortedDates.sort(Collections.reverseOrder());
-
-        // ========== [개선 1] 후보군만 순회 (성능 최적화) ==========
-        for (String stockCode : candidateStocks) {
-            // 해당 종목의 연속 매수 일수 계산
-            int consecutiveDays = 0;
-            LocalDate consecutiveStartDate = null;
-            LocalDate consecutiveEndDate = null;
-            BigDecimal totalAmount = BigDecimal.ZERO;
-
-            for (LocalDate date : sortedDates) {
-                Set<String> stocksOnDate = dailyStocks.get(date);
-                if (stocksOnDate != null && stocksOnDate.contains(stockCode)) {
-                    if (consecutiveDays == 0) {
-                        consecutiveEndDate = date;
-                    }
-                    consecutiveDays++;
-                    consecutiveStartDate = date;
-
-                    Map<LocalDate, BigDecimal> amounts = stockDailyAmounts.get(stockCode);
-                    if (amounts != null && amounts.get(date) != null) {
-                        totalAmount = totalAmount.add(amounts.get(date));
-                    }
-                } else {
-                    // 연속 끊김
-                    break;
-                }
-            }
-
-            if (consecutiveDays >= minDays) {
-                InvestorDailyTrade latestTrade = latestTradeByStock.get(stockCode);
-
-                BigDecimal avgAmount = consecutiveDays > 0
-                        ? totalAmount.divide(BigDecimal.valueOf(consecutiveDays), 2, RoundingMode.HALF_UP)
-                        : BigDecimal.ZERO;
-
-                ConsecutiveBuyDto dto = ConsecutiveBuyDto.builder()
-                        .stockCode(stockCode)
-                        .stockName(latestTrade.getStockName())
+        List<ConsecutiveBuyDto> result = streakService.getActiveStreaks(investorType, minDays).stream()
+                .map(streak -> ConsecutiveBuyDto.builder()
+                        .stockCode(streak.getStockCode())
+                        .stockName(streak.getStockName())
                         .investorType(investorType)
                         .investorTypeName(getInvestorTypeName(investorType))
-                        .consecutiveDays(consecutiveDays)
-                        .totalNetBuyAmount(totalAmount)
-                        .avgDailyAmount(avgAmount)
-                        .startDate(consecutiveStartDate)
-                        .endDate(consecutiveEndDate)
-                        .currentPrice(latestTrade.getCurrentPrice())
-                        .changeRate(latestTrade.getChangeRate())
-                        .build();
-
-                result.add(dto);
-            }
-        }
-
-        // 연속 일수 내림차순, 누적 금액 내림차순 정렬
-        result.sort((a, b) -> {
-            int dayCompare = b.getConsecutiveDays().compareTo(a.getConsecutiveDays());
-            if (dayCompare != 0) return dayCompare;
-            return b.getTotalNetBuyAmount().compareTo(a.getTotalNetBuyAmount());
-        });
+                        .consecutiveDays(streak.getStreakDays())
+                        .totalNetBuyAmount(streak.getTotalNetBuyAmount())
+                        .avgDailyAmount(streak.getTotalNetBuyAmount()
+                                .divide(BigDecimal.valueOf(streak.getStreakDays()), 2, RoundingMode.HALF_UP))
+                        .startDate(streak.getStartDate())
+                        .endDate(streak.getLastDate())
+                        .currentPrice(streak.getCurrentPrice())
+                        .changeRate(streak.getChangeRate())
+                        .build())
+                .collect(Collectors.toList());
 
-        log.info("연속 매수 종목 조회 완료: {} - {}개 (후보군: {}, 최소 {}일)",
-                investorType, result.size(), candidateStocks.size(), minDays);
+        log.info("연속 매수 종목 조회 완료: {} - {}개 (최소 {}일)", investorType, result.size(), minDays);
 
         return result;
     }
@@ -477,27 +351,6 @@ public class InvestorTradeService {
         return result;
     }
 
-    /**
-     * 연속 매수 캐시 초기화
-     * - 수동으로 캐시를 비우고 싶을 때 사용
-     * - 장 마감(16:00) 스케줄러에서 자동 호출
-     */
-    @CacheEvict(value = "consecutiveBuys", allEntries = true)
-    public void clearConsecutiveBuysCache() {
-        log.info("연속 매수 캐시 초기화 완료 (consecutiveBuys)");
-    }
-
-    /**
-     * 장 마감 후 캐시 자동 초기화 (매일 16:05)
-     * - 16:00에 데이터 수집이 실행되고, 5분 후 캐시 초기화
-     * - 데이터 수집 시에도 @CacheEvict가 적용되지만, 안전하게 이중 초기화
-     */
-    @Scheduled(cron = "0 5 16 * * MON-FRI", zone = "Asia/Seoul")
-    public void scheduledCacheEvict() {
-        clearConsecutiveBuysCache();
-        log.info("장 마감 후 연속 매수 캐시 스케줄 초기화 완료");
-    }
-
     /**
      * 데이터 수집 상태 조회
      */
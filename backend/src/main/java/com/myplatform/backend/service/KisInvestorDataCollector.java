@@ -30,8 +30,10 @@ import java.util.Map;
 public class KisInvestorDataCollector {
 
     private final InvestorDailyTradeRepository investorTradeRepository;
+    private final InvestorDailyTradeUpsertService upsertService;
     private final KoreaInvestmentService koreaInvestmentService;
     private final ObjectMapper objectMapper;
+    private final ClusterLeader clusterLeader;
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
 
@@ -42,6 +44,10 @@ public class KisInvestorDataCollector {
     @Scheduled(cron = "0 0 16 * * MON-FRI")
     @Transactional
     public void scheduledDailyCollection() {
+        if (!clusterLeader.isLeader()) {
+            log.debug("리더 노드가 아님 - 투자자 매매동향 자동 수집 생략");
+            return;
+        }
         LocalDate today = LocalDate.now();
 
         // 주말 체크 (cron에서도 체크하지만 이중 확인)
@@ -56,8 +62,8 @@ public class KisInvestorDataCollector {
                 "KOSPI", "FOREIGN", today);
 
         if (hasData) {
-            log.info("오늘({}) 데이터가 이미 존재합니다. 기존 데이터 삭제 후 재수집합니다.", today);
-            investorTradeRepository.deleteByTradeDate(today);
+            // 삭제 후 재삽입하지 않고 자연키 기준으로 변경된 행만 업서트
+            log.info("오늘({}) 데이터가 이미 존재합니다. 변경분만 업서트합니다.", today);
         }
 
         Map<String, Integer> result = collectDailyInvestorTrades(today);
@@ -220,7 +226,7 @@ public class KisInvestorDataCollector {
                     log.debug("종목 {}: netBuyAmount={} (억원)", stockCode, netBuyAmount);
 
                     InvestorDailyTrade trade = InvestorDailyTrade.builder()
-                            .marketType(market)
+                            .marketType(InvestorDailyTradeUpsertService.determineMarketType(stockCode))  // 통합 순위이므로 종목별 시장
                             .tradeDate(tradeDate)
                             .investorType(investorType)
                             .tradeType(tradeType)
@@ -244,7 +250,7 @@ public class KisInvestorDataCollector {
             }
 
             if (!trades.isEmpty()) {
-                investorTradeRepository.saveAll(trades);
+                upsertService.upsertRanking(investorType, tradeType, tradeDate, trades);
                 log.info("저장 완료: {} {} {} - {}건", market, investorType, tradeType, trades.size());
                 return trades.size();
             } else {
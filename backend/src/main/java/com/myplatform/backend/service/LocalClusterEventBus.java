@@ -0,0 +1,108 @@
+package com.myplatform.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 단일 노드용 이벤트 버스 (Redis 미사용 시 기본)
+ * - 발행 스레드에서 바로 구독자 호출
+ * - id는 기동 시각(ms)에서 시작해 재기동 후에도 이전보다 커짐
+ */
+@Slf4j
+public class LocalClusterEventBus implements ClusterEventBus {
+
+    private static final int PRUNE_THRESHOLD = 10_000;
+
+    private final long nodeId = ThreadLocalRandom.current().nextLong();
+    private final Map<String, List<Listener>> listeners = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> sequences = new ConcurrentHashMap<>();
+    private final Map<String, Long> leases = new ConcurrentHashMap<>();  // key -> 만료 시각(ms)
+
+    @Override
+    public void subscribe(String channel, Listener listener) {
+        listeners.computeIfAbsent(channel, k -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    @Override
+    public void publish(String channel, byte[] body) {
+        deliver(channel, 0, body);
+    }
+
+    @Override
+    public void publishSequenced(String channel, byte[] body) {
+        // id 발급과 전달을 한 번에 (구독자가 id 순서대로 받도록)
+        synchronized (sequence(channel)) {
+            deliver(channel, sequence(channel).incrementAndGet(), body);
+        }
+    }
+
+    @Override
+    public long lastSequence(String channel) {
+        return sequence(channel).get();
+    }
+
+    @Override
+    public boolean tryAcquire(String key, Duration ttl) {
+        long now = System.currentTimeMillis();
+        long expiresAt = now + ttl.toMillis();
+        boolean[] acquired = new boolean[1];
+        leases.compute(key, (k, current) -> {
+            if (current != null && current > now) {
+                return current;
+            }
+            acquired[0] = true;
+            return expiresAt;
+        });
+        if (leases.size() > PRUNE_THRESHOLD) {
+            leases.values().removeIf(expiry -> expiry <= now);
+        }
+        return acquired[0];
+    }
+
+    @Override
+    public boolean acquireOrRenew(String key, Duration ttl) {
+        // 노드가 하나뿐이라 항상 이 노드 소유
+        leases.put(key, System.currentTimeMillis() + ttl.toMillis());
+        return true;
+    }
+
+    @Override
+    public void release(String key) {
+        leases.remove(key);
+    }
+
+    @Override
+    public long nodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public boolean isDistributed() {
+        return false;
+    }
+
+    private AtomicLong sequence(String channel) {
+        return sequences.computeIfAbsent(channel, k -> new AtomicLong(System.currentTimeMillis()));
+    }
+
+    private void deliver(String channel, long sequence, byte[] body) {
+        List<Listener> channelListeners = listeners.get(channel);
+        if (channelListeners == null) {
+            return;
+        }
+        for (Listener listener : channelListeners) {
+            try {
+                listener.onMessage(sequence, body);
+            } catch (Exception e) {
+                log.warn("이벤트 버스 구독자 처리 실패 [{}]: {}", channel, e.getMessage());
+            }
+        }
+    }
+}
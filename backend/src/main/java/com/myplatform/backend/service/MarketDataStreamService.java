@@ -0,0 +1,297 @@
+package com.myplatform.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myplatform.backend.config.SectorStockConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 실시간 시세 SSE 스트리밍 서비스
+ * - 클라이언트가 종목/섹터를 구독하면 RealTimeDataCache 기준 시세(현재가, 현재 분봉, VWAP)를 푸시
+ * - 마지막 전송 이후 틱이 들어온 종목만 전송 (변경분)
+ * - 클라이언트별 최대 전송 빈도 제한, 못 나간 이전 시세는 종목별로 덮어씀 (SseEmitterService 송신 큐)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MarketDataStreamService {
+
+    public static final String TOPIC = "market-data";
+    public static final String QUOTE = "QUOTE";
+
+    private static final long FLUSH_INTERVAL_MILLIS = 100;  // 변경 종목 확인 주기
+    private static final int MAX_SYMBOLS = 300;              // 연결당 구독 종목 상한
+
+    private final RealTimeDataCache realTimeDataCache;
+    private final SectorStockConfig sectorStockConfig;
+    private final SseEmitterService sseEmitterService;
+    private final ObjectMapper objectMapper;
+
+    // 클라이언트당 초당 최대 전송 횟수 (요청 값은 이 값을 넘을 수 없음)
+    @Value("${market-stream.max-rate:5}")
+    private int maxRatePerSecond;
+
+    // 종목별 틱 버전 (틱 수신마다 증가)
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    // 클라이언트별 구독 (clientId -> Subscription)
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Market-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void start() {
+        realTimeDataCache.addTickListener(this::onTick);
+        flusher.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flusher.shutdownNow();
+    }
+
+    /**
+     * 틱 수신 시 버전만 올림 (틱 스레드에서 호출되므로 가볍게)
+     */
+    private void onTick(String stockCode, BigDecimal price) {
+        versions.computeIfAbsent(stockCode, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * 시세 스트림 구독
+     * - 연결 직후 구독 종목 중 시세가 있는 종목을 모두 한 번 전송
+     *
+     * @param clientId 클라이언트 ID
+     * @param stockCodes 구독 종목코드
+     * @param sectorCodes 구독 섹터코드 (소속 종목 전체 구독)
+     * @param maxRate 초당 최대 전송 횟수 (null이면 서버 상한)
+     */
+    public SseEmitter subscribe(String clientId, Collection<String> stockCodes, Collection<String> sectorCodes, Integer maxRate) {
+        Subscription subscription = new Subscription(intervalMillis(maxRate));
+        addSymbols(subscription, resolve(stockCodes, sectorCodes));
+
+        SseEmitter emitter = sseEmitterService.subscribe(clientId, TOPIC);
+        subscriptions.put(clientId, subscription);
+
+        log.info("시세 스트림 구독 - clientId: {}, 종목 {}개, 전송 간격 {}ms",
+                clientId, subscription.stockCodes.size(), subscription.intervalMillis);
+        return emitter;
+    }
+
+    /**
+     * 구독 종목 추가
+     *
+     * @return 구독 중인 연결이 없으면 false
+     */
+    public boolean addSymbols(String clientId, Collection<String> stockCodes, Collection<String> sectorCodes) {
+        Subscription subscription = subscriptions.get(clientId);
+        if (subscription == null) {
+            return false;
+        }
+        addSymbols(subscription, resolve(stockCodes, sectorCodes));
+        return true;
+    }
+
+    /**
+     * 구독 종목 해제
+     *
+     * @return 구독 중인 연결이 없으면 false
+     */
+    public boolean removeSymbols(String clientId, Collection<String> stockCodes, Collection<String> sectorCodes) {
+        Subscription subscription = subscriptions.get(clientId);
+        if (subscription == null) {
+            return false;
+        }
+        for (String stockCode : resolve(stockCodes, sectorCodes)) {
+            subscription.stockCodes.remove(stockCode);
+            subscription.sentVersions.remove(stockCode);
+        }
+        return true;
+    }
+
+    /**
+     * 스트림 상태
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("clients", subscriptions.size());
+        status.put("subscribedSymbols", subscriptions.values().stream().mapToInt(s -> s.stockCodes.size()).sum());
+        status.put("maxRatePerSecond", maxRatePerSecond);
+        return status;
+    }
+
+    private void addSymbols(Subscription subscription, Set<String> stockCodes) {
+        if (subscription.stockCodes.size() + stockCodes.size() > MAX_SYMBOLS) {
+            Set<String> merged = new HashSet<>(subscription.stockCodes);
+            merged.addAll(stockCodes);
+            if (merged.size() > MAX_SYMBOLS) {
+                throw new IllegalArgumentException("구독 종목은 최대 " + MAX_SYMBOLS + "개입니다.");
+            }
+        }
+        subscription.stockCodes.addAll(stockCodes);
+    }
+
+    /**
+     * 종목코드 + 섹터 소속 종목코드
+     */
+    private Set<String> resolve(Collection<String> stockCodes, Collection<String> sectorCodes) {
+        Set<String> resolved = new LinkedHashSet<>();
+        if (stockCodes != null) {
+            for (String stockCode : stockCodes) {
+                if (stockCode != null && !stockCode.isBlank()) {
+                    resolved.add(stockCode.trim());
+                }
+            }
+        }
+        if (sectorCodes != null) {
+            for (String sectorCode : sectorCodes) {
+                if (sectorCode == null || sectorCode.isBlank()) {
+                    continue;
+                }
+                SectorStockConfig.SectorInfo sector = sectorStockConfig.getSector(sectorCode.trim());
+                if (sector == null) {
+                    throw new IllegalArgumentException("알 수 없는 섹터입니다: " + sectorCode);
+                }
+                resolved.addAll(sector.getStockCodes());
+            }
+        }
+        return resolved;
+    }
+
+    private long intervalMillis(Integer maxRate) {
+        int limit = Math.max(1, maxRatePerSecond);
+        int rate = maxRate == null ? limit : Math.max(1, Math.min(maxRate, limit));
+        return 1000L / rate;
+    }
+
+    /**
+     * 변경 종목 전송
+     * - 전송 간격이 지난 클라이언트에게 마지막 전송 이후 버전이 오른 종목만 전송
+     * - 같은 회차에서는 종목별 메시지를 한 번만 직렬화해 모든 구독자가 같은 바이트 배열을 공유
+     */
+    private void flush() {
+        try {
+            long now = System.currentTimeMillis();
+            Map<String, byte[]> payloads = new HashMap<>();
+
+            for (Map.Entry<String, Subscription> entry : subscriptions.entrySet()) {
+                String clientId = entry.getKey();
+                Subscription subscription = entry.getValue();
+                if (!sseEmitterService.isConnected(clientId)) {
+                    subscriptions.remove(clientId, subscription);
+                    continue;
+                }
+                if (now < subscription.nextSendAt) {
+                    continue;
+                }
+
+                boolean sent = false;
+                for (String stockCode : subscription.stockCodes) {
+                    AtomicLong version = versions.get(stockCode);
+                    if (version == null) {
+                        continue;
+                    }
+                    long current = version.get();
+                    Long sentVersion = subscription.sentVersions.get(stockCode);
+                    if (sentVersion != null && sentVersion == current) {
+                        continue;
+                    }
+                    byte[] payload = payloads.computeIfAbsent(stockCode, this::toQuotePayload);
+                    if (payload == null) {
+                        continue;
+                    }
+                    sseEmitterService.sendToClient(clientId, QUOTE, payload, QUOTE + ":" + stockCode);
+                    subscription.sentVersions.put(stockCode, current);
+                    sent = true;
+                }
+                if (sent) {
+                    subscription.nextSendAt = now + subscription.intervalMillis;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("시세 스트림 전송 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 종목 시세 메시지 (틱이 없으면 null)
+     */
+    private byte[] toQuotePayload(String stockCode) {
+        RealTimeDataCache.TickData tick = realTimeDataCache.getLastTick(stockCode);
+        if (tick == null) {
+            return null;
+        }
+
+        Map<String, Object> quote = new LinkedHashMap<>();
+        quote.put("type", QUOTE);
+        quote.put("stockCode", stockCode);
+        quote.put("stockName", sectorStockConfig.getStockName(stockCode));
+        quote.put("price", tick.getPrice());
+        quote.put("time", tick.getTime());
+
+        BigDecimal openPrice = realTimeDataCache.getOpenPrice(stockCode);
+        if (openPrice != null && openPrice.signum() > 0) {
+            quote.put("changeRate", tick.getPrice().subtract(openPrice)
+                    .multiply(BigDecimal.valueOf(100))
+                    .divide(openPrice, 2, RoundingMode.HALF_UP));
+        }
+
+        RealTimeDataCache.SessionVolume sessionVolume = realTimeDataCache.getSessionVolume(stockCode);
+        if (sessionVolume != null) {
+            quote.put("volume", sessionVolume.getVolume());
+            quote.put("vwap", sessionVolume.getVwap());
+        }
+
+        RealTimeDataCache.MinuteBar bar = realTimeDataCache.getCurrentBar(stockCode);
+        if (bar != null) {
+            Map<String, Object> barData = new LinkedHashMap<>();
+            barData.put("time", bar.getTime());
+            barData.put("open", bar.getOpen());
+            barData.put("high", bar.getHigh());
+            barData.put("low", bar.getLow());
+            barData.put("close", bar.getClose());
+            barData.put("volume", bar.getVolume());
+            quote.put("bar", barData);
+        }
+
+        try {
+            return objectMapper.writeValueAsBytes(quote);
+        } catch (JsonProcessingException e) {
+            log.warn("시세 메시지 변환 실패 [{}]: {}", stockCode, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 클라이언트 구독 상태
+     */
+    private static final class Subscription {
+        private final long intervalMillis;
+        private final Set<String> stockCodes = ConcurrentHashMap.newKeySet();
+        private final Map<String, Long> sentVersions = new ConcurrentHashMap<>();  // 종목별 마지막 전송 버전
+        private long nextSendAt;  // flusher 스레드만 접근
+
+        private Subscription(long intervalMillis) {
+            this.intervalMillis = intervalMillis;
+        }
+    }
+}
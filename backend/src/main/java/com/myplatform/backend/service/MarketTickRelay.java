@@ -0,0 +1,151 @@
+package com.myplatform.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 실시간 틱 노드 간 전달
+ * - 틱을 수집하는 노드가 50ms마다 모아서 이진 프레임 하나로 발행, 나머지 노드는 자기 RealTimeDataCache에 반영
+ * - 각 노드는 자기 캐시로 시세 SSE/손절·익절 트리거를 처리
+ * - 단일 노드 이벤트 버스면 아무것도 하지 않음
+ *
+ * 프레임: nodeId(long) + count(int) + count × [종목코드(UTF), 가격 unscaled(long), scale(byte), 거래량(long)]
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MarketTickRelay {
+
+    private static final String TICK_CHANNEL = "market-ticks";
+    private static final long FLUSH_INTERVAL_MILLIS = 50;
+    private static final int MAX_PENDING_TICKS = 50_000;  // 발행이 밀릴 때 메모리 상한
+
+    private final RealTimeDataCache realTimeDataCache;
+    private final ClusterEventBus clusterEventBus;
+
+    private final Object pendingLock = new Object();
+    private List<PendingTick> pending = new ArrayList<>();  // pendingLock 안에서만 접근
+    private long droppedTicks;                              // pendingLock 안에서만 접근
+
+    private ScheduledExecutorService publisher;
+
+    @PostConstruct
+    void start() {
+        if (!clusterEventBus.isDistributed()) {
+            return;
+        }
+        realTimeDataCache.addIngestListener(this::onIngest);
+        clusterEventBus.subscribe(TICK_CHANNEL, (sequence, body) -> apply(body));
+
+        publisher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Tick-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        publisher.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        log.info("실시간 틱 노드 간 전달 시작 (nodeId: {})", clusterEventBus.nodeId());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (publisher != null) {
+            publisher.shutdown();
+            flush();
+        }
+    }
+
+    /**
+     * 이 노드가 수집한 틱 적재 (수집 스레드에서 호출되므로 가볍게)
+     */
+    private void onIngest(String stockCode, BigDecimal price, long volume) {
+        synchronized (pendingLock) {
+            if (pending.size() >= MAX_PENDING_TICKS) {
+                droppedTicks++;
+                return;
+            }
+            pending.add(new PendingTick(stockCode, price, volume));
+        }
+    }
+
+    private void flush() {
+        List<PendingTick> batch;
+        long dropped;
+        synchronized (pendingLock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new ArrayList<>();
+            dropped = droppedTicks;
+            droppedTicks = 0;
+        }
+        if (dropped > 0) {
+            log.warn("틱 전달 대기 초과로 {}건 누락", dropped);
+        }
+
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(12 + batch.size() * 32);
+            DataOutputStream out = new DataOutputStream(buffer);
+            out.writeLong(clusterEventBus.nodeId());
+            out.writeInt(batch.size());
+            for (PendingTick tick : batch) {
+                out.writeUTF(tick.stockCode);
+                out.writeLong(tick.price.unscaledValue().longValue());
+                out.writeByte(tick.price.scale());
+                out.writeLong(tick.volume);
+            }
+            clusterEventBus.publish(TICK_CHANNEL, buffer.toByteArray());
+        } catch (Exception e) {
+            log.warn("틱 전달 실패 ({}건): {}", batch.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 다른 노드가 보낸 틱 반영 (자기가 보낸 프레임은 무시)
+     */
+    private void apply(byte[] body) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+            if (in.readLong() == clusterEventBus.nodeId()) {
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String stockCode = in.readUTF();
+                BigDecimal price = new BigDecimal(BigInteger.valueOf(in.readLong()), in.readByte());
+                long volume = in.readLong();
+                realTimeDataCache.applyRemoteTick(stockCode, price, volume);
+            }
+        } catch (IOException e) {
+            log.warn("틱 프레임 형식 오류: {}", e.getMessage());
+        }
+    }
+
+    private static final class PendingTick {
+        private final String stockCode;
+        private final BigDecimal price;
+        private final long volume;
+
+        private PendingTick(String stockCode, BigDecimal price, long volume) {
+            this.stockCode = stockCode;
+            this.price = price;
+            this.volume = volume;
+        }
+    }
+}
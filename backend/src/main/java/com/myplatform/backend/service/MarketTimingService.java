@@ -1,5 +1,6 @@
 package com.myplatform.backend.service;
 
+import com.myplatform.backend.dto.BackfillResultDto;
 import com.myplatform.backend.dto.MarketTimingDto;
 import com.myplatform.backend.dto.MarketTimingDto.*;
 import com.myplatform.backend.entity.MarketDailyStatus;
@@ -18,8 +19,13 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * 시장 타이밍 분석 서비스
@@ -34,6 +40,9 @@ public class MarketTimingService {
 
     private final MarketDailyStatusRepository marketDailyStatusRepository;
     private final TelegramNotificationService telegramNotificationService;
+    private final ApiRateLimiter rateLimiter;
+    private final HistoricalBackfillService backfillService;
+    private final ClusterLeader clusterLeader;
 
     // ADR 기준값
     private static final BigDecimal ADR_OVERHEATED = new BigDecimal("120");
@@ -106,45 +115,118 @@ public class MarketTimingService {
 
     /**
      * ADR 히스토리 조회 (차트용)
+     * - 두 시장 데이터를 범위 쿼리 1회로 조회 후 슬라이딩 윈도우로 ADR 계산 (O(n))
+     * - 계산된 ADR이 저장값과 다르면 adr20에 반영
      */
     public List<AdrHistoryDto> getAdrHistory(int days) {
-        List<AdrHistoryDto> history = new ArrayList<>();
-
         LocalDate endDate = LocalDate.now();
-        LocalDate startDate = endDate.minusDays(days + ADR_PERIOD);
+        // 조회 일수 + ADR 윈도우만큼의 거래일을 덮도록 주말/휴장일 여유 포함
+        LocalDate startDate = endDate.minusDays((long) (days + ADR_PERIOD) * 7 / 5 + 10);
 
-        List<MarketDailyStatus> kospiData = marketDailyStatusRepository
-                .findByMarketTypeAndTradeDateBetweenOrderByTradeDateDesc("KOSPI", startDate, endDate);
-        List<MarketDailyStatus> kosdaqData = marketDailyStatusRepository
-                .findByMarketTypeAndTradeDateBetweenOrderByTradeDateDesc("KOSDAQ", startDate, endDate);
+        Map<String, Map<LocalDate, BigDecimal>> adrByMarket = refreshAdrSeries(startDate, endDate);
+        Map<LocalDate, BigDecimal> kospiAdr = adrByMarket.getOrDefault("KOSPI", Collections.emptyMap());
+        Map<LocalDate, BigDecimal> kosdaqAdr = adrByMarket.getOrDefault("KOSDAQ", Collections.emptyMap());
 
-        // 날짜별로 매칭
-        for (int i = 0; i < Math.min(days, kospiData.size()); i++) {
-            MarketDailyStatus kospi = kospiData.get(i);
-            LocalDate date = kospi.getTradeDate();
+        // 코스피 거래일 기준 최신순
+        List<LocalDate> dates = new ArrayList<>(kospiAdr.keySet());
+        dates.sort(Collections.reverseOrder());
 
-            BigDecimal kospiAdr = kospi.getAdr20() != null ? kospi.getAdr20() : calculateAdr("KOSPI", date);
-            BigDecimal kosdaqAdr = null;
+        List<AdrHistoryDto> history = new ArrayList<>();
+        for (LocalDate date : dates.subList(0, Math.min(days, dates.size()))) {
+            BigDecimal kospi = kospiAdr.get(date);
+            BigDecimal kosdaq = kosdaqAdr.get(date);
+            history.add(AdrHistoryDto.builder()
+                    .date(date)
+                    .kospiAdr(kospi)
+                    .kosdaqAdr(kosdaq)
+                    .combinedAdr(calculateCombinedAdrFromValues(kospi, kosdaq))
+                    .build());
+        }
 
-            // 코스닥 데이터 찾기
-            for (MarketDailyStatus k : kosdaqData) {
-                if (k.getTradeDate().equals(date)) {
-                    kosdaqAdr = k.getAdr20() != null ? k.getAdr20() : calculateAdr("KOSDAQ", date);
-                    break;
+        return history;
+    }
+
+    /**
+     * 기간 내 ADR 시리즈 재계산 및 저장
+     * - 윈도우 계산을 위해 시작일 이전 데이터까지 범위 쿼리 1회로 조회
+     * - 백필처럼 날짜 순서와 무관하게 데이터가 들어온 뒤 호출하면 adr20 일괄 보정
+     *
+     * @return 시장별 (거래일 → ADR), 윈도우 데이터가 부족한 날은 null
+     */
+    public Map<String, Map<LocalDate, BigDecimal>> refreshAdrSeries(LocalDate startDate, LocalDate endDate) {
+        List<MarketDailyStatus> all = marketDailyStatusRepository.findByTradeDateBetweenOrderByTradeDateAsc(
+                startDate.minusDays(ADR_PERIOD * 2L), endDate);
+
+        Map<String, List<MarketDailyStatus>> byMarket = new HashMap<>();
+        for (MarketDailyStatus status : all) {
+            byMarket.computeIfAbsent(status.getMarketType(), k -> new ArrayList<>()).add(status);
+        }
+
+        Map<String, Map<LocalDate, BigDecimal>> result = new HashMap<>();
+        List<MarketDailyStatus> changed = new ArrayList<>();
+        for (Map.Entry<String, List<MarketDailyStatus>> entry : byMarket.entrySet()) {
+            Map<LocalDate, BigDecimal> series = new HashMap<>();
+            List<MarketDailyStatus> ascending = entry.getValue();
+            BigDecimal[] adrs = computeAdrSeries(ascending);
+
+            for (int i = 0; i < ascending.size(); i++) {
+                MarketDailyStatus status = ascending.get(i);
+                if (status.getTradeDate().isBefore(startDate)) {
+                    continue;
+                }
+                BigDecimal adr = adrs[i] != null ? adrs[i] : status.getAdr20();
+                series.put(status.getTradeDate(), adr);
+                if (adrs[i] != null && (status.getAdr20() == null || adrs[i].compareTo(status.getAdr20()) != 0)) {
+                    status.setAdr20(adrs[i]);
+                    changed.add(status);
                 }
             }
+            result.put(entry.getKey(), series);
+        }
 
-            BigDecimal combined = calculateCombinedAdrFromValues(kospiAdr, kosdaqAdr);
+        if (!changed.isEmpty()) {
+            marketDailyStatusRepository.saveAll(changed);
+            log.info("ADR 재계산 반영: {}건 ({} ~ {})", changed.size(), startDate, endDate);
+        }
+        return result;
+    }
 
-            history.add(AdrHistoryDto.builder()
-                    .date(date)
-                    .kospiAdr(kospiAdr)
-                    .kosdaqAdr(kosdaqAdr)
-                    .combinedAdr(combined)
-                    .build());
+    /**
+     * 20일 슬라이딩 윈도우 ADR 계산
+     * - 상승/하락 합계를 윈도우에 들어오는 날은 더하고 나가는 날은 빼서 O(n)
+     * - calculateAdr와 동일하게 윈도우가 ADR_PERIOD + 10일(달력 기준) 안에 있어야 계산
+     *
+     * @param ascending 한 시장의 일자 오름차순 데이터
+     * @return 인덱스별 ADR (계산 불가 시 null)
+     */
+    private BigDecimal[] computeAdrSeries(List<MarketDailyStatus> ascending) {
+        BigDecimal[] adrs = new BigDecimal[ascending.size()];
+        long totalAdvancing = 0;
+        long totalDeclining = 0;
+
+        for (int i = 0; i < ascending.size(); i++) {
+            MarketDailyStatus current = ascending.get(i);
+            totalAdvancing += nullToZero(current.getAdvancingCount());
+            totalDeclining += nullToZero(current.getDecliningCount());
+
+            if (i >= ADR_PERIOD) {
+                MarketDailyStatus leaving = ascending.get(i - ADR_PERIOD);
+                totalAdvancing -= nullToZero(leaving.getAdvancingCount());
+                totalDeclining -= nullToZero(leaving.getDecliningCount());
+            }
+
+            if (i >= ADR_PERIOD - 1) {
+                LocalDate windowStart = ascending.get(i - ADR_PERIOD + 1).getTradeDate();
+                if (!windowStart.isBefore(current.getTradeDate().minusDays(ADR_PERIOD + 10))) {
+                    adrs[i] = toAdr(totalAdvancing, totalDeclining);
+                }
+            }
         }
+        return adrs;
+    }
 
-        return history;
+    private static long nullToZero(Integer value) {
+        return value != null ? value : 0;
     }
 
     /**
@@ -154,6 +236,10 @@ public class MarketTimingService {
     @Scheduled(cron = "0 30 16 * * MON-FRI", zone = "Asia/Seoul")
     @Transactional
     public void scheduledMarketDataCollection() {
+        if (!clusterLeader.isLeader()) {
+            log.debug("리더 노드가 아님 - ADR 시장 지표 자동 수집 생략");
+            return;
+        }
         log.info("=== ADR 시장 지표 자동 수집 시작 (16:30) ===");
         try {
             collectMarketData();
@@ -242,8 +328,8 @@ public class MarketTimingService {
                 status.setDailyRatio(dailyRatio);
             }
 
-            // ADR 계산
-            BigDecimal adr = calculateAdr(marketType, today);
+            // ADR 증분 계산 (직전 19거래일 + 당일)
+            BigDecimal adr = calculateIncrementalAdr(status);
             status.setAdr20(adr);
 
             marketDailyStatusRepository.save(status);
@@ -381,23 +467,54 @@ public class MarketTimingService {
         long totalDeclining = 0;
 
         for (MarketDailyStatus data : targetData) {
-            totalAdvancing += data.getAdvancingCount() != null ? data.getAdvancingCount() : 0;
-            totalDeclining += data.getDecliningCount() != null ? data.getDecliningCount() : 0;
+            totalAdvancing += nullToZero(data.getAdvancingCount());
+            totalDeclining += nullToZero(data.getDecliningCount());
+        }
+
+        BigDecimal adr = toAdr(totalAdvancing, totalDeclining);
+        log.debug("{} ADR 계산 완료: {} (상승합계={}, 하락합계={})",
+                marketType, adr, totalAdvancing, totalDeclining);
+
+        return adr;
+    }
+
+    /**
+     * 새 거래일 ADR 증분 계산
+     * - 직전 19거래일 저장값 + 아직 저장 전인 당일 값으로 윈도우 구성
+     * - 저장 전에 계산하므로 당일 상승/하락 수가 ADR에 포함됨
+     */
+    private BigDecimal calculateIncrementalAdr(MarketDailyStatus today) {
+        LocalDate date = today.getTradeDate();
+        List<MarketDailyStatus> previous = marketDailyStatusRepository
+                .findByMarketTypeAndTradeDateBetweenOrderByTradeDateDesc(
+                        today.getMarketType(), date.minusDays(ADR_PERIOD + 10), date.minusDays(1));
+
+        if (previous.size() < ADR_PERIOD - 1) {
+            log.debug("{} ADR 계산 불가: 데이터 부족 ({}/{}일)",
+                    today.getMarketType(), previous.size() + 1, ADR_PERIOD);
+            return null;
         }
 
+        long totalAdvancing = nullToZero(today.getAdvancingCount());
+        long totalDeclining = nullToZero(today.getDecliningCount());
+        for (MarketDailyStatus data : previous.subList(0, ADR_PERIOD - 1)) {
+            totalAdvancing += nullToZero(data.getAdvancingCount());
+            totalDeclining += nullToZero(data.getDecliningCount());
+        }
+        return toAdr(totalAdvancing, totalDeclining);
+    }
+
+    /**
+     * ADR = (상승 종목 수 합계 / 하락 종목 수 합계) * 100
+     */
+    private static BigDecimal toAdr(long totalAdvancing, long totalDeclining) {
         if (totalDeclining == 0) {
             return new BigDecimal("999.99");  // 하락 종목 없음
         }
-
-        BigDecimal adr = BigDecimal.valueOf(totalAdvancing)
+        return BigDecimal.valueOf(totalAdvancing)
                 .divide(BigDecimal.valueOf(totalDeclining), 4, RoundingMode.HALF_UP)
                 .multiply(new BigDecimal("100"))
                 .setScale(2, RoundingMode.HALF_UP);
-
-        log.debug("{} ADR 계산 완료: {} (상승합계={}, 하락합계={})",
-                marketType, adr, totalAdvancing, totalDeclining);
-
-        return adr;
     }
 
     /**
@@ -557,67 +674,47 @@ public class MarketTimingService {
 
     /**
      * 특정 기간 동안의 시장 데이터 수집 (Backfill)
-     * - 네이버 금융 차단 방지를 위해 요청 간 1초 딜레이 적용
-     * - 주말은 자동으로 스킵
+     * - 날짜 파티션 단위로 병렬 수집 (HistoricalBackfillService)
+     * - 네이버 금융 차단 방지는 파티션 간 공유되는 ApiRateLimiter로 처리
+     * - 주말, 코스피/코스닥 모두 이미 수집된 날짜는 자동으로 스킵
      *
      * @param startDate 시작 날짜
      * @param endDate   종료 날짜
-     * @return 수집 결과 (성공 일수, 실패 일수, 스킵 일수)
+     * @return 수집 결과 (성공 일수, 실패 일수, 스킵 일수, 처리량)
      */
-    @Transactional
     public java.util.Map<String, Object> collectMarketDataForPeriod(LocalDate startDate, LocalDate endDate) {
         log.info("========== 기간별 시장 데이터 수집 시작: {} ~ {} ==========", startDate, endDate);
 
-        java.util.Map<String, Object> result = new java.util.HashMap<>();
-        int successCount = 0;
-        int failCount = 0;
-        int skipCount = 0;
-
-        LocalDate currentDate = startDate;
-
-        while (!currentDate.isAfter(endDate)) {
-            // 주말 스킵
-            java.time.DayOfWeek dayOfWeek = currentDate.getDayOfWeek();
-            if (dayOfWeek == java.time.DayOfWeek.SATURDAY || dayOfWeek == java.time.DayOfWeek.SUNDAY) {
-                log.debug("주말 스킵: {}", currentDate);
-                skipCount++;
-                currentDate = currentDate.plusDays(1);
-                continue;
-            }
-
-            try {
-                // 네이버 금융 차단 방지를 위한 딜레이 (첫 요청 제외)
-                if (successCount + failCount > 0) {
-                    Thread.sleep(1000);  // 1초 딜레이
-                }
+        // 코스피/코스닥 모두 존재하는 날짜만 수집 완료로 간주
+        Set<LocalDate> completedDates = new HashSet<>(
+                marketDailyStatusRepository.findTradeDatesBetween("KOSPI", startDate, endDate));
+        completedDates.retainAll(marketDailyStatusRepository.findTradeDatesBetween("KOSDAQ", startDate, endDate));
+        // 오늘 데이터는 장중 갱신될 수 있으므로 항상 재수집
+        completedDates.remove(LocalDate.now());
 
-                // 해당 날짜로 데이터 수집
-                collectMarketDataForDate(currentDate);
-                successCount++;
-                log.info("시장 데이터 수집 완료: {} ({}/{})",
-                        currentDate, successCount, java.time.temporal.ChronoUnit.DAYS.between(startDate, endDate) + 1);
-
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                log.error("수집 중단됨");
-                break;
-            } catch (Exception e) {
-                log.warn("시장 데이터 수집 실패 [{}]: {}", currentDate, e.getMessage());
-                failCount++;
-            }
+        BackfillResultDto backfill = backfillService.run("MARKET_STATUS", startDate, endDate, completedDates,
+                date -> {
+                    collectMarketDataForDate(date);
+                    return 2;  // KOSPI + KOSDAQ
+                });
 
-            currentDate = currentDate.plusDays(1);
-        }
+        // 날짜 순서와 무관하게 병렬 수집되었으므로 ADR은 구간 전체를 한 번에 재계산
+        refreshAdrSeries(startDate, endDate);
 
+        java.util.Map<String, Object> result = new java.util.HashMap<>();
         result.put("startDate", startDate.toString());
         result.put("endDate", endDate.toString());
-        result.put("successCount", successCount);
-        result.put("failCount", failCount);
-        result.put("skipCount", skipCount);
-        result.put("totalDays", java.time.temporal.ChronoUnit.DAYS.between(startDate, endDate) + 1);
+        result.put("successCount", backfill.getSuccessDays());
+        result.put("failCount", backfill.getFailDays());
+        result.put("skipCount", backfill.getWeekendDays() + backfill.getAlreadyCompleteDays());
+        result.put("alreadyCompleteCount", backfill.getAlreadyCompleteDays());
+        result.put("totalDays", backfill.getTotalDays());
+        result.put("partitions", backfill.getPartitions());
+        result.put("elapsedMillis", backfill.getElapsedMillis());
+        result.put("daysPerMinute", backfill.getDaysPerMinute());
 
         log.info("========== 기간별 시장 데이터 수집 완료 - 성공: {}, 실패: {}, 스킵: {} ==========",
-                successCount, failCount, skipCount);
+                result.get("successCount"), result.get("failCount"), result.get("skipCount"));
 
         return result;
     }
@@ -654,6 +751,8 @@ public class MarketTimingService {
             String url = String.format(
                     "https://finance.naver.com/sise/sise_index_day.naver?code=%s&page=1", code);
 
+            // 네이버 금융 차단 방지 (백필 파티션 간 공유 속도 제한)
+            rateLimiter.acquire(ApiRateLimiter.NAVER);
             Document doc = Jsoup.connect(url)
                     .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36")
                     .timeout(10000)
@@ -725,6 +824,9 @@ public class MarketTimingService {
             marketDailyStatusRepository.save(status);
             log.debug("{} {} 과거 데이터 저장 완료: indexClose={}", marketType, targetDate, indexClose);
 
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(marketType + " " + targetDate + " 데이터 수집 중단됨");
         } catch (Exception e) {
             log.warn("{} {} 과거 데이터 수집 실패: {}", marketType, targetDate, e.getMessage());
             throw new RuntimeException(marketType + " " + targetDate + " 데이터 수집 실패: " + e.getMessage());
@@ -28,6 +28,7 @@ public class NewsService {
 
     private final NewsSummaryRepository newsSummaryRepository;
     private final OllamaService ollamaService;
+    private final ClusterLeader clusterLeader;
 
     // 경제 뉴스 RSS 피드 URL 목록
     private static final String[] RSS_FEEDS = {
@@ -36,9 +37,11 @@ public class NewsService {
         "https://rss.etnews.com/Section902.xml"        // 전자신문 경제
     };
 
-    public NewsService(NewsSummaryRepository newsSummaryRepository, OllamaService ollamaService) {
+    public NewsService(NewsSummaryRepository newsSummaryRepository, OllamaService ollamaService,
+                       ClusterLeader clusterLeader) {
         this.newsSummaryRepository = newsSummaryRepository;
         this.ollamaService = ollamaService;
+        this.clusterLeader = clusterLeader;
     }
 
     /**
@@ -69,6 +72,10 @@ public class NewsService {
     @Scheduled(cron = "0 0 8 * * *")
     @Transactional
     public void fetchAndSummarizeNews() {
+        if (!clusterLeader.isLeader()) {
+            log.debug("리더 노드가 아님 - 경제 뉴스 수집 생략");
+            return;
+        }
         log.info("=== 경제 뉴스 수집 및 요약 시작 ===");
 
         List<RssItem> allItems = new ArrayList<>();
@@ -1,28 +1,84 @@
 package com.myplatform.backend.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.myplatform.backend.dto.NotificationDto;
 import com.myplatform.backend.entity.Notification;
 import com.myplatform.backend.repository.NotificationRepository;
 import com.myplatform.backend.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+/**
+ * 사용자 알림 서비스
+ * - 읽지 않은 알림 수는 사용자별로 캐시하고 생성/읽음 처리 커밋 시 갱신 (알림 벨 조회가 DB를 거치지 않음)
+ * - 여러 사용자 대상 알림은 다중 행 INSERT로 한 번에 저장
+ * - 여러 노드 운영 시 다른 노드의 캐시는 ClusterEventBus로 무효화
+ */
 @Service
 @Transactional
+@Slf4j
 public class NotificationService {
 
+    private static final String UNREAD_CHANNEL = "notification-unread";
+    private static final int INSERT_CHUNK_SIZE = 500;  // INSERT 한 문장당 최대 행 수
+    private static final String INSERT_SQL_PREFIX =
+            "INSERT INTO notifications (user_id, type, title, message, link, is_read, created_at) VALUES ";
+    private static final String INSERT_SQL_ROW = "(?, ?, ?, ?, ?, false, ?)";
+
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ClusterEventBus clusterEventBus;
+
+    // userId -> 읽지 않은 알림 수 (경쟁으로 생긴 오차는 만료 후 재조회로 보정)
+    private final Cache<Long, Long> unreadCounts = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(10, TimeUnit.MINUTES)
+            .build();
+
+    // username -> userId (요청마다 사용자 조회하지 않도록)
+    private final Cache<String, Long> userIdsByName = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(10, TimeUnit.MINUTES)
+            .build();
 
-    public NotificationService(NotificationRepository notificationRepository, UserRepository userRepository) {
+    public NotificationService(NotificationRepository notificationRepository, UserRepository userRepository,
+                               JdbcTemplate jdbcTemplate, ClusterEventBus clusterEventBus) {
         this.notificationRepository = notificationRepository;
         this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.clusterEventBus = clusterEventBus;
+    }
+
+    @PostConstruct
+    void subscribeInvalidations() {
+        if (clusterEventBus.isDistributed()) {
+            clusterEventBus.subscribe(UNREAD_CHANNEL, (sequence, body) -> onRemoteInvalidation(body));
+        }
     }
 
     @Transactional(readOnly = true)
@@ -45,20 +101,30 @@ public class NotificationService {
                 .collect(Collectors.toList());
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * 읽지 않은 알림 수 (캐시에 없을 때만 COUNT, 트랜잭션도 그때만 사용)
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Long getUnreadCount(String username) {
         Long userId = getUserId(username);
-        return notificationRepository.countByUserIdAndIsRead(userId, false);
+        return unreadCounts.get(userId, id -> notificationRepository.countByUserIdAndIsRead(id, false));
     }
 
     public void markAsRead(String username, Long notificationId) {
         Long userId = getUserId(username);
-        notificationRepository.markAsRead(notificationId, userId);
+        int updated = notificationRepository.markAsRead(notificationId, userId);
+        if (updated > 0) {
+            afterCommit(List.of(userId), () -> adjustUnread(userId, -updated));
+        }
     }
 
+    /**
+     * 모든 알림 읽음 처리 (UPDATE 한 번)
+     */
     public void markAllAsRead(String username) {
         Long userId = getUserId(username);
         notificationRepository.markAllAsRead(userId);
+        afterCommit(List.of(userId), () -> unreadCounts.put(userId, 0L));
     }
 
     public NotificationDto createNotification(String username, String type, String title, String message, String link) {
@@ -73,6 +139,7 @@ public class NotificationService {
         notification.setIsRead(false);
 
         Notification saved = notificationRepository.save(notification);
+        afterCommit(List.of(userId), () -> adjustUnread(userId, 1));
         return new NotificationDto(saved);
     }
 
@@ -86,17 +153,124 @@ public class NotificationService {
         notification.setIsRead(false);
 
         notificationRepository.save(notification);
+        afterCommit(List.of(userId), () -> adjustUnread(userId, 1));
+    }
+
+    /**
+     * 여러 사용자에게 같은 알림 발송 (INSERT_CHUNK_SIZE 행씩 다중 행 INSERT)
+     * @return 저장한 알림 수
+     */
+    public int createNotificationForUsers(Collection<Long> userIds, String type, String title, String message, String link) {
+        List<Long> targets = new ArrayList<>(new LinkedHashSet<>(userIds));
+        if (targets.isEmpty()) {
+            return 0;
+        }
+        String notificationType = type != null ? type : "INFO";
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+
+        int inserted = 0;
+        for (int from = 0; from < targets.size(); from += INSERT_CHUNK_SIZE) {
+            List<Long> chunk = targets.subList(from, Math.min(from + INSERT_CHUNK_SIZE, targets.size()));
+            String sql = INSERT_SQL_PREFIX + String.join(", ", Collections.nCopies(chunk.size(), INSERT_SQL_ROW));
+            Object[] args = new Object[chunk.size() * 6];
+            int i = 0;
+            for (Long userId : chunk) {
+                args[i++] = userId;
+                args[i++] = notificationType;
+                args[i++] = title;
+                args[i++] = message;
+                args[i++] = link;
+                args[i++] = createdAt;
+            }
+            inserted += jdbcTemplate.update(sql, args);
+        }
+
+        afterCommit(targets, () -> targets.forEach(userId -> adjustUnread(userId, 1)));
+        return inserted;
+    }
+
+    /**
+     * 승인된 전체 사용자에게 알림 발송
+     * @return 저장한 알림 수
+     */
+    public int broadcastNotification(String type, String title, String message, String link) {
+        return createNotificationForUsers(userRepository.findIdsByStatus("APPROVED"), type, title, message, link);
     }
 
     public void deleteOldNotifications(String username, int daysOld) {
         Long userId = getUserId(username);
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(daysOld);
         notificationRepository.deleteOldNotifications(userId, cutoffDate);
+        // 읽지 않은 알림이 지워졌을 수 있으므로 다음 조회 때 다시 COUNT
+        afterCommit(List.of(userId), () -> unreadCounts.invalidate(userId));
     }
 
     private Long getUserId(String username) {
-        return userRepository.findByUsername(username)
+        return userIdsByName.get(username, name -> userRepository.findByUsername(name)
                 .orElseThrow(() -> new RuntimeException("사용자를 찾을 수 없습니다."))
-                .getId();
+                .getId());
+    }
+
+    /**
+     * 캐시에 있는 사용자만 증감 (없으면 다음 조회 때 COUNT)
+     */
+    private void adjustUnread(Long userId, long delta) {
+        unreadCounts.asMap().computeIfPresent(userId, (id, count) -> Math.max(0, count + delta));
+    }
+
+    /**
+     * 커밋 후 이 노드 캐시를 갱신하고 다른 노드에는 무효화 전달 (트랜잭션 밖이면 즉시)
+     */
+    private void afterCommit(Collection<Long> changedUserIds, Runnable localUpdate) {
+        Runnable apply = () -> {
+            localUpdate.run();
+            publishInvalidation(changedUserIds);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    /**
+     * 무효화 메시지: nodeId(long) + count(int) + count × userId(long)
+     */
+    private void publishInvalidation(Collection<Long> changedUserIds) {
+        if (!clusterEventBus.isDistributed()) {
+            return;
+        }
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(12 + changedUserIds.size() * 8);
+            DataOutputStream out = new DataOutputStream(buffer);
+            out.writeLong(clusterEventBus.nodeId());
+            out.writeInt(changedUserIds.size());
+            for (Long userId : changedUserIds) {
+                out.writeLong(userId);
+            }
+            clusterEventBus.publish(UNREAD_CHANNEL, buffer.toByteArray());
+        } catch (IOException e) {
+            log.warn("알림 캐시 무효화 발행 실패: {}", e.getMessage());
+        }
+    }
+
+    private void onRemoteInvalidation(byte[] body) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+            if (in.readLong() == clusterEventBus.nodeId()) {
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                unreadCounts.invalidate(in.readLong());
+            }
+        } catch (IOException e) {
+            log.warn("알림 캐시 무효화 메시지 형식 오류: {}", e.getMessage());
+        }
     }
 }
@@ -0,0 +1,179 @@
+package com.myplatform.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 시계열 테이블 파티션 관리
+ * - investor_intraday_snapshot: 일 단위 파티션 (snapshot_date)
+ * - stock_price: 월 단위 파티션 (fetched_at)
+ * - activity_logs: 월 단위 파티션 (created_at)
+ *
+ * 보관 기간이 지난 데이터는 DELETE 대신 파티션 DROP으로 제거하여
+ * 대량 삭제로 인한 테이블 잠금/단편화를 방지한다.
+ * 파티션 전환은 setup-partitioning.sql로 1회 수행하며,
+ * 파티션이 적용되지 않은 테이블은 이 작업에서 건너뛴다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PartitionMaintenanceService {
+
+    public static final String INTRADAY_SNAPSHOT = "investor_intraday_snapshot";
+    public static final String STOCK_PRICE = "stock_price";
+    public static final String ACTIVITY_LOGS = "activity_logs";
+
+    private static final String MAX_PARTITION = "pmax";
+    private static final DateTimeFormatter DAILY_NAME = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter MONTHLY_NAME = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ClusterLeader clusterLeader;
+
+    @Value("${partition.intraday-snapshot.retention-days:7}")
+    private int intradayRetentionDays;
+
+    @Value("${partition.stock-price.retention-months:3}")
+    private int stockPriceRetentionMonths;
+
+    @Value("${partition.activity-logs.retention-months:12}")
+    private int activityLogRetentionMonths;
+
+    @Value("${partition.premake-periods:3}")
+    private int premakePeriods;
+
+    /**
+     * 파티션 유지보수 (매일 05:30)
+     * - 앞으로 사용할 파티션 미리 생성
+     * - 보관 기간이 지난 파티션 삭제
+     */
+    @Scheduled(cron = "0 30 5 * * *", zone = "Asia/Seoul")
+    public void runMaintenance() {
+        if (!clusterLeader.isLeader()) {
+            log.debug("리더 노드가 아님 - 파티션 유지보수 생략");
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        for (PartitionSpec spec : specs()) {
+            try {
+                maintain(spec, today);
+            } catch (Exception e) {
+                log.error("[{}] 파티션 유지보수 실패: {}", spec.table, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 테이블에 파티션이 적용되어 있는지 여부
+     * - 미적용 테이블은 기존 DELETE 방식 정리를 사용
+     */
+    public boolean isPartitioned(String table) {
+        return !loadPartitionBounds(table).isEmpty();
+    }
+
+    private List<PartitionSpec> specs() {
+        List<PartitionSpec> specs = new ArrayList<>();
+        specs.add(new PartitionSpec(INTRADAY_SNAPSHOT, false, intradayRetentionDays));
+        specs.add(new PartitionSpec(STOCK_PRICE, true, stockPriceRetentionMonths));
+        specs.add(new PartitionSpec(ACTIVITY_LOGS, true, activityLogRetentionMonths));
+        return specs;
+    }
+
+    private void maintain(PartitionSpec spec, LocalDate today) {
+        TreeMap<LocalDate, String> bounds = loadPartitionBounds(spec.table);
+        if (bounds.isEmpty()) {
+            log.debug("[{}] 파티션 미적용 테이블 - 건너뜀", spec.table);
+            return;
+        }
+
+        // 1. 현재 기간 + 이후 N개 기간 파티션 생성 (pmax 분할)
+        LocalDate start = spec.periodStart(today);
+        int created = 0;
+        for (int i = 0; i <= premakePeriods; i++) {
+            LocalDate periodStart = spec.plus(start, i);
+            LocalDate upperBound = spec.plus(periodStart, 1);
+            if (!upperBound.isAfter(bounds.lastKey())) {
+                continue;  // 이미 해당 구간을 덮는 파티션 존재
+            }
+            String name = spec.partitionName(periodStart);
+            jdbcTemplate.execute(String.format(
+                    "ALTER TABLE %s REORGANIZE PARTITION %s INTO (" +
+                    "PARTITION %s VALUES LESS THAN ('%s'), " +
+                    "PARTITION %s VALUES LESS THAN (MAXVALUE))",
+                    spec.table, MAX_PARTITION, name, upperBound, MAX_PARTITION));
+            bounds.put(upperBound, name);
+            created++;
+        }
+
+        // 2. 상한이 보관 기준일 이하인 파티션 삭제 (파티션 전체가 보관 기간 밖)
+        LocalDate cutoff = spec.plus(start, -spec.retention);
+        List<String> expired = new ArrayList<>(bounds.headMap(cutoff, true).values());
+        if (!expired.isEmpty()) {
+            jdbcTemplate.execute(String.format("ALTER TABLE %s DROP PARTITION %s",
+                    spec.table, String.join(", ", expired)));
+        }
+
+        log.info("[{}] 파티션 유지보수 완료 - 생성 {}개, 삭제 {}개 {} (보관 기준: {} 이후)",
+                spec.table, created, expired.size(), expired, cutoff);
+    }
+
+    /**
+     * 파티션별 상한값 조회 (MAXVALUE 파티션 제외)
+     * - RANGE COLUMNS 파티션의 PARTITION_DESCRIPTION: '2026-10-20' 또는 '2026-11-01 00:00:00'
+     */
+    private TreeMap<LocalDate, String> loadPartitionBounds(String table) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL",
+                table);
+
+        TreeMap<LocalDate, String> bounds = new TreeMap<>();
+        for (Map<String, Object> row : rows) {
+            String name = (String) row.get("PARTITION_NAME");
+            String description = String.valueOf(row.get("PARTITION_DESCRIPTION")).replace("'", "").trim();
+            if (MAX_PARTITION.equals(name) || description.length() < 10 || "MAXVALUE".equalsIgnoreCase(description)) {
+                continue;
+            }
+            bounds.put(LocalDate.parse(description.substring(0, 10)), name);
+        }
+        return bounds;
+    }
+
+    /**
+     * 테이블별 파티션 규칙
+     */
+    private static final class PartitionSpec {
+        private final String table;
+        private final boolean monthly;
+        private final int retention;  // 보관 기간 (일 또는 월)
+
+        private PartitionSpec(String table, boolean monthly, int retention) {
+            this.table = table;
+            this.monthly = monthly;
+            this.retention = retention;
+        }
+
+        private LocalDate periodStart(LocalDate date) {
+            return monthly ? date.withDayOfMonth(1) : date;
+        }
+
+        private LocalDate plus(LocalDate date, int periods) {
+            return monthly ? date.plusMonths(periods) : date.plusDays(periods);
+        }
+
+        private String partitionName(LocalDate periodStart) {
+            return "p" + periodStart.format(monthly ? MONTHLY_NAME : DAILY_NAME);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.myplatform.backend.service;
+
+/**
+ * 모의투자 보유 종목 변경 이벤트 (매수/매도/계좌 초기화)
+ * - 커밋 후 손절/익절 트리거 인덱스 갱신에 사용
+ */
+public class PortfolioChangedEvent {
+
+    private final Long accountId;
+    private final String stockCode;
+
+    /**
+     * @param stockCode 변경된 종목 (null이면 계좌 전체)
+     */
+    public PortfolioChangedEvent(Long accountId, String stockCode) {
+        this.accountId = accountId;
+        this.stockCode = stockCode;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public String getStockCode() {
+        return stockCode;
+    }
+}
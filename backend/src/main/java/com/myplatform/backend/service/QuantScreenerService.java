@@ -1,8 +1,11 @@
 package com.myplatform.backend.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.myplatform.backend.dto.QuantScreeningRequest;
 import com.myplatform.backend.dto.ScreenerResultDto;
 import com.myplatform.backend.entity.StockFinancialData;
-import com.myplatform.backend.repository.StockFinancialDataRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -11,6 +14,8 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
 import java.util.stream.Collectors;
 
 /**
@@ -18,19 +23,38 @@ import java.util.stream.Collectors;
  * - 마법의 공식 (Magic Formula) 스크리닝
  * - PEG 기반 저평가 성장주 스크리닝
  * - 분기 실적 턴어라운드 스크리닝
+ * - 사용자 정의 식 스크리닝 (필터 + 가중 순위 점수)
  *
  * [성능 최적화]
  * - N+1 문제 해결: Bulk 조회 후 메모리에서 groupingBy 처리
  * - 적자 기업 필터링: 마법의 공식에서 PER <= 0 기업 사전 제외
+ * - 컬럼형 스냅샷(FinancialColumns): 요청마다 엔티티를 읽지 않고
+ *   미리 정렬된 지표 배열을 훑어 원시 타입 비교로 선별
+ * - 결과 스냅샷(ScreenerSnapshot): 기본 조건의 전략별 전체 순위 결과를 데이터 버전별로
+ *   한 번만 계산해 두고 조회는 앞에서부터 잘라서 응답 (ETag 버전 제공)
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class QuantScreenerService {
 
-    private final StockFinancialDataRepository stockFinancialDataRepository;
+    private final FinancialColumnStore financialColumnStore;
     private final TelegramNotificationService telegramNotificationService;
 
+    private static final int DEFAULT_CUSTOM_LIMIT = 30;
+    private static final BigDecimal DEFAULT_MAX_PEG = new BigDecimal("1.0");
+    private static final BigDecimal DEFAULT_MIN_EPS_GROWTH = new BigDecimal("10.0"); // 최소 10% 성장
+    private static final int SUMMARY_SIZE = 5;
+
+    // 기본 조건 전략별 결과 (재무 스냅샷 버전 + 날짜 단위로 교체)
+    private volatile ScreenerSnapshot screenerSnapshot;
+
+    // 컴파일된 스크리너 식 (정규화된 식 문자열 기준)
+    private final Cache<String, ScreenerExpression> compiledExpressions = Caffeine.newBuilder()
+            .maximumSize(500)
+            .expireAfterAccess(1, TimeUnit.HOURS)
+            .build();
+
     /**
      * 마법의 공식 스크리너
      * - (영업이익률 순위 + ROE 순위 + PER 순위) 합산으로 종합 순위 계산
@@ -40,105 +64,57 @@ public class QuantScreenerService {
      * - 마법의 공식은 우량주를 찾는 것이므로 적자 기업은 대상이 아님
      */
     public List<ScreenerResultDto> getMagicFormulaStocks(Integer limit, BigDecimal minMarketCap) {
-        log.info("마법의 공식 스크리닝 시작 - limit: {}, minMarketCap: {}", limit, minMarketCap);
+        if (minMarketCap == null) {
+            return head(snapshot().magicFormula, limit);
+        }
+        return computeMagicFormula(financialColumnStore.current(), limit, minMarketCap);
+    }
 
-        // 1. 조건에 맞는 종목 조회 (Repository에서 이미 PER > 0 필터 적용됨)
-        List<StockFinancialData> allStocks = stockFinancialDataRepository.findForMagicFormula(minMarketCap);
+    private List<ScreenerResultDto> computeMagicFormula(FinancialColumns columns, Integer limit, BigDecimal minMarketCap) {
+        log.info("마법의 공식 스크리닝 시작 - limit: {}, minMarketCap: {}", limit, minMarketCap);
 
-        // 2. [개선] 적자 기업 확실히 제외 (PER > 0 재확인)
-        List<StockFinancialData> stocks = allStocks.stream()
-                .filter(s -> s.getPer() != null && s.getPer().compareTo(BigDecimal.ZERO) > 0)
-                .filter(s -> s.getOperatingMargin() != null && s.getOperatingMargin().compareTo(BigDecimal.ZERO) > 0)
-                .filter(s -> s.getRoe() != null && s.getRoe().compareTo(BigDecimal.ZERO) > 0)
-                .collect(Collectors.toList());
+        // PER/ROE/영업이익률 모두 양수인 종목의 지표별 순위는 스냅샷에 미리 계산되어 있음
+        // 상위 limit개만 선택하므로 DTO도 limit개만 생성
+        List<FinancialColumns.MagicFormulaHit> hits = columns.magicFormula(minMarketCap, limit != null ? limit : 0);
 
-        if (stocks.isEmpty()) {
+        if (hits.isEmpty()) {
             log.info("마법의 공식 조건에 맞는 종목이 없습니다.");
             return Collections.emptyList();
         }
 
-        log.debug("마법의 공식 후보 종목 수: {} (필터링 전: {})", stocks.size(), allStocks.size());
-
-        // 3. 각 지표별 순위 계산 (모두 양수인 종목만 대상)
-        int totalStocks = stocks.size();
-
-        // 영업이익률 순위 (높을수록 좋음 = 낮은 순위)
-        Map<String, Integer> operatingMarginRanks = calculateRanks(stocks,
-                Comparator.comparing(StockFinancialData::getOperatingMargin).reversed());
-
-        // ROE 순위 (높을수록 좋음 = 낮은 순위)
-        Map<String, Integer> roeRanks = calculateRanks(stocks,
-                Comparator.comparing(StockFinancialData::getRoe).reversed());
-
-        // PER 순위 (낮을수록 좋음 = 낮은 순위)
-        Map<String, Integer> perRanks = calculateRanks(stocks,
-                Comparator.comparing(StockFinancialData::getPer));
-
-        // 4. 종합 순위 계산 (영업이익률 순위 + ROE 순위 + PER 순위, 낮을수록 좋음)
-        List<ScreenerResultDto> results = stocks.stream()
-                .map(stock -> {
-                    Integer opMarginRank = operatingMarginRanks.getOrDefault(stock.getStockCode(), totalStocks);
-                    Integer roeRank = roeRanks.getOrDefault(stock.getStockCode(), totalStocks);
-                    Integer perRank = perRanks.getOrDefault(stock.getStockCode(), totalStocks);
-
-                    int totalScore = opMarginRank + roeRank + perRank;
-
-                    return ScreenerResultDto.builder()
-                            .stockCode(stock.getStockCode())
-                            .stockName(stock.getStockName())
-                            .market(stock.getMarket())
-                            .sector(stock.getSector())
-                            .currentPrice(stock.getCurrentPrice())
-                            .marketCap(stock.getMarketCap())
-                            .per(stock.getPer())
-                            .pbr(stock.getPbr())
-                            .roe(stock.getRoe())
-                            .operatingMargin(stock.getOperatingMargin())
-                            .netMargin(stock.getNetMargin())
-                            .eps(stock.getEps())
-                            .epsGrowth(stock.getEpsGrowth())
-                            .peg(stock.getPeg())
-                            .magicFormulaScore(BigDecimal.valueOf(totalScore))
-                            .operatingMarginRank(opMarginRank)
-                            .roeRank(roeRank)
-                            .perRank(perRank)
-                            .revenueGrowth(stock.getRevenueGrowth())
-                            .profitGrowth(stock.getProfitGrowth())
-                            .build();
-                })
-                .sorted(Comparator.comparing(ScreenerResultDto::getMagicFormulaScore))
-                .collect(Collectors.toList());
-
-        // 5. 최종 순위 부여
-        for (int i = 0; i < results.size(); i++) {
-            results.get(i).setMagicFormulaRank(i + 1);
-        }
-
-        // 6. limit 적용
-        if (limit != null && limit > 0) {
-            results = results.stream().limit(limit).collect(Collectors.toList());
+        List<ScreenerResultDto> results = new ArrayList<>(hits.size());
+        for (int i = 0; i < hits.size(); i++) {
+            FinancialColumns.MagicFormulaHit hit = hits.get(i);
+            StockFinancialData stock = hit.getStock();
+            results.add(ScreenerResultDto.builder()
+                    .stockCode(stock.getStockCode())
+                    .stockName(stock.getStockName())
+                    .market(stock.getMarket())
+                    .sector(stock.getSector())
+                    .currentPrice(stock.getCurrentPrice())
+                    .marketCap(stock.getMarketCap())
+                    .per(stock.getPer())
+                    .pbr(stock.getPbr())
+                    .roe(stock.getRoe())
+                    .operatingMargin(stock.getOperatingMargin())
+                    .netMargin(stock.getNetMargin())
+                    .eps(stock.getEps())
+                    .epsGrowth(stock.getEpsGrowth())
+                    .peg(stock.getPeg())
+                    .magicFormulaScore(BigDecimal.valueOf(hit.getScore()))
+                    .magicFormulaRank(i + 1)
+                    .operatingMarginRank(hit.getOperatingMarginRank())
+                    .roeRank(hit.getRoeRank())
+                    .perRank(hit.getPerRank())
+                    .revenueGrowth(stock.getRevenueGrowth())
+                    .profitGrowth(stock.getProfitGrowth())
+                    .build());
         }
 
         log.info("마법의 공식 스크리닝 완료 - 결과 {}건", results.size());
         return results;
     }
 
-    /**
-     * 순위 계산 헬퍼 메서드
-     */
-    private Map<String, Integer> calculateRanks(List<StockFinancialData> stocks,
-                                                 Comparator<StockFinancialData> comparator) {
-        List<StockFinancialData> sorted = stocks.stream()
-                .sorted(comparator)
-                .collect(Collectors.toList());
-
-        Map<String, Integer> ranks = new HashMap<>();
-        for (int i = 0; i < sorted.size(); i++) {
-            ranks.put(sorted.get(i).getStockCode(), i + 1);
-        }
-        return ranks;
-    }
-
     /**
      * PEG 스크리너
      * - PEG = PER / EPS성장률 (또는 profitGrowth로 대체)
@@ -147,23 +123,33 @@ public class QuantScreenerService {
      * [개선] epsGrowth가 없으면 profitGrowth로 PEG 계산
      */
     public List<ScreenerResultDto> getLowPegStocks(BigDecimal maxPeg, BigDecimal minEpsGrowth, Integer limit) {
-        log.info("PEG 스크리닝 시작 - maxPeg: {}, minEpsGrowth: {}, limit: {}", maxPeg, minEpsGrowth, limit);
-
         // 기본값 설정
         if (maxPeg == null) {
-            maxPeg = new BigDecimal("1.0");
+            maxPeg = DEFAULT_MAX_PEG;
         }
         if (minEpsGrowth == null) {
-            minEpsGrowth = new BigDecimal("10.0"); // 최소 10% 성장
+            minEpsGrowth = DEFAULT_MIN_EPS_GROWTH;
         }
 
-        // 1차: Repository 쿼리로 PEG 있는 종목 조회
-        List<StockFinancialData> stocks = stockFinancialDataRepository.findLowPegStocks(maxPeg, minEpsGrowth);
+        if (maxPeg.compareTo(DEFAULT_MAX_PEG) == 0 && minEpsGrowth.compareTo(DEFAULT_MIN_EPS_GROWTH) == 0) {
+            return head(snapshot().lowPeg, limit);
+        }
+        return computeLowPeg(financialColumnStore.current(), maxPeg, minEpsGrowth, limit);
+    }
+
+    private List<ScreenerResultDto> computeLowPeg(FinancialColumns columns, BigDecimal maxPeg,
+                                                  BigDecimal minEpsGrowth, Integer limit) {
+        log.info("PEG 스크리닝 시작 - maxPeg: {}, minEpsGrowth: {}, limit: {}", maxPeg, minEpsGrowth, limit);
+
+        int max = limit != null && limit > 0 ? limit : 0;
+
+        // 1차: 저장된 PEG 기준 (PEG 오름차순 순서를 훑다가 limit개 채우면 중단)
+        List<StockFinancialData> stocks = columns.lowPeg(maxPeg, minEpsGrowth, max);
 
         // 2차: PEG가 없는 종목 중 PER, profitGrowth가 있는 종목으로 PEG 계산
         if (stocks.isEmpty()) {
             log.info("PEG 데이터가 없어 profitGrowth 기반으로 계산합니다.");
-            stocks = calculatePegFromProfitGrowth(maxPeg, minEpsGrowth);
+            stocks = columns.lowPegByProfitGrowth(maxPeg, minEpsGrowth, max);
         }
 
         List<ScreenerResultDto> results = stocks.stream()
@@ -199,42 +185,12 @@ public class QuantScreenerService {
                             .profitGrowth(stock.getProfitGrowth())
                             .build();
                 })
-                .filter(dto -> dto.getPeg() != null && dto.getPeg().compareTo(BigDecimal.ZERO) > 0)
-                .sorted(Comparator.comparing(ScreenerResultDto::getPeg))
                 .collect(Collectors.toList());
 
-        if (limit != null && limit > 0) {
-            results = results.stream().limit(limit).collect(Collectors.toList());
-        }
-
         log.info("PEG 스크리닝 완료 - 결과 {}건", results.size());
         return results;
     }
 
-    /**
-     * profitGrowth 기반 PEG 계산
-     */
-    private List<StockFinancialData> calculatePegFromProfitGrowth(BigDecimal maxPeg, BigDecimal minGrowth) {
-        // 최신 데이터 중 PER과 profitGrowth가 있는 종목 조회
-        LocalDate today = LocalDate.now();
-        List<StockFinancialData> allStocks = stockFinancialDataRepository.findByReportDate(today);
-
-        if (allStocks.isEmpty()) {
-            // 오늘 데이터가 없으면 전체에서 최신 데이터 조회
-            allStocks = stockFinancialDataRepository.findAll();
-        }
-
-        return allStocks.stream()
-                .filter(s -> s.getPer() != null && s.getPer().compareTo(BigDecimal.ZERO) > 0)
-                .filter(s -> s.getProfitGrowth() != null && s.getProfitGrowth().compareTo(minGrowth) >= 0)
-                .filter(s -> {
-                    // PEG 계산
-                    BigDecimal peg = s.getPer().divide(s.getProfitGrowth(), 2, RoundingMode.HALF_UP);
-                    return peg.compareTo(BigDecimal.ZERO) > 0 && peg.compareTo(maxPeg) <= 0;
-                })
-                .collect(Collectors.toList());
-    }
-
     /**
      * 턴어라운드 스크리너
      * - 직전 분기 적자 → 당 분기 흑자 전환 종목
@@ -242,121 +198,53 @@ public class QuantScreenerService {
      *
      * [개선 1] N+1 문제 해결
      * - 기존: findAllStockCodes() 후 2,000번 개별 쿼리 (서버 뻗음)
-     * - 개선: findAllRecentData()로 한 번에 조회 → 메모리에서 groupingBy 처리
+     * - 개선: 종목별 최근 2개 분기를 스냅샷 생성 시 미리 비교, 조회 시에는 기간만 확인
      *
      * [개선 2] 여러 분기 데이터가 없는 경우 profitGrowth 기반으로 대체
      */
     public List<ScreenerResultDto> getTurnaroundStocks(Integer limit) {
+        return head(snapshot().turnaround, limit);
+    }
+
+    private List<ScreenerResultDto> computeTurnaround(FinancialColumns columns, Integer limit) {
         log.info("턴어라운드 스크리닝 시작 - limit: {}", limit);
 
         LocalDate minDate = LocalDate.now().minusMonths(12);
-        List<StockFinancialData> allRecentData = stockFinancialDataRepository.findAllRecentData(minDate);
+        int max = limit != null && limit > 0 ? limit : 0;
 
+        // 적자→흑자 전환 우선, 그 다음 변화율 높은 순 (스냅샷에서 정렬 완료)
         List<ScreenerResultDto> results = new ArrayList<>();
-
-        if (!allRecentData.isEmpty()) {
-            log.debug("턴어라운드 분석 대상 데이터: {}건", allRecentData.size());
-
-            // [성능 최적화] 메모리에서 종목별로 그룹화 (날짜 내림차순 정렬 유지)
-            Map<String, List<StockFinancialData>> stockDataMap = allRecentData.stream()
-                    .collect(Collectors.groupingBy(
-                            StockFinancialData::getStockCode,
-                            LinkedHashMap::new,  // 순서 유지
-                            Collectors.toList()
-                    ));
-
-            // 각 종목별로 턴어라운드 여부 판단
-            for (Map.Entry<String, List<StockFinancialData>> entry : stockDataMap.entrySet()) {
-                List<StockFinancialData> historicalData = entry.getValue();
-
-                // 최소 2개 분기 데이터 필요
-                if (historicalData.size() < 2) {
-                    continue;
-                }
-
-                // 이미 날짜 내림차순 정렬되어 있음 (쿼리에서 ORDER BY)
-                StockFinancialData current = historicalData.get(0);
-                StockFinancialData previous = historicalData.get(1);
-
-                // 순이익 데이터 확인
-                if (current.getNetIncome() == null || previous.getNetIncome() == null) {
-                    continue;
-                }
-
-                BigDecimal currentNetIncome = current.getNetIncome();
-                BigDecimal previousNetIncome = previous.getNetIncome();
-
-                String turnaroundType = null;
-                BigDecimal changeRate = null;
-
-                // 적자 → 흑자 전환
-                if (previousNetIncome.compareTo(BigDecimal.ZERO) < 0 &&
-                    currentNetIncome.compareTo(BigDecimal.ZERO) > 0) {
-                    turnaroundType = "LOSS_TO_PROFIT";
-                    changeRate = new BigDecimal("999.99"); // 흑자전환 특별 표기
-                }
-                // 흑자 → 흑자 (이익 증가 50% 이상)
-                else if (previousNetIncome.compareTo(BigDecimal.ZERO) > 0 &&
-                         currentNetIncome.compareTo(BigDecimal.ZERO) > 0 &&
-                         currentNetIncome.compareTo(previousNetIncome) > 0) {
-
-                    changeRate = currentNetIncome.subtract(previousNetIncome)
-                            .divide(previousNetIncome.abs(), 4, RoundingMode.HALF_UP)
-                            .multiply(new BigDecimal("100"));
-
-                    if (changeRate.compareTo(new BigDecimal("50")) >= 0) {
-                        turnaroundType = "PROFIT_GROWTH";
-                    }
-                }
-
-                if (turnaroundType != null) {
-                    results.add(ScreenerResultDto.builder()
-                            .stockCode(current.getStockCode())
-                            .stockName(current.getStockName())
-                            .market(current.getMarket())
-                            .sector(current.getSector())
-                            .currentPrice(current.getCurrentPrice())
-                            .marketCap(current.getMarketCap())
-                            .per(current.getPer())
-                            .pbr(current.getPbr())
-                            .roe(current.getRoe())
-                            .operatingMargin(current.getOperatingMargin())
-                            .netMargin(current.getNetMargin())
-                            .eps(current.getEps())
-                            .epsGrowth(current.getEpsGrowth())
-                            .peg(current.getPeg())
-                            .turnaroundType(turnaroundType)
-                            .previousNetIncome(previousNetIncome)
-                            .currentNetIncome(currentNetIncome)
-                            .netIncomeChangeRate(changeRate)
-                            .revenueGrowth(current.getRevenueGrowth())
-                            .profitGrowth(current.getProfitGrowth())
-                            .build());
-                }
-            }
-
-            log.info("분기 비교 기반 턴어라운드 결과: {}건", results.size());
+        for (FinancialColumns.TurnaroundHit hit : columns.turnaround(minDate, max)) {
+            StockFinancialData current = hit.getCurrent();
+            results.add(ScreenerResultDto.builder()
+                    .stockCode(current.getStockCode())
+                    .stockName(current.getStockName())
+                    .market(current.getMarket())
+                    .sector(current.getSector())
+                    .currentPrice(current.getCurrentPrice())
+                    .marketCap(current.getMarketCap())
+                    .per(current.getPer())
+                    .pbr(current.getPbr())
+                    .roe(current.getRoe())
+                    .operatingMargin(current.getOperatingMargin())
+                    .netMargin(current.getNetMargin())
+                    .eps(current.getEps())
+                    .epsGrowth(current.getEpsGrowth())
+                    .peg(current.getPeg())
+                    .turnaroundType(hit.getType())
+                    .previousNetIncome(hit.getPreviousNetIncome())
+                    .currentNetIncome(current.getNetIncome())
+                    .netIncomeChangeRate(hit.getChangeRate())
+                    .revenueGrowth(current.getRevenueGrowth())
+                    .profitGrowth(current.getProfitGrowth())
+                    .build());
         }
+        log.info("분기 비교 기반 턴어라운드 결과: {}건", results.size());
 
         // 분기 비교 결과가 없으면 profitGrowth 기반으로 대체
         if (results.isEmpty()) {
             log.info("분기 비교 데이터가 없어 profitGrowth 기반으로 턴어라운드 종목을 조회합니다.");
-            results = findTurnaroundByProfitGrowth(limit);
-        } else {
-            // 적자→흑자 전환 우선, 그 다음 변화율 높은 순으로 정렬
-            results.sort((a, b) -> {
-                if ("LOSS_TO_PROFIT".equals(a.getTurnaroundType()) && !"LOSS_TO_PROFIT".equals(b.getTurnaroundType())) {
-                    return -1;
-                }
-                if (!"LOSS_TO_PROFIT".equals(a.getTurnaroundType()) && "LOSS_TO_PROFIT".equals(b.getTurnaroundType())) {
-                    return 1;
-                }
-                return b.getNetIncomeChangeRate().compareTo(a.getNetIncomeChangeRate());
-            });
-
-            if (limit != null && limit > 0) {
-                results = results.stream().limit(limit).collect(Collectors.toList());
-            }
+            results = findTurnaroundByProfitGrowth(columns, max);
         }
 
         log.info("턴어라운드 스크리닝 완료 - 결과 {}건", results.size());
@@ -368,18 +256,9 @@ public class QuantScreenerService {
      * - 분기 비교 데이터가 없을 때 사용
      * - profitGrowth가 높은 종목 = 실적 개선 종목으로 간주
      */
-    private List<ScreenerResultDto> findTurnaroundByProfitGrowth(Integer limit) {
-        LocalDate today = LocalDate.now();
-        List<StockFinancialData> allStocks = stockFinancialDataRepository.findByReportDate(today);
-
-        if (allStocks.isEmpty()) {
-            allStocks = stockFinancialDataRepository.findAll();
-        }
-
-        // profitGrowth가 50% 이상인 종목 조회
-        List<ScreenerResultDto> results = allStocks.stream()
-                .filter(s -> s.getProfitGrowth() != null && s.getProfitGrowth().compareTo(new BigDecimal("50")) >= 0)
-                .sorted((a, b) -> b.getProfitGrowth().compareTo(a.getProfitGrowth()))
+    private List<ScreenerResultDto> findTurnaroundByProfitGrowth(FinancialColumns columns, int limit) {
+        // profitGrowth가 50% 이상인 종목 (증가율 내림차순)
+        return columns.highProfitGrowth(limit).stream()
                 .map(stock -> ScreenerResultDto.builder()
                         .stockCode(stock.getStockCode())
                         .stockName(stock.getStockName())
@@ -395,43 +274,287 @@ public class QuantScreenerService {
                         .eps(stock.getEps())
                         .epsGrowth(stock.getEpsGrowth())
                         .peg(stock.getPeg())
-                        .turnaroundType("PROFIT_GROWTH")
+                        .turnaroundType(FinancialColumns.PROFIT_GROWTH)
                         .netIncomeChangeRate(stock.getProfitGrowth())
                         .revenueGrowth(stock.getRevenueGrowth())
                         .profitGrowth(stock.getProfitGrowth())
                         .build())
                 .collect(Collectors.toList());
+    }
+
+    /**
+     * 사용자 정의 식 스크리너
+     * - expression: 필터와 가중 순위 점수 (문법은 ScreenerExpression 참고)
+     * - 기존 조건 필드(minPer, maxRoe, market 등)는 같은 식으로 변환해 AND 결합
+     * - score 식이 있으면 점수 오름차순, 없으면 sortBy/sortDirection (기본 시가총액 내림차순)
+     *
+     * @throws IllegalArgumentException 식 문법 오류 또는 알 수 없는 필드
+     */
+    public List<ScreenerResultDto> screenByExpression(QuantScreeningRequest request) {
+        FinancialColumns columns = financialColumnStore.current();
+        int n = columns.size();
+
+        IntPredicate filter = i -> true;
+        List<ScreenerExpression.ScoreTerm> scoreTerms = Collections.emptyList();
+        if (request.getExpression() != null && !request.getExpression().isBlank()) {
+            ScreenerExpression expression = compile(request.getExpression());
+            filter = expression.bindFilter(columns);
+            scoreTerms = expression.getScoreTerms();
+        }
+        String criteria = toExpression(request);
+        if (criteria != null) {
+            filter = filter.and(compile(criteria).bindFilter(columns));
+        }
+
+        boolean[] passed = new boolean[n];
+        int passCount = 0;
+        for (int i = 0; i < n; i++) {
+            if (filter.test(i)) {
+                passed[i] = true;
+                passCount++;
+            }
+        }
 
-        if (limit != null && limit > 0) {
-            results = results.stream().limit(limit).collect(Collectors.toList());
+        int limit = request.getLimit() != null && request.getLimit() > 0 ? request.getLimit() : DEFAULT_CUSTOM_LIMIT;
+        int[] selected;
+        double[] scores = null;
+
+        if (!scoreTerms.isEmpty()) {
+            // 항목별로 미리 정렬된 순서를 훑으며 통과 종목만 순위 부여, 값 없는 종목은 최하위
+            scores = new double[n];
+            for (ScreenerExpression.ScoreTerm term : scoreTerms) {
+                boolean[] ranked = new boolean[n];
+                int rank = 0;
+                for (int i : columns.order(term.getField(), term.isDescending())) {
+                    if (passed[i]) {
+                        scores[i] += term.getWeight() * (++rank);
+                        ranked[i] = true;
+                    }
+                }
+                for (int i = 0; i < n; i++) {
+                    if (passed[i] && !ranked[i]) {
+                        scores[i] += term.getWeight() * passCount;
+                    }
+                }
+            }
+            double[] finalScores = scores;
+            selected = TopK.smallest(passedIndexes(passed, passCount), i -> finalScores[i], limit);
+        } else {
+            String sortField = request.getSortBy() != null ? request.getSortBy() : "marketCap";
+            if (!FinancialColumns.NUMERIC_FIELDS.containsKey(sortField)) {
+                throw new IllegalArgumentException("정렬할 수 없는 필드: " + sortField);
+            }
+            boolean descending = !"asc".equalsIgnoreCase(request.getSortDirection());
+            selected = new int[Math.min(limit, passCount)];
+            int count = 0;
+            boolean[] taken = new boolean[n];
+            for (int i : columns.order(sortField, descending)) {
+                if (count == selected.length) {
+                    break;
+                }
+                if (passed[i]) {
+                    selected[count++] = i;
+                    taken[i] = true;
+                }
+            }
+            // 정렬 필드 값이 없는 종목은 뒤에
+            for (int i = 0; i < n && count < selected.length; i++) {
+                if (passed[i] && !taken[i]) {
+                    selected[count++] = i;
+                }
+            }
         }
 
+        List<ScreenerResultDto> results = new ArrayList<>(selected.length);
+        for (int k = 0; k < selected.length; k++) {
+            StockFinancialData stock = columns.row(selected[k]);
+            results.add(ScreenerResultDto.builder()
+                    .stockCode(stock.getStockCode())
+                    .stockName(stock.getStockName())
+                    .market(stock.getMarket())
+                    .sector(stock.getSector())
+                    .currentPrice(stock.getCurrentPrice())
+                    .marketCap(stock.getMarketCap())
+                    .per(stock.getPer())
+                    .pbr(stock.getPbr())
+                    .roe(stock.getRoe())
+                    .operatingMargin(stock.getOperatingMargin())
+                    .netMargin(stock.getNetMargin())
+                    .eps(stock.getEps())
+                    .epsGrowth(stock.getEpsGrowth())
+                    .peg(stock.getPeg())
+                    .revenueGrowth(stock.getRevenueGrowth())
+                    .profitGrowth(stock.getProfitGrowth())
+                    .customScore(scores != null
+                            ? BigDecimal.valueOf(scores[selected[k]]).setScale(2, RoundingMode.HALF_UP) : null)
+                    .customRank(k + 1)
+                    .build());
+        }
+
+        log.info("사용자 정의 스크리닝 완료 - 통과 {}종목 / 전체 {}종목, 결과 {}건", passCount, n, results.size());
         return results;
     }
 
+    /**
+     * 식 컴파일 (캐시)
+     */
+    private ScreenerExpression compile(String source) {
+        return compiledExpressions.get(ScreenerExpression.normalize(source), ScreenerExpression::compile);
+    }
+
+    /**
+     * 기존 조건 필드를 스크리너 식으로 변환 (조건이 없으면 null)
+     */
+    private String toExpression(QuantScreeningRequest request) {
+        List<String> clauses = new ArrayList<>();
+        addClause(clauses, "per", ">=", request.getMinPer());
+        addClause(clauses, "per", "<=", request.getMaxPer());
+        addClause(clauses, "roe", ">=", request.getMinRoe());
+        addClause(clauses, "roe", "<=", request.getMaxRoe());
+        addClause(clauses, "pbr", ">=", request.getMinPbr());
+        addClause(clauses, "pbr", "<=", request.getMaxPbr());
+        addClause(clauses, "marketCap", ">=", request.getMinMarketCap());
+        addClause(clauses, "marketCap", "<=", request.getMaxMarketCap());
+        addClause(clauses, "dividendYield", ">=", request.getMinDividendYield());
+        addClause(clauses, "debtRatio", ">=", request.getMinDebtRatio());
+        addClause(clauses, "debtRatio", "<=", request.getMaxDebtRatio());
+        addClause(clauses, "revenueGrowth", ">=", request.getMinRevenueGrowth());
+        addClause(clauses, "operatingMargin", ">=", request.getMinOperatingMargin());
+        addTextClause(clauses, "market", request.getMarket());
+        addTextClause(clauses, "sector", request.getSector());
+        return clauses.isEmpty() ? null : String.join(" and ", clauses);
+    }
+
+    private void addClause(List<String> clauses, String field, String operator, BigDecimal value) {
+        if (value != null) {
+            clauses.add(field + " " + operator + " " + value.toPlainString());
+        }
+    }
+
+    private void addTextClause(List<String> clauses, String field, String value) {
+        if (value != null && !value.isBlank()) {
+            clauses.add(field + " == " + ScreenerExpression.quote(value));
+        }
+    }
+
+    private static int[] passedIndexes(boolean[] passed, int passCount) {
+        int[] indexes = new int[passCount];
+        int count = 0;
+        for (int i = 0; i < passed.length; i++) {
+            if (passed[i]) {
+                indexes[count++] = i;
+            }
+        }
+        return indexes;
+    }
+
     /**
      * 스크리너 요약 정보
-     * - 각 스크리너의 상위 종목 요약
+     * - 각 스크리너의 상위 종목 요약 (결과 스냅샷 생성 시 함께 계산)
      */
     public Map<String, Object> getScreenerSummary() {
-        Map<String, Object> summary = new HashMap<>();
+        return snapshot().summary;
+    }
+
+    // ========== 결과 스냅샷 ==========
+
+    /**
+     * 재무 스냅샷이 새로 만들어지면(수집 반영) 기본 조건 결과를 바로 다시 계산
+     */
+    @PostConstruct
+    void registerSnapshotRefresh() {
+        financialColumnStore.onRefresh(this::rebuildSnapshot);
+    }
+
+    /**
+     * 현재 결과 버전 (재무 데이터 버전 + 기준일, ETag 용)
+     */
+    public String getResultVersion() {
+        return snapshot().version;
+    }
 
-        // 마법의 공식 Top 5
-        List<ScreenerResultDto> magicFormula = getMagicFormulaStocks(5, null);
-        summary.put("magicFormula", magicFormula);
-        summary.put("magicFormulaCount", magicFormula.size());
+    /**
+     * 현재 결과 스냅샷 (재무 스냅샷이 바뀌었거나 날짜가 바뀌었으면 재계산)
+     * - 턴어라운드는 최근 12개월 기준이라 날짜가 바뀌면 결과가 달라질 수 있음
+     */
+    private ScreenerSnapshot snapshot() {
+        FinancialColumns columns = financialColumnStore.current();
+        ScreenerSnapshot current = screenerSnapshot;
+        if (current != null && current.isFor(columns, LocalDate.now())) {
+            return current;
+        }
+        return rebuildSnapshot(columns);
+    }
 
-        // PEG 스크리너 Top 5
-        List<ScreenerResultDto> lowPeg = getLowPegStocks(new BigDecimal("1.0"), new BigDecimal("10"), 5);
-        summary.put("lowPeg", lowPeg);
-        summary.put("lowPegCount", lowPeg.size());
+    private synchronized ScreenerSnapshot rebuildSnapshot(FinancialColumns columns) {
+        LocalDate today = LocalDate.now();
+        ScreenerSnapshot current = screenerSnapshot;
+        if (current != null && current.isFor(columns, today)) {
+            return current;
+        }
+
+        long start = System.currentTimeMillis();
+        List<ScreenerResultDto> magicFormula = computeMagicFormula(columns, null, null);
+        List<ScreenerResultDto> lowPeg = computeLowPeg(columns, DEFAULT_MAX_PEG, DEFAULT_MIN_EPS_GROWTH, null);
+        List<ScreenerResultDto> turnaround = computeTurnaround(columns, null);
 
-        // 턴어라운드 Top 5
-        List<ScreenerResultDto> turnaround = getTurnaroundStocks(5);
-        summary.put("turnaround", turnaround);
-        summary.put("turnaroundCount", turnaround.size());
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("magicFormula", head(magicFormula, SUMMARY_SIZE));
+        summary.put("magicFormulaCount", Math.min(magicFormula.size(), SUMMARY_SIZE));
+        summary.put("lowPeg", head(lowPeg, SUMMARY_SIZE));
+        summary.put("lowPegCount", Math.min(lowPeg.size(), SUMMARY_SIZE));
+        summary.put("turnaround", head(turnaround, SUMMARY_SIZE));
+        summary.put("turnaroundCount", Math.min(turnaround.size(), SUMMARY_SIZE));
+
+        ScreenerSnapshot snapshot = new ScreenerSnapshot(columns, today,
+                Collections.unmodifiableList(magicFormula),
+                Collections.unmodifiableList(lowPeg),
+                Collections.unmodifiableList(turnaround),
+                Collections.unmodifiableMap(summary));
+        screenerSnapshot = snapshot;
+        log.info("스크리너 결과 스냅샷 생성: 마법의 공식 {}건, PEG {}건, 턴어라운드 {}건, {}ms (version={})",
+                magicFormula.size(), lowPeg.size(), turnaround.size(),
+                System.currentTimeMillis() - start, snapshot.version);
+        return snapshot;
+    }
 
-        return summary;
+    /**
+     * 앞에서 limit개 (limit이 없으면 전체)
+     */
+    private static List<ScreenerResultDto> head(List<ScreenerResultDto> results, Integer limit) {
+        if (limit == null || limit <= 0 || limit >= results.size()) {
+            return results;
+        }
+        return results.subList(0, limit);
+    }
+
+    /**
+     * 기본 조건 전략별 전체 순위 결과 (불변)
+     */
+    private static final class ScreenerSnapshot {
+        private final FinancialColumns columns;
+        private final LocalDate date;
+        private final String version;
+        private final List<ScreenerResultDto> magicFormula;
+        private final List<ScreenerResultDto> lowPeg;
+        private final List<ScreenerResultDto> turnaround;
+        private final Map<String, Object> summary;
+
+        private ScreenerSnapshot(FinancialColumns columns, LocalDate date,
+                                 List<ScreenerResultDto> magicFormula, List<ScreenerResultDto> lowPeg,
+                                 List<ScreenerResultDto> turnaround, Map<String, Object> summary) {
+            this.columns = columns;
+            this.date = date;
+            this.version = Integer.toHexString((columns.getVersion() + "|" + date).hashCode());
+            this.magicFormula = magicFormula;
+            this.lowPeg = lowPeg;
+            this.turnaround = turnaround;
+            this.summary = summary;
+        }
+
+        private boolean isFor(FinancialColumns columns, LocalDate date) {
+            return this.columns == columns && this.date.equals(date);
+        }
     }
 
     // ========== 텔레그램 알림 연동 메서드 ==========
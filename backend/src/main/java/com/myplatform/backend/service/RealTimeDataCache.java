@@ -2,21 +2,27 @@ package com.myplatform.backend.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * 실시간 시세 데이터 인메모리 캐시
  * - Redis 대용 (Redis 없어도 동작)
  * - 최근 10분치 Tick 데이터 보관
  * - 분봉 데이터 집계
+ * - 당일 누적 거래량/VWAP 집계
+ * - 틱 리스너 통지 (손절/익절 트리거 등)
+ * - 이 노드가 직접 받은 틱은 수집 리스너에도 통지 (다른 노드로 전달, MarketTickRelay)
  */
 @Service
 public class RealTimeDataCache {
@@ -33,10 +39,35 @@ public class RealTimeDataCache {
     // 시초가 저장소 (종목코드 -> 시초가)
     private final Map<String, BigDecimal> openPriceStore = new ConcurrentHashMap<>();
 
+    // 당일 누적 거래량/거래대금 저장소 (종목코드 -> 누적값)
+    private final Map<String, SessionVolume> sessionVolumeStore = new ConcurrentHashMap<>();
+
+    // 틱 수신 리스너 (틱을 넣는 스레드에서 바로 호출되므로 가볍게 처리해야 함)
+    private final List<TickListener> tickListeners = new CopyOnWriteArrayList<>();
+
+    // 수집 리스너 (이 노드에서 addTick으로 들어온 틱만, 다른 노드에서 전달받은 틱은 제외)
+    private final List<IngestListener> ingestListeners = new CopyOnWriteArrayList<>();
+
     // 설정
     private static final int MAX_TICKS = 600;        // 최대 틱 수 (약 10분치)
     private static final int MAX_MINUTE_BARS = 390;  // 최대 분봉 수 (6.5시간 = 390분)
 
+    /**
+     * 틱 수신 리스너
+     */
+    @FunctionalInterface
+    public interface TickListener {
+        void onTick(String stockCode, BigDecimal price);
+    }
+
+    /**
+     * 틱 수집 리스너 (거래량 포함)
+     */
+    @FunctionalInterface
+    public interface IngestListener {
+        void onIngest(String stockCode, BigDecimal price, long volume);
+    }
+
     /**
      * 틱 데이터
      */
@@ -98,9 +129,51 @@ public class RealTimeDataCache {
     }
 
     /**
-     * 틱 데이터 추가
+     * 당일 누적 거래량/거래대금 (VWAP 계산용)
+     */
+    public static class SessionVolume {
+        private long volume;
+        private BigDecimal turnover = BigDecimal.ZERO;
+
+        synchronized void add(BigDecimal price, long vol) {
+            if (vol <= 0) return;
+            volume += vol;
+            turnover = turnover.add(price.multiply(BigDecimal.valueOf(vol)));
+        }
+
+        public synchronized long getVolume() { return volume; }
+
+        /**
+         * 거래량 가중 평균가 (거래량이 없으면 null)
+         */
+        public synchronized BigDecimal getVwap() {
+            return volume > 0 ? turnover.divide(BigDecimal.valueOf(volume), 2, RoundingMode.HALF_UP) : null;
+        }
+    }
+
+    /**
+     * 틱 데이터 추가 (이 노드가 직접 수집한 틱)
      */
     public void addTick(String stockCode, BigDecimal price, long volume) {
+        storeTick(stockCode, price, volume);
+
+        for (IngestListener listener : ingestListeners) {
+            try {
+                listener.onIngest(stockCode, price, volume);
+            } catch (Exception e) {
+                log.warn("틱 수집 리스너 처리 실패 [{}]: {}", stockCode, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 다른 노드가 수집해 전달한 틱 반영 (수집 리스너에는 통지하지 않음)
+     */
+    public void applyRemoteTick(String stockCode, BigDecimal price, long volume) {
+        storeTick(stockCode, price, volume);
+    }
+
+    private void storeTick(String stockCode, BigDecimal price, long volume) {
         String time = LocalTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss"));
 
         Deque<TickData> ticks = tickDataStore.computeIfAbsent(stockCode, k -> new ConcurrentLinkedDeque<>());
@@ -118,6 +191,48 @@ public class RealTimeDataCache {
 
         // 분봉 업데이트
         updateMinuteBar(stockCode, price, volume);
+
+        // 누적 거래량/거래대금 (VWAP)
+        sessionVolumeStore.computeIfAbsent(stockCode, k -> new SessionVolume()).add(price, volume);
+
+        // 리스너 통지 (리스너 예외가 틱 저장에 영향 주지 않도록 분리)
+        for (TickListener listener : tickListeners) {
+            try {
+                listener.onTick(stockCode, price);
+            } catch (Exception e) {
+                log.warn("틱 리스너 처리 실패 [{}]: {}", stockCode, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 틱 리스너 등록
+     */
+    public void addTickListener(TickListener listener) {
+        tickListeners.add(listener);
+    }
+
+    /**
+     * 수집 리스너 등록
+     */
+    public void addIngestListener(IngestListener listener) {
+        ingestListeners.add(listener);
+    }
+
+    /**
+     * 마지막 틱 (없으면 null)
+     */
+    public TickData getLastTick(String stockCode) {
+        Deque<TickData> ticks = tickDataStore.get(stockCode);
+        return ticks != null ? ticks.peekLast() : null;
+    }
+
+    /**
+     * 마지막 틱 수신 시각 (없으면 null)
+     */
+    public LocalDateTime getLastTickTime(String stockCode) {
+        TickData last = getLastTick(stockCode);
+        return last != null ? last.getTimestamp() : null;
     }
 
     /**
@@ -180,6 +295,26 @@ public class RealTimeDataCache {
         return minuteBarStore.getOrDefault(stockCode, Collections.emptyList());
     }
 
+    /**
+     * 현재(마지막) 분봉 (없으면 null)
+     */
+    public MinuteBar getCurrentBar(String stockCode) {
+        List<MinuteBar> bars = minuteBarStore.get(stockCode);
+        if (bars == null) {
+            return null;
+        }
+        synchronized (bars) {
+            return bars.isEmpty() ? null : bars.get(bars.size() - 1);
+        }
+    }
+
+    /**
+     * 당일 누적 거래량/VWAP (틱이 없으면 null)
+     */
+    public SessionVolume getSessionVolume(String stockCode) {
+        return sessionVolumeStore.get(stockCode);
+    }
+
     /**
      * 시초가 조회
      */
@@ -201,6 +336,17 @@ public class RealTimeDataCache {
         tickDataStore.remove(stockCode);
         minuteBarStore.remove(stockCode);
         openPriceStore.remove(stockCode);
+        sessionVolumeStore.remove(stockCode);
+    }
+
+    /**
+     * 장 시작 전 당일 세션 데이터 초기화 (평일 08:50)
+     * - 시초가/누적 거래량/VWAP/분봉은 당일 기준이므로 전날 값을 이어 쓰지 않도록
+     * - 노드마다 자기 캐시를 가지므로 리더 여부와 관계없이 모든 노드에서 실행
+     */
+    @Scheduled(cron = "0 50 8 * * MON-FRI", zone = "Asia/Seoul")
+    public void resetSession() {
+        clearAll();
     }
 
     /**
@@ -210,6 +356,7 @@ public class RealTimeDataCache {
         tickDataStore.clear();
         minuteBarStore.clear();
         openPriceStore.clear();
+        sessionVolumeStore.clear();
         log.info("실시간 데이터 캐시 전체 초기화");
     }
 
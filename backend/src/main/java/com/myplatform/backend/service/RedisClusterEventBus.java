@@ -0,0 +1,202 @@
+package com.myplatform.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Redis pub/sub 이벤트 버스 (여러 노드 운영 시)
+ * - 메시지 형식: "{id}:" + 본문 (id가 없으면 0)
+ * - publishSequenced는 INCR과 PUBLISH를 Lua 스크립트 하나로 실행 (id 순서 = 수신 순서)
+ * - 수신 콜백은 단일 스레드에서 호출 (컨테이너 executor)
+ * - Redis 장애 시 발행은 이 노드 구독자에게만 전달 (id는 이 노드가 받은 마지막 id에 이어서 발급)
+ * - Redis 장애 시 알림 선점은 허용(fail-open), 리더 임대는 거부(fail-closed)
+ */
+@Slf4j
+public class RedisClusterEventBus implements ClusterEventBus {
+
+    private static final String PREFIX = "myplatform:cluster:";
+
+    private static final RedisScript<Long> SEQUENCED_PUBLISH = RedisScript.of(
+            "local id = redis.call('INCR', KEYS[1]) " +
+            "redis.call('PUBLISH', ARGV[1], id .. ':' .. ARGV[2]) " +
+            "return id", Long.class);
+
+    // 비어 있으면 이 노드 소유로 선점, 이미 이 노드 소유면 만료 연장
+    private static final RedisScript<Long> ACQUIRE_OR_RENEW = RedisScript.of(
+            "local holder = redis.call('GET', KEYS[1]) " +
+            "if holder == ARGV[1] then redis.call('PEXPIRE', KEYS[1], ARGV[2]) return 1 end " +
+            "if not holder then redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2]) return 1 end " +
+            "return 0", Long.class);
+
+    private final long nodeId = ThreadLocalRandom.current().nextLong();
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Map<String, List<Listener>> localListeners = new ConcurrentHashMap<>();  // Redis 장애 시 직접 전달
+    private final Map<String, AtomicLong> receivedSequences = new ConcurrentHashMap<>();  // 채널별 이 노드가 받은 마지막 id
+
+    public RedisClusterEventBus(RedisConnectionFactory connectionFactory, RedisMessageListenerContainer listenerContainer) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.afterPropertiesSet();
+        this.redisTemplate = template;
+        this.listenerContainer = listenerContainer;
+    }
+
+    @Override
+    public void subscribe(String channel, Listener listener) {
+        localListeners.computeIfAbsent(channel, k -> new CopyOnWriteArrayList<>()).add(listener);
+        listenerContainer.addMessageListener((message, pattern) -> {
+            byte[] raw = message.getBody();
+            int separator = indexOf(raw, (byte) ':');
+            if (separator < 0) {
+                log.warn("이벤트 버스 메시지 형식 오류 [{}]", channel);
+                return;
+            }
+            try {
+                long sequence = Long.parseLong(new String(raw, 0, separator, StandardCharsets.US_ASCII));
+                byte[] body = new byte[raw.length - separator - 1];
+                System.arraycopy(raw, separator + 1, body, 0, body.length);
+                received(channel).accumulateAndGet(sequence, Math::max);
+                listener.onMessage(sequence, body);
+            } catch (Exception e) {
+                log.warn("이벤트 버스 구독자 처리 실패 [{}]: {}", channel, e.getMessage());
+            }
+        }, new ChannelTopic(channelName(channel)));
+    }
+
+    @Override
+    public void publish(String channel, byte[] body) {
+        byte[] message = new byte[body.length + 2];
+        message[0] = '0';
+        message[1] = ':';
+        System.arraycopy(body, 0, message, 2, body.length);
+        try {
+            redisTemplate.convertAndSend(channelName(channel), message);
+        } catch (Exception e) {
+            log.warn("이벤트 버스 발행 실패, 이 노드에만 전달 [{}]: {}", channel, e.getMessage());
+            deliverLocally(channel, false, body);
+        }
+    }
+
+    @Override
+    public void publishSequenced(String channel, byte[] body) {
+        try {
+            redisTemplate.execute(SEQUENCED_PUBLISH, List.of(sequenceKey(channel)),
+                    channelName(channel).getBytes(StandardCharsets.UTF_8), body);
+        } catch (Exception e) {
+            log.warn("이벤트 버스 발행 실패, 이 노드에만 전달 [{}]: {}", channel, e.getMessage());
+            deliverLocally(channel, true, body);
+        }
+    }
+
+    @Override
+    public long lastSequence(String channel) {
+        try {
+            byte[] value = redisTemplate.opsForValue().get(sequenceKey(channel));
+            return value != null ? Long.parseLong(new String(value, StandardCharsets.US_ASCII)) : 0;
+        } catch (Exception e) {
+            log.warn("이벤트 버스 id 조회 실패 [{}]: {}", channel, e.getMessage());
+            return received(channel).get();
+        }
+    }
+
+    @Override
+    public boolean tryAcquire(String key, Duration ttl) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(PREFIX + "lease:" + key, new byte[]{1}, ttl));
+        } catch (Exception e) {
+            log.warn("이벤트 버스 선점 실패, 이 노드에서 진행 [{}]: {}", key, e.getMessage());
+            return true;
+        }
+    }
+
+    @Override
+    public boolean acquireOrRenew(String key, Duration ttl) {
+        try {
+            Long acquired = redisTemplate.execute(ACQUIRE_OR_RENEW, List.of(PREFIX + "lease:" + key),
+                    Long.toString(nodeId).getBytes(StandardCharsets.US_ASCII),
+                    Long.toString(ttl.toMillis()).getBytes(StandardCharsets.US_ASCII));
+            return acquired != null && acquired == 1;
+        } catch (Exception e) {
+            log.warn("이벤트 버스 임대 확인 실패 [{}]: {}", key, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void release(String key) {
+        try {
+            redisTemplate.delete(PREFIX + "lease:" + key);
+        } catch (Exception e) {
+            log.warn("이벤트 버스 선점 해제 실패 [{}]: {}", key, e.getMessage());
+        }
+    }
+
+    @Override
+    public long nodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public boolean isDistributed() {
+        return true;
+    }
+
+    private AtomicLong received(String channel) {
+        return receivedSequences.computeIfAbsent(channel, k -> new AtomicLong());
+    }
+
+    /**
+     * Redis 없이 이 노드 구독자에게만 전달 (다른 노드는 받지 못함)
+     */
+    private void deliverLocally(String channel, boolean sequenced, byte[] body) {
+        List<Listener> listeners = localListeners.get(channel);
+        if (listeners == null) {
+            return;
+        }
+        AtomicLong received = received(channel);
+        synchronized (received) {
+            long sequence = sequenced ? received.incrementAndGet() : 0;
+            for (Listener listener : listeners) {
+                try {
+                    listener.onMessage(sequence, body);
+                } catch (Exception e) {
+                    log.warn("이벤트 버스 구독자 처리 실패 [{}]: {}", channel, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static String channelName(String channel) {
+        return PREFIX + "ch:" + channel;
+    }
+
+    private static String sequenceKey(String channel) {
+        return PREFIX + "seq:" + channel;
+    }
+
+    private static int indexOf(byte[] bytes, byte target) {
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
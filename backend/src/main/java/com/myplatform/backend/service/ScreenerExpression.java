@@ -0,0 +1,609 @@
+package com.myplatform.backend.service;
+
+import java.util.*;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * 사용자 정의 스크리너 식 (컴파일 결과, 불변)
+ *
+ * 문법
+ * <pre>
+ *   screen     := [filter] [';' 'score' '=' scoreExpr]
+ *   filter     := and ('or' and)*
+ *   and        := unary ('and' unary)*
+ *   unary      := 'not' unary | '(' filter ')' | comparison
+ *   comparison := arith ('&gt;' | '&gt;=' | '&lt;' | '&lt;=' | '==' | '!=') arith
+ *               | textField ('==' | '!=') 'literal'        ('='는 '=='와 같음, 따옴표는 두 번 써서 표현: 'O''Neil')
+ *   arith      := term (('+' | '-') term)*
+ *   term       := factor (('*' | '/') factor)*
+ *   factor     := number | numericField | '-' factor | '(' arith ')'
+ *   scoreExpr  := scoreTerm (('+' | '-') scoreTerm)*
+ *   scoreTerm  := [number '*'] 'rank' '(' numericField ['asc' | 'desc'] ')' ['*' number]
+ * </pre>
+ * 예) {@code roe > 15 and per < 10 and market == 'KOSPI'; score = rank(roe desc) + 2 * rank(peg asc)}
+ *
+ * - 필드는 FinancialColumns.NUMERIC_FIELDS / TEXT_FIELDS (대소문자, 밑줄 무시)
+ * - 값이 없는(null) 지표가 포함된 비교는 '알 수 없음'이며 not을 붙여도 통과하지 않음 (SQL 3값 논리와 동일)
+ * - 키워드(and, or, not, score, rank, asc, desc)는 대소문자 무시, &amp;&amp; || ! 도 허용
+ * - 파싱 시 노드 트리로 한 번 컴파일하고, 조회 시 스냅샷 컬럼 배열에 바인딩해 평가
+ */
+final class ScreenerExpression {
+
+    private static final Map<String, String> NUMERIC_FIELD_NAMES = fieldNames(FinancialColumns.NUMERIC_FIELDS.keySet());
+    private static final Map<String, String> TEXT_FIELD_NAMES = fieldNames(FinancialColumns.TEXT_FIELDS.keySet());
+
+    // 조건 평가 결과 (3값 논리)
+    private static final int FALSE = 0;
+    private static final int TRUE = 1;
+    private static final int UNKNOWN = 2;
+
+    private final String source;
+    private final Condition filter;            // null이면 전 종목 통과
+    private final List<ScoreTerm> scoreTerms;  // 비어 있으면 점수 없음
+
+    private ScreenerExpression(String source, Condition filter, List<ScoreTerm> scoreTerms) {
+        this.source = source;
+        this.filter = filter;
+        this.scoreTerms = Collections.unmodifiableList(scoreTerms);
+    }
+
+    /**
+     * 식 컴파일
+     *
+     * @throws IllegalArgumentException 문법 오류 또는 알 수 없는 필드
+     */
+    static ScreenerExpression compile(String source) {
+        if (source == null || source.isBlank()) {
+            throw new IllegalArgumentException("스크리너 식이 비어 있습니다.");
+        }
+        Parser parser = new Parser(source);
+        return parser.parseScreen();
+    }
+
+    /**
+     * 캐시 키용 정규화 (토큰 사이 공백만 정리, 문자열 값 안의 공백은 그대로 유지)
+     *
+     * @throws IllegalArgumentException 토큰으로 나눌 수 없는 식
+     */
+    static String normalize(String source) {
+        return source == null ? "" : render(Parser.tokenize(source));
+    }
+
+    private static String render(List<Token> tokens) {
+        StringJoiner joiner = new StringJoiner(" ");
+        for (Token token : tokens) {
+            if (token.type == TokenType.STRING) {
+                joiner.add(quote(token.text));
+            } else if (token.type != TokenType.EOF) {
+                joiner.add(token.text);
+            }
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * 문자열 값을 식 리터럴로 (작은따옴표, 안의 작은따옴표는 두 번)
+     */
+    static String quote(String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+
+    String getSource() {
+        return source;
+    }
+
+    List<ScoreTerm> getScoreTerms() {
+        return scoreTerms;
+    }
+
+    /**
+     * 스냅샷 컬럼에 바인딩된 필터 (종목 인덱스 → 통과 여부)
+     */
+    IntPredicate bindFilter(FinancialColumns columns) {
+        if (filter == null) {
+            return i -> true;
+        }
+        IntUnaryOperator truth = filter.bind(columns);
+        return i -> truth.applyAsInt(i) == TRUE;
+    }
+
+    // ========== 컴파일된 노드 ==========
+
+    /**
+     * 종목 인덱스 → TRUE / FALSE / UNKNOWN
+     */
+    private interface Condition {
+        IntUnaryOperator bind(FinancialColumns columns);
+    }
+
+    private interface Numeric {
+        IntToDoubleFunction bind(FinancialColumns columns);
+    }
+
+    /**
+     * 가중 순위 항목: weight * rank(field asc|desc)
+     */
+    static final class ScoreTerm {
+        private final String field;
+        private final boolean descending;
+        private final double weight;
+
+        private ScoreTerm(String field, boolean descending, double weight) {
+            this.field = field;
+            this.descending = descending;
+            this.weight = weight;
+        }
+
+        String getField() {
+            return field;
+        }
+
+        boolean isDescending() {
+            return descending;
+        }
+
+        double getWeight() {
+            return weight;
+        }
+    }
+
+    // ========== 파서 ==========
+
+    private enum TokenType { NUMBER, IDENT, STRING, OP, EOF }
+
+    private static final class Token {
+        private final TokenType type;
+        private final String text;
+        private final int position;
+
+        private Token(TokenType type, String text, int position) {
+            this.type = type;
+            this.text = text;
+            this.position = position;
+        }
+
+        private boolean is(String value) {
+            return (type == TokenType.OP || type == TokenType.IDENT) && text.equalsIgnoreCase(value);
+        }
+    }
+
+    private static final class Parser {
+        private final String source;
+        private final List<Token> tokens;
+        private int pos;
+
+        private Parser(String source) {
+            this.source = source;
+            this.tokens = tokenize(source);
+        }
+
+        private ScreenerExpression parseScreen() {
+            Condition filter = null;
+            List<ScoreTerm> terms = new ArrayList<>();
+
+            if (!peek().is(";") && !isScoreStart()) {
+                filter = parseOr();
+            }
+            if (peek().is(";")) {
+                next();
+            }
+            if (isScoreStart()) {
+                next();
+                expect("=");
+                terms = parseScore();
+            }
+            if (peek().type != TokenType.EOF) {
+                throw error(peek(), "예상하지 못한 토큰");
+            }
+            if (filter == null && terms.isEmpty()) {
+                throw new IllegalArgumentException("필터 또는 score 식이 필요합니다.");
+            }
+            return new ScreenerExpression(render(tokens), filter, terms);
+        }
+
+        private boolean isScoreStart() {
+            return peek().is("score") && pos + 1 < tokens.size() && tokens.get(pos + 1).is("=");
+        }
+
+        // ----- 필터 -----
+
+        private Condition parseOr() {
+            Condition left = parseAnd();
+            while (peek().is("or") || peek().is("||")) {
+                next();
+                Condition a = left;
+                Condition b = parseAnd();
+                left = c -> {
+                    IntUnaryOperator pa = a.bind(c);
+                    IntUnaryOperator pb = b.bind(c);
+                    return i -> {
+                        int ra = pa.applyAsInt(i);
+                        if (ra == TRUE) {
+                            return TRUE;
+                        }
+                        int rb = pb.applyAsInt(i);
+                        return rb == TRUE ? TRUE : (ra == UNKNOWN || rb == UNKNOWN ? UNKNOWN : FALSE);
+                    };
+                };
+            }
+            return left;
+        }
+
+        private Condition parseAnd() {
+            Condition left = parseUnary();
+            while (peek().is("and") || peek().is("&&")) {
+                next();
+                Condition a = left;
+                Condition b = parseUnary();
+                left = c -> {
+                    IntUnaryOperator pa = a.bind(c);
+                    IntUnaryOperator pb = b.bind(c);
+                    return i -> {
+                        int ra = pa.applyAsInt(i);
+                        if (ra == FALSE) {
+                            return FALSE;
+                        }
+                        int rb = pb.applyAsInt(i);
+                        return rb == FALSE ? FALSE : (ra == UNKNOWN || rb == UNKNOWN ? UNKNOWN : TRUE);
+                    };
+                };
+            }
+            return left;
+        }
+
+        private Condition parseUnary() {
+            if (peek().is("not") || peek().is("!")) {
+                next();
+                Condition inner = parseUnary();
+                // 알 수 없음은 부정해도 알 수 없음 (값 없는 지표가 not으로 통과하지 않도록)
+                return c -> {
+                    IntUnaryOperator p = inner.bind(c);
+                    return i -> {
+                        int r = p.applyAsInt(i);
+                        return r == UNKNOWN ? UNKNOWN : (r == TRUE ? FALSE : TRUE);
+                    };
+                };
+            }
+            if (peek().is("(")) {
+                // '(' 뒤가 논리식인지 산술식인지 모르므로 논리식으로 먼저 시도
+                int mark = pos;
+                ParseError logicalError = null;
+                try {
+                    next();
+                    Condition inner = parseOr();
+                    expect(")");
+                    if (!isComparisonOperator(peek()) && !isArithmeticOperator(peek())) {
+                        return inner;
+                    }
+                } catch (ParseError e) {
+                    logicalError = e;  // 산술식 괄호일 수 있음 - 비교식으로 다시 파싱
+                }
+                pos = mark;
+                try {
+                    return parseComparison();
+                } catch (ParseError e) {
+                    // 두 해석 모두 실패하면 더 멀리 읽은 쪽의 오류가 실제 문법 오류 위치
+                    throw logicalError != null && logicalError.position > e.position ? logicalError : e;
+                }
+            }
+            return parseComparison();
+        }
+
+        private Condition parseComparison() {
+            Token fieldToken = peek();
+            if (fieldToken.type == TokenType.IDENT && TEXT_FIELD_NAMES.containsKey(key(fieldToken.text))) {
+                String field = TEXT_FIELD_NAMES.get(key(next().text));
+                Token op = next();
+                if (!op.is("==") && !op.is("=") && !op.is("!=")) {
+                    throw error(op, "문자열 속성은 == 또는 != 만 사용할 수 있습니다");
+                }
+                Token literal = next();
+                if (literal.type != TokenType.STRING && literal.type != TokenType.IDENT) {
+                    throw error(literal, "문자열 값이 필요합니다");
+                }
+                String value = literal.text;
+                boolean equals = !op.is("!=");
+                return c -> {
+                    String[] column = c.text(field);
+                    return i -> column[i] == null ? UNKNOWN
+                            : (column[i].equalsIgnoreCase(value) == equals ? TRUE : FALSE);
+                };
+            }
+
+            Numeric left = parseArith();
+            Token op = next();
+            if (!isComparisonOperator(op)) {
+                throw error(op, "비교 연산자가 필요합니다");
+            }
+            Numeric right = parseArith();
+            String operator = op.text;
+            return c -> {
+                IntToDoubleFunction l = left.bind(c);
+                IntToDoubleFunction r = right.bind(c);
+                return i -> {
+                    double a = l.applyAsDouble(i);
+                    double b = r.applyAsDouble(i);
+                    if (Double.isNaN(a) || Double.isNaN(b)) {
+                        return UNKNOWN;
+                    }
+                    boolean result;
+                    switch (operator) {
+                        case ">": result = a > b; break;
+                        case ">=": result = a >= b; break;
+                        case "<": result = a < b; break;
+                        case "<=": result = a <= b; break;
+                        case "!=": result = a != b; break;
+                        default: result = a == b; break;
+                    }
+                    return result ? TRUE : FALSE;
+                };
+            };
+        }
+
+        private Numeric parseArith() {
+            Numeric left = parseTerm();
+            while (peek().is("+") || peek().is("-")) {
+                boolean plus = next().is("+");
+                Numeric a = left;
+                Numeric b = parseTerm();
+                left = c -> {
+                    IntToDoubleFunction fa = a.bind(c);
+                    IntToDoubleFunction fb = b.bind(c);
+                    return plus
+                            ? i -> fa.applyAsDouble(i) + fb.applyAsDouble(i)
+                            : i -> fa.applyAsDouble(i) - fb.applyAsDouble(i);
+                };
+            }
+            return left;
+        }
+
+        private Numeric parseTerm() {
+            Numeric left = parseFactor();
+            while (peek().is("*") || peek().is("/")) {
+                boolean multiply = next().is("*");
+                Numeric a = left;
+                Numeric b = parseFactor();
+                left = c -> {
+                    IntToDoubleFunction fa = a.bind(c);
+                    IntToDoubleFunction fb = b.bind(c);
+                    // 0으로 나누면 값 없음(NaN)으로 처리해 비교에서 제외
+                    return multiply
+                            ? i -> fa.applyAsDouble(i) * fb.applyAsDouble(i)
+                            : i -> {
+                                double divisor = fb.applyAsDouble(i);
+                                return divisor == 0 ? Double.NaN : fa.applyAsDouble(i) / divisor;
+                            };
+                };
+            }
+            return left;
+        }
+
+        private Numeric parseFactor() {
+            Token token = next();
+            if (token.type == TokenType.NUMBER) {
+                double value = Double.parseDouble(token.text);
+                return c -> i -> value;
+            }
+            if (token.is("-")) {
+                Numeric inner = parseFactor();
+                return c -> {
+                    IntToDoubleFunction f = inner.bind(c);
+                    return i -> -f.applyAsDouble(i);
+                };
+            }
+            if (token.is("(")) {
+                Numeric inner = parseArith();
+                expect(")");
+                return inner;
+            }
+            if (token.type == TokenType.IDENT) {
+                String field = numericField(token);
+                return c -> {
+                    double[] column = c.numeric(field);
+                    return i -> column[i];
+                };
+            }
+            throw error(token, "숫자 또는 필드가 필요합니다");
+        }
+
+        // ----- 점수 -----
+
+        private List<ScoreTerm> parseScore() {
+            List<ScoreTerm> terms = new ArrayList<>();
+            double sign = 1;
+            if (peek().is("+") || peek().is("-")) {
+                sign = next().is("-") ? -1 : 1;
+            }
+            terms.add(parseScoreTerm(sign));
+            while (peek().is("+") || peek().is("-")) {
+                sign = next().is("-") ? -1 : 1;
+                terms.add(parseScoreTerm(sign));
+            }
+            return terms;
+        }
+
+        private ScoreTerm parseScoreTerm(double sign) {
+            double weight = sign;
+            if (peek().type == TokenType.NUMBER) {
+                weight *= Double.parseDouble(next().text);
+                expect("*");
+            }
+            Token rank = next();
+            if (!rank.is("rank")) {
+                throw error(rank, "rank(필드 asc|desc) 가 필요합니다");
+            }
+            expect("(");
+            String field = numericField(next());
+            boolean descending = false;
+            if (peek().is("desc") || peek().is("asc")) {
+                descending = next().is("desc");
+            }
+            expect(")");
+            if (peek().is("*")) {
+                next();
+                Token factor = next();
+                if (factor.type != TokenType.NUMBER) {
+                    throw error(factor, "가중치 숫자가 필요합니다");
+                }
+                weight *= Double.parseDouble(factor.text);
+            }
+            return new ScoreTerm(field, descending, weight);
+        }
+
+        // ----- 토큰 유틸 -----
+
+        private String numericField(Token token) {
+            String field = token.type == TokenType.IDENT ? NUMERIC_FIELD_NAMES.get(key(token.text)) : null;
+            if (field == null) {
+                throw error(token, "알 수 없는 지표 (사용 가능: " + FinancialColumns.NUMERIC_FIELDS.keySet() + ")");
+            }
+            return field;
+        }
+
+        private Token peek() {
+            return tokens.get(pos);
+        }
+
+        private Token next() {
+            Token token = tokens.get(pos);
+            if (token.type != TokenType.EOF) {
+                pos++;
+            }
+            return token;
+        }
+
+        private void expect(String text) {
+            Token token = next();
+            if (!token.is(text)) {
+                throw error(token, "'" + text + "' 가 필요합니다");
+            }
+        }
+
+        private ParseError error(Token token, String message) {
+            String near = token.type == TokenType.EOF ? "식의 끝" : "'" + token.text + "'";
+            return new ParseError(token.position,
+                    String.format("스크리너 식 오류 (위치 %d, %s): %s", token.position + 1, near, message));
+        }
+
+        private static boolean isComparisonOperator(Token token) {
+            return token.type == TokenType.OP && (token.text.equals(">") || token.text.equals(">=")
+                    || token.text.equals("<") || token.text.equals("<=")
+                    || token.text.equals("==") || token.text.equals("=") || token.text.equals("!="));
+        }
+
+        private static boolean isArithmeticOperator(Token token) {
+            return token.type == TokenType.OP && (token.text.equals("+") || token.text.equals("-")
+                    || token.text.equals("*") || token.text.equals("/"));
+        }
+
+        private static List<Token> tokenize(String source) {
+            List<Token> tokens = new ArrayList<>();
+            int i = 0;
+            int length = source.length();
+            while (i < length) {
+                char ch = source.charAt(i);
+                if (Character.isWhitespace(ch)) {
+                    i++;
+                } else if (Character.isDigit(ch) || (ch == '.' && i + 1 < length && Character.isDigit(source.charAt(i + 1)))) {
+                    int start = i;
+                    boolean dot = false;
+                    while (i < length && (Character.isDigit(source.charAt(i)) || source.charAt(i) == '.')) {
+                        if (source.charAt(i) == '.') {
+                            if (dot) {
+                                throw new ParseError(start, String.format("스크리너 식 오류 (위치 %d): 잘못된 숫자 '%s'",
+                                        start + 1, numberText(source, start)));
+                            }
+                            dot = true;
+                        }
+                        i++;
+                    }
+                    tokens.add(new Token(TokenType.NUMBER, source.substring(start, i), start));
+                } else if (Character.isLetter(ch) || ch == '_') {
+                    int start = i;
+                    while (i < length && (Character.isLetterOrDigit(source.charAt(i)) || source.charAt(i) == '_')) {
+                        i++;
+                    }
+                    tokens.add(new Token(TokenType.IDENT, source.substring(start, i), start));
+                } else if (ch == '\'' || ch == '"') {
+                    // 같은 따옴표를 두 번 쓰면 따옴표 문자 하나 ('O''Neil')
+                    int start = i;
+                    StringBuilder text = new StringBuilder();
+                    i++;
+                    while (true) {
+                        if (i >= length) {
+                            throw new ParseError(start,
+                                    String.format("스크리너 식 오류 (위치 %d): 닫히지 않은 문자열", start + 1));
+                        }
+                        char c = source.charAt(i++);
+                        if (c != ch) {
+                            text.append(c);
+                        } else if (i < length && source.charAt(i) == ch) {
+                            text.append(ch);
+                            i++;
+                        } else {
+                            break;
+                        }
+                    }
+                    tokens.add(new Token(TokenType.STRING, text.toString(), start));
+                } else {
+                    String two = i + 1 < length ? source.substring(i, i + 2) : "";
+                    if (two.equals(">=") || two.equals("<=") || two.equals("==") || two.equals("!=")
+                            || two.equals("&&") || two.equals("||")) {
+                        tokens.add(new Token(TokenType.OP, two, i));
+                        i += 2;
+                    } else if ("><()+-*/;!".indexOf(ch) >= 0) {
+                        tokens.add(new Token(TokenType.OP, String.valueOf(ch), i));
+                        i++;
+                    } else if (ch == '=') {
+                        // 필터의 단일 '='는 '=='로 취급 (score = ... 의 '='는 파서에서 구분)
+                        tokens.add(new Token(TokenType.OP, "=", i));
+                        i++;
+                    } else {
+                        throw new ParseError(i,
+                                String.format("스크리너 식 오류 (위치 %d): 알 수 없는 문자 '%c'", i + 1, ch));
+                    }
+                }
+            }
+            tokens.add(new Token(TokenType.EOF, "", length));
+            return tokens;
+        }
+
+        /**
+         * 오류 메시지용 숫자 원문 (숫자와 '.'가 이어진 부분 전체)
+         */
+        private static String numberText(String source, int start) {
+            int end = start;
+            while (end < source.length() && (Character.isDigit(source.charAt(end)) || source.charAt(end) == '.')) {
+                end++;
+            }
+            return source.substring(start, end);
+        }
+    }
+
+    /**
+     * 문법 오류 (위치는 0부터, 메시지에는 1부터)
+     * - 괄호 되돌림에서 문법 오류만 잡도록 일반 IllegalArgumentException(NumberFormatException 등)과 구분
+     */
+    private static final class ParseError extends IllegalArgumentException {
+        private final int position;
+
+        private ParseError(int position, String message) {
+            super(message);
+            this.position = position;
+        }
+    }
+
+    private static String key(String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static Map<String, String> fieldNames(Collection<String> fields) {
+        Map<String, String> names = new HashMap<>();
+        for (String field : fields) {
+            names.put(key(field), field);
+        }
+        return names;
+    }
+}
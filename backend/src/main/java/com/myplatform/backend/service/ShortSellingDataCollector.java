@@ -2,6 +2,7 @@ package com.myplatform.backend.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myplatform.backend.dto.BackfillResultDto;
 import com.myplatform.backend.entity.StockShortData;
 import com.myplatform.backend.repository.StockShortDataRepository;
 import lombok.RequiredArgsConstructor;
@@ -10,7 +11,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
@@ -38,6 +39,10 @@ public class ShortSellingDataCollector {
     private final NaverFinanceCrawler naverFinanceCrawler;
     private final ObjectMapper objectMapper;
     private final RestTemplate restTemplate;
+    private final ApiRateLimiter rateLimiter;
+    private final HistoricalBackfillService backfillService;
+    private final TransactionTemplate transactionTemplate;
+    private final ClusterLeader clusterLeader;
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
     private static final DateTimeFormatter KRX_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
@@ -55,8 +60,11 @@ public class ShortSellingDataCollector {
      * - 안정적인 데이터 수집을 위해 19:00로 설정
      */
     @Scheduled(cron = "0 0 19 * * MON-FRI", zone = "Asia/Seoul")
-    @Transactional
     public void scheduledDailyCollection() {
+        if (!clusterLeader.isLeader()) {
+            log.debug("리더 노드가 아님 - 공매도/대차잔고 자동 수집 생략");
+            return;
+        }
         LocalDate today = LocalDate.now();
 
         if (isWeekend(today)) {
@@ -69,18 +77,23 @@ public class ShortSellingDataCollector {
         boolean hasData = shortDataRepository.existsByStockCodeAndTradeDate("005930", today);
 
         if (hasData) {
-            log.info("오늘({}) 데이터가 이미 존재합니다. 기존 데이터 삭제 후 재수집합니다.", today);
-            shortDataRepository.deleteByTradeDate(today);
+            // 삭제 후 재삽입하지 않고 (stockCode, tradeDate) 기준으로 변경된 행만 업서트
+            log.info("오늘({}) 데이터가 이미 존재합니다. 변경분만 업서트합니다.", today);
         }
 
-        int collected = collectShortSellingData(today);
-        log.info("=== 공매도/대차잔고 데이터 자동 수집 완료: {}건 ===", collected);
+        try {
+            int collected = collectShortSellingData(today);
+            log.info("=== 공매도/대차잔고 데이터 자동 수집 완료: {}건 ===", collected);
+        } catch (Exception e) {
+            log.error("=== 공매도/대차잔고 데이터 자동 수집 실패: {} ===", e.getMessage());
+        }
     }
 
     /**
      * 특정 일자의 공매도/대차잔고 데이터 수집
+     * - 조회/저장 실패 시 예외를 던짐 (백필이 실패일로 집계하고 재실행 시 다시 수집하도록)
+     * - 외부 API 호출 동안 트랜잭션을 잡지 않음 (저장 단계만 upsertShortData 트랜잭션)
      */
-    @Transactional
     public int collectShortSellingData(LocalDate tradeDate) {
         log.info("공매도/대차잔고 데이터 수집 시작: {}", tradeDate);
 
@@ -114,19 +127,103 @@ public class ShortSellingDataCollector {
                 collectedData.add(data);
             }
 
-            // 5. DB 저장
+            // 5. DB 저장 (uk_short_stock_date 기준 diff 업서트)
             if (!collectedData.isEmpty()) {
-                shortDataRepository.saveAll(collectedData);
-                log.info("공매도/대차잔고 데이터 저장 완료: {}건", collectedData.size());
+                UpsertPlan<StockShortData> plan = upsertShortData(tradeDate, collectedData);
+                log.info("공매도/대차잔고 데이터 저장 완료: {}건 ({})", collectedData.size(), plan);
             }
 
         } catch (Exception e) {
-            log.error("공매도/대차잔고 데이터 수집 실패: {}", e.getMessage(), e);
+            log.error("공매도/대차잔고 데이터 수집 실패 [{}]: {}", tradeDate, e.getMessage(), e);
+            throw new RuntimeException(tradeDate + " 공매도/대차잔고 데이터 수집 실패: " + e.getMessage(), e);
         }
 
         return collectedData.size();
     }
 
+    /**
+     * 공매도/대차잔고 데이터 업서트
+     * - 자연키 (stockCode, tradeDate) 기준으로 기존 행과 비교
+     * - 값이 바뀐 행만 UPDATE, 새 종목만 INSERT
+     * - 이번 수집에서 누락된 종목(일시적 API 실패 등)은 삭제하지 않고 유지
+     * - 백필 파티션 스레드에서도 호출되므로 TransactionTemplate으로 트랜잭션 보장
+     */
+    private UpsertPlan<StockShortData> upsertShortData(LocalDate tradeDate, List<StockShortData> collectedData) {
+        return transactionTemplate.execute(status -> {
+            List<StockShortData> existing = shortDataRepository.findByTradeDate(tradeDate);
+
+            UpsertPlan<StockShortData> plan = UpsertPlan.of(
+                    existing, collectedData, StockShortData::getStockCode, this::mergeShortData, false);
+
+            if (!plan.getInserts().isEmpty()) {
+                shortDataRepository.saveAll(plan.getInserts());
+            }
+            // 변경된 기존 행은 영속 상태이므로 커밋 시 dirty checking으로 UPDATE
+            return plan;
+        });
+    }
+
+    /**
+     * source 값을 target에 복사 (값이 다를 때만)
+     * @return 변경 여부
+     */
+    private boolean mergeShortData(StockShortData target, StockShortData source) {
+        boolean changed = false;
+        if (!UpsertPlan.same(target.getStockName(), source.getStockName())) {
+            target.setStockName(source.getStockName());
+            changed = true;
+        }
+        if (!UpsertPlan.same(target.getShortVolume(), source.getShortVolume())) {
+            target.setShortVolume(source.getShortVolume());
+            changed = true;
+        }
+        if (!UpsertPlan.same(target.getShortTradingValue(), source.getShortTradingValue())) {
+            target.setShortTradingValue(source.getShortTradingValue());
+            changed = true;
+        }
+        if (!UpsertPlan.same(target.getShortRatio(), source.getShortRatio())) {
+            target.setShortRatio(source.getShortRatio());
+            changed = true;
+        }
+        if (!UpsertPlan.same(target.getShortBalanceQuantity(), source.getShortBalanceQuantity())) {
+            target.setShortBalanceQuantity(source.getShortBalanceQuantity());
+            changed = true;
+        }
+        if (!UpsertPlan.same(target.getShortBalanceValue(), source.getShortBalanceValue())) {
+            target.setShortBalanceValue(source.getShortBalanceValue());
+            changed = true;
+        }
+        if (!UpsertPlan.same(target.getShortBalanceRatio(), source.getShortBalanceRatio())) {
+            target.setShortBalanceRatio(source.getShortBalanceRatio());
+            changed = true;
+        }
+        if (!UpsertPlan.same(target.getLoanBalanceQuantity(), source.getLoanBalanceQuantity())) {
+            target.setLoanBalanceQuantity(source.getLoanBalanceQuantity());
+            changed = true;
+        }
+        if (!UpsertPlan.same(target.getLoanBalanceValue(), source.getLoanBalanceValue())) {
+            target.setLoanBalanceValue(source.getLoanBalanceValue());
+            changed = true;
+        }
+        if (!UpsertPlan.same(target.getLoanBalanceRatio(), source.getLoanBalanceRatio())) {
+            target.setLoanBalanceRatio(source.getLoanBalanceRatio());
+            changed = true;
+        }
+        if (!UpsertPlan.same(target.getClosePrice(), source.getClosePrice())) {
+            target.setClosePrice(source.getClosePrice());
+            changed = true;
+        }
+        if (!UpsertPlan.same(target.getChangeRate(), source.getChangeRate())) {
+            target.setChangeRate(source.getChangeRate());
+            changed = true;
+        }
+        if (!UpsertPlan.same(target.getVolume(), source.getVolume())) {
+            target.setVolume(source.getVolume());
+            changed = true;
+        }
+        return changed;
+    }
+
     /**
      * 대차잔고 데이터 수집 (금융투자협회 FREESIS + 네이버 금융 fallback)
      *
@@ -136,35 +233,38 @@ public class ShortSellingDataCollector {
      */
     private Map<String, StockShortData> collectLoanBalanceData(LocalDate tradeDate) {
         Map<String, StockShortData> result = new HashMap<>();
-        String dateStr = tradeDate.format(KRX_DATE_FORMATTER);
-
-        try {
-            List<String> targetStocks = getTargetStockCodes();
-
-            for (String stockCode : targetStocks) {
-                try {
-                    // 1. 한국투자증권 API 시도
-                    StockShortData data = fetchLoanBalanceFromKis(stockCode, tradeDate);
-
-                    // 2. KIS API 실패 시 네이버 금융 크롤링으로 fallback
-                    if (data == null || data.getLoanBalanceQuantity() == null) {
-                        data = fetchLoanBalanceFromNaver(stockCode, tradeDate);
-                    }
+        int failures = 0;
 
-                    if (data != null) {
-                        result.put(stockCode, data);
-                    }
+        List<String> targetStocks = getTargetStockCodes();
 
-                    // API 호출 제한 방지
-                    Thread.sleep(100);
+        for (String stockCode : targetStocks) {
+            try {
+                // 1. 한국투자증권 API 시도 (API 호출 제한은 공용 속도 제한기로 관리)
+                rateLimiter.acquire(ApiRateLimiter.KIS);
+                StockShortData data = fetchLoanBalanceFromKis(stockCode, tradeDate);
+
+                // 2. KIS API 실패 시 네이버 금융 크롤링으로 fallback
+                if (data == null || data.getLoanBalanceQuantity() == null) {
+                    rateLimiter.acquire(ApiRateLimiter.NAVER);
+                    data = fetchLoanBalanceFromNaver(stockCode, tradeDate);
+                }
 
-                } catch (Exception e) {
-                    log.debug("종목 {} 대차잔고 조회 실패: {}", stockCode, e.getMessage());
+                if (data != null) {
+                    result.put(stockCode, data);
                 }
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("대차잔고 수집 중단됨: " + tradeDate);
+            } catch (Exception e) {
+                failures++;
+                log.debug("종목 {} 대차잔고 조회 실패: {}", stockCode, e.getMessage());
             }
+        }
 
-        } catch (Exception e) {
-            log.error("대차잔고 데이터 수집 실패: {}", e.getMessage());
+        // 한 종목도 못 받고 오류만 났다면 수집 실패 (데이터 없는 날과 구분)
+        if (result.isEmpty() && failures > 0) {
+            throw new IllegalStateException("대차잔고 조회 " + failures + "건 모두 실패: " + tradeDate);
         }
 
         return result;
@@ -342,6 +442,7 @@ public class ShortSellingDataCollector {
 
             try {
                 if (data.getClosePrice() == null) {
+                    rateLimiter.acquire(ApiRateLimiter.KIS);  // API 호출 제한
                     JsonNode priceInfo = koreaInvestmentService.getStockPrice(stockCode);
                     if (priceInfo != null && isSuccessResponse(priceInfo)) {
                         JsonNode output = priceInfo.get("output");
@@ -352,8 +453,10 @@ public class ShortSellingDataCollector {
                             enriched++;
                         }
                     }
-                    Thread.sleep(50);  // API 호출 제한
                 }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("주가 보강 중단됨");
             } catch (Exception e) {
                 log.debug("주가 보강 실패 [{}]: {}", stockCode, e.getMessage());
             }
@@ -426,37 +529,19 @@ public class ShortSellingDataCollector {
 
     /**
      * 과거 데이터 일괄 수집 (백필)
+     * - 날짜 파티션 단위로 병렬 수집 (HistoricalBackfillService)
+     * - 이미 수집된 날짜는 한 번의 조회로 걸러내고 건너뜀
+     * - KIS/네이버 호출 속도는 ApiRateLimiter로 파티션 간 공유 제한
+     * - 날짜별 저장은 upsertShortData의 TransactionTemplate 트랜잭션 (날짜마다 따로 커밋)
      */
-    @Transactional
-    public int collectHistoricalData(LocalDate startDate, LocalDate endDate) {
+    public BackfillResultDto collectHistoricalData(LocalDate startDate, LocalDate endDate) {
         log.info("과거 데이터 수집 시작: {} ~ {}", startDate, endDate);
 
-        int totalCollected = 0;
-        LocalDate current = startDate;
-
-        while (!current.isAfter(endDate)) {
-            if (!isWeekend(current)) {
-                try {
-                    // 기존 데이터 확인
-                    if (!shortDataRepository.existsByStockCodeAndTradeDate("005930", current)) {
-                        int collected = collectShortSellingData(current);
-                        totalCollected += collected;
-                        log.info("{}: {}건 수집", current, collected);
-
-                        // API 호출 제한 방지
-                        Thread.sleep(1000);
-                    } else {
-                        log.info("{}: 데이터 이미 존재", current);
-                    }
-                } catch (Exception e) {
-                    log.error("{} 수집 실패: {}", current, e.getMessage());
-                }
-            }
-            current = current.plusDays(1);
-        }
+        Set<LocalDate> completedDates = new HashSet<>(
+                shortDataRepository.findDistinctTradeDatesBetween(startDate, endDate));
 
-        log.info("과거 데이터 수집 완료: 총 {}건", totalCollected);
-        return totalCollected;
+        return backfillService.run("SHORT_SELLING", startDate, endDate, completedDates,
+                this::collectShortSellingData);
     }
 
     // ========== 유틸리티 메서드 ==========
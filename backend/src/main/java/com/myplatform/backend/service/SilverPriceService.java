@@ -38,6 +38,7 @@ public class SilverPriceService {
 
     private final RestTemplate restTemplate;
     private final SilverPriceRepository silverPriceRepository;
+    private final ClusterLeader clusterLeader;
 
     @Value("${silver.api.url}")
     private String apiUrl;
@@ -51,9 +52,11 @@ public class SilverPriceService {
     // 캐시된 은 시세 데이터
     private final AtomicReference<SilverPriceDto> cachedSilverPrice = new AtomicReference<>();
 
-    public SilverPriceService(RestTemplate restTemplate, SilverPriceRepository silverPriceRepository) {
+    public SilverPriceService(RestTemplate restTemplate, SilverPriceRepository silverPriceRepository,
+                            ClusterLeader clusterLeader) {
         this.restTemplate = restTemplate;
         this.silverPriceRepository = silverPriceRepository;
+        this.clusterLeader = clusterLeader;
     }
 
     /**
@@ -86,10 +89,25 @@ public class SilverPriceService {
     @Scheduled(cron = "0 1 9,12,18 * * MON-FRI")
     @Scheduled(cron = "0 31 15 * * MON-FRI")
     public void scheduledFetchSilverPrice() {
+        if (!clusterLeader.isLeader()) {
+            log.debug("리더 노드가 아님 - 은 시세 갱신 생략");
+            return;
+        }
         log.info("스케줄 작업: 은 시세 갱신 시작");
         fetchAndCacheSilverPrice();
     }
 
+    /**
+     * 리더가 아닌 노드는 갱신 5분 후 리더가 저장한 시세를 DB에서 다시 읽음 (API 호출 안 함)
+     */
+    @Scheduled(cron = "0 6 9,12,18 * * MON-FRI")
+    @Scheduled(cron = "0 36 15 * * MON-FRI")
+    public void reloadFromLeader() {
+        if (!clusterLeader.isLeader()) {
+            loadFromDatabase();
+        }
+    }
+
     /**
      * GoldAPI.io API 호출 및 캐시/DB 저장 (은 시세)
      */
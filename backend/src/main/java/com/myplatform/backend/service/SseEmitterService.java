@@ -1,33 +1,138 @@
 package com.myplatform.backend.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myplatform.backend.dto.SseEventDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
-import java.util.Map;
+import java.time.LocalDateTime;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * SSE(Server-Sent Events) 관리 서비스
- * - 클라이언트 연결 관리
+ * - 클라이언트 연결 관리 (연결 하나가 여러 토픽(작업 유형)을 구독)
  * - 진행률/로그 이벤트 브로드캐스트
  * - 작업별 진행 상태 관리
+ *
+ * 비동기 전송:
+ * - 브로드캐스트는 클라이언트별 송신 큐에 넣기만 하고 바로 반환 (크롤러 스레드가 느린 브라우저를 기다리지 않음)
+ * - 실제 전송은 sender 스레드가 클라이언트별로 순서대로 수행
+ * - PROGRESS는 아직 나가지 않은 이전 PROGRESS를 대체 (토픽별 최신 1건만 유지, 다른 이벤트도 키를 주면 같은 방식)
+ * - 큐가 가득 찼거나 전송 1건이 SEND_TIMEOUT_MILLIS를 넘긴 클라이언트는 연결을 끊음 (느린 소비자 퇴출)
+ * - 퇴출은 목록에서 빼고 남은 큐를 sender가 정리하며 emitter를 종료
+ *   - 이미 막힌 전송은 내장 Tomcat 쓰기 타임아웃(server.tomcat.connection-timeout)으로 실패해야 sender 스레드가 돌아옴
+ *     (emitter 종료는 막힌 send와 같은 잠금을 잡으므로 다른 스레드에서 끊을 수 없음)
+ * - 주기적으로 하트비트(comment) 전송
+ *
+ * 재연결 이어받기:
+ * - 토픽 이벤트에는 단조 증가 id를 붙이고, 토픽별로 최근 이벤트를 링 버퍼에 보관
+ * - 재연결 시 Last-Event-ID 이후 이벤트만 다시 보냄 (PROGRESS는 토픽별 최신 1건만)
+ *
+ * 여러 노드 운영:
+ * - 작업 이벤트는 ClusterEventBus로 발행하고, 모든 노드가 받아서 자기 SSE 클라이언트에게 전송
+ * - id도 버스가 발급하므로 다른 노드로 재연결해도 Last-Event-ID로 이어받을 수 있음
  */
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class SseEmitterService {
 
-    // 클라이언트별 SSE 연결 (clientId -> SseEmitter)
-    private final Map<String, SseEmitter> emitters = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+    private final ClusterEventBus clusterEventBus;
 
-    // 작업 유형별 구독자 목록 (taskType -> clientIds)
-    private final Map<String, CopyOnWriteArrayList<String>> taskSubscribers = new ConcurrentHashMap<>();
+    // 작업 이벤트 채널 (모든 노드가 구독해 자기 클라이언트에게 전송)
+    private static final String TASK_CHANNEL = "sse-task";
+
+    // 클라이언트별 SSE 연결 (clientId -> Client)
+    private final Map<String, Client> clients = new ConcurrentHashMap<>();
+
+    // 토픽(작업 유형)별 구독자 목록 (topic -> clientIds)
+    private final Map<String, Set<String>> taskSubscribers = new ConcurrentHashMap<>();
+
+    // 막힌 전송이 쓰기 타임아웃까지 스레드를 잡고 있으므로 코어 수보다 넉넉하게
+    private final ExecutorService senders = newSenders(Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+
+    // 전송 시간 초과 감시 (SEND_TIMEOUT_CHECK_MILLIS마다 진행 중인 전송 확인)
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Sse-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // 링 버퍼 추가와 송신 큐 적재를 한 번에 처리 (클라이언트가 항상 id 순서대로 받도록)
+    private final Object broadcastLock = new Object();
+    // id는 이벤트 버스가 발급 (클러스터 전체 단조 증가), 이 노드가 받기 시작한 첫 id부터 이어받기 가능
+    private long firstEventId;  // broadcastLock 안에서만 접근
+    private long lastEventId;   // broadcastLock 안에서만 접근
+    private final Map<String, TopicHistory> history = new HashMap<>();  // broadcastLock 안에서만 접근
+
+    private final AtomicLong conflatedCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
 
     // SSE 타임아웃 (30분) - 장시간 크롤링 작업 고려
     private static final long SSE_TIMEOUT = 30 * 60 * 1000L;
 
+    // 클라이언트별 송신 대기 이벤트 상한 (초과 시 느린 소비자로 보고 연결 종료)
+    private static final int MAX_QUEUED_EVENTS = 256;
+
+    // 전송 1건 제한 시간 (넘으면 멈춘 클라이언트로 보고 연결 종료, server.tomcat.connection-timeout과 같게 유지)
+    private static final long SEND_TIMEOUT_MILLIS = 10_000L;
+    private static final long SEND_TIMEOUT_CHECK_MILLIS = 1_000L;
+
+    // 토픽별 재전송용 보관 이벤트 수
+    private static final int HISTORY_SIZE = 500;
+
+    private static final String PROGRESS = "PROGRESS";
+
+    private static ExecutorService newSenders(int count) {
+        AtomicInteger sequence = new AtomicInteger();
+        return Executors.newFixedThreadPool(count, runnable -> {
+            Thread thread = new Thread(runnable, "Sse-sender-" + sequence.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    void start() {
+        synchronized (broadcastLock) {
+            lastEventId = clusterEventBus.lastSequence(TASK_CHANNEL);
+            firstEventId = lastEventId + 1;
+        }
+        clusterEventBus.subscribe(TASK_CHANNEL, this::onTaskEvent);
+        watchdog.scheduleWithFixedDelay(this::checkSendTimeouts,
+                SEND_TIMEOUT_CHECK_MILLIS, SEND_TIMEOUT_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        watchdog.shutdownNow();
+        for (Client client : clients.values()) {
+            evict(client, "서버 종료");
+        }
+        senders.shutdown();
+    }
+
     /**
      * 새로운 SSE 연결 생성
      *
@@ -36,41 +141,143 @@ public class SseEmitterService {
      * @return SseEmitter
      */
     public SseEmitter subscribe(String clientId, String taskType) {
+        return subscribe(clientId, List.of(taskType), null);
+    }
+
+    /**
+     * 여러 토픽을 구독하는 SSE 연결 생성
+     * - 같은 clientId의 이전 연결은 종료
+     * - lastEventId가 있으면 그 이후 놓친 이벤트를 먼저 보냄
+     *
+     * @param clientId 클라이언트 ID (UUID 권장)
+     * @param topics 구독할 작업 유형 목록
+     * @param lastEventId 마지막으로 받은 이벤트 id (Last-Event-ID, 없으면 null)
+     * @return SseEmitter
+     */
+    public SseEmitter subscribe(String clientId, Collection<String> topics, Long lastEventId) {
         SseEmitter emitter = new SseEmitter(SSE_TIMEOUT);
+        Client client = new Client(clientId, emitter);
 
         // 이전 연결이 있으면 정리
-        if (emitters.containsKey(clientId)) {
-            SseEmitter oldEmitter = emitters.get(clientId);
-            try {
-                oldEmitter.complete();
-            } catch (Exception ignored) {}
+        Client oldClient = clients.put(clientId, client);
+        if (oldClient != null) {
+            evict(oldClient, "재연결");
         }
 
-        emitters.put(clientId, emitter);
+        // 연결 종료 시 정리
+        emitter.onCompletion(() -> detach(client));
+        emitter.onTimeout(() -> detach(client));
+        emitter.onError(e -> detach(client));
+
+        Replay replay;
+        synchronized (broadcastLock) {
+            replay = lastEventId != null ? replay(topics, lastEventId) : null;
+
+            // 연결 확인 이벤트 전송
+            SseEventDto connected = SseEventDto.builder()
+                    .type("CONNECTED")
+                    .message("SSE 연결 성공")
+                    .taskType(String.join(",", topics))
+                    .replayed(replay != null ? replay.events.size() : null)
+                    .replayComplete(replay != null ? replay.complete : null)
+                    .build();
+            enqueue(client, new Outbound(0, null, "CONNECTED", serialize(connected)));
+
+            // 놓친 이벤트를 먼저 넣고 구독 등록 (잠금 안이라 그 사이 이벤트가 빠지거나 중복되지 않음)
+            if (replay != null) {
+                for (Outbound event : replay.events) {
+                    enqueue(client, event);
+                }
+            }
+            addTopics(client, topics);
+        }
 
-        // 작업 유형별 구독자 등록
-        taskSubscribers
-                .computeIfAbsent(taskType, k -> new CopyOnWriteArrayList<>())
-                .add(clientId);
+        log.info("SSE 구독 시작 - clientId: {}, topics: {}, 재전송: {}건, 현재 연결 수: {}",
+                clientId, client.topics, replay != null ? replay.events.size() : 0, clients.size());
 
-        // 연결 종료 시 정리
-        emitter.onCompletion(() -> removeClient(clientId, taskType));
-        emitter.onTimeout(() -> removeClient(clientId, taskType));
-        emitter.onError(e -> removeClient(clientId, taskType));
+        return emitter;
+    }
 
-        // 연결 확인 이벤트 전송
-        try {
-            emitter.send(SseEmitter.event()
-                    .name("CONNECTED")
-                    .data("{\"type\":\"CONNECTED\",\"message\":\"SSE 연결 성공\",\"taskType\":\"" + taskType + "\"}"));
-        } catch (IOException e) {
-            log.error("SSE 연결 확인 이벤트 전송 실패: {}", e.getMessage());
+    /**
+     * Last-Event-ID 이후 놓친 이벤트 (broadcastLock 안에서 호출)
+     * - 여러 토픽의 이벤트를 id 순서로 합치고, PROGRESS는 토픽별 마지막 1건만 남김
+     * - 링 버퍼에서 이미 밀려난 이벤트가 있으면 complete=false
+     */
+    private Replay replay(Collection<String> topics, long lastEventId) {
+        List<Outbound> missed = new ArrayList<>();
+        // 이번 기동 전 id이거나 아직 발급되지 않은 id면 이어받을 수 없음
+        boolean complete = lastEventId >= firstEventId - 1 && lastEventId <= this.lastEventId;
+        for (String topic : new LinkedHashSet<>(topics)) {
+            TopicHistory topicHistory = history.get(topic);
+            if (topicHistory == null) {
+                continue;
+            }
+            if (topicHistory.droppedUpTo > lastEventId) {
+                complete = false;
+            }
+            for (Outbound event : topicHistory.events) {
+                if (event.id > lastEventId) {
+                    missed.add(event);
+                }
+            }
         }
+        missed.sort(Comparator.comparingLong(event -> event.id));
+
+        Set<String> latestProgress = new HashSet<>();
+        List<Outbound> result = new ArrayList<>(missed.size());
+        for (int i = missed.size() - 1; i >= 0; i--) {
+            Outbound event = missed.get(i);
+            if (event.conflationKey == null || latestProgress.add(event.conflationKey)) {
+                result.add(event);
+            }
+        }
+        Collections.reverse(result);
+        return new Replay(result, complete);
+    }
 
-        log.info("SSE 구독 시작 - clientId: {}, taskType: {}, 현재 연결 수: {}",
-                clientId, taskType, emitters.size());
+    /**
+     * 기존 연결에 토픽 추가
+     *
+     * @return 연결이 없으면 false
+     */
+    public boolean addTopics(String clientId, Collection<String> topics) {
+        Client client = clients.get(clientId);
+        if (client == null) {
+            return false;
+        }
+        addTopics(client, topics);
+        return true;
+    }
 
-        return emitter;
+    /**
+     * 기존 연결에서 토픽 해제
+     *
+     * @return 연결이 없으면 false
+     */
+    public boolean removeTopics(String clientId, Collection<String> topics) {
+        Client client = clients.get(clientId);
+        if (client == null) {
+            return false;
+        }
+        for (String topic : topics) {
+            client.topics.remove(topic);
+            unsubscribe(topic, clientId);
+        }
+        return true;
+    }
+
+    private void addTopics(Client client, Collection<String> topics) {
+        for (String topic : topics) {
+            if (topic == null || topic.isBlank()) {
+                continue;
+            }
+            client.topics.add(topic);
+            taskSubscribers.computeIfAbsent(topic, k -> ConcurrentHashMap.newKeySet()).add(client.clientId);
+        }
+        // 구독 도중 연결이 끊겼으면 방금 등록한 토픽도 정리
+        if (client.closed) {
+            detach(client);
+        }
     }
 
     /**
@@ -81,11 +288,11 @@ public class SseEmitterService {
      * @param message 상태 메시지
      */
     public void sendProgress(String taskType, int percent, String message) {
-        String eventData = String.format(
-                "{\"type\":\"PROGRESS\",\"percent\":%d,\"message\":\"%s\"}",
-                percent, escapeJson(message));
-
-        broadcastToTask(taskType, "PROGRESS", eventData);
+        broadcast(taskType, SseEventDto.builder()
+                .type(PROGRESS)
+                .percent(percent)
+                .message(message)
+                .build());
     }
 
     /**
@@ -95,125 +302,425 @@ public class SseEmitterService {
         int percent = total > 0 ? (int) ((current * 100.0) / total) : 0;
         String message = String.format("%s 수집 완료 (%d/%d)", stockName, current, total);
 
-        String eventData = String.format(
-                "{\"type\":\"PROGRESS\",\"percent\":%d,\"current\":%d,\"total\":%d,\"success\":%d,\"fail\":%d,\"message\":\"%s\"}",
-                percent, current, total, success, fail, escapeJson(message));
-
-        broadcastToTask(taskType, "PROGRESS", eventData);
+        broadcast(taskType, SseEventDto.builder()
+                .type(PROGRESS)
+                .percent(percent)
+                .current(current)
+                .total(total)
+                .success(success)
+                .fail(fail)
+                .message(message)
+                .build());
     }
 
     /**
      * 로그 이벤트 전송
      */
     public void sendLog(String taskType, String level, String message) {
-        String eventData = String.format(
-                "{\"type\":\"LOG\",\"level\":\"%s\",\"message\":\"%s\",\"timestamp\":\"%s\"}",
-                level, escapeJson(message), java.time.LocalDateTime.now().toString());
-
-        broadcastToTask(taskType, "LOG", eventData);
+        broadcast(taskType, SseEventDto.builder()
+                .type("LOG")
+                .level(level)
+                .message(message)
+                .timestamp(LocalDateTime.now().toString())
+                .build());
     }
 
     /**
      * 작업 시작 이벤트 전송
      */
     public void sendStart(String taskType, int totalCount, String description) {
-        String eventData = String.format(
-                "{\"type\":\"START\",\"totalCount\":%d,\"message\":\"%s\"}",
-                totalCount, escapeJson(description));
-
-        broadcastToTask(taskType, "START", eventData);
+        broadcast(taskType, SseEventDto.builder()
+                .type("START")
+                .totalCount(totalCount)
+                .message(description)
+                .build());
     }
 
     /**
-     * 작업 완료 이벤트 전송
+     * 작업 완료 이벤트 전송 (결과 항목은 최상위 필드로 펼침)
      */
     public void sendComplete(String taskType, Map<String, Object> result) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("{\"type\":\"COMPLETE\"");
-        for (Map.Entry<String, Object> entry : result.entrySet()) {
-            sb.append(",\"").append(entry.getKey()).append("\":");
-            if (entry.getValue() instanceof String) {
-                sb.append("\"").append(escapeJson(entry.getValue().toString())).append("\"");
-            } else {
-                sb.append(entry.getValue());
-            }
-        }
-        sb.append("}");
-
-        broadcastToTask(taskType, "COMPLETE", sb.toString());
+        broadcast(taskType, SseEventDto.builder()
+                .type("COMPLETE")
+                .details(result)
+                .build());
     }
 
     /**
      * 에러 이벤트 전송
      */
     public void sendError(String taskType, String errorMessage) {
-        String eventData = String.format(
-                "{\"type\":\"ERROR\",\"message\":\"%s\"}",
-                escapeJson(errorMessage));
-
-        broadcastToTask(taskType, "ERROR", eventData);
+        broadcast(taskType, SseEventDto.builder()
+                .type("ERROR")
+                .message(errorMessage)
+                .build());
     }
 
     /**
      * 특정 작업 유형의 모든 구독자에게 이벤트 브로드캐스트
+     * - JSON은 한 번만 직렬화하고, 그 바이트 배열을 모든 구독자가 그대로 전송
+     * - 이벤트 버스로 발행하면 각 노드(자신 포함)가 자기 클라이언트 송신 큐에 넣음 (전송은 sender 스레드)
      */
-    private void broadcastToTask(String taskType, String eventName, String data) {
-        CopyOnWriteArrayList<String> subscribers = taskSubscribers.get(taskType);
-        if (subscribers == null || subscribers.isEmpty()) {
+    public void broadcast(String taskType, SseEventDto event) {
+        byte[] payload = serialize(event);
+        if (payload == null) {
             return;
         }
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(payload.length + 64);
+            DataOutputStream out = new DataOutputStream(buffer);
+            out.writeUTF(taskType);
+            out.writeUTF(event.getType());
+            out.write(payload);
+            clusterEventBus.publishSequenced(TASK_CHANNEL, buffer.toByteArray());
+        } catch (IOException e) {
+            log.error("SSE 이벤트 발행 실패 ({}): {}", taskType, e.getMessage());
+        }
+    }
+
+    /**
+     * 이벤트 버스 수신 (작업 유형, 이벤트 이름, JSON)
+     */
+    private void onTaskEvent(long sequence, byte[] body) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+            String taskType = in.readUTF();
+            String eventName = in.readUTF();
+            broadcastToTask(taskType, eventName, in.readAllBytes(), sequence);
+        } catch (IOException e) {
+            log.warn("SSE 이벤트 수신 형식 오류: {}", e.getMessage());
+        }
+    }
+
+    private void broadcastToTask(String taskType, String eventName, byte[] payload, long eventId) {
+        // PROGRESS는 토픽별 최신 1건만 유지
+        String conflationKey = PROGRESS.equals(eventName) ? PROGRESS + ":" + taskType : null;
+
+        synchronized (broadcastLock) {
+            lastEventId = Math.max(lastEventId, eventId);
+            Outbound event = new Outbound(eventId, conflationKey, eventName, payload);
+
+            // 재연결 이어받기용 보관 (구독자가 없어도 보관)
+            history.computeIfAbsent(taskType, k -> new TopicHistory()).add(event);
+
+            Set<String> subscribers = taskSubscribers.get(taskType);
+            if (subscribers == null || subscribers.isEmpty()) {
+                return;
+            }
+
+            for (String clientId : subscribers) {
+                Client client = clients.get(clientId);
+                if (client != null) {
+                    enqueue(client, event);
+                }
+            }
+        }
+    }
+
+    /**
+     * 이벤트 JSON 직렬화 (실패 시 null)
+     */
+    private byte[] serialize(SseEventDto event) {
+        try {
+            return objectMapper.writeValueAsBytes(event);
+        } catch (JsonProcessingException e) {
+            log.error("SSE 이벤트 직렬화 실패 ({}): {}", event.getType(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 특정 클라이언트에게 이벤트 전송 (송신 큐에 넣고 반환)
+     *
+     * @param payload 직렬화된 JSON (여러 클라이언트가 같은 배열을 공유할 수 있으므로 수정 금지)
+     * @param conflationKey 같은 키로 아직 안 나간 이벤트가 있으면 덮어씀 (null이면 항상 추가)
+     * @return 연결이 없으면 false
+     */
+    public boolean sendToClient(String clientId, String eventName, byte[] payload, String conflationKey) {
+        Client client = clients.get(clientId);
+        if (client == null) {
+            return false;
+        }
+        enqueue(client, new Outbound(0, conflationKey, eventName, payload));
+        return true;
+    }
+
+    /**
+     * 클라이언트 연결 여부
+     */
+    public boolean isConnected(String clientId) {
+        return clients.containsKey(clientId);
+    }
+
+    private void enqueue(Client client, Outbound event) {
+        switch (client.offer(event)) {
+            case QUEUED -> schedule(client);
+            case CONFLATED -> conflatedCount.incrementAndGet();
+            case FULL -> evict(client, "송신 큐 초과 (" + MAX_QUEUED_EVENTS + "건)");
+            case CLOSED -> { }
+        }
+    }
+
+    /**
+     * 클라이언트 송신 큐 처리 예약 (클라이언트당 동시에 하나의 sender만 처리)
+     */
+    private void schedule(Client client) {
+        if (client.draining.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(client));
+            } catch (RuntimeException e) {
+                client.draining.set(false);
+                log.debug("SSE 전송 예약 실패 (clientId: {}): {}", client.clientId, e.getMessage());
+            }
+        }
+    }
 
-        for (String clientId : subscribers) {
-            SseEmitter emitter = emitters.get(clientId);
-            if (emitter != null) {
+    /**
+     * 송신 큐를 비울 때까지 전송
+     * - emitter 조작(전송/종료)은 모두 여기서만 수행하므로 클라이언트별로 순서가 보장됨
+     */
+    private void drain(Client client) {
+        while (true) {
+            if (client.closed) {
+                client.clear();
                 try {
-                    emitter.send(SseEmitter.event()
-                            .name(eventName)
-                            .data(data));
-                } catch (IOException e) {
-                    log.debug("SSE 전송 실패 (clientId: {}): {}", clientId, e.getMessage());
-                    removeClient(clientId, taskType);
+                    client.emitter.complete();
+                } catch (Exception ignored) {}
+                return;
+            }
+            Outbound event = client.poll();
+            if (event == null) {
+                client.draining.set(false);
+                // 플래그 해제 직전에 들어온 이벤트는 직접 이어서 처리
+                if ((client.isEmpty() && !client.closed) || !client.draining.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            client.sendStartedAt = System.currentTimeMillis();
+            try {
+                if (event.name == null) {
+                    client.emitter.send(SseEmitter.event().comment("ping"));
+                } else {
+                    SseEmitter.SseEventBuilder builder = SseEmitter.event()
+                            .name(event.name)
+                            .data(event.payload, MediaType.APPLICATION_JSON);
+                    if (event.id > 0) {
+                        builder.id(String.valueOf(event.id));
+                    }
+                    client.emitter.send(builder);
                 }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("SSE 전송 실패 (clientId: {}): {}", client.clientId, e.getMessage());
+                detach(client);
+            } finally {
+                client.sendStartedAt = 0;
             }
         }
     }
 
+    /**
+     * 하트비트 전송 (15초마다)
+     * - 보낼 이벤트가 이미 쌓여 있는 클라이언트에는 하트비트를 넣지 않음
+     */
+    @Scheduled(cron = "*/15 * * * * *")
+    public void heartbeat() {
+        for (Client client : clients.values()) {
+            if (client.isEmpty()) {
+                enqueue(client, new Outbound(0, null, null, null));
+            }
+        }
+    }
+
+    /**
+     * 전송 1건이 SEND_TIMEOUT_MILLIS를 넘긴 클라이언트 퇴출
+     */
+    private void checkSendTimeouts() {
+        long now = System.currentTimeMillis();
+        for (Client client : clients.values()) {
+            long startedAt = client.sendStartedAt;
+            if (startedAt != 0 && now - startedAt > SEND_TIMEOUT_MILLIS) {
+                evict(client, "전송 시간 초과 " + (now - startedAt) + "ms");
+            }
+        }
+    }
+
+    /**
+     * 느린 소비자 연결 종료
+     * - 목록에서 즉시 제거해 더 이상 이벤트를 쌓지 않음
+     * - 남은 송신 큐 정리와 emitter 종료는 sender가 수행 (전송이 막혀 있으면 쓰기 타임아웃으로 실패한 뒤)
+     */
+    private void evict(Client client, String reason) {
+        if (detach(client)) {
+            evictedCount.incrementAndGet();
+            log.info("SSE 클라이언트 퇴출 - clientId: {}, 사유: {}", client.clientId, reason);
+        }
+        schedule(client);
+    }
+
     /**
      * 클라이언트 연결 정리
+     *
+     * @return 이번 호출에서 정리했으면 true
      */
-    private void removeClient(String clientId, String taskType) {
-        emitters.remove(clientId);
-        CopyOnWriteArrayList<String> subscribers = taskSubscribers.get(taskType);
+    private boolean detach(Client client) {
+        if (client.closed) {
+            return false;
+        }
+        client.closed = true;
+        clients.remove(client.clientId, client);
+        for (String topic : client.topics) {
+            unsubscribe(topic, client.clientId);
+        }
+        log.debug("SSE 클라이언트 제거 - clientId: {}, topics: {}", client.clientId, client.topics);
+        return true;
+    }
+
+    private void unsubscribe(String topic, String clientId) {
+        Set<String> subscribers = taskSubscribers.get(topic);
         if (subscribers != null) {
-            subscribers.remove(clientId);
+            // 같은 clientId로 재연결한 새 연결이 이 토픽을 구독 중이면 유지
+            Client current = clients.get(clientId);
+            if (current == null || !current.topics.contains(topic)) {
+                subscribers.remove(clientId);
+            }
         }
-        log.debug("SSE 클라이언트 제거 - clientId: {}, taskType: {}", clientId, taskType);
     }
 
     /**
      * 연결된 클라이언트 수 조회
      */
     public int getConnectedClientCount() {
-        return emitters.size();
+        return clients.size();
     }
 
     /**
      * 특정 작업 유형의 구독자 수 조회
      */
     public int getSubscriberCount(String taskType) {
-        CopyOnWriteArrayList<String> subscribers = taskSubscribers.get(taskType);
+        Set<String> subscribers = taskSubscribers.get(taskType);
         return subscribers != null ? subscribers.size() : 0;
     }
 
     /**
-     * JSON 문자열 이스케이프
+     * 송신 큐 통계 (대기 이벤트 합계, 덮어쓴 이벤트 수, 퇴출 수)
+     */
+    public Map<String, Object> getQueueStats() {
+        int queued = 0;
+        for (Client client : clients.values()) {
+            queued += client.size();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queuedEvents", queued);
+        stats.put("conflatedEvents", conflatedCount.get());
+        stats.put("evictedClients", evictedCount.get());
+        return stats;
+    }
+
+    /**
+     * 송신 대기 이벤트 (불변, 링 버퍼와 모든 구독자 큐가 같은 인스턴스를 공유, name이 null이면 하트비트)
      */
-    private String escapeJson(String str) {
-        if (str == null) return "";
-        return str.replace("\\", "\\\\")
-                .replace("\"", "\\\"")
-                .replace("\n", "\\n")
-                .replace("\r", "\\r")
-                .replace("\t", "\\t");
+    private static final class Outbound {
+        private final long id;               // 토픽 이벤트 id (0이면 id 없이 전송)
+        private final String conflationKey;  // 같은 키의 안 나간 이벤트를 대체 (null이면 대체하지 않음)
+        private final String name;
+        private final byte[] payload;        // 직렬화된 JSON (공유, 수정 금지)
+
+        private Outbound(long id, String conflationKey, String name, byte[] payload) {
+            this.id = id;
+            this.conflationKey = conflationKey;
+            this.name = name;
+            this.payload = payload;
+        }
+    }
+
+    /**
+     * 토픽별 최근 이벤트 링 버퍼 (broadcastLock 안에서만 접근)
+     */
+    private static final class TopicHistory {
+        private final ArrayDeque<Outbound> events = new ArrayDeque<>();
+        private long droppedUpTo;  // 버퍼에서 밀려난 마지막 id
+
+        private void add(Outbound event) {
+            events.addLast(event);
+            if (events.size() > HISTORY_SIZE) {
+                droppedUpTo = events.pollFirst().id;
+            }
+        }
+    }
+
+    private static final class Replay {
+        private final List<Outbound> events;
+        private final boolean complete;
+
+        private Replay(List<Outbound> events, boolean complete) {
+            this.events = events;
+            this.complete = complete;
+        }
+    }
+
+    private enum OfferResult { QUEUED, CONFLATED, FULL, CLOSED }
+
+    /**
+     * 연결 하나의 상태와 송신 큐
+     */
+    private static final class Client {
+        private final String clientId;
+        private final SseEmitter emitter;
+        private final Set<String> topics = ConcurrentHashMap.newKeySet();
+        private final ArrayDeque<Outbound> queue = new ArrayDeque<>();
+        private final Map<String, Outbound> pending = new HashMap<>();  // 대체 키별 아직 안 나간 이벤트
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile long sendStartedAt;  // 전송 중이 아니면 0
+        private volatile boolean closed;
+
+        private Client(String clientId, SseEmitter emitter) {
+            this.clientId = clientId;
+            this.emitter = emitter;
+        }
+
+        synchronized OfferResult offer(Outbound event) {
+            if (closed) {
+                return OfferResult.CLOSED;
+            }
+            if (event.conflationKey != null) {
+                Outbound queued = pending.put(event.conflationKey, event);
+                if (queued != null) {
+                    // 이전 이벤트를 빼고 새 이벤트를 뒤에 붙임 (id 순서 유지)
+                    queue.removeFirstOccurrence(queued);
+                    queue.addLast(event);
+                    return OfferResult.CONFLATED;
+                }
+            }
+            if (queue.size() >= MAX_QUEUED_EVENTS) {
+                if (event.conflationKey != null) {
+                    pending.remove(event.conflationKey, event);
+                }
+                return OfferResult.FULL;
+            }
+            queue.addLast(event);
+            return OfferResult.QUEUED;
+        }
+
+        synchronized Outbound poll() {
+            Outbound event = queue.poll();
+            if (event != null && event.conflationKey != null) {
+                pending.remove(event.conflationKey, event);
+            }
+            return event;
+        }
+
+        synchronized void clear() {
+            queue.clear();
+            pending.clear();
+        }
+
+        synchronized boolean isEmpty() {
+            return queue.isEmpty();
+        }
+
+        synchronized int size() {
+            return queue.size();
+        }
     }
 }
@@ -36,6 +36,8 @@ public class StockFinancialDataService {
     private final KoreaInvestmentService koreaInvestmentService;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final FinancialColumnStore financialColumnStore;
+    private final ClusterLeader clusterLeader;
 
     @Value("${kis.api.base-url:https://openapi.koreainvestment.com:9443}")
     private String baseUrl;
@@ -53,6 +55,10 @@ public class StockFinancialDataService {
      */
     @Scheduled(cron = "0 0 23 * * MON-FRI", zone = "Asia/Seoul")
     public void collectDailyFinancialData() {
+        if (!clusterLeader.isLeader()) {
+            log.debug("리더 노드가 아님 - 재무 데이터 일일 수집 생략");
+            return;
+        }
         log.info("=== 재무 데이터 일일 수집 시작 (23:00) ===");
         collectFinancialDataFromTopStocks();
         log.info("=== 재무 데이터 일일 수집 완료 ===");
@@ -117,6 +123,8 @@ public class StockFinancialDataService {
         result.put("fail", failCount);
         log.info("재무 데이터 수집 완료 - 성공: {}, 실패: {}", successCount, failCount);
 
+        // 커밋 직후 스크리너 스냅샷 재생성
+        financialColumnStore.refreshAfterCommit();
         return result;
     }
 
@@ -437,6 +445,7 @@ public class StockFinancialDataService {
         result.put("elapsedSeconds", elapsedTime / 1000);
         result.put("message", String.format("전 종목 수집 완료 (성공: %d, 실패: %d)", successCount, failCount));
 
+        financialColumnStore.refreshAfterCommit();
         return result;
     }
 
@@ -644,6 +653,7 @@ public class StockFinancialDataService {
         result.put("failCount", failCount);
         result.put("elapsedSeconds", elapsedTime / 1000);
 
+        financialColumnStore.refreshAfterCommit();
         return result;
     }
 }
@@ -11,6 +11,7 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
@@ -18,7 +19,10 @@ import org.springframework.web.client.RestTemplate;
 import java.math.BigDecimal;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -45,18 +49,28 @@ public class StockPriceService {
     private final StockPriceRepository stockPriceRepository;
     private final ObjectMapper objectMapper;
     private final KoreaInvestmentService kisService;
+    private final RealTimeDataCache realTimeDataCache;
+
+    // 장중 시간 (이 시간에 새로 조회한 시세만 실시간 틱으로 반영)
+    private static final LocalTime MARKET_OPEN = LocalTime.of(9, 0);
+    private static final LocalTime MARKET_CLOSE = LocalTime.of(15, 30);
 
     // 캐시 (종목코드 -> 시세)
     private final ConcurrentHashMap<String, StockPriceDto> priceCache = new ConcurrentHashMap<>();
 
+    // 종목별 직전 조회 누적 거래량 (틱 거래량 = 누적 거래량 증가분)
+    private final ConcurrentHashMap<String, Long> lastCumulativeVolume = new ConcurrentHashMap<>();
+
     public StockPriceService(RestTemplate restTemplate,
                              StockPriceRepository stockPriceRepository,
                              ObjectMapper objectMapper,
-                             KoreaInvestmentService kisService) {
+                             KoreaInvestmentService kisService,
+                             RealTimeDataCache realTimeDataCache) {
         this.restTemplate = restTemplate;
         this.stockPriceRepository = stockPriceRepository;
         this.objectMapper = objectMapper;
         this.kisService = kisService;
+        this.realTimeDataCache = realTimeDataCache;
     }
 
     /**
@@ -121,8 +135,9 @@ public class StockPriceService {
             return cached;
         }
 
-        // DB에서 최근 데이터 조회
-        Optional<StockPrice> dbPrice = stockPriceRepository.findTopByStockCodeOrderByFetchedAtDesc(stockCode);
+        // DB에서 최근 데이터 조회 (캐시 유효 시간 내 데이터만 의미가 있으므로 기간 한정)
+        Optional<StockPrice> dbPrice = stockPriceRepository.findTopByStockCodeAndFetchedAtAfterOrderByFetchedAtDesc(
+                stockCode, LocalDateTime.now().minusMinutes(cacheMinutes));
         if (dbPrice.isPresent()) {
             StockPriceDto dto = entityToDto(dbPrice.get());
             if (isValidCache(dto, cacheMinutes)) {
@@ -146,17 +161,68 @@ public class StockPriceService {
      * API에서 주식 시세 조회 (한투 우선, 네이버 폴백)
      */
     private StockPriceDto fetchStockPrice(String stockCode) {
+        StockPriceDto fetched = null;
+
         // 한국투자증권 API 우선 사용
         if (kisService.isConfigured()) {
-            StockPriceDto kisPrice = fetchFromKoreaInvestment(stockCode);
-            if (kisPrice != null) {
-                return kisPrice;
+            fetched = fetchFromKoreaInvestment(stockCode);
+            if (fetched == null) {
+                log.warn("한국투자증권 API 조회 실패, 네이버로 폴백: {}", stockCode);
             }
-            log.warn("한국투자증권 API 조회 실패, 네이버로 폴백: {}", stockCode);
         }
 
         // 네이버 증권 API 폴백
-        return fetchFromNaver(stockCode);
+        if (fetched == null) {
+            fetched = fetchFromNaver(stockCode);
+        }
+
+        if (fetched != null) {
+            publishTick(fetched);
+        }
+        return fetched;
+    }
+
+    /**
+     * 장중에 새로 조회한 시세를 실시간 캐시에 틱으로 반영 (손절/익절 트리거, 시세 스트림, 다른 노드 전달)
+     * - 체결 스트림이 없으므로 API 조회 시세가 틱 공급원
+     * - 거래량은 직전 조회 대비 누적 거래량 증가분 (첫 조회이거나 누적값이 줄었으면 0)
+     */
+    private void publishTick(StockPriceDto dto) {
+        BigDecimal price = dto.getCurrentPrice();
+        if (price == null || price.signum() <= 0 || !isMarketHours()) {
+            return;
+        }
+        long volume = 0;
+        if (dto.getVolume() != null) {
+            long cumulative = dto.getVolume().longValue();
+            Long previous = lastCumulativeVolume.put(dto.getStockCode(), cumulative);
+            if (previous != null && cumulative > previous) {
+                volume = cumulative - previous;
+            }
+        }
+        try {
+            realTimeDataCache.addTick(dto.getStockCode(), price, volume);
+        } catch (Exception e) {
+            log.warn("실시간 틱 반영 실패 [{}]: {}", dto.getStockCode(), e.getMessage());
+        }
+    }
+
+    /**
+     * 장 시작 전 직전 누적 거래량 초기화 (평일 08:50, 당일 첫 조회를 전날 누적값과 비교하지 않도록)
+     * - RealTimeDataCache.resetSession과 같은 시각
+     */
+    @Scheduled(cron = "0 50 8 * * MON-FRI", zone = "Asia/Seoul")
+    public void resetSessionVolume() {
+        lastCumulativeVolume.clear();
+    }
+
+    private boolean isMarketHours() {
+        DayOfWeek day = LocalDate.now().getDayOfWeek();
+        if (day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY) {
+            return false;
+        }
+        LocalTime now = LocalTime.now();
+        return !now.isBefore(MARKET_OPEN) && now.isBefore(MARKET_CLOSE);
     }
 
     /**
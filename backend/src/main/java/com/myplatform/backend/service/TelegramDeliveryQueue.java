@@ -0,0 +1,428 @@
+package com.myplatform.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myplatform.backend.entity.TelegramOutbox;
+import com.myplatform.backend.repository.TelegramOutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.*;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 텔레그램 발송 대기열
+ * - enqueue는 telegram_outbox에 저장만 하고 반환 (재기동/일시 장애에도 유실 없음)
+ * - 전용 발송 스레드가 채팅방별 최소 간격(telegram.rate.interval-ms)에 맞춰 전송
+ *   (간격 선점은 ClusterEventBus로 하므로 여러 노드가 있어도 채팅방당 간격 유지)
+ * - 한 번에 밀린 메시지가 DIGEST_MIN_MESSAGES건 이상이면 4096자 이내로 묶어서 한 메시지로 발송
+ *   (묶음이 4xx로 거부되면 한 건씩 다시 보내 문제 메시지만 실패 처리)
+ * - 실패 시 지수 백오프로 재시도, 429 응답은 retry_after만큼 해당 채팅방 발송 중단
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TelegramDeliveryQueue {
+
+    private static final String TELEGRAM_API_URL = "https://api.telegram.org/bot{token}/sendMessage";
+
+    private static final int MAX_MESSAGE_LENGTH = 4096;          // 텔레그램 메시지 최대 길이
+    private static final int DIGEST_MIN_MESSAGES = 3;            // 이 건수 이상 밀리면 묶어서 발송
+    private static final int DIGEST_HEADER_LENGTH = 40;          // 묶음 머리말 여유
+    private static final int CLAIM_BATCH = 50;                   // 한 주기에 선점하는 최대 건수
+    private static final Duration CLAIM_LEASE = Duration.ofMinutes(5);
+    private static final int MAX_ATTEMPTS = 8;
+    private static final long BASE_BACKOFF_SECONDS = 5;
+    private static final long MAX_BACKOFF_SECONDS = 600;
+    private static final long DISPATCH_INTERVAL_MILLIS = 500;
+    private static final long IDLE_POLL_MILLIS = 5_000;          // 새 메시지 신호가 없을 때 DB 확인 주기 (재시도/다른 노드분)
+    private static final long MAX_PERMIT_WAIT_MILLIS = 30_000;
+    private static final int RETENTION_DAYS = 7;
+
+    private final TelegramOutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ClusterEventBus clusterEventBus;
+    private final ObjectMapper objectMapper;
+
+    @Value("${telegram.bot.token:}")
+    private String botToken;
+
+    @Value("${telegram.rate.interval-ms:3000}")
+    private long sendIntervalMillis;
+
+    private final RestTemplate restTemplate = newRestTemplate();
+
+    // 채팅방별 429 발송 중단 해제 시각(ms)
+    private final Map<String, Long> blockedUntil = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean wakeUp = new AtomicBoolean(true);
+    private long nextPollAt;  // 발송 스레드에서만 접근
+
+    private final AtomicLong sentMessages = new AtomicLong();
+    private final AtomicLong sentDigests = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+
+    private ScheduledExecutorService dispatcher;
+
+    private static RestTemplate newRestTemplate() {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(5_000);
+        requestFactory.setReadTimeout(10_000);
+        return new RestTemplate(requestFactory);
+    }
+
+    @PostConstruct
+    void start() {
+        if (botToken.isEmpty()) {
+            return;
+        }
+        dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Telegram-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatcher.scheduleWithFixedDelay(this::dispatch, DISPATCH_INTERVAL_MILLIS, DISPATCH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // 발송 중이던 메시지는 선점 만료 후 다시 대기 상태가 됨
+        if (dispatcher != null) {
+            dispatcher.shutdownNow();
+        }
+    }
+
+    /**
+     * 발송 대기열에 추가 (DB 저장만 하고 반환)
+     * - 호출 쪽 트랜잭션(읽기 전용 포함)과 분리해 별도 트랜잭션으로 저장 (호출 쪽이 롤백돼도 알림은 발송)
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void enqueue(String chatId, String text, String parseMode) {
+        LocalDateTime now = LocalDateTime.now();
+        outboxRepository.save(TelegramOutbox.builder()
+                .chatId(chatId)
+                .text(text)
+                .parseMode(parseMode)
+                .status(TelegramOutbox.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+        wakeUp.set(true);
+    }
+
+    /**
+     * 대기열을 거치지 않고 바로 발송 (테스트 메시지 등 결과를 바로 알아야 할 때)
+     */
+    public void sendNow(String chatId, String text, String parseMode) {
+        post(chatId, text, parseMode);
+    }
+
+    /**
+     * 대기열 상태
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", outboxRepository.countByStatus(TelegramOutbox.PENDING));
+        stats.put("sending", outboxRepository.countByStatus(TelegramOutbox.SENDING));
+        stats.put("failed", outboxRepository.countByStatus(TelegramOutbox.FAILED));
+        stats.put("sentMessages", sentMessages.get());
+        stats.put("sentDigests", sentDigests.get());
+        stats.put("retried", retried.get());
+        stats.put("intervalMs", sendIntervalMillis);
+        return stats;
+    }
+
+    /**
+     * 처리 끝난 메시지 정리 (매일 04:40)
+     */
+    @Scheduled(cron = "0 40 4 * * *")
+    public void cleanupFinished() {
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxRepository.deleteFinishedBefore(LocalDateTime.now().minusDays(RETENTION_DAYS)));
+        if (deleted != null && deleted > 0) {
+            log.info("텔레그램 발송 기록 정리: {}건", deleted);
+        }
+    }
+
+    // ========== 발송 스레드 ==========
+
+    private void dispatch() {
+        long nowMillis = System.currentTimeMillis();
+        if (!wakeUp.getAndSet(false) && nowMillis < nextPollAt) {
+            return;
+        }
+        nextPollAt = nowMillis + IDLE_POLL_MILLIS;
+
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.releaseExpiredClaims(now));
+
+            List<Long> dueIds = outboxRepository.findDueIds(now, PageRequest.of(0, CLAIM_BATCH));
+            if (dueIds.isEmpty()) {
+                return;
+            }
+            String token = UUID.randomUUID().toString();
+            transactionTemplate.executeWithoutResult(status ->
+                    outboxRepository.claim(dueIds, token, now.plus(CLAIM_LEASE)));
+            List<TelegramOutbox> claimed = outboxRepository.findByClaimTokenOrderByIdAsc(token);
+
+            Map<String, List<TelegramOutbox>> byChat = new LinkedHashMap<>();
+            for (TelegramOutbox message : claimed) {
+                byChat.computeIfAbsent(message.getChatId(), k -> new ArrayList<>()).add(message);
+            }
+            for (Map.Entry<String, List<TelegramOutbox>> entry : byChat.entrySet()) {
+                deliverChat(entry.getKey(), entry.getValue());
+            }
+
+            // 한 번에 다 못 가져왔을 수 있으니 다음 주기에 바로 다시 확인
+            if (dueIds.size() == CLAIM_BATCH) {
+                wakeUp.set(true);
+            }
+        } catch (Exception e) {
+            log.error("텔레그램 발송 처리 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 채팅방 하나의 선점 메시지 발송 (밀렸으면 묶어서)
+     */
+    private void deliverChat(String chatId, List<TelegramOutbox> messages) {
+        Deque<List<TelegramOutbox>> groups = new ArrayDeque<>(messages.size() >= DIGEST_MIN_MESSAGES
+                ? packDigests(messages)
+                : messages.stream().map(List::of).toList());
+
+        while (!groups.isEmpty()) {
+            List<TelegramOutbox> group = groups.pollFirst();
+            if (!awaitPermit(chatId)) {
+                // 429로 막혔거나 간격 선점을 못 받음 → 남은 메시지는 다시 대기
+                long resumeAt = Math.max(blockedUntil.getOrDefault(chatId, 0L), System.currentTimeMillis());
+                reschedule(group, resumeAt, null, false);
+                for (List<TelegramOutbox> rest : groups) {
+                    reschedule(rest, resumeAt, null, false);
+                }
+                return;
+            }
+            if (!send(chatId, group)) {
+                // 묶음이 요청 오류로 거부됨 → 순서대로 한 건씩 다시 발송
+                for (int i = group.size() - 1; i >= 0; i--) {
+                    groups.addFirst(List.of(group.get(i)));
+                }
+            }
+        }
+    }
+
+    /**
+     * 순서를 유지하면서 4096자 이내로 묶음 (한 건이 이미 길면 단독 발송)
+     */
+    private List<List<TelegramOutbox>> packDigests(List<TelegramOutbox> messages) {
+        List<List<TelegramOutbox>> groups = new ArrayList<>();
+        List<TelegramOutbox> current = new ArrayList<>();
+        int length = 0;
+        for (TelegramOutbox message : messages) {
+            int added = message.getText().length() + 2;
+            boolean sameMode = current.isEmpty()
+                    || Objects.equals(current.get(0).getParseMode(), message.getParseMode());
+            if (!current.isEmpty() && (!sameMode || length + added + DIGEST_HEADER_LENGTH > MAX_MESSAGE_LENGTH)) {
+                groups.add(current);
+                current = new ArrayList<>();
+                length = 0;
+            }
+            current.add(message);
+            length += added;
+        }
+        if (!current.isEmpty()) {
+            groups.add(current);
+        }
+        return groups;
+    }
+
+    /**
+     * 메시지(또는 묶음) 발송
+     * @return 묶음이 4xx(429 제외)로 거부되어 한 건씩 다시 보내야 하면 false
+     */
+    private boolean send(String chatId, List<TelegramOutbox> group) {
+        String parseMode = group.get(0).getParseMode();
+        String text = group.size() == 1 ? group.get(0).getText() : digestText(group, parseMode);
+
+        try {
+            post(chatId, text, parseMode);
+            LocalDateTime sentAt = LocalDateTime.now();
+            for (TelegramOutbox message : group) {
+                message.setStatus(TelegramOutbox.SENT);
+                message.setSentAt(sentAt);
+                message.setClaimToken(null);
+                message.setAttempts(message.getAttempts() + 1);
+            }
+            outboxRepository.saveAll(group);
+            sentMessages.addAndGet(group.size());
+            if (group.size() > 1) {
+                sentDigests.incrementAndGet();
+                log.info("텔레그램 알림 {}건 묶음 발송 완료", group.size());
+            }
+        } catch (HttpClientErrorException.TooManyRequests e) {
+            long retryAfterMillis = retryAfterSeconds(e) * 1000;
+            long resumeAt = System.currentTimeMillis() + retryAfterMillis;
+            blockedUntil.put(chatId, resumeAt);
+            log.warn("텔레그램 발송 한도 초과 - {}초 후 재시도 ({}건)", retryAfterMillis / 1000, group.size());
+            reschedule(group, resumeAt, "429 Too Many Requests", false);
+        } catch (HttpClientErrorException e) {
+            if (group.size() > 1) {
+                // 묶음 안의 한 건 때문일 수 있으므로 실패 처리하지 않고 한 건씩 다시 발송
+                log.warn("텔레그램 묶음 발송 거부 ({}) - {}건을 한 건씩 다시 발송", e.getStatusCode(), group.size());
+                return false;
+            }
+            // 잘못된 요청/권한 없음 등은 재시도해도 같은 결과
+            TelegramOutbox message = group.get(0);
+            log.error("텔레그램 발송 실패 (재시도 안 함, id: {}): {}", message.getId(), e.getStatusCode());
+            message.setStatus(TelegramOutbox.FAILED);
+            message.setClaimToken(null);
+            message.setAttempts(message.getAttempts() + 1);
+            message.setLastError(truncate(e.getStatusCode() + " " + e.getResponseBodyAsString()));
+            outboxRepository.save(message);
+        } catch (Exception e) {
+            log.warn("텔레그램 발송 실패, 재시도 예정 ({}건): {}", group.size(), e.getMessage());
+            reschedule(group, 0, truncate(e.getMessage()), true);
+        }
+        return true;
+    }
+
+    /**
+     * 다시 대기 상태로
+     * @param resumeAtMillis 다음 시도 시각 (countAttempt면 무시하고 백오프로 계산)
+     * @param countAttempt 실패 횟수에 포함할지 (429/간격 대기는 메시지 문제가 아니므로 미포함)
+     */
+    private void reschedule(List<TelegramOutbox> group, long resumeAtMillis, String error, boolean countAttempt) {
+        for (TelegramOutbox message : group) {
+            message.setClaimToken(null);
+            if (error != null) {
+                message.setLastError(error);
+            }
+            if (!countAttempt) {
+                message.setStatus(TelegramOutbox.PENDING);
+                message.setNextAttemptAt(toLocalDateTime(resumeAtMillis));
+                continue;
+            }
+            int attempts = message.getAttempts() + 1;
+            message.setAttempts(attempts);
+            if (attempts >= MAX_ATTEMPTS) {
+                message.setStatus(TelegramOutbox.FAILED);
+                log.error("텔레그램 메시지 {}회 실패로 발송 포기 (id: {})", attempts, message.getId());
+            } else {
+                long backoff = Math.min(MAX_BACKOFF_SECONDS, BASE_BACKOFF_SECONDS << (attempts - 1));
+                message.setStatus(TelegramOutbox.PENDING);
+                message.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoff));
+                retried.incrementAndGet();
+            }
+        }
+        outboxRepository.saveAll(group);
+    }
+
+    /**
+     * 채팅방 발송 간격 선점 (클러스터 전체에서 interval마다 한 건)
+     * - 429로 막혀 있거나 MAX_PERMIT_WAIT_MILLIS 안에 못 받으면 false
+     */
+    private boolean awaitPermit(String chatId) {
+        long deadline = System.currentTimeMillis() + MAX_PERMIT_WAIT_MILLIS;
+        while (true) {
+            long now = System.currentTimeMillis();
+            if (blockedUntil.getOrDefault(chatId, 0L) > now) {
+                return false;
+            }
+            if (clusterEventBus.tryAcquire("telegram-send:" + chatId, Duration.ofMillis(sendIntervalMillis))) {
+                return true;
+            }
+            if (now >= deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(Math.min(200, sendIntervalMillis));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    private String digestText(List<TelegramOutbox> group, String parseMode) {
+        String header = "HTML".equals(parseMode)
+                ? "<b>📦 알림 " + group.size() + "건 묶음</b>"
+                : "📦 알림 " + group.size() + "건 묶음";
+        StringBuilder text = new StringBuilder(header);
+        for (TelegramOutbox message : group) {
+            text.append("\n\n").append(message.getText().strip());
+        }
+        return text.toString();
+    }
+
+    private long retryAfterSeconds(HttpClientErrorException e) {
+        try {
+            JsonNode retryAfter = objectMapper.readTree(e.getResponseBodyAsString()).path("parameters").path("retry_after");
+            if (retryAfter.canConvertToLong()) {
+                return Math.max(1, retryAfter.asLong());
+            }
+        } catch (Exception ignored) {
+            // 본문 형식이 다르면 기본값
+        }
+        return 30;
+    }
+
+    /**
+     * 실제 메시지 발송 (HTTP API 호출)
+     */
+    private void post(String chatId, String text, String parseMode) {
+        String url = TELEGRAM_API_URL.replace("{token}", botToken);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("chat_id", chatId);
+        body.put("text", text);
+        if (parseMode != null) {
+            body.put("parse_mode", parseMode);
+        }
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                url, HttpMethod.POST, new HttpEntity<>(body, headers), String.class);
+
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new RuntimeException("텔레그램 API 응답 오류: " + response.getStatusCode());
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return epochMillis <= 0
+                ? LocalDateTime.now()
+                : LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static String truncate(String value) {
+        if (value == null) {
+            return null;
+        }
+        return value.length() > 500 ? value.substring(0, 500) : value;
+    }
+}
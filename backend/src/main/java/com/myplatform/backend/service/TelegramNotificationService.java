@@ -1,29 +1,26 @@
 package com.myplatform.backend.service;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import jakarta.annotation.PostConstruct;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
  * 텔레그램 알림 서비스
  * - 주식 매수 신호, 시장 상태 등 중요 알림을 텔레그램으로 발송
- * - 비동기 처리로 메인 로직에 영향 없음
+ * - 발송 대기열(TelegramDeliveryQueue)에 넣고 바로 반환, 실제 발송은 대기열 스레드가 속도 제한/재시도/묶음 처리
  */
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class TelegramNotificationService {
 
-    private static final String TELEGRAM_API_URL = "https://api.telegram.org/bot{token}/sendMessage";
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
 
     @Value("${telegram.bot.token:}")
@@ -35,11 +32,7 @@ public class TelegramNotificationService {
     @Value("${telegram.bot.enabled:false}")
     private boolean enabled;
 
-    private final RestTemplate restTemplate;
-
-    public TelegramNotificationService() {
-        this.restTemplate = new RestTemplate();
-    }
+    private final TelegramDeliveryQueue deliveryQueue;
 
     @PostConstruct
     public void init() {
@@ -59,28 +52,23 @@ public class TelegramNotificationService {
     }
 
     /**
-     * 일반 텍스트 메시지 발송 (비동기)
+     * 일반 텍스트 메시지 발송 (대기열)
+     *
+     * @return 대기열에 저장했으면 true
      */
-    @Async("notificationExecutor")
-    public void sendMessage(String message) {
+    public boolean sendMessage(String message) {
         if (!isEnabled()) {
             log.debug("텔레그램 비활성화 상태 - 메시지 발송 생략");
-            return;
+            return false;
         }
 
-        try {
-            doSendMessage(message, "HTML");
-            log.info("텔레그램 메시지 발송 완료");
-        } catch (Exception e) {
-            log.error("텔레그램 메시지 발송 실패: {}", e.getMessage());
-        }
+        return enqueue(message);
     }
 
     /**
-     * 주식 매수 알림 발송 (비동기)
+     * 주식 매수 알림 발송 (대기열)
      * - 예쁜 포맷 + 이모지
      */
-    @Async("notificationExecutor")
     public void sendStockAlert(String stockName, String stockCode, String reason, BigDecimal price) {
         if (!isEnabled()) {
             log.debug("텔레그램 비활성화 상태 - 주식 알림 발송 생략");
@@ -107,18 +95,13 @@ public class TelegramNotificationService {
             stockName, stockCode, formattedPrice, reason, currentTime
         );
 
-        try {
-            doSendMessage(message, "HTML");
-            log.info("주식 알림 발송 완료 - {} ({})", stockName, stockCode);
-        } catch (Exception e) {
-            log.error("주식 알림 발송 실패 - {} ({}): {}", stockName, stockCode, e.getMessage());
-        }
+        enqueue(message);
+        log.info("주식 알림 발송 대기 - {} ({})", stockName, stockCode);
     }
 
     /**
      * 숏스퀴즈 후보 알림
      */
-    @Async("notificationExecutor")
     public void sendShortSqueezeAlert(String stockName, String stockCode,
                                        BigDecimal price, int squeezeScore,
                                        BigDecimal loanBalanceChange, boolean isForeignBuying) {
@@ -150,18 +133,13 @@ public class TelegramNotificationService {
             LocalDateTime.now().format(TIME_FORMATTER)
         );
 
-        try {
-            doSendMessage(message, "HTML");
-            log.info("숏스퀴즈 알림 발송 완료 - {} ({}), 점수: {}", stockName, stockCode, squeezeScore);
-        } catch (Exception e) {
-            log.error("숏스퀴즈 알림 발송 실패: {}", e.getMessage());
-        }
+        enqueue(message);
+        log.info("숏스퀴즈 알림 발송 대기 - {} ({}), 점수: {}", stockName, stockCode, squeezeScore);
     }
 
     /**
      * 마법의 공식 상위 종목 알림
      */
-    @Async("notificationExecutor")
     public void sendMagicFormulaAlert(String stockName, String stockCode,
                                        int rank, BigDecimal per, BigDecimal roe,
                                        BigDecimal operatingMargin, BigDecimal price) {
@@ -189,18 +167,13 @@ public class TelegramNotificationService {
             LocalDateTime.now().format(TIME_FORMATTER)
         );
 
-        try {
-            doSendMessage(message, "HTML");
-            log.info("마법의 공식 알림 발송 완료 - {} ({}), 순위: #{}", stockName, stockCode, rank);
-        } catch (Exception e) {
-            log.error("마법의 공식 알림 발송 실패: {}", e.getMessage());
-        }
+        enqueue(message);
+        log.info("마법의 공식 알림 발송 대기 - {} ({}), 순위: #{}", stockName, stockCode, rank);
     }
 
     /**
      * 턴어라운드 종목 알림
      */
-    @Async("notificationExecutor")
     public void sendTurnaroundAlert(String stockName, String stockCode,
                                      String turnaroundType, BigDecimal changeRate,
                                      BigDecimal price) {
@@ -230,18 +203,13 @@ public class TelegramNotificationService {
             LocalDateTime.now().format(TIME_FORMATTER)
         );
 
-        try {
-            doSendMessage(message, "HTML");
-            log.info("턴어라운드 알림 발송 완료 - {} ({})", stockName, stockCode);
-        } catch (Exception e) {
-            log.error("턴어라운드 알림 발송 실패: {}", e.getMessage());
-        }
+        enqueue(message);
+        log.info("턴어라운드 알림 발송 대기 - {} ({})", stockName, stockCode);
     }
 
     /**
      * 시장 상태 알림
      */
-    @Async("notificationExecutor")
     public void sendMarketStatusAlert(String condition, BigDecimal adr, String diagnosis) {
         if (!isEnabled()) return;
 
@@ -271,12 +239,8 @@ public class TelegramNotificationService {
             LocalDateTime.now().format(TIME_FORMATTER)
         );
 
-        try {
-            doSendMessage(message, "HTML");
-            log.info("시장 상태 알림 발송 완료 - {}, ADR: {}", condition, adr);
-        } catch (Exception e) {
-            log.error("시장 상태 알림 발송 실패: {}", e.getMessage());
-        }
+        enqueue(message);
+        log.info("시장 상태 알림 발송 대기 - {}, ADR: {}", condition, adr);
     }
 
     /**
@@ -304,7 +268,7 @@ public class TelegramNotificationService {
         );
 
         try {
-            doSendMessage(message, "HTML");
+            deliveryQueue.sendNow(chatId, message, "HTML");
             log.info("텔레그램 테스트 메시지 발송 성공");
             return true;
         } catch (Exception e) {
@@ -314,29 +278,25 @@ public class TelegramNotificationService {
     }
 
     /**
-     * 실제 메시지 발송 (HTTP API 호출)
+     * 발송 대기열에 추가 (DB 저장 실패만 여기서 로그)
      */
-    private void doSendMessage(String text, String parseMode) {
-        String url = TELEGRAM_API_URL.replace("{token}", botToken);
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-
-        Map<String, Object> body = new HashMap<>();
-        body.put("chat_id", chatId);
-        body.put("text", text);
-        body.put("parse_mode", parseMode);
-
-        HttpEntity<Map<String, Object>> request = new HttpEntity<>(body, headers);
-
-        ResponseEntity<String> response = restTemplate.exchange(
-                url, HttpMethod.POST, request, String.class);
-
-        if (!response.getStatusCode().is2xxSuccessful()) {
-            throw new RuntimeException("텔레그램 API 응답 오류: " + response.getStatusCode());
+    private boolean enqueue(String message) {
+        try {
+            deliveryQueue.enqueue(chatId, message, "HTML");
+            return true;
+        } catch (Exception e) {
+            log.error("텔레그램 발송 대기열 저장 실패: {}", e.getMessage());
+            return false;
         }
     }
 
+    /**
+     * 발송 대기열 상태
+     */
+    public Map<String, Object> getQueueStats() {
+        return deliveryQueue.getStats();
+    }
+
     /**
      * 가격 포맷팅 (천 단위 콤마)
      */
@@ -0,0 +1,105 @@
+package com.myplatform.backend.service;
+
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * 상위 K개 선택 (크기 K의 최대 힙)
+ * - 전체 정렬 O(n log n) 대신 O(n log k), 결과 K개만 정렬된 상태로 반환
+ * - 원시 int 배열 힙을 사용해 후보마다 객체를 만들지 않음
+ */
+final class TopK {
+
+    private TopK() {
+    }
+
+    /**
+     * key 오름차순 상위 k개
+     *
+     * @param candidates 후보 인덱스 (동률이면 배열 앞쪽 후보가 우선)
+     * @param key 인덱스 → 정렬 키 (작을수록 우선)
+     * @param k 선택 개수 (0 이하이면 전체)
+     * @return 선택된 인덱스 (key 오름차순)
+     */
+    static int[] smallest(int[] candidates, IntToDoubleFunction key, int k) {
+        int n = candidates.length;
+        int size = k > 0 ? Math.min(k, n) : n;
+        if (size == 0) {
+            return new int[0];
+        }
+
+        // 힙에는 candidates 내 위치를 저장 (루트 = 현재 선택된 것 중 가장 나쁜 후보)
+        int[] heap = new int[size];
+        double[] heapKey = new double[size];
+        int count = 0;
+
+        for (int pos = 0; pos < n; pos++) {
+            double value = key.applyAsDouble(candidates[pos]);
+            if (count < size) {
+                heap[count] = pos;
+                heapKey[count] = value;
+                siftUp(heap, heapKey, count++);
+            } else if (worse(heapKey[0], heap[0], value, pos)) {
+                heap[0] = pos;
+                heapKey[0] = value;
+                siftDown(heap, heapKey, 0, count);
+            }
+        }
+
+        // 루트(가장 나쁜 후보)부터 꺼내 뒤에서부터 채우면 오름차순
+        int[] result = new int[count];
+        for (int last = count - 1; last >= 0; last--) {
+            result[last] = candidates[heap[0]];
+            heap[0] = heap[last];
+            heapKey[0] = heapKey[last];
+            siftDown(heap, heapKey, 0, last);
+        }
+        return result;
+    }
+
+    /**
+     * (keyA, posA)가 (keyB, posB)보다 뒤에 와야 하는지
+     */
+    private static boolean worse(double keyA, int posA, double keyB, int posB) {
+        int compare = Double.compare(keyA, keyB);
+        return compare > 0 || (compare == 0 && posA > posB);
+    }
+
+    private static void siftUp(int[] heap, double[] heapKey, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!worse(heapKey[index], heap[index], heapKey[parent], heap[parent])) {
+                return;
+            }
+            swap(heap, heapKey, index, parent);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, double[] heapKey, int index, int size) {
+        while (true) {
+            int left = index * 2 + 1;
+            if (left >= size) {
+                return;
+            }
+            int worst = left;
+            int right = left + 1;
+            if (right < size && worse(heapKey[right], heap[right], heapKey[left], heap[left])) {
+                worst = right;
+            }
+            if (!worse(heapKey[worst], heap[worst], heapKey[index], heap[index])) {
+                return;
+            }
+            swap(heap, heapKey, index, worst);
+            index = worst;
+        }
+    }
+
+    private static void swap(int[] heap, double[] heapKey, int a, int b) {
+        int pos = heap[a];
+        heap[a] = heap[b];
+        heap[b] = pos;
+        double value = heapKey[a];
+        heapKey[a] = heapKey[b];
+        heapKey[b] = value;
+    }
+}
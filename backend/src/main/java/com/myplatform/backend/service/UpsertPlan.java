@@ -0,0 +1,120 @@
+package com.myplatform.backend.service;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * 자연키(natural key) 기반 diff 업서트 계획
+ * - 기존 행(existing)과 새로 수집한 행(incoming)을 자연키로 매칭
+ * - 값이 바뀐 행만 기존 엔티티에 덮어쓰기 (JPA dirty checking으로 UPDATE)
+ * - 새 키는 INSERT 대상, 사라진 키는 DELETE 대상으로 분리
+ *
+ * 삭제 후 재삽입(delete-and-reinsert) 대신 사용하여
+ * 재수집 시 변경되지 않은 행은 DB에 쓰지 않고 인덱스 churn을 방지한다.
+ *
+ * @param <T> 엔티티 타입
+ */
+final class UpsertPlan<T> {
+
+    private final List<T> inserts;
+    private final List<T> deletes;
+    private final int updated;
+    private final int unchanged;
+
+    private UpsertPlan(List<T> inserts, List<T> deletes, int updated, int unchanged) {
+        this.inserts = inserts;
+        this.deletes = deletes;
+        this.updated = updated;
+        this.unchanged = unchanged;
+    }
+
+    /**
+     * 업서트 계획 생성
+     *
+     * @param existing 동일 범위(scope)의 기존 영속 엔티티
+     * @param incoming 새로 수집한 엔티티 (동일 키 중복 시 첫 번째만 사용)
+     * @param keyFn 자연키 추출 함수
+     * @param merger (target, source) → source 값을 target에 복사하고 변경 여부 반환
+     * @param removeStale true면 incoming에 없는 기존 행을 삭제 대상으로 포함
+     */
+    static <T, K> UpsertPlan<T> of(Collection<T> existing, Collection<T> incoming,
+                                   Function<T, K> keyFn, BiPredicate<T, T> merger,
+                                   boolean removeStale) {
+        Map<K, T> existingByKey = new HashMap<>();
+        for (T row : existing) {
+            existingByKey.putIfAbsent(keyFn.apply(row), row);
+        }
+
+        List<T> inserts = new ArrayList<>();
+        Set<K> seen = new HashSet<>();
+        int updated = 0;
+        int unchanged = 0;
+
+        for (T row : incoming) {
+            K key = keyFn.apply(row);
+            if (!seen.add(key)) {
+                continue;
+            }
+            T current = existingByKey.get(key);
+            if (current == null) {
+                inserts.add(row);
+            } else if (merger.test(current, row)) {
+                updated++;
+            } else {
+                unchanged++;
+            }
+        }
+
+        List<T> deletes = new ArrayList<>();
+        if (removeStale) {
+            for (Map.Entry<K, T> entry : existingByKey.entrySet()) {
+                if (!seen.contains(entry.getKey())) {
+                    deletes.add(entry.getValue());
+                }
+            }
+        }
+
+        return new UpsertPlan<>(inserts, deletes, updated, unchanged);
+    }
+
+    List<T> getInserts() {
+        return inserts;
+    }
+
+    List<T> getDeletes() {
+        return deletes;
+    }
+
+    int getUpdated() {
+        return updated;
+    }
+
+    int getUnchanged() {
+        return unchanged;
+    }
+
+    /**
+     * 실제로 DB에 기록되는 행 수 (INSERT + UPDATE + DELETE)
+     */
+    int getWritten() {
+        return inserts.size() + updated + deletes.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("inserted=%d, updated=%d, deleted=%d, unchanged=%d",
+                inserts.size(), updated, deletes.size(), unchanged);
+    }
+
+    /**
+     * 값 비교 (BigDecimal은 scale 무시하고 compareTo로 비교)
+     */
+    static boolean same(Object a, Object b) {
+        if (a instanceof BigDecimal && b instanceof BigDecimal) {
+            return ((BigDecimal) a).compareTo((BigDecimal) b) == 0;
+        }
+        return Objects.equals(a, b);
+    }
+}
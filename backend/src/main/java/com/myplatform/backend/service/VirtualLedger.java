@@ -0,0 +1,1176 @@
+package com.myplatform.backend.service;
+
+import com.myplatform.backend.entity.VirtualAccount;
+import com.myplatform.backend.entity.VirtualPortfolio;
+import com.myplatform.backend.entity.VirtualTradeHistory;
+import com.myplatform.backend.repository.VirtualAccountRepository;
+import com.myplatform.backend.repository.VirtualPortfolioRepository;
+import com.myplatform.backend.repository.VirtualTradeHistoryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+/**
+ * 모의투자 원장 (메모리)
+ * - 계좌별 현금/보유 종목을 메모리에 두고, 계좌의 주문과 변경은 계좌 ID로 정해지는 writer 스레드에서 순서대로 처리
+ *   (같은 계좌는 항상 같은 스레드라 잔고 갱신 유실이 없고, 다른 계좌는 코어 수만큼 병렬 처리)
+ * - 체결은 거래 내역(virtual_trade_history)에 먼저 INSERT한 뒤 원장에 반영: 거래 내역이 곧 저널
+ * - 계좌/포트폴리오 테이블은 원장의 사본이며 변경분만 주기적으로 JDBC 배치로 반영
+ * - 체결/시세 반영 때마다 계좌 평가 스냅샷(AccountValuation)을 게시해 조회 API가 DB 없이 사용
+ * - 계좌를 처음 사용할 때(활성 계좌는 기동 시) 저널을 재생해 원장을 복원하고, 테이블이 다르면 저널 기준으로 맞춤
+ * - 여러 노드 운영 시 원장은 클러스터 리더(ClusterLeader)만 가짐
+ *   - 다른 노드의 체결/시세 반영/계좌 종료는 이벤트 버스로 리더에 전달하고 응답을 기다림 (리더는 반영 후 바로 테이블에 반영)
+ *   - 전달한 체결은 요청 ID를 저널에 함께 기록해 리더가 한 번만 체결하고, 응답이 없으면 요청 노드가 저널에서 체결 여부를 확인
+ *   - 다른 노드의 조회는 저널을 재생한 조회용 원장을 캐시하고, 리더가 테이블에 반영할 때마다 알림을 받아 버림
+ *   - 리더가 바뀌면 이전 임기의 원장은 버리고 저널로 다시 복원 (그 사이 다른 리더의 체결이 있을 수 있음)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VirtualLedger {
+
+    private static final String UPDATE_ACCOUNT_SQL =
+            "UPDATE virtual_account SET current_balance = ?, total_invested = ?, total_evaluation = ?, updated_at = ? WHERE id = ?";
+    private static final String UPDATE_PORTFOLIO_SQL =
+            "UPDATE virtual_portfolio SET stock_name = ?, quantity = ?, average_price = ?, current_price = ?, " +
+            "profit_loss = ?, profit_rate = ?, updated_at = ? WHERE id = ?";
+    private static final String DELETE_PORTFOLIO_SQL =
+            "DELETE FROM virtual_portfolio WHERE account_id = ? AND stock_code = ?";
+
+    // 리더 원장으로 전달하는 명령/응답 채널
+    private static final String COMMAND_CHANNEL = "ledger-command";
+    private static final String REPLY_CHANNEL = "ledger-reply";
+    private static final String FLUSHED_CHANNEL = "ledger-flushed";  // 리더 테이블 반영 알림 (계좌 ID 목록)
+    private static final long FORWARD_TIMEOUT_SECONDS = 10;
+    private static final long EXECUTE_MARGIN_MILLIS = 2_000;  // 응답 대기 만료 이만큼 전까지 시작하지 못한 명령은 리더가 거절
+    private static final long FOLLOWER_VIEW_TTL_MILLIS = 30_000;  // 반영 알림을 놓쳐도 조회용 원장을 이 시간 뒤 다시 복원
+    private static final byte OP_BUY = 1;
+    private static final byte OP_SELL = 2;
+    private static final byte OP_MARK = 3;
+    private static final byte OP_CLOSE = 4;
+
+    private final VirtualAccountRepository accountRepository;
+    private final VirtualPortfolioRepository portfolioRepository;
+    private final VirtualTradeHistoryRepository tradeHistoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final ClusterLeader clusterLeader;
+    private final ClusterEventBus clusterEventBus;
+
+    private final ExecutorService[] writers = newWriters(Runtime.getRuntime().availableProcessors());
+    private final Map<Long, Book> books = new ConcurrentHashMap<>();  // 각 Book은 담당 writer 스레드에서만 접근
+    private final Map<Long, AccountValuation> valuations = new ConcurrentHashMap<>();  // 계좌별 최신 평가 (아무 스레드나 조회)
+    private final Map<Long, Book> views = new ConcurrentHashMap<>();  // 리더가 아닐 때 조회용 원장 (담당 writer 스레드에서만 접근)
+    private final Map<Long, CompletableFuture<byte[]>> forwarded = new ConcurrentHashMap<>();  // 요청 id -> 리더 응답
+    private final AtomicLong forwardIds = new AtomicLong();
+
+    private static ExecutorService[] newWriters(int count) {
+        ExecutorService[] writers = new ExecutorService[count];
+        for (int i = 0; i < count; i++) {
+            String name = "Ledger-writer-" + i;
+            writers[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return writers;
+    }
+
+    @PostConstruct
+    void subscribeCluster() {
+        if (clusterEventBus.isDistributed()) {
+            clusterEventBus.subscribe(COMMAND_CHANNEL, (sequence, body) -> onCommand(body));
+            clusterEventBus.subscribe(REPLY_CHANNEL, (sequence, body) -> onReply(body));
+            clusterEventBus.subscribe(FLUSHED_CHANNEL, (sequence, body) -> onFlushed(body));
+        }
+        clusterLeader.addListener(this::onLeadershipChange);
+    }
+
+    /**
+     * 기동 시 활성 계좌 원장 복원 (리더만)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildActiveAccounts() {
+        if (!clusterLeader.isLeader()) {
+            log.info("원장 복원 생략: 리더 노드가 아님 (원장 변경은 리더로 전달)");
+            return;
+        }
+        await(loadActiveAccounts());
+        log.info("원장 복원: writer {}개", writers.length);
+    }
+
+    private List<Future<?>> loadActiveAccounts() {
+        List<VirtualAccount> accounts = accountRepository.findByIsActiveTrueOrderByIdAsc();
+        List<Future<?>> futures = new ArrayList<>();
+        for (VirtualAccount account : accounts) {
+            futures.add(writer(account.getId()).submit(() -> {
+                try {
+                    book(account);
+                } catch (Exception e) {
+                    log.error("원장 복원 실패: 계좌 {} (첫 사용 시 재시도)", account.getId(), e);
+                }
+            }));
+        }
+        log.info("원장 복원 시작: 활성 계좌 {}개", accounts.size());
+        return futures;
+    }
+
+    /**
+     * 리더 임기 변경 시 메모리 원장과 조회용 원장을 버림 (반영하지 않음, 체결은 저널에 있으므로 새 리더가 저널로 복원)
+     * - 새 임기를 시작하면 활성 계좌를 다시 복원 (선출 스레드가 기다리지 않도록 비동기)
+     */
+    private void onLeadershipChange(boolean leading) {
+        eachWriter(writer -> {
+            for (Book book : booksOf(writer)) {
+                books.remove(book.account.getId());
+                valuations.remove(book.account.getId());
+            }
+            views.keySet().removeIf(accountId -> Math.floorMod(accountId.hashCode(), writers.length) == writer);
+        });
+        if (leading) {
+            loadActiveAccounts();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        try {
+            await(eachWriter(this::flushAll));
+        } catch (Exception e) {
+            log.error("원장 종료 반영 실패", e);
+        }
+        for (ExecutorService writer : writers) {
+            writer.shutdown();
+        }
+    }
+
+    // ========== 조회 ==========
+
+    /**
+     * 원장 기준 계좌 (현금/총계는 원장 값, 사본)
+     * - 원장에 없는 계좌면 저널로 복원 (새로 만든 계좌는 아직 커밋 전일 수 있어 행을 직접 받음)
+     */
+    public VirtualAccount account(VirtualAccount row) {
+        return submit(row.getId(), () -> {
+            VirtualAccount account = copy(view(row).account);
+            account.setOwnerType(row.getOwnerType());
+            account.setOwnerId(row.getOwnerId());
+            return account;
+        });
+    }
+
+    /**
+     * 원장 기준 보유 종목 (사본)
+     */
+    public List<VirtualPortfolio> holdings(Long accountId) {
+        return submit(accountId, () -> {
+            List<VirtualPortfolio> holdings = new ArrayList<>();
+            for (VirtualPortfolio position : view(accountId).positions.values()) {
+                holdings.add(copy(position));
+            }
+            return holdings;
+        });
+    }
+
+    /**
+     * 계좌 최신 평가 스냅샷 (게시된 값이 있으면 writer를 거치지 않음)
+     */
+    AccountValuation valuation(VirtualAccount row) {
+        if (!clusterLeader.isLeader()) {
+            return submit(row.getId(), () -> valuationOf(view(row)));
+        }
+        AccountValuation valuation = valuations.get(row.getId());
+        if (valuation != null) {
+            return valuation;
+        }
+        return submit(row.getId(), () -> {
+            book(row);
+            return valuations.get(row.getId());
+        });
+    }
+
+    // ========== 변경 ==========
+
+    /**
+     * 매수 체결 (저널 기록 후 원장 반영)
+     *
+     * @throws IllegalStateException 잔액 부족
+     */
+    public Fill buy(Long accountId, String stockCode, String stockName, BigDecimal price, int quantity, String reason) {
+        if (!clusterLeader.isLeader()) {
+            return forwardFill(OP_BUY, accountId, out -> {
+                out.writeUTF(stockCode);
+                writeNullable(out, stockName);
+                out.writeUTF(price.toPlainString());
+                out.writeInt(quantity);
+                writeNullable(out, reason);
+            });
+        }
+        return submit(accountId, () -> executeBuy(accountId, stockCode, stockName, price, quantity, reason, null));
+    }
+
+    private Fill executeBuy(Long accountId, String stockCode, String stockName, BigDecimal price, int quantity,
+                            String reason, String requestId) {
+        Book book = ownedBook(accountId);
+        Fill duplicate = duplicateFill(book, requestId);
+        if (duplicate != null) {
+            return duplicate;
+        }
+        BigDecimal totalAmount = price.multiply(BigDecimal.valueOf(quantity));
+        BigDecimal commission = totalAmount.multiply(VirtualTradeService.COMMISSION_RATE)
+                .setScale(0, RoundingMode.CEILING);
+        BigDecimal requiredAmount = totalAmount.add(commission);
+
+        BigDecimal balance = book.account.getCurrentBalance();
+        if (balance.compareTo(requiredAmount) < 0) {
+            throw new IllegalStateException("잔액이 부족합니다. 필요: " + requiredAmount + "원, 잔액: " + balance + "원");
+        }
+
+        VirtualTradeHistory trade = journal(VirtualTradeHistory.builder()
+                .accountId(accountId)
+                .stockCode(stockCode)
+                .stockName(stockName)
+                .tradeType("BUY")
+                .quantity(quantity)
+                .price(price)
+                .totalAmount(totalAmount)
+                .commission(commission)
+                .tax(BigDecimal.ZERO)
+                .tradeReason(reason)
+                .tradeDate(LocalDateTime.now())
+                .requestId(requestId)
+                .build());
+        apply(book, trade);
+        publish(book);
+        return new Fill(trade, book.account.getCurrentBalance());
+    }
+
+    /**
+     * 매도 체결 (저널 기록 후 원장 반영)
+     *
+     * @throws IllegalStateException 미보유 종목, 보유 수량 부족
+     */
+    public Fill sell(Long accountId, String stockCode, BigDecimal price, int quantity, String reason) {
+        if (!clusterLeader.isLeader()) {
+            return forwardFill(OP_SELL, accountId, out -> {
+                out.writeUTF(stockCode);
+                out.writeUTF(price.toPlainString());
+                out.writeInt(quantity);
+                writeNullable(out, reason);
+            });
+        }
+        return submit(accountId, () -> executeSell(accountId, stockCode, price, quantity, reason, null));
+    }
+
+    private Fill executeSell(Long accountId, String stockCode, BigDecimal price, int quantity, String reason,
+                             String requestId) {
+        Book book = ownedBook(accountId);
+        Fill duplicate = duplicateFill(book, requestId);
+        if (duplicate != null) {
+            return duplicate;
+        }
+        VirtualPortfolio position = book.positions.get(stockCode);
+        if (position == null) {
+            throw new IllegalStateException("보유하지 않은 종목입니다: " + stockCode);
+        }
+        if (position.getQuantity() < quantity) {
+            throw new IllegalStateException("보유 수량이 부족합니다. 보유: " + position.getQuantity() + ", 매도 요청: " + quantity);
+        }
+
+        BigDecimal totalAmount = price.multiply(BigDecimal.valueOf(quantity));
+        BigDecimal commission = totalAmount.multiply(VirtualTradeService.COMMISSION_RATE)
+                .setScale(0, RoundingMode.CEILING);
+        BigDecimal tax = totalAmount.multiply(VirtualTradeService.TAX_RATE).setScale(0, RoundingMode.CEILING);
+        BigDecimal netAmount = totalAmount.subtract(commission).subtract(tax);
+        BigDecimal profitLoss = netAmount.subtract(position.getAveragePrice().multiply(BigDecimal.valueOf(quantity)));
+
+        VirtualTradeHistory trade = journal(VirtualTradeHistory.builder()
+                .accountId(accountId)
+                .stockCode(stockCode)
+                .stockName(position.getStockName())
+                .tradeType("SELL")
+                .quantity(quantity)
+                .price(price)
+                .totalAmount(totalAmount)
+                .commission(commission)
+                .tax(tax)
+                .profitLoss(profitLoss)
+                .tradeReason(reason)
+                .tradeDate(LocalDateTime.now())
+                .requestId(requestId)
+                .build());
+        apply(book, trade);
+        publish(book);
+        return new Fill(trade, book.account.getCurrentBalance());
+    }
+
+    /**
+     * 보유 종목 현재가/평가손익 반영 (가격이 없는 종목은 유지)
+     */
+    public void markPrices(Long accountId, Map<String, BigDecimal> prices) {
+        if (!clusterLeader.isLeader()) {
+            forward(OP_MARK, accountId, out -> {
+                out.writeInt(prices.size());
+                for (Map.Entry<String, BigDecimal> entry : prices.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeUTF(entry.getValue().toPlainString());
+                }
+            });
+            return;
+        }
+        submit(accountId, () -> {
+            markPrices(ownedBook(accountId), prices);
+            return null;
+        });
+    }
+
+    /**
+     * 원장에 올라온 전체 계좌의 보유 종목코드 (일괄 평가용)
+     */
+    public Set<String> heldStockCodes() {
+        Set<String> stockCodes = ConcurrentHashMap.newKeySet();
+        await(eachWriter(writer -> {
+            for (Book book : booksOf(writer)) {
+                stockCodes.addAll(book.positions.keySet());
+            }
+        }));
+        return stockCodes;
+    }
+
+    /**
+     * 원장에 올라온 전체 계좌 일괄 평가 (writer별 병렬)
+     *
+     * @return 평가한 계좌 수
+     */
+    public int markAll(Map<String, BigDecimal> prices) {
+        AtomicInteger count = new AtomicInteger();
+        await(eachWriter(writer -> {
+            for (Book book : booksOf(writer)) {
+                markPrices(book, prices);
+                count.incrementAndGet();
+            }
+        }));
+        return count.get();
+    }
+
+    /**
+     * 계좌 원장 반영 후 메모리에서 제거 (계좌 비활성화 전 호출)
+     */
+    public void close(Long accountId) {
+        if (!clusterLeader.isLeader()) {
+            forward(OP_CLOSE, accountId, out -> { });
+            return;
+        }
+        submit(accountId, () -> {
+            executeClose(accountId);
+            return null;
+        });
+    }
+
+    private void executeClose(Long accountId) {
+        Book book = books.get(accountId);
+        if (book != null) {
+            flush(book);
+            books.remove(accountId);
+            valuations.remove(accountId);
+        }
+        publishFlushed(List.of(accountId));
+    }
+
+    /**
+     * 변경분 일괄 반영 (5초마다, 리더만)
+     */
+    @Scheduled(cron = "*/5 * * * * *")
+    public void scheduledFlush() {
+        if (!clusterLeader.isLeader()) {
+            return;
+        }
+        eachWriter(this::flushAll);
+    }
+
+    // ========== 리더 전달 ==========
+
+    /**
+     * 체결 명령을 리더에 전달하고 체결 결과를 받음 (응답: 거래 ID, 체결 직후 잔고)
+     * - 응답이 없으면 저널에서 요청 ID로 체결 여부를 확인 (리더는 만료 전에 시작한 명령만 처리하므로 대기 만료 뒤에는 확정)
+     *   - 체결됐으면 성공으로 보고 잔고는 조회 시점 원장 값
+     */
+    private Fill forwardFill(byte op, Long accountId, Encoder args) {
+        long requestId = forwardIds.incrementAndGet();
+        try {
+            DataInputStream result = forward(op, accountId, requestId, args);
+            long tradeId = result.readLong();
+            BigDecimal balance = new BigDecimal(result.readUTF());
+            VirtualTradeHistory trade = tradeHistoryRepository.findById(tradeId)
+                    .orElseThrow(() -> new IllegalStateException("체결 기록이 없습니다: " + tradeId));
+            return new Fill(trade, balance);
+        } catch (ForwardTimeoutException e) {
+            String requestKey = requestKey(clusterEventBus.nodeId(), requestId);
+            VirtualTradeHistory trade = tradeHistoryRepository.findByRequestId(requestKey).orElseThrow(() -> e);
+            log.warn("원장 리더 응답 없음 - 저널에서 체결 확인: 요청 {}, 거래 {}", requestKey, trade.getId());
+            return new Fill(trade, submit(accountId, () -> view(accountId).account.getCurrentBalance()));
+        } catch (IOException e) {
+            throw new IllegalStateException("원장 리더 응답 형식 오류", e);
+        }
+    }
+
+    /**
+     * 명령을 리더에 전달하고 응답을 기다림
+     * - 명령: 요청 노드 ID, 요청 ID, 시작 기한(epoch ms), 명령, 계좌 ID, 인자
+     * - 응답을 받으면(실패 포함) 이 노드의 조회용 원장을 버림 (리더 반영 알림보다 먼저 조회할 수 있으므로)
+     *
+     * @throws ForwardTimeoutException 응답이 없음 (리더에서 처리됐을 수 있음)
+     * @throws IllegalStateException 리더가 거절(잔액 부족 등)
+     */
+    private DataInputStream forward(byte op, Long accountId, Encoder args) {
+        return forward(op, accountId, forwardIds.incrementAndGet(), args);
+    }
+
+    private DataInputStream forward(byte op, Long accountId, long requestId, Encoder args) {
+        CompletableFuture<byte[]> reply = new CompletableFuture<>();
+        forwarded.put(requestId, reply);
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(buffer);
+            out.writeLong(clusterEventBus.nodeId());
+            out.writeLong(requestId);
+            out.writeLong(System.currentTimeMillis()
+                    + TimeUnit.SECONDS.toMillis(FORWARD_TIMEOUT_SECONDS) - EXECUTE_MARGIN_MILLIS);
+            out.writeByte(op);
+            out.writeLong(accountId);
+            args.write(out);
+            clusterEventBus.publish(COMMAND_CHANNEL, buffer.toByteArray());
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+                    reply.get(FORWARD_TIMEOUT_SECONDS, TimeUnit.SECONDS)));
+            if (!in.readBoolean()) {
+                throw new IllegalStateException(readNullable(in));
+            }
+            return in;
+        } catch (IOException e) {
+            throw new IllegalStateException("원장 명령 전달 실패", e);
+        } catch (TimeoutException e) {
+            throw new ForwardTimeoutException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("원장 작업 대기 중 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("원장 작업 실패", e.getCause());
+        } finally {
+            forwarded.remove(requestId);
+            evictView(accountId);
+        }
+    }
+
+    /**
+     * 전달 주문 ID (요청 노드 ID + 노드 내 요청 ID, 저널의 request_id)
+     */
+    private static String requestKey(long requester, long requestId) {
+        return Long.toHexString(requester) + "-" + requestId;
+    }
+
+    /**
+     * 다른 노드가 전달한 명령 처리 (리더만, 버스 수신 스레드를 막지 않도록 계좌 writer에서 실행)
+     * - 처리 후 바로 테이블에 반영해 요청 노드의 후속 조회(저널 + 테이블)가 최신 값을 보도록 함
+     */
+    private void onCommand(byte[] body) {
+        if (!clusterLeader.isLeader()) {
+            return;
+        }
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+            long requester = in.readLong();
+            long requestId = in.readLong();
+            long deadline = in.readLong();
+            byte op = in.readByte();
+            long accountId = in.readLong();
+            String requestKey = requestKey(requester, requestId);
+            Callable<Encoder> command = switch (op) {
+                case OP_BUY -> {
+                    String stockCode = in.readUTF();
+                    String stockName = readNullable(in);
+                    BigDecimal price = new BigDecimal(in.readUTF());
+                    int quantity = in.readInt();
+                    String reason = readNullable(in);
+                    yield () -> fillResult(executeBuy(accountId, stockCode, stockName, price, quantity, reason,
+                            requestKey));
+                }
+                case OP_SELL -> {
+                    String stockCode = in.readUTF();
+                    BigDecimal price = new BigDecimal(in.readUTF());
+                    int quantity = in.readInt();
+                    String reason = readNullable(in);
+                    yield () -> fillResult(executeSell(accountId, stockCode, price, quantity, reason, requestKey));
+                }
+                case OP_MARK -> {
+                    Map<String, BigDecimal> prices = new HashMap<>();
+                    int count = in.readInt();
+                    for (int i = 0; i < count; i++) {
+                        prices.put(in.readUTF(), new BigDecimal(in.readUTF()));
+                    }
+                    yield () -> {
+                        markPrices(ownedBook(accountId), prices);
+                        return out -> { };
+                    };
+                }
+                case OP_CLOSE -> () -> {
+                    executeClose(accountId);
+                    return out -> { };
+                };
+                default -> throw new IOException("알 수 없는 명령: " + op);
+            };
+            writer(accountId).execute(() -> {
+                if (System.currentTimeMillis() > deadline) {
+                    // 요청 노드는 곧 응답 대기를 끝내고 저널로 체결 여부를 확인하므로 시작하지 않음
+                    reply(requester, requestId, false,
+                            out -> writeNullable(out, "원장 리더 처리가 지연되어 주문이 취소되었습니다. 다시 시도해 주세요."));
+                    return;
+                }
+                Encoder result;
+                try {
+                    result = command.call();
+                    Book book = books.get(accountId);
+                    if (book != null && flush(book)) {
+                        publishFlushed(List.of(accountId));
+                    }
+                } catch (Exception e) {
+                    reply(requester, requestId, false, out -> writeNullable(out, e.getMessage()));
+                    return;
+                }
+                reply(requester, requestId, true, result);
+            });
+        } catch (IOException e) {
+            log.warn("원장 명령 형식 오류: {}", e.getMessage());
+        }
+    }
+
+    private static Encoder fillResult(Fill fill) {
+        return out -> {
+            out.writeLong(fill.getTrade().getId());
+            out.writeUTF(fill.getBalance().toPlainString());
+        };
+    }
+
+    /**
+     * 응답: 요청 노드 ID, 요청 ID, 성공 여부, 결과(실패면 오류 메시지)
+     */
+    private void reply(long requester, long requestId, boolean success, Encoder result) {
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(buffer);
+            out.writeLong(requester);
+            out.writeLong(requestId);
+            out.writeBoolean(success);
+            result.write(out);
+            clusterEventBus.publish(REPLY_CHANNEL, buffer.toByteArray());
+        } catch (IOException e) {
+            log.warn("원장 응답 발행 실패: {}", e.getMessage());
+        }
+    }
+
+    private void onReply(byte[] body) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+            if (in.readLong() != clusterEventBus.nodeId()) {
+                return;
+            }
+            CompletableFuture<byte[]> reply = forwarded.get(in.readLong());
+            if (reply != null) {
+                reply.complete(in.readAllBytes());
+            }
+        } catch (IOException e) {
+            log.warn("원장 응답 형식 오류: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 리더가 테이블에 반영한 계좌 ID 목록 발행 (다른 노드가 조회용 원장을 버리도록)
+     */
+    private void publishFlushed(Collection<Long> accountIds) {
+        if (accountIds.isEmpty() || !clusterEventBus.isDistributed()) {
+            return;
+        }
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(4 + accountIds.size() * 8);
+            DataOutputStream out = new DataOutputStream(buffer);
+            out.writeInt(accountIds.size());
+            for (Long accountId : accountIds) {
+                out.writeLong(accountId);
+            }
+            clusterEventBus.publish(FLUSHED_CHANNEL, buffer.toByteArray());
+        } catch (Exception e) {
+            log.warn("원장 반영 알림 발행 실패 (조회용 원장은 만료 후 갱신): {}", e.getMessage());
+        }
+    }
+
+    private void onFlushed(byte[] body) {
+        if (clusterLeader.isLeader()) {
+            return;
+        }
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                evictView(in.readLong());
+            }
+        } catch (IOException e) {
+            log.warn("원장 반영 알림 형식 오류: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 조회용 원장 버림 (담당 writer에서 실행해 진행 중인 복원보다 뒤에 처리)
+     */
+    private void evictView(Long accountId) {
+        try {
+            writer(accountId).execute(() -> views.remove(accountId));
+        } catch (RejectedExecutionException e) {
+            views.remove(accountId);
+        }
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    // ========== writer 스레드 내부 ==========
+
+    /**
+     * 계좌 담당 writer
+     */
+    private ExecutorService writer(Long accountId) {
+        return writers[Math.floorMod(accountId.hashCode(), writers.length)];
+    }
+
+    /**
+     * writer가 담당하는 원장 (해당 writer 스레드에서만 호출)
+     */
+    private List<Book> booksOf(int writer) {
+        List<Book> owned = new ArrayList<>();
+        for (Map.Entry<Long, Book> entry : books.entrySet()) {
+            if (Math.floorMod(entry.getKey().hashCode(), writers.length) == writer) {
+                owned.add(entry.getValue());
+            }
+        }
+        return owned;
+    }
+
+    /**
+     * 모든 writer에서 각자 담당 원장 작업 실행
+     */
+    private List<Future<?>> eachWriter(IntConsumer task) {
+        List<Future<?>> futures = new ArrayList<>(writers.length);
+        for (int i = 0; i < writers.length; i++) {
+            int writer = i;
+            if (!writers[i].isShutdown()) {
+                futures.add(writers[i].submit(() -> task.accept(writer)));
+            }
+        }
+        return futures;
+    }
+
+    private static void await(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("원장 작업 대기 중 중단되었습니다.", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw new IllegalStateException("원장 작업 실패", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * 계좌 담당 writer 스레드에서 실행하고 결과를 기다림 (작업 예외는 그대로 전달)
+     */
+    private <T> T submit(Long accountId, Callable<T> task) {
+        try {
+            return writer(accountId).submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("원장 작업 대기 중 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("원장 작업 실패", e.getCause());
+        }
+    }
+
+    private VirtualTradeHistory journal(VirtualTradeHistory trade) {
+        return transactionTemplate.execute(status -> tradeHistoryRepository.save(trade));
+    }
+
+    private Book book(Long accountId) {
+        Book book = books.get(accountId);
+        if (book != null) {
+            return book;
+        }
+        return book(activeRow(accountId));
+    }
+
+    private Book book(VirtualAccount row) {
+        Book book = books.get(row.getId());
+        if (book == null) {
+            book = rebuild(row, true);
+            books.put(row.getId(), book);
+            publish(book);
+        }
+        return book;
+    }
+
+    private VirtualAccount activeRow(Long accountId) {
+        VirtualAccount row = accountRepository.findById(accountId)
+                .orElseThrow(() -> new IllegalStateException("계좌가 없습니다: " + accountId));
+        if (!Boolean.TRUE.equals(row.getIsActive())) {
+            throw new IllegalStateException("비활성 계좌입니다: " + accountId);
+        }
+        return row;
+    }
+
+    /**
+     * 변경용 원장 (writer에서 실행되는 사이 리더에서 물러났으면 거절)
+     */
+    private Book ownedBook(Long accountId) {
+        if (!clusterLeader.isLeader()) {
+            throw new IllegalStateException("원장 리더 노드가 바뀌었습니다. 잠시 후 다시 시도해 주세요.");
+        }
+        return book(accountId);
+    }
+
+    /**
+     * 조회용 원장 (리더가 아니면 저널로 복원한 원장을 반영 알림 또는 만료 때까지 재사용)
+     */
+    private Book view(Long accountId) {
+        if (clusterLeader.isLeader()) {
+            return book(accountId);
+        }
+        Book view = cachedView(accountId);
+        return view != null ? view : cacheView(rebuild(activeRow(accountId), false));
+    }
+
+    private Book view(VirtualAccount row) {
+        if (clusterLeader.isLeader()) {
+            return book(row);
+        }
+        Book view = cachedView(row.getId());
+        return view != null ? view : cacheView(rebuild(row, false));
+    }
+
+    private Book cachedView(Long accountId) {
+        Book view = views.get(accountId);
+        return view != null && System.nanoTime() - view.expiresAt < 0 ? view : null;
+    }
+
+    private Book cacheView(Book view) {
+        view.expiresAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FOLLOWER_VIEW_TTL_MILLIS);
+        views.put(view.account.getId(), view);
+        return view;
+    }
+
+    /**
+     * 이미 체결된 전달 주문이면 그 체결 (같은 명령이 다시 전달돼도 한 번만 체결)
+     */
+    private Fill duplicateFill(Book book, String requestId) {
+        if (requestId == null) {
+            return null;
+        }
+        return tradeHistoryRepository.findByRequestId(requestId)
+                .map(trade -> new Fill(trade, book.account.getCurrentBalance()))
+                .orElse(null);
+    }
+
+    /**
+     * 저널 재생으로 원장 복원
+     * - 현재가/평가손익은 저널에 없으므로 테이블 값을 이어받음
+     * - 테이블의 현금/보유 종목이 재생 결과와 다르면 다음 반영 때 저널 기준으로 덮어씀
+     *
+     * @param report 불일치/완료 로그 출력 여부 (리더가 아닌 노드의 조회는 매번 복원하므로 생략)
+     */
+    private Book rebuild(VirtualAccount row, boolean report) {
+        long start = System.currentTimeMillis();
+        VirtualAccount account = copy(row);
+        account.setCurrentBalance(row.getInitialBalance());
+        account.setTotalInvested(BigDecimal.ZERO);
+        account.setTotalEvaluation(BigDecimal.ZERO);
+        Book book = new Book(account);
+
+        List<VirtualTradeHistory> trades = tradeHistoryRepository.findByAccountIdOrderByIdAsc(row.getId());
+        for (VirtualTradeHistory trade : trades) {
+            apply(book, trade);
+        }
+
+        int mismatches = 0;
+        Set<String> replayed = new HashSet<>(book.positions.keySet());
+        for (VirtualPortfolio stored : portfolioRepository.findByAccountId(row.getId())) {
+            VirtualPortfolio position = book.positions.get(stored.getStockCode());
+            if (position == null) {
+                book.dirty.add(stored.getStockCode());
+                mismatches++;
+                continue;
+            }
+            replayed.remove(stored.getStockCode());
+            position.setId(stored.getId());
+            position.setPurchaseDate(stored.getPurchaseDate());
+            position.setUpdatedAt(stored.getUpdatedAt());
+            if (stored.getCurrentPrice() != null) {
+                mark(position, stored.getCurrentPrice());
+            }
+            if (stored.getQuantity().equals(position.getQuantity())
+                    && stored.getAveragePrice().compareTo(position.getAveragePrice()) == 0) {
+                book.dirty.remove(stored.getStockCode());
+            } else {
+                mismatches++;
+            }
+        }
+        mismatches += replayed.size();
+        refreshTotals(book);
+
+        boolean balanceMismatch = row.getCurrentBalance() == null
+                || row.getCurrentBalance().compareTo(account.getCurrentBalance()) != 0;
+        book.accountDirty = balanceMismatch
+                || row.getTotalInvested() == null || row.getTotalInvested().compareTo(account.getTotalInvested()) != 0
+                || row.getTotalEvaluation() == null || row.getTotalEvaluation().compareTo(account.getTotalEvaluation()) != 0;
+        if (!report) {
+            return book;
+        }
+        if (mismatches > 0 || balanceMismatch) {
+            log.warn("원장 복원: 계좌 {} 테이블과 저널 불일치 - 보유 종목 {}건, 현금 {} → {}원 (저널 기준으로 반영 예정)",
+                    row.getId(), mismatches, row.getCurrentBalance(), account.getCurrentBalance());
+        }
+        log.info("원장 복원 완료: 계좌 {} - 거래 {}건 재생, 보유 {}종목, 현금 {}원 ({}ms)",
+                row.getId(), trades.size(), book.positions.size(), account.getCurrentBalance(),
+                System.currentTimeMillis() - start);
+        return book;
+    }
+
+    /**
+     * 체결 1건 반영 (실시간 체결과 저널 재생이 같은 계산 사용)
+     */
+    private static void apply(Book book, VirtualTradeHistory trade) {
+        VirtualAccount account = book.account;
+        String stockCode = trade.getStockCode();
+        int quantity = trade.getQuantity();
+        BigDecimal commission = trade.getCommission() != null ? trade.getCommission() : BigDecimal.ZERO;
+        BigDecimal tax = trade.getTax() != null ? trade.getTax() : BigDecimal.ZERO;
+        VirtualPortfolio position = book.positions.get(stockCode);
+
+        if ("BUY".equals(trade.getTradeType())) {
+            account.setCurrentBalance(account.getCurrentBalance().subtract(trade.getTotalAmount()).subtract(commission));
+            if (position != null) {
+                // 기존 보유 종목 - 평균 매입가 계산
+                BigDecimal existingTotal = position.getAveragePrice().multiply(BigDecimal.valueOf(position.getQuantity()));
+                int newQuantity = position.getQuantity() + quantity;
+                position.setAveragePrice(existingTotal.add(trade.getTotalAmount())
+                        .divide(BigDecimal.valueOf(newQuantity), 0, RoundingMode.HALF_UP));
+                position.setQuantity(newQuantity);
+            } else {
+                position = VirtualPortfolio.builder()
+                        .accountId(trade.getAccountId())
+                        .stockCode(stockCode)
+                        .stockName(trade.getStockName())
+                        .quantity(quantity)
+                        .averagePrice(trade.getPrice())
+                        .purchaseDate(trade.getTradeDate())
+                        .build();
+                book.positions.put(stockCode, position);
+            }
+            mark(position, trade.getPrice());
+        } else {
+            account.setCurrentBalance(account.getCurrentBalance()
+                    .add(trade.getTotalAmount()).subtract(commission).subtract(tax));
+            if (position == null) {
+                log.warn("원장: 보유하지 않은 종목의 매도 기록 - 계좌 {}, 거래 {}, {}", trade.getAccountId(), trade.getId(), stockCode);
+            } else if (position.getQuantity() <= quantity) {
+                book.positions.remove(stockCode);
+            } else {
+                position.setQuantity(position.getQuantity() - quantity);
+                mark(position, trade.getPrice());
+            }
+        }
+        book.stats = book.stats.plus("BUY".equals(trade.getTradeType()), trade.getProfitLoss(),
+                trade.getTradeDate().toLocalDate());
+        book.dirty.add(stockCode);
+        book.accountDirty = true;
+        refreshTotals(book);
+    }
+
+    /**
+     * 시세 반영 (가격이 바뀐 종목만 변경 표시) 후 평가 게시
+     */
+    private void markPrices(Book book, Map<String, BigDecimal> prices) {
+        boolean changed = false;
+        for (VirtualPortfolio position : book.positions.values()) {
+            BigDecimal price = prices.get(position.getStockCode());
+            if (price != null && price.compareTo(position.getCurrentPrice()) != 0) {
+                mark(position, price);
+                book.dirty.add(position.getStockCode());
+                changed = true;
+            }
+        }
+        if (changed) {
+            refreshTotals(book);
+            publish(book);
+        }
+    }
+
+    /**
+     * 현재가와 평가손익/손익률 갱신 (double로 계산, 테이블 정밀도로 반올림)
+     */
+    private static void mark(VirtualPortfolio position, BigDecimal price) {
+        double averagePrice = position.getAveragePrice().doubleValue();
+        double invested = averagePrice * position.getQuantity();
+        double profitLoss = (price.doubleValue() - averagePrice) * position.getQuantity();
+        position.setCurrentPrice(price);
+        position.setProfitLoss(money(profitLoss));
+        if (invested > 0) {
+            position.setProfitRate(money(profitLoss / invested * 100));
+        }
+    }
+
+    private static BigDecimal money(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * 계좌 총 투자금액/평가금액 갱신
+     */
+    private static void refreshTotals(Book book) {
+        double invested = 0;
+        double evaluation = 0;
+        for (VirtualPortfolio position : book.positions.values()) {
+            invested += position.getAveragePrice().doubleValue() * position.getQuantity();
+            evaluation += position.getCurrentPrice().doubleValue() * position.getQuantity();
+        }
+        BigDecimal totalInvested = money(invested);
+        BigDecimal totalEvaluation = money(evaluation);
+        if (totalInvested.compareTo(book.account.getTotalInvested()) != 0
+                || totalEvaluation.compareTo(book.account.getTotalEvaluation()) != 0) {
+            book.account.setTotalInvested(totalInvested);
+            book.account.setTotalEvaluation(totalEvaluation);
+            book.accountDirty = true;
+        }
+    }
+
+    /**
+     * 계좌 평가 스냅샷 게시
+     */
+    private void publish(Book book) {
+        valuations.put(book.account.getId(), valuationOf(book));
+    }
+
+    private static AccountValuation valuationOf(Book book) {
+        List<AccountValuation.PositionValue> positions = new ArrayList<>(book.positions.size());
+        for (VirtualPortfolio position : book.positions.values()) {
+            positions.add(new AccountValuation.PositionValue(position.getId(), position.getStockCode(),
+                    position.getStockName(), position.getQuantity(), position.getAveragePrice().doubleValue(),
+                    position.getCurrentPrice().doubleValue(), position.getPurchaseDate(), position.getUpdatedAt()));
+        }
+        return new AccountValuation(copy(book.account), positions, book.stats);
+    }
+
+    private void flushAll(int writer) {
+        List<Long> flushed = new ArrayList<>();
+        for (Book book : booksOf(writer)) {
+            try {
+                if (flush(book)) {
+                    flushed.add(book.account.getId());
+                }
+            } catch (Exception e) {
+                log.error("원장 반영 실패: 계좌 {} (다음 주기에 재시도)", book.account.getId(), e);
+            }
+        }
+        publishFlushed(flushed);
+    }
+
+    /**
+     * 변경된 계좌/보유 종목만 한 트랜잭션으로 반영
+     * - 수정/삭제는 JDBC 배치 1회씩, 신규 보유 종목만 INSERT (생성된 ID를 원장에 기록)
+     * - ID가 없는 보유 종목은 같은 종목의 이전 행(전량 매도 후 재매수)을 먼저 지움
+     *
+     * @return 반영한 변경이 있었는지
+     */
+    private boolean flush(Book book) {
+        if (!book.accountDirty && book.dirty.isEmpty()) {
+            return false;
+        }
+        Long accountId = book.account.getId();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> deletes = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<VirtualPortfolio> inserted = new ArrayList<>();
+
+        for (String stockCode : book.dirty) {
+            VirtualPortfolio position = book.positions.get(stockCode);
+            if (position == null || position.getId() == null) {
+                deletes.add(new Object[]{accountId, stockCode});
+            }
+            if (position == null) {
+                continue;
+            }
+            if (position.getId() == null) {
+                VirtualPortfolio created = copy(position);
+                inserted.add(created);
+            } else {
+                updates.add(new Object[]{position.getStockName(), position.getQuantity(), position.getAveragePrice(),
+                        position.getCurrentPrice(), position.getProfitLoss(), position.getProfitRate(), now,
+                        position.getId()});
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (book.accountDirty) {
+                jdbcTemplate.update(UPDATE_ACCOUNT_SQL, book.account.getCurrentBalance(),
+                        book.account.getTotalInvested(), book.account.getTotalEvaluation(), now, accountId);
+            }
+            if (!deletes.isEmpty()) {
+                jdbcTemplate.batchUpdate(DELETE_PORTFOLIO_SQL, deletes);
+            }
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_PORTFOLIO_SQL, updates);
+            }
+            if (!inserted.isEmpty()) {
+                portfolioRepository.saveAll(inserted);
+            }
+        });
+
+        for (VirtualPortfolio created : inserted) {
+            VirtualPortfolio position = book.positions.get(created.getStockCode());
+            if (position != null) {
+                position.setId(created.getId());
+                position.setPurchaseDate(created.getPurchaseDate());
+                position.setUpdatedAt(created.getUpdatedAt());
+            }
+        }
+        book.dirty.clear();
+        book.accountDirty = false;
+        if (!inserted.isEmpty()) {
+            publish(book);
+        }
+        return true;
+    }
+
+    private static VirtualAccount copy(VirtualAccount account) {
+        return VirtualAccount.builder()
+                .id(account.getId())
+                .accountName(account.getAccountName())
+                .ownerType(account.getOwnerType())
+                .ownerId(account.getOwnerId())
+                .initialBalance(account.getInitialBalance())
+                .currentBalance(account.getCurrentBalance())
+                .totalInvested(account.getTotalInvested())
+                .totalEvaluation(account.getTotalEvaluation())
+                .isActive(account.getIsActive())
+                .createdAt(account.getCreatedAt())
+                .updatedAt(account.getUpdatedAt())
+                .build();
+    }
+
+    private static VirtualPortfolio copy(VirtualPortfolio position) {
+        return VirtualPortfolio.builder()
+                .id(position.getId())
+                .accountId(position.getAccountId())
+                .stockCode(position.getStockCode())
+                .stockName(position.getStockName())
+                .quantity(position.getQuantity())
+                .averagePrice(position.getAveragePrice())
+                .currentPrice(position.getCurrentPrice())
+                .profitLoss(position.getProfitLoss())
+                .profitRate(position.getProfitRate())
+                .purchaseDate(position.getPurchaseDate())
+                .updatedAt(position.getUpdatedAt())
+                .build();
+    }
+
+    /**
+     * 리더 전달 명령/응답 본문 작성
+     */
+    @FunctionalInterface
+    private interface Encoder {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * 리더 응답 대기 만료 (리더에서 처리됐을 수 있음)
+     */
+    private static final class ForwardTimeoutException extends IllegalStateException {
+        private ForwardTimeoutException() {
+            super("원장 리더 노드 응답이 없습니다. 잠시 후 다시 시도해 주세요.");
+        }
+    }
+
+    /**
+     * 계좌별 원장 (writer 스레드 전용)
+     */
+    private static final class Book {
+        private final VirtualAccount account;                                // 원장 기준 계좌 (테이블과 분리된 사본)
+        private final Map<String, VirtualPortfolio> positions = new LinkedHashMap<>();
+        private final Set<String> dirty = new HashSet<>();                   // 테이블 반영이 필요한 종목 (삭제 포함)
+        private boolean accountDirty;
+        private AccountValuation.TradeStats stats = AccountValuation.TradeStats.EMPTY;
+        private long expiresAt;  // 조회용 원장 만료 시각 (System.nanoTime, 리더 원장은 사용 안 함)
+
+        private Book(VirtualAccount account) {
+            this.account = account;
+        }
+    }
+
+    /**
+     * 체결 결과
+     */
+    public static final class Fill {
+        private final VirtualTradeHistory trade;
+        private final BigDecimal balance;
+
+        private Fill(VirtualTradeHistory trade, BigDecimal balance) {
+            this.trade = trade;
+            this.balance = balance;
+        }
+
+        public VirtualTradeHistory getTrade() {
+            return trade;
+        }
+
+        /**
+         * 체결 직후 현금 잔고
+         */
+        public BigDecimal getBalance() {
+            return balance;
+        }
+    }
+}
@@ -6,24 +6,33 @@ import com.myplatform.backend.entity.VirtualAccount;
 import com.myplatform.backend.entity.VirtualPortfolio;
 import com.myplatform.backend.entity.VirtualTradeHistory;
 import com.myplatform.backend.repository.VirtualAccountRepository;
-import com.myplatform.backend.repository.VirtualPortfolioRepository;
 import com.myplatform.backend.repository.VirtualTradeHistoryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -31,303 +40,246 @@ import java.util.stream.Collectors;
  * - 모의투자 매수/매도 처리
  * - 포트폴리오 관리
  * - 거래 내역 관리
+ *
+ * 현금/보유 종목의 기준은 VirtualLedger (주문 직렬화, 거래 내역 저널, 테이블 일괄 반영)
+ * - 원장 writer(또는 리더 응답)를 기다리는 동안 DB 연결을 잡지 않도록 서비스 메서드는 트랜잭션 없이 실행
+ *   (레포지토리 호출이 각자 짧은 트랜잭션으로 실행되고, 여러 문장을 묶어야 하는 쓰기만 TransactionTemplate 사용)
  */
 @Service
-@Transactional
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
 @RequiredArgsConstructor
 @Slf4j
 public class VirtualTradeService {
 
     private final VirtualAccountRepository accountRepository;
-    private final VirtualPortfolioRepository portfolioRepository;
     private final VirtualTradeHistoryRepository tradeHistoryRepository;
     private final StockPriceService stockPriceService;
     private final TelegramNotificationService telegramService;
-
-    // 수수료율 및 세율
-    private static final BigDecimal COMMISSION_RATE = new BigDecimal("0.00015"); // 0.015%
-    private static final BigDecimal TAX_RATE = new BigDecimal("0.002"); // 0.2%
+    private final ApplicationEventPublisher eventPublisher;
+    private final VirtualLedger ledger;
+    private final RealTimeDataCache realTimeDataCache;
+    private final PlatformTransactionManager transactionManager;
+    private final ClusterLeader clusterLeader;
+
+    // 수수료율 및 세율 (봇 시뮬레이션 원장과 공유)
+    static final BigDecimal COMMISSION_RATE = new BigDecimal("0.00015"); // 0.015%
+    static final BigDecimal TAX_RATE = new BigDecimal("0.002"); // 0.2%
     private static final BigDecimal INITIAL_BALANCE = new BigDecimal("10000000"); // 1,000만원
+    private static final long TICK_STALE_SECONDS = 60; // 이보다 오래된 틱은 평가에 쓰지 않음
+    static final String DEFAULT_BOT_ID = "auto-trading"; // 자동매매 봇(AutoTradingBotService) 계좌 소유자 ID
 
     /**
      * 계좌 초기화 (1,000만원)
+     * - 기존 계좌는 원장을 테이블에 반영한 뒤 다시 읽어 비활성화 (반영 전 값으로 덮어쓰지 않도록 트랜잭션 밖에서 실행)
+     * - 다른 노드가 동시에 초기화하면 새 계좌 INSERT가 활성 계좌 유니크 키(active_owner_key)에 걸려 한쪽만 성공
      */
-    public AccountSummaryDto initializeAccount() {
+    public AccountSummaryDto initializeAccount(String ownerType, String ownerId) {
         // 기존 활성 계좌 비활성화
-        accountRepository.findByIsActiveTrue().ifPresent(account -> {
+        findOrAdoptActiveAccount(ownerType, ownerId).ifPresent(active -> {
+            ledger.close(active.getId());
+            VirtualAccount account = accountRepository.findById(active.getId()).orElse(active);
             account.setIsActive(false);
             accountRepository.save(account);
         });
 
         // 새 계좌 생성
-        VirtualAccount account = VirtualAccount.builder()
-                .accountName("모의투자 계좌")
+        VirtualAccount account = accountRepository.save(newAccount(ownerType, ownerId));
+        log.info("가상 계좌 초기화 완료: {} ({} {}) - 초기자본 {}원", account.getId(), ownerType, ownerId, INITIAL_BALANCE);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(account.getId(), null));
+
+        return getAccountSummary(ownerType, ownerId);
+    }
+
+    /**
+     * 소유자의 활성 계좌 조회 (없으면 자동 생성, 현금/총계는 원장 기준)
+     */
+    public VirtualAccount getOrCreateActiveAccount(String ownerType, String ownerId) {
+        return ledger.account(activeAccountRow(ownerType, ownerId));
+    }
+
+    private VirtualAccount activeAccountRow(String ownerType, String ownerId) {
+        return findActiveAccount(ownerType, ownerId).orElseGet(() -> createAccount(ownerType, ownerId));
+    }
+
+    /**
+     * 소유자의 활성 계좌 (조회만)
+     */
+    private Optional<VirtualAccount> findActiveAccount(String ownerType, String ownerId) {
+        return accountRepository.findFirstByOwnerTypeAndOwnerIdAndIsActiveTrueOrderByIdDesc(ownerType, ownerId);
+    }
+
+    /**
+     * 소유자의 활성 계좌 (쓰기 트랜잭션에서만 호출)
+     * - 소유자 도입 이전 계좌(소유자 없음)는 기본 봇 계좌로 편입 (그동안 자동매매 봇이 거래하던 계좌)
+     */
+    private Optional<VirtualAccount> findOrAdoptActiveAccount(String ownerType, String ownerId) {
+        Optional<VirtualAccount> account = findActiveAccount(ownerType, ownerId);
+        if (account.isPresent() || !VirtualAccount.OWNER_BOT.equals(ownerType) || !DEFAULT_BOT_ID.equals(ownerId)) {
+            return account;
+        }
+        return accountRepository.findFirstByOwnerTypeIsNullAndIsActiveTrueOrderByIdDesc()
+                .map(legacy -> {
+                    log.info("소유자 없는 계좌 {}를 봇 계좌({})로 편입합니다.", legacy.getId(), ownerId);
+                    legacy.setOwnerType(ownerType);
+                    legacy.setOwnerId(ownerId);
+                    return accountRepository.save(legacy);
+                });
+    }
+
+    /**
+     * 활성 계좌 편입/생성 (별도 쓰기 트랜잭션)
+     * - 같은 소유자의 동시 최초 요청은 활성 계좌 유니크 키(active_owner_key)로 한 건만 INSERT되고,
+     *   진 쪽은 먼저 만들어진 계좌를 다시 읽음 (다른 노드에서 동시에 요청해도 계좌가 둘 생기지 않음)
+     */
+    private VirtualAccount createAccount(String ownerType, String ownerId) {
+        TransactionTemplate writeTransaction = new TransactionTemplate(transactionManager);
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            return writeTransaction.execute(status -> findOrAdoptActiveAccount(ownerType, ownerId).orElseGet(() -> {
+                log.info("활성 계좌가 없어 새로 생성합니다: {} {}", ownerType, ownerId);
+                return accountRepository.save(newAccount(ownerType, ownerId));
+            }));
+        } catch (DataIntegrityViolationException e) {
+            log.info("다른 요청이 먼저 활성 계좌를 만들었습니다: {} {}", ownerType, ownerId);
+            return findActiveAccount(ownerType, ownerId).orElseThrow(() -> e);
+        }
+    }
+
+    private static VirtualAccount newAccount(String ownerType, String ownerId) {
+        return VirtualAccount.builder()
+                .accountName(VirtualAccount.OWNER_BOT.equals(ownerType) ? "자동매매 봇 계좌" : "모의투자 계좌")
+                .ownerType(ownerType)
+                .ownerId(ownerId)
                 .initialBalance(INITIAL_BALANCE)
                 .currentBalance(INITIAL_BALANCE)
                 .totalInvested(BigDecimal.ZERO)
                 .totalEvaluation(BigDecimal.ZERO)
                 .isActive(true)
                 .build();
-
-        accountRepository.save(account);
-        log.info("가상 계좌 초기화 완료: {} - 초기자본 {}원", account.getId(), INITIAL_BALANCE);
-
-        return getAccountSummary();
     }
 
     /**
-     * 활성 계좌 조회 (없으면 자동 생성)
+     * 계좌 보유 종목 (원장 기준 사본)
      */
-    public VirtualAccount getOrCreateActiveAccount() {
-        return accountRepository.findByIsActiveTrue()
-                .orElseGet(() -> {
-                    log.info("활성 계좌가 없어 새로 생성합니다.");
-                    VirtualAccount account = VirtualAccount.builder()
-                            .accountName("모의투자 계좌")
-                            .initialBalance(INITIAL_BALANCE)
-                            .currentBalance(INITIAL_BALANCE)
-                            .totalInvested(BigDecimal.ZERO)
-                            .totalEvaluation(BigDecimal.ZERO)
-                            .isActive(true)
-                            .build();
-                    return accountRepository.save(account);
-                });
+    public List<VirtualPortfolio> getHoldings(Long accountId) {
+        return ledger.holdings(accountId);
     }
 
     /**
-     * 매수 처리
+     * 계좌의 특정 보유 종목 (원장 기준 사본)
      */
-    public TradeHistoryDto buy(String stockCode, BigDecimal price, Integer quantity, String reason) {
-        VirtualAccount account = getOrCreateActiveAccount();
+    public Optional<VirtualPortfolio> getHolding(Long accountId, String stockCode) {
+        return ledger.holdings(accountId).stream()
+                .filter(portfolio -> portfolio.getStockCode().equals(stockCode))
+                .findFirst();
+    }
 
-        // 종목명 조회
+    /**
+     * 매수 처리 (원장 writer에서 체결, 대기 중 DB 커넥션을 잡지 않도록 트랜잭션 밖에서 실행)
+     */
+    public TradeHistoryDto buy(Long accountId, String stockCode, BigDecimal price, Integer quantity, String reason) {
+        // 종목명 조회 (외부 시세 조회이므로 원장 밖에서)
         String stockName = getStockName(stockCode);
 
-        // 총 금액 계산
-        BigDecimal totalAmount = price.multiply(BigDecimal.valueOf(quantity));
-        BigDecimal commission = totalAmount.multiply(COMMISSION_RATE).setScale(0, RoundingMode.CEILING);
-        BigDecimal requiredAmount = totalAmount.add(commission);
+        VirtualLedger.Fill fill = ledger.buy(accountId, stockCode, stockName, price, quantity,
+                reason != null ? reason : "MANUAL");
+        VirtualTradeHistory trade = fill.getTrade();
 
-        // 잔액 확인
-        if (account.getCurrentBalance().compareTo(requiredAmount) < 0) {
-            throw new IllegalStateException("잔액이 부족합니다. 필요: " + requiredAmount + "원, 잔액: " + account.getCurrentBalance() + "원");
-        }
+        log.info("[모의투자] 매수 완료: 계좌 {}, {} ({}) x {} @ {}원, 수수료: {}원, 잔고: {}원",
+                accountId, stockName, stockCode, quantity, price, trade.getCommission(), fill.getBalance());
 
-        // 현금 차감
-        account.setCurrentBalance(account.getCurrentBalance().subtract(requiredAmount));
-
-        // 포트폴리오 업데이트
-        Optional<VirtualPortfolio> existingPortfolio = portfolioRepository
-                .findByAccountIdAndStockCode(account.getId(), stockCode);
-
-        if (existingPortfolio.isPresent()) {
-            // 기존 보유 종목 - 평균 매입가 계산
-            VirtualPortfolio portfolio = existingPortfolio.get();
-            BigDecimal existingTotal = portfolio.getAveragePrice()
-                    .multiply(BigDecimal.valueOf(portfolio.getQuantity()));
-            BigDecimal newTotal = existingTotal.add(totalAmount);
-            int newQuantity = portfolio.getQuantity() + quantity;
-            BigDecimal newAvgPrice = newTotal.divide(BigDecimal.valueOf(newQuantity), 0, RoundingMode.HALF_UP);
-
-            portfolio.setQuantity(newQuantity);
-            portfolio.setAveragePrice(newAvgPrice);
-            portfolio.setCurrentPrice(price);
-            portfolioRepository.save(portfolio);
-        } else {
-            // 신규 종목
-            VirtualPortfolio portfolio = VirtualPortfolio.builder()
-                    .accountId(account.getId())
-                    .stockCode(stockCode)
-                    .stockName(stockName)
-                    .quantity(quantity)
-                    .averagePrice(price)
-                    .currentPrice(price)
-                    .build();
-            portfolioRepository.save(portfolio);
-        }
-
-        // 거래 내역 저장
-        VirtualTradeHistory trade = VirtualTradeHistory.builder()
-                .accountId(account.getId())
-                .stockCode(stockCode)
-                .stockName(stockName)
-                .tradeType("BUY")
-                .quantity(quantity)
-                .price(price)
-                .totalAmount(totalAmount)
-                .commission(commission)
-                .tax(BigDecimal.ZERO)
-                .tradeReason(reason != null ? reason : "MANUAL")
-                .tradeDate(LocalDateTime.now())
-                .build();
-        tradeHistoryRepository.save(trade);
-
-        // 계좌 총 투자금액 업데이트
-        updateAccountTotals(account);
-        accountRepository.save(account);
-
-        log.info("[모의투자] 매수 완료: {} ({}) x {} @ {}원, 수수료: {}원, 잔고: {}원",
-                stockName, stockCode, quantity, price, commission, account.getCurrentBalance());
+        eventPublisher.publishEvent(new PortfolioChangedEvent(accountId, stockCode));
 
         // 텔레그램 알림
-        sendBuyAlert(stockName, stockCode, price, quantity, account.getCurrentBalance());
+        sendBuyAlert(stockName, stockCode, price, quantity, fill.getBalance());
 
         return toTradeHistoryDto(trade);
     }
 
     /**
-     * 매도 처리
+     * 매도 처리 (원장 writer에서 체결, 대기 중 DB 커넥션을 잡지 않도록 트랜잭션 밖에서 실행)
      */
-    public TradeHistoryDto sell(String stockCode, BigDecimal price, Integer quantity, String reason) {
-        VirtualAccount account = getOrCreateActiveAccount();
-
-        // 보유 종목 확인
-        VirtualPortfolio portfolio = portfolioRepository
-                .findByAccountIdAndStockCode(account.getId(), stockCode)
-                .orElseThrow(() -> new IllegalStateException("보유하지 않은 종목입니다: " + stockCode));
-
-        if (portfolio.getQuantity() < quantity) {
-            throw new IllegalStateException("보유 수량이 부족합니다. 보유: " + portfolio.getQuantity() + ", 매도 요청: " + quantity);
-        }
-
-        // 총 금액 계산
-        BigDecimal totalAmount = price.multiply(BigDecimal.valueOf(quantity));
-        BigDecimal commission = totalAmount.multiply(COMMISSION_RATE).setScale(0, RoundingMode.CEILING);
-        BigDecimal tax = totalAmount.multiply(TAX_RATE).setScale(0, RoundingMode.CEILING);
-        BigDecimal netAmount = totalAmount.subtract(commission).subtract(tax);
-
-        // 실현손익 계산
-        BigDecimal investedAmount = portfolio.getAveragePrice().multiply(BigDecimal.valueOf(quantity));
-        BigDecimal profitLoss = netAmount.subtract(investedAmount);
-
-        // 현금 증가
-        account.setCurrentBalance(account.getCurrentBalance().add(netAmount));
-
-        // 포트폴리오 업데이트
-        int remainingQuantity = portfolio.getQuantity() - quantity;
-        if (remainingQuantity == 0) {
-            portfolioRepository.delete(portfolio);
-        } else {
-            portfolio.setQuantity(remainingQuantity);
-            portfolio.setCurrentPrice(price);
-            portfolioRepository.save(portfolio);
-        }
-
-        // 거래 내역 저장
-        VirtualTradeHistory trade = VirtualTradeHistory.builder()
-                .accountId(account.getId())
-                .stockCode(stockCode)
-                .stockName(portfolio.getStockName())
-                .tradeType("SELL")
-                .quantity(quantity)
-                .price(price)
-                .totalAmount(totalAmount)
-                .commission(commission)
-                .tax(tax)
-                .profitLoss(profitLoss)
-                .tradeReason(reason != null ? reason : "MANUAL")
-                .tradeDate(LocalDateTime.now())
-                .build();
-        tradeHistoryRepository.save(trade);
+    public TradeHistoryDto sell(Long accountId, String stockCode, BigDecimal price, Integer quantity, String reason) {
+        VirtualLedger.Fill fill = ledger.sell(accountId, stockCode, price, quantity,
+                reason != null ? reason : "MANUAL");
+        VirtualTradeHistory trade = fill.getTrade();
 
-        // 계좌 총 투자금액 업데이트
-        updateAccountTotals(account);
-        accountRepository.save(account);
+        log.info("[모의투자] 매도 완료: 계좌 {}, {} ({}) x {} @ {}원, 손익: {}원, 사유: {}, 잔고: {}원",
+                accountId, trade.getStockName(), stockCode, quantity, price, trade.getProfitLoss(), reason, fill.getBalance());
 
-        log.info("[모의투자] 매도 완료: {} ({}) x {} @ {}원, 손익: {}원, 사유: {}, 잔고: {}원",
-                portfolio.getStockName(), stockCode, quantity, price, profitLoss, reason, account.getCurrentBalance());
+        eventPublisher.publishEvent(new PortfolioChangedEvent(accountId, stockCode));
 
         // 텔레그램 알림
-        sendSellAlert(portfolio.getStockName(), stockCode, price, quantity, profitLoss, reason);
+        sendSellAlert(trade.getStockName(), stockCode, price, quantity, trade.getProfitLoss(), reason);
 
         return toTradeHistoryDto(trade);
     }
 
     /**
-     * 계좌 요약 조회
+     * 계좌 요약 조회 (원장 평가 스냅샷 기준, 거래 테이블 조회 없음)
      */
-    @Transactional(readOnly = true)
-    public AccountSummaryDto getAccountSummary() {
-        VirtualAccount account = getOrCreateActiveAccount();
-
-        // 포트폴리오 현재가 업데이트 및 평가금액 계산
-        List<VirtualPortfolio> portfolios = portfolioRepository.findByAccountId(account.getId());
-
-        BigDecimal totalInvested = BigDecimal.ZERO;
-        BigDecimal totalEvaluation = BigDecimal.ZERO;
-
-        for (VirtualPortfolio portfolio : portfolios) {
-            BigDecimal invested = portfolio.getAveragePrice().multiply(BigDecimal.valueOf(portfolio.getQuantity()));
-            BigDecimal evaluation = portfolio.getCurrentPrice().multiply(BigDecimal.valueOf(portfolio.getQuantity()));
-            totalInvested = totalInvested.add(invested);
-            totalEvaluation = totalEvaluation.add(evaluation);
-        }
+    public AccountSummaryDto getAccountSummary(String ownerType, String ownerId) {
+        VirtualAccount row = activeAccountRow(ownerType, ownerId);
+        return summarize(row, ledger.valuation(row));
+    }
 
-        // 실현손익
-        BigDecimal realizedProfitLoss = tradeHistoryRepository.sumRealizedProfitLoss(account.getId());
-        if (realizedProfitLoss == null) realizedProfitLoss = BigDecimal.ZERO;
+    /**
+     * 전체 활성 계좌 요약 (관리자 전용, /api/admin 아래에서만 노출)
+     */
+    public List<AccountSummaryDto> getActiveAccountSummaries() {
+        return accountRepository.findByIsActiveTrueOrderByIdAsc().stream()
+                .map(row -> summarize(row, ledger.valuation(row)))
+                .collect(Collectors.toList());
+    }
 
-        // 평가손익
-        BigDecimal unrealizedProfitLoss = totalEvaluation.subtract(totalInvested);
+    private AccountSummaryDto summarize(VirtualAccount row, AccountValuation valuation) {
+        VirtualAccount account = valuation.getAccount();
+        AccountValuation.TradeStats stats = valuation.getStats();
 
-        // 총 손익
-        BigDecimal totalProfitLoss = realizedProfitLoss.add(unrealizedProfitLoss);
+        BigDecimal realizedProfitLoss = stats.getRealizedProfitLoss();
+        double unrealized = valuation.getUnrealizedProfitLoss();
 
         // 총 자산 = 현금 + 평가금액
-        BigDecimal totalAsset = account.getCurrentBalance().add(totalEvaluation);
-
-        // 수익률
-        BigDecimal totalProfitRate = BigDecimal.ZERO;
-        if (account.getInitialBalance().compareTo(BigDecimal.ZERO) > 0) {
-            totalProfitRate = totalAsset.subtract(account.getInitialBalance())
-                    .divide(account.getInitialBalance(), 4, RoundingMode.HALF_UP)
-                    .multiply(new BigDecimal("100"));
-        }
-
-        // 거래 통계
-        long totalTradeCount = tradeHistoryRepository.countSellTrades(account.getId());
-        long winCount = tradeHistoryRepository.countWinningTrades(account.getId());
-        long loseCount = tradeHistoryRepository.countLosingTrades(account.getId());
-        BigDecimal winRate = totalTradeCount > 0
-                ? BigDecimal.valueOf(winCount).divide(BigDecimal.valueOf(totalTradeCount), 4, RoundingMode.HALF_UP).multiply(new BigDecimal("100"))
-                : BigDecimal.ZERO;
+        double initialBalance = account.getInitialBalance().doubleValue();
+        double totalAsset = account.getCurrentBalance().doubleValue() + valuation.getTotalEvaluation();
+        double totalProfitRate = initialBalance > 0 ? (totalAsset - initialBalance) / initialBalance * 100 : 0;
 
-        // 오늘 거래 수
-        LocalDateTime todayStart = LocalDateTime.of(LocalDate.now(), LocalTime.MIDNIGHT);
-        long todayTradeCount = tradeHistoryRepository.countTodayTrades(account.getId(), todayStart);
+        // 거래 통계 (매도 기준)
+        long totalTradeCount = stats.getSellCount();
+        double winRate = totalTradeCount > 0 ? stats.getWinCount() * 100.0 / totalTradeCount : 0;
 
         return AccountSummaryDto.builder()
                 .accountId(account.getId())
                 .accountName(account.getAccountName())
+                .ownerType(row.getOwnerType())
+                .ownerId(row.getOwnerId())
                 .initialBalance(account.getInitialBalance())
                 .currentBalance(account.getCurrentBalance())
-                .totalInvested(totalInvested)
-                .totalEvaluation(totalEvaluation)
-                .totalProfitLoss(totalProfitLoss)
-                .totalProfitRate(totalProfitRate)
+                .totalInvested(money(valuation.getTotalInvested()))
+                .totalEvaluation(money(valuation.getTotalEvaluation()))
+                .totalProfitLoss(realizedProfitLoss.add(money(unrealized)))
+                .totalProfitRate(money(totalProfitRate))
                 .realizedProfitLoss(realizedProfitLoss)
-                .unrealizedProfitLoss(unrealizedProfitLoss)
-                .holdingCount(portfolios.size())
+                .unrealizedProfitLoss(money(unrealized))
+                .holdingCount(valuation.getPositions().size())
                 .totalTradeCount(totalTradeCount)
-                .winCount(winCount)
-                .loseCount(loseCount)
-                .winRate(winRate)
-                .todayTradeCount(todayTradeCount)
-                .isActive(account.getIsActive())
+                .winCount(stats.getWinCount())
+                .loseCount(stats.getLoseCount())
+                .winRate(money(winRate))
+                .todayTradeCount(stats.getTradeCount(LocalDate.now()))
+                .isActive(row.getIsActive())
                 .createdAt(account.getCreatedAt())
                 .updatedAt(account.getUpdatedAt())
                 .build();
     }
 
     /**
-     * 포트폴리오 조회
+     * 포트폴리오 조회 (원장 평가 스냅샷 기준)
      */
-    @Transactional(readOnly = true)
-    public List<PortfolioItemDto> getPortfolio() {
-        VirtualAccount account = getOrCreateActiveAccount();
-        List<VirtualPortfolio> portfolios = portfolioRepository.findByAccountId(account.getId());
+    public List<PortfolioItemDto> getPortfolio(String ownerType, String ownerId) {
+        AccountValuation valuation = ledger.valuation(activeAccountRow(ownerType, ownerId));
 
-        return portfolios.stream()
+        return valuation.getPositions().stream()
                 .map(this::toPortfolioItemDto)
                 .collect(Collectors.toList());
     }
@@ -335,9 +287,8 @@ public class VirtualTradeService {
     /**
      * 거래 내역 조회 (페이징)
      */
-    @Transactional(readOnly = true)
-    public Page<TradeHistoryDto> getTradeHistory(int page, int size) {
-        VirtualAccount account = getOrCreateActiveAccount();
+    public Page<TradeHistoryDto> getTradeHistory(String ownerType, String ownerId, int page, int size) {
+        VirtualAccount account = getOrCreateActiveAccount(ownerType, ownerId);
         Pageable pageable = PageRequest.of(page, size);
         Page<VirtualTradeHistory> trades = tradeHistoryRepository
                 .findByAccountIdOrderByTradeDateDesc(account.getId(), pageable);
@@ -346,43 +297,32 @@ public class VirtualTradeService {
     }
 
     /**
-     * 거래 통계 조회
+     * 거래 통계 조회 (원장 평가 스냅샷 기준)
      */
-    @Transactional(readOnly = true)
-    public TradeStatisticsDto getStatistics() {
-        VirtualAccount account = getOrCreateActiveAccount();
+    public TradeStatisticsDto getStatistics(String ownerType, String ownerId) {
+        AccountValuation.TradeStats stats = ledger.valuation(activeAccountRow(ownerType, ownerId)).getStats();
 
-        long buyCount = tradeHistoryRepository.countBuyTrades(account.getId());
-        long sellCount = tradeHistoryRepository.countSellTrades(account.getId());
-        long winCount = tradeHistoryRepository.countWinningTrades(account.getId());
-        long loseCount = tradeHistoryRepository.countLosingTrades(account.getId());
-        BigDecimal totalRealizedProfitLoss = tradeHistoryRepository.sumRealizedProfitLoss(account.getId());
-
-        BigDecimal winRate = sellCount > 0
-                ? BigDecimal.valueOf(winCount).divide(BigDecimal.valueOf(sellCount), 4, RoundingMode.HALF_UP).multiply(new BigDecimal("100"))
-                : BigDecimal.ZERO;
-
-        LocalDateTime todayStart = LocalDateTime.of(LocalDate.now(), LocalTime.MIDNIGHT);
-        long todayTrades = tradeHistoryRepository.countTodayTrades(account.getId(), todayStart);
+        long sellCount = stats.getSellCount();
+        double winRate = sellCount > 0 ? stats.getWinCount() * 100.0 / sellCount : 0;
 
         return TradeStatisticsDto.builder()
-                .totalTrades(buyCount + sellCount)
-                .buyCount(buyCount)
+                .totalTrades(stats.getBuyCount() + sellCount)
+                .buyCount(stats.getBuyCount())
                 .sellCount(sellCount)
-                .winCount(winCount)
-                .loseCount(loseCount)
-                .winRate(winRate)
-                .totalRealizedProfitLoss(totalRealizedProfitLoss != null ? totalRealizedProfitLoss : BigDecimal.ZERO)
-                .todayTrades(todayTrades)
+                .winCount(stats.getWinCount())
+                .loseCount(stats.getLoseCount())
+                .winRate(money(winRate))
+                .totalRealizedProfitLoss(stats.getRealizedProfitLoss())
+                .todayTrades(stats.getTradeCount(LocalDate.now()))
                 .build();
     }
 
     /**
-     * 포트폴리오 현재가 업데이트
+     * 포트폴리오 현재가 업데이트 (원장에 반영, 테이블은 원장이 일괄 반영)
      */
-    public void updatePortfolioPrices() {
-        VirtualAccount account = getOrCreateActiveAccount();
-        List<VirtualPortfolio> portfolios = portfolioRepository.findByAccountId(account.getId());
+    public void updatePortfolioPrices(String ownerType, String ownerId) {
+        VirtualAccount account = getOrCreateActiveAccount(ownerType, ownerId);
+        List<VirtualPortfolio> portfolios = ledger.holdings(account.getId());
 
         if (portfolios.isEmpty()) {
             return;
@@ -393,36 +333,61 @@ public class VirtualTradeService {
                 .map(VirtualPortfolio::getStockCode)
                 .collect(Collectors.toList());
 
-        // 일괄 시세 조회
-        Map<String, StockPriceDto> prices = stockPriceService.getStockPrices(stockCodes);
-
-        for (VirtualPortfolio portfolio : portfolios) {
-            StockPriceDto priceDto = prices.get(portfolio.getStockCode());
-            if (priceDto != null && priceDto.getCurrentPrice() != null) {
-                portfolio.setCurrentPrice(priceDto.getCurrentPrice());
-
-                // 손익 계산
-                BigDecimal invested = portfolio.getAveragePrice().multiply(BigDecimal.valueOf(portfolio.getQuantity()));
-                BigDecimal evaluation = priceDto.getCurrentPrice().multiply(BigDecimal.valueOf(portfolio.getQuantity()));
-                portfolio.setProfitLoss(evaluation.subtract(invested));
-
-                // 손익률 계산
-                if (invested.compareTo(BigDecimal.ZERO) > 0) {
-                    BigDecimal profitRate = portfolio.getProfitLoss()
-                            .divide(invested, 4, RoundingMode.HALF_UP)
-                            .multiply(new BigDecimal("100"));
-                    portfolio.setProfitRate(profitRate);
-                }
+        ledger.markPrices(account.getId(), quotes(stockCodes));
 
-                portfolioRepository.save(portfolio);
-            }
+        log.debug("포트폴리오 현재가 업데이트 완료: {}개 종목", portfolios.size());
+    }
+
+    /**
+     * 전체 계좌 일괄 평가 (평일 장중 5분마다, 원장을 가진 리더만)
+     * - 모든 계좌의 보유 종목을 합쳐 시세를 한 번에 조회하고 writer별로 병렬 반영
+     */
+    @Scheduled(cron = "0 */5 9-15 * * MON-FRI", zone = "Asia/Seoul")
+    public void updateAllPortfolioPrices() {
+        if (!clusterLeader.isLeader()) {
+            log.debug("리더 노드가 아님 - 전체 계좌 평가 생략");
+            return;
+        }
+        Set<String> stockCodes = ledger.heldStockCodes();
+        if (stockCodes.isEmpty()) {
+            return;
+        }
+        try {
+            int accounts = ledger.markAll(quotes(stockCodes));
+            log.info("전체 계좌 평가 완료: {}개 계좌, {}개 종목", accounts, stockCodes.size());
+        } catch (Exception e) {
+            log.error("전체 계좌 평가 실패", e);
         }
+    }
 
-        // 계좌 평가금액 업데이트
-        updateAccountTotals(account);
-        accountRepository.save(account);
+    /**
+     * 평가용 현재가 일괄 조회
+     * - 최근 1분 내 실시간 틱이 있는 종목은 틱 가격, 나머지만 시세 캐시/API 일괄 조회
+     */
+    private Map<String, BigDecimal> quotes(Collection<String> stockCodes) {
+        Map<String, BigDecimal> quotes = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        LocalDateTime staleBefore = LocalDateTime.now().minusSeconds(TICK_STALE_SECONDS);
+        for (String stockCode : stockCodes) {
+            RealTimeDataCache.TickData tick = realTimeDataCache.getLastTick(stockCode);
+            if (tick != null && tick.getPrice() != null && tick.getTimestamp().isAfter(staleBefore)) {
+                quotes.put(stockCode, tick.getPrice());
+            } else {
+                missing.add(stockCode);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Map.Entry<String, StockPriceDto> entry : stockPriceService.getStockPrices(missing).entrySet()) {
+                if (entry.getValue() != null && entry.getValue().getCurrentPrice() != null) {
+                    quotes.put(entry.getKey(), entry.getValue().getCurrentPrice());
+                }
+            }
+        }
+        return quotes;
+    }
 
-        log.debug("포트폴리오 현재가 업데이트 완료: {}개 종목", portfolios.size());
+    private static BigDecimal money(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
     }
 
     /**
@@ -440,26 +405,6 @@ public class VirtualTradeService {
         }
     }
 
-    /**
-     * 계좌 총계 업데이트
-     */
-    private void updateAccountTotals(VirtualAccount account) {
-        List<VirtualPortfolio> portfolios = portfolioRepository.findByAccountId(account.getId());
-
-        BigDecimal totalInvested = BigDecimal.ZERO;
-        BigDecimal totalEvaluation = BigDecimal.ZERO;
-
-        for (VirtualPortfolio portfolio : portfolios) {
-            BigDecimal invested = portfolio.getAveragePrice().multiply(BigDecimal.valueOf(portfolio.getQuantity()));
-            BigDecimal evaluation = portfolio.getCurrentPrice().multiply(BigDecimal.valueOf(portfolio.getQuantity()));
-            totalInvested = totalInvested.add(invested);
-            totalEvaluation = totalEvaluation.add(evaluation);
-        }
-
-        account.setTotalInvested(totalInvested);
-        account.setTotalEvaluation(totalEvaluation);
-    }
-
     /**
      * 매수 알림 발송
      */
@@ -533,23 +478,20 @@ public class VirtualTradeService {
     /**
      * DTO 변환 - PortfolioItem
      */
-    private PortfolioItemDto toPortfolioItemDto(VirtualPortfolio portfolio) {
-        BigDecimal totalInvested = portfolio.getAveragePrice().multiply(BigDecimal.valueOf(portfolio.getQuantity()));
-        BigDecimal totalEvaluation = portfolio.getCurrentPrice().multiply(BigDecimal.valueOf(portfolio.getQuantity()));
-
+    private PortfolioItemDto toPortfolioItemDto(AccountValuation.PositionValue position) {
         return PortfolioItemDto.builder()
-                .id(portfolio.getId())
-                .stockCode(portfolio.getStockCode())
-                .stockName(portfolio.getStockName())
-                .quantity(portfolio.getQuantity())
-                .averagePrice(portfolio.getAveragePrice())
-                .currentPrice(portfolio.getCurrentPrice())
-                .totalInvested(totalInvested)
-                .totalEvaluation(totalEvaluation)
-                .profitLoss(portfolio.getProfitLoss())
-                .profitRate(portfolio.getProfitRate())
-                .purchaseDate(portfolio.getPurchaseDate())
-                .updatedAt(portfolio.getUpdatedAt())
+                .id(position.getId())
+                .stockCode(position.getStockCode())
+                .stockName(position.getStockName())
+                .quantity(position.getQuantity())
+                .averagePrice(money(position.getAveragePrice()))
+                .currentPrice(money(position.getCurrentPrice()))
+                .totalInvested(money(position.getInvested()))
+                .totalEvaluation(money(position.getEvaluation()))
+                .profitLoss(money(position.getProfitLoss()))
+                .profitRate(money(position.getProfitRate()))
+                .purchaseDate(position.getPurchaseDate())
+                .updatedAt(position.getUpdatedAt())
                 .build();
     }
 
@@ -0,0 +1,55 @@
+package com.myplatform.backend.service;
+
+import com.myplatform.backend.dto.InvestorSurgeDto;
+import com.myplatform.backend.dto.PaperTradingDto.BotSimulationResultDto;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BotSimulationServiceTest {
+
+    private static final String STOCK = "005930";
+
+    @Test
+    void reboughtPositionIsWatchedAgainAfterExit() {
+        // 1일차 100 매수 → 2일차 94 손절 후 94 재매수 → 3일차 100 익절 후 100 재매수 → 4일차 보유
+        BotSimulationResultDto result = simulate(100, 94, 100, 100);
+
+        assertThat(result.getBuyCount()).isEqualTo(3);
+        assertThat(result.getSellCount()).isEqualTo(2);
+        assertThat(result.getStopLossCount()).isEqualTo(1);
+        assertThat(result.getTakeProfitCount()).isEqualTo(1);
+        assertThat(result.getOpenPositions()).isEqualTo(1);
+    }
+
+    @Test
+    void stopLossFiresOnEveryReboughtPosition() {
+        // 매일 3% 넘게 하락: 매일 손절 후 같은 날 재매수
+        BotSimulationResultDto result = simulate(100, 96, 92, 88);
+
+        assertThat(result.getStopLossCount()).isEqualTo(3);
+        assertThat(result.getBuyCount()).isEqualTo(4);
+    }
+
+    private static BotSimulationResultDto simulate(double... closes) {
+        List<LocalDate> dates = new ArrayList<>();
+        List<List<String>> candidates = new ArrayList<>();
+        List<Map<String, List<InvestorSurgeDto>>> flows = new ArrayList<>();
+        for (int d = 0; d < closes.length; d++) {
+            dates.add(LocalDate.of(2024, 1, 2).plusDays(d));
+            candidates.add(List.of(STOCK));
+            flows.add(null);  // 수급 데이터 없음 → 신호 통과
+        }
+        BacktestData data = BacktestData.of(dates, Map.of(STOCK, closes.clone()), Collections.emptyList(), 0);
+        BotStrategy strategy = new BotStrategy(new BigDecimal("-3"), new BigDecimal("5"), new BigDecimal("0.5"),
+                1, 1, BigDecimal.ZERO);
+        return BotSimulationService.simulate(data, strategy, candidates, flows, new BigDecimal("10000000"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.myplatform.backend.service;
+
+import com.myplatform.backend.entity.VirtualPortfolio;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExitTriggerIndexTest {
+
+    private static final String STOCK = "005930";
+
+    private final ExitTriggerIndex index = new ExitTriggerIndex(new BigDecimal("-3"), new BigDecimal("5"));
+
+    @Test
+    void firesAtStopLossAndTakeProfitPrices() {
+        // 평균가 10000 → 손절가 9700, 익절가 10500
+        index.replaceAll(List.of(position(1L, "10000")));
+
+        assertThat(index.onPrice(STOCK, new BigDecimal("9701"))).isEmpty();
+        assertThat(index.onPrice(STOCK, new BigDecimal("10499"))).isEmpty();
+
+        List<ExitTriggerIndex.Trigger> fired = index.onPrice(STOCK, new BigDecimal("9700"));
+        assertThat(fired).extracting(ExitTriggerIndex.Trigger::getReason).containsExactly(ExitTriggerIndex.STOP_LOSS);
+        assertThat(fired.get(0).getProfitRate()).isEqualByComparingTo("-3");
+        assertThat(index.isEmpty()).isTrue();
+    }
+
+    @Test
+    void firesOnlyPositionsThatCrossed() {
+        // 평균가 10000(손절 9700)과 9500(손절 9215, 익절 9975) 중 9700에서는 첫 번째만 손절
+        index.replace(STOCK, List.of(position(1L, "10000"), position(2L, "9500")));
+
+        List<ExitTriggerIndex.Trigger> fired = index.onPrice(STOCK, new BigDecimal("9700"));
+
+        assertThat(fired).extracting(t -> t.getPosition().getAccountId()).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void firedSymbolIsNotReRegisteredUntilReleased() {
+        index.replace(STOCK, List.of(position(1L, "10000")));
+        assertThat(index.onPrice(STOCK, new BigDecimal("10500"))).hasSize(1);
+
+        // 매도 커밋 전 다시 등록해도 무시 → 같은 포지션이 두 번 발동하지 않음
+        index.replace(STOCK, List.of(position(1L, "10000")));
+        assertThat(index.onPrice(STOCK, new BigDecimal("10600"))).isEmpty();
+
+        index.release(STOCK);
+        index.replace(STOCK, List.of(position(1L, "10000")));
+        assertThat(index.onPrice(STOCK, new BigDecimal("10600"))).hasSize(1);
+    }
+
+    @Test
+    void replaceAllDropsSymbolsNoLongerHeld() {
+        index.replaceAll(List.of(position(1L, "10000")));
+
+        index.replaceAll(List.of());
+
+        assertThat(index.symbols()).isEmpty();
+        assertThat(index.onPrice(STOCK, new BigDecimal("1"))).isEmpty();
+    }
+
+    private static VirtualPortfolio position(Long accountId, String averagePrice) {
+        return VirtualPortfolio.builder()
+                .accountId(accountId)
+                .stockCode(STOCK)
+                .stockName("삼성전자")
+                .quantity(10)
+                .averagePrice(new BigDecimal(averagePrice))
+                .build();
+    }
+}
@@ -0,0 +1,148 @@
+package com.myplatform.backend.service;
+
+import com.myplatform.backend.entity.StockFinancialData;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScreenerExpressionTest {
+
+    @Test
+    void andBindsTighterThanOr() {
+        List<StockFinancialData> rows = List.of(
+                row("A", "KOSPI", 5, 5),
+                row("B", "KOSPI", 20, 20),
+                row("C", "KOSDAQ", 20, 20));
+
+        // per < 10 or (roe > 15 and market == 'KOSDAQ')
+        assertThat(passing("per < 10 or roe > 15 and market == 'KOSDAQ'", rows)).containsExactly("A", "C");
+    }
+
+    @Test
+    void multiplicationBindsTighterThanSubtraction() {
+        List<StockFinancialData> rows = List.of(row("A", "KOSPI", 6, 10));
+
+        // 10 - 6 * 2 = -2
+        assertThat(passing("roe - per * 2 > 0", rows)).isEmpty();
+        // (10 - 6) * 2 = 8
+        assertThat(passing("(roe - per) * 2 > 0", rows)).containsExactly("A");
+    }
+
+    @Test
+    void parenthesizedFilterIsGroupedBeforeAnd() {
+        List<StockFinancialData> rows = List.of(row("A", "KOSPI", 5, 5), row("B", "KOSDAQ", 5, 5));
+
+        assertThat(passing("(per < 10 or roe > 15) and market == 'KOSDAQ'", rows)).containsExactly("B");
+    }
+
+    @Test
+    void missingValueIsUnknownEvenWhenNegated() {
+        List<StockFinancialData> rows = List.of(row("A", "KOSPI", null, 10));
+
+        assertThat(passing("per > 10", rows)).isEmpty();
+        assertThat(passing("not (per > 10)", rows)).isEmpty();
+        assertThat(passing("per > 10 and roe > 5", rows)).isEmpty();
+    }
+
+    @Test
+    void knownSideDecidesWhenTheOtherIsUnknown() {
+        List<StockFinancialData> rows = List.of(row("A", "KOSPI", null, 10));
+
+        // UNKNOWN or TRUE = TRUE
+        assertThat(passing("per > 10 or roe > 5", rows)).containsExactly("A");
+        // not (UNKNOWN and FALSE) = not FALSE = TRUE
+        assertThat(passing("not (per > 10 and roe > 50)", rows)).containsExactly("A");
+    }
+
+    @Test
+    void divisionByZeroIsUnknown() {
+        List<StockFinancialData> rows = List.of(row("A", "KOSPI", 0, 10));
+
+        assertThat(passing("roe / per > 1", rows)).isEmpty();
+        assertThat(passing("not (roe / per > 1)", rows)).isEmpty();
+    }
+
+    @Test
+    void errorInsideParenthesizedFilterReportsItsOwnPosition() {
+        // 논리식 해석의 오류 위치(')', 20번째)를 보고해야 함 - 산술식으로 되돌린 뒤의 '>' 위치가 아님
+        assertThatThrownBy(() -> ScreenerExpression.compile("(roe > 15 and per <)"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("위치 20");
+    }
+
+    @Test
+    void errorAfterParenthesizedArithmeticReportsItsOwnPosition() {
+        assertThatThrownBy(() -> ScreenerExpression.compile("(per + 1) >"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("위치 12")
+                .hasMessageContaining("식의 끝");
+    }
+
+    @Test
+    void malformedNumberIsParseErrorWithPosition() {
+        assertThatThrownBy(() -> ScreenerExpression.compile("per > 1.2.3"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .isNotInstanceOf(NumberFormatException.class)
+                .hasMessageContaining("위치 7")
+                .hasMessageContaining("1.2.3");
+        assertThatThrownBy(() -> ScreenerExpression.compile("(per > 1.2.3)"))
+                .isNotInstanceOf(NumberFormatException.class)
+                .hasMessageContaining("위치 8");
+    }
+
+    @Test
+    void unknownFieldReportsPosition() {
+        assertThatThrownBy(() -> ScreenerExpression.compile("roe > 1 and foo > 1"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("위치 13")
+                .hasMessageContaining("'foo'");
+    }
+
+    @Test
+    void scoreTermsKeepWeightsAndDirections() {
+        ScreenerExpression expression =
+                ScreenerExpression.compile("roe > 0; score = rank(roe desc) - 2 * rank(peg asc) * 3");
+
+        List<ScreenerExpression.ScoreTerm> terms = expression.getScoreTerms();
+        assertThat(terms).hasSize(2);
+        assertThat(terms.get(0).getField()).isEqualTo("roe");
+        assertThat(terms.get(0).isDescending()).isTrue();
+        assertThat(terms.get(0).getWeight()).isEqualTo(1.0);
+        assertThat(terms.get(1).getField()).isEqualTo("peg");
+        assertThat(terms.get(1).isDescending()).isFalse();
+        assertThat(terms.get(1).getWeight()).isEqualTo(-6.0);
+    }
+
+    @Test
+    void normalizeKeepsQuotedSpaces() {
+        assertThat(ScreenerExpression.normalize("  market=='KOSPI  200'   and roe>1 "))
+                .isEqualTo("market == 'KOSPI  200' and roe > 1");
+    }
+
+    private static List<String> passing(String expression, List<StockFinancialData> rows) {
+        FinancialColumns columns = FinancialColumns.of(rows, List.of(), "test");
+        IntPredicate filter = ScreenerExpression.compile(expression).bindFilter(columns);
+        List<String> passed = new ArrayList<>();
+        for (int i = 0; i < columns.size(); i++) {
+            if (filter.test(i)) {
+                passed.add(columns.row(i).getStockCode());
+            }
+        }
+        return passed;
+    }
+
+    private static StockFinancialData row(String stockCode, String market, Integer per, Integer roe) {
+        return StockFinancialData.builder()
+                .stockCode(stockCode)
+                .market(market)
+                .per(per != null ? BigDecimal.valueOf(per) : null)
+                .roe(roe != null ? BigDecimal.valueOf(roe) : null)
+                .build();
+    }
+}
@@ -0,0 +1,73 @@
+package com.myplatform.backend.service;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * 스크리너 상위 K개 선택 성능 측정
+ * - 이전 방식(후보 전체 boxing + 정렬 + limit)과 TopK.smallest 비교, 두 결과가 같은지도 확인
+ * - 실행: ./gradlew :backend:screenerBenchmark -Pargs="후보 수 k 반복 횟수" (기본 3000 20 20000)
+ */
+public final class ScreenerTopKBenchmark {
+
+    private static final int ROUNDS = 5;  // 첫 라운드는 워밍업
+
+    private ScreenerTopKBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 3_000;
+        int k = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+
+        // 점수에 동률이 섞이도록 정수 구간에서 생성 (고정 시드)
+        Random random = new Random(42);
+        double[] scores = new double[n];
+        for (int i = 0; i < n; i++) {
+            scores[i] = random.nextInt(n / 2 + 1);
+        }
+        int[] candidates = new int[n];
+        for (int i = 0; i < n; i++) {
+            candidates[i] = i;
+        }
+
+        int[] expected = sortAndLimit(candidates, scores, k);
+        int[] actual = TopK.smallest(candidates, i -> scores[i], k);
+        if (!Arrays.equals(expected, actual)) {
+            throw new IllegalStateException("결과 불일치: " + Arrays.toString(expected) + " / " + Arrays.toString(actual));
+        }
+
+        System.out.printf("후보 %d, k %d, 반복 %d%n", n, k, iterations);
+        long sink = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int it = 0; it < iterations; it++) {
+                sink += sortAndLimit(candidates, scores, k)[0];
+            }
+            long sortNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int it = 0; it < iterations; it++) {
+                sink += TopK.smallest(candidates, i -> scores[i], k)[0];
+            }
+            long heapNanos = System.nanoTime() - start;
+
+            System.out.printf("%s %d: 정렬 %.2f us/op, 힙 %.2f us/op%n", round == 0 ? "워밍업" : "라운드", round,
+                    sortNanos / 1_000.0 / iterations, heapNanos / 1_000.0 / iterations);
+        }
+        System.out.println("(sink " + sink + ")");
+    }
+
+    /**
+     * 이전 방식: 통과 종목 전체를 boxing해서 정렬 후 limit
+     */
+    private static int[] sortAndLimit(int[] candidates, double[] scores, int k) {
+        return Arrays.stream(candidates)
+                .boxed()
+                .sorted(Comparator.comparingDouble(i -> scores[i]))
+                .limit(k)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+}
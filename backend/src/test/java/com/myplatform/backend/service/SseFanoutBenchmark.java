@@ -0,0 +1,127 @@
+package com.myplatform.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitterReturnValueHandler;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SSE 팬아웃 성능 측정 (실제 SseEmitterService 경로)
+ * - 단일 노드 이벤트 버스로 SseEmitterService를 만들고, 클라이언트마다 MVC 반환값 핸들러로 초기화한 emitter를 연결
+ * - 이벤트 발행부터 모든 클라이언트 응답에 마지막 이벤트가 기록될 때까지 측정 (직렬화, 송신 큐, sender 스레드, SSE 프레임 쓰기 포함)
+ * - 네트워크는 제외 (응답은 메모리 버퍼)
+ * - 실행: ./gradlew :backend:sseFanoutBenchmark -Pargs="클라이언트 수 이벤트 수" (기본 1000 200)
+ */
+public final class SseFanoutBenchmark {
+
+    private static final String TOPIC = "benchmark";
+    private static final String END_MARKER = "event:COMPLETE";
+    private static final long WAIT_TIMEOUT_MILLIS = 120_000L;
+    private static final int MAX_EVENTS = 250;
+
+    private SseFanoutBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clientCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int eventCount = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        if (eventCount > MAX_EVENTS) {
+            // 한 번에 발행하므로 클라이언트 송신 큐 상한(256)을 넘으면 느린 소비자로 퇴출됨
+            throw new IllegalArgumentException("이벤트 수는 " + MAX_EVENTS + " 이하여야 합니다.");
+        }
+
+        // 워밍업 1회 후 측정
+        run(clientCount, eventCount, true);
+        run(clientCount, eventCount, false);
+        System.exit(0);
+    }
+
+    private static void run(int clientCount, int eventCount, boolean warmup) throws Exception {
+        SseEmitterService service = new SseEmitterService(new ObjectMapper(), new LocalClusterEventBus());
+        service.start();
+        try {
+            MockHttpServletResponse[] responses = new MockHttpServletResponse[clientCount];
+            for (int i = 0; i < clientCount; i++) {
+                responses[i] = connect(service.subscribe("bench-" + i, TOPIC));
+            }
+
+            long start = System.nanoTime();
+            for (int i = 1; i <= eventCount; i++) {
+                service.sendLog(TOPIC, "INFO", "삼성전자 \"보통주\" 수집 완료 (" + i + "/" + eventCount + ")");
+            }
+            service.sendComplete(TOPIC, Map.of("processed", eventCount));
+            long published = System.nanoTime() - start;
+
+            for (MockHttpServletResponse response : responses) {
+                awaitMarker(response, start);
+            }
+            long delivered = System.nanoTime() - start;
+
+            if (warmup) {
+                return;
+            }
+            long deliveries = (long) clientCount * (eventCount + 1);
+            long bytes = 0;
+            for (MockHttpServletResponse response : responses) {
+                bytes += response.getContentAsByteArray().length;
+            }
+            System.out.printf("클라이언트 %d, 이벤트 %d (+COMPLETE), 전달 %d건%n", clientCount, eventCount, deliveries);
+            System.out.printf("발행 %.1f ms, 전체 전달 %.1f ms, %.0f ns/전달, %.0f 전달/초%n",
+                    published / 1e6, delivered / 1e6, (double) delivered / deliveries, deliveries * 1e9 / delivered);
+            System.out.printf("클라이언트당 %d bytes, 큐 통계 %s%n", bytes / clientCount, service.getQueueStats());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    /**
+     * 컨트롤러가 SseEmitter를 반환했을 때와 같은 방식으로 emitter를 응답에 연결
+     */
+    private static MockHttpServletResponse connect(SseEmitter emitter) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/sse/subscribe");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        WebAsyncUtils.getAsyncManager(webRequest).setAsyncWebRequest(new StandardServletAsyncWebRequest(request, response));
+
+        List<HttpMessageConverter<?>> converters = List.of(
+                new ByteArrayHttpMessageConverter(), new StringHttpMessageConverter(StandardCharsets.UTF_8));
+        ResponseBodyEmitterReturnValueHandler handler = new ResponseBodyEmitterReturnValueHandler(
+                converters, ReactiveAdapterRegistry.getSharedInstance(), new SyncTaskExecutor(), new ContentNegotiationManager());
+        MethodParameter returnType = new MethodParameter(SseFanoutBenchmark.class.getDeclaredMethod("handle"), -1);
+        handler.handleReturnValue(emitter, returnType, new ModelAndViewContainer(), webRequest);
+        return response;
+    }
+
+    /**
+     * 반환 타입 정보용 (호출하지 않음)
+     */
+    private static SseEmitter handle() {
+        return null;
+    }
+
+    private static void awaitMarker(MockHttpServletResponse response, long startNanos) throws InterruptedException {
+        while (!new String(response.getContentAsByteArray(), StandardCharsets.UTF_8).contains(END_MARKER)) {
+            if (System.nanoTime() - startNanos > WAIT_TIMEOUT_MILLIS * 1_000_000) {
+                throw new IllegalStateException("전달 대기 시간 초과");
+            }
+            Thread.sleep(1);
+        }
+    }
+}
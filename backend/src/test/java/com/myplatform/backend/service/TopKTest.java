@@ -0,0 +1,38 @@
+package com.myplatform.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopKTest {
+
+    private static final double[] KEYS = {5, 1, 4, 1, 3, 9, 2};
+
+    @Test
+    void returnsSmallestKeysInAscendingOrder() {
+        int[] selected = TopK.smallest(new int[]{0, 1, 2, 3, 4, 5, 6}, i -> KEYS[i], 3);
+
+        assertThat(selected).containsExactly(1, 3, 6);
+    }
+
+    @Test
+    void tiesPreferEarlierCandidate() {
+        // 1과 3은 키가 같으므로 candidates 배열에서 먼저 나온 3이 우선
+        int[] selected = TopK.smallest(new int[]{3, 1, 0}, i -> KEYS[i], 1);
+
+        assertThat(selected).containsExactly(3);
+    }
+
+    @Test
+    void nonPositiveKSortsAllCandidates() {
+        int[] selected = TopK.smallest(new int[]{0, 2, 4, 5}, i -> KEYS[i], 0);
+
+        assertThat(selected).containsExactly(4, 2, 0, 5);
+    }
+
+    @Test
+    void kLargerThanCandidatesReturnsAll() {
+        assertThat(TopK.smallest(new int[]{5, 6}, i -> KEYS[i], 10)).containsExactly(6, 5);
+        assertThat(TopK.smallest(new int[0], i -> KEYS[i], 3)).isEmpty();
+    }
+}
@@ -0,0 +1,68 @@
+package com.myplatform.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UpsertPlanTest {
+
+    @Test
+    void splitsRowsIntoInsertsUpdatesDeletesAndUnchanged() {
+        List<Row> existing = List.of(new Row("A", "1.0"), new Row("B", "2"), new Row("C", "3"));
+        List<Row> incoming = List.of(new Row("A", "1.00"), new Row("B", "5"), new Row("D", "4"));
+
+        UpsertPlan<Row> plan = UpsertPlan.of(existing, incoming, Row::key, Row::merge, true);
+
+        assertThat(plan.getInserts()).extracting(Row::key).containsExactly("D");
+        assertThat(plan.getDeletes()).extracting(Row::key).containsExactly("C");
+        assertThat(plan.getUpdated()).isEqualTo(1);
+        assertThat(plan.getUnchanged()).isEqualTo(1);  // 1.0과 1.00은 같은 값
+        assertThat(plan.getWritten()).isEqualTo(3);
+        assertThat(existing.get(1).value).isEqualByComparingTo("5");
+    }
+
+    @Test
+    void keepsStaleRowsWhenNotRemoving() {
+        List<Row> existing = List.of(new Row("A", "1"), new Row("B", "2"));
+
+        UpsertPlan<Row> plan = UpsertPlan.of(existing, List.of(new Row("A", "1")), Row::key, Row::merge, false);
+
+        assertThat(plan.getDeletes()).isEmpty();
+        assertThat(plan.getWritten()).isZero();
+    }
+
+    @Test
+    void duplicateIncomingKeysUseFirstRow() {
+        List<Row> incoming = List.of(new Row("A", "1"), new Row("A", "2"));
+
+        UpsertPlan<Row> plan = UpsertPlan.of(List.of(), incoming, Row::key, Row::merge, true);
+
+        assertThat(plan.getInserts()).hasSize(1);
+        assertThat(plan.getInserts().get(0).value).isEqualByComparingTo("1");
+    }
+
+    private static final class Row {
+        private final String key;
+        private BigDecimal value;
+
+        private Row(String key, String value) {
+            this.key = key;
+            this.value = new BigDecimal(value);
+        }
+
+        private String key() {
+            return key;
+        }
+
+        private static boolean merge(Row target, Row source) {
+            if (UpsertPlan.same(target.value, source.value)) {
+                return false;
+            }
+            target.value = source.value;
+            return true;
+        }
+    }
+}
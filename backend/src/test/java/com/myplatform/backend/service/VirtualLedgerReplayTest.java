@@ -0,0 +1,103 @@
+package com.myplatform.backend.service;
+
+import com.myplatform.backend.entity.VirtualAccount;
+import com.myplatform.backend.entity.VirtualPortfolio;
+import com.myplatform.backend.entity.VirtualTradeHistory;
+import com.myplatform.backend.repository.VirtualAccountRepository;
+import com.myplatform.backend.repository.VirtualPortfolioRepository;
+import com.myplatform.backend.repository.VirtualTradeHistoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VirtualLedgerReplayTest {
+
+    private static final Long ACCOUNT_ID = 1L;
+
+    private final VirtualPortfolioRepository portfolioRepository = mock(VirtualPortfolioRepository.class);
+    private final VirtualTradeHistoryRepository tradeHistoryRepository = mock(VirtualTradeHistoryRepository.class);
+    private final ClusterLeader clusterLeader = mock(ClusterLeader.class);
+    private final ClusterEventBus clusterEventBus = mock(ClusterEventBus.class);
+
+    private VirtualLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        when(clusterLeader.isLeader()).thenReturn(true);
+        when(clusterEventBus.isDistributed()).thenReturn(false);
+        when(portfolioRepository.findByAccountId(ACCOUNT_ID)).thenReturn(List.of());
+        ledger = new VirtualLedger(mock(VirtualAccountRepository.class), portfolioRepository, tradeHistoryRepository,
+                mock(TransactionTemplate.class), mock(JdbcTemplate.class), clusterLeader, clusterEventBus);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ledger.shutdown();
+    }
+
+    @Test
+    void replaysJournalIntoBalanceAndAveragePrice() {
+        // 1000원 10주 + 1200원 10주 매수 → 평균가 1100, 1300원 5주 매도 → 15주 보유
+        when(tradeHistoryRepository.findByAccountIdOrderByIdAsc(ACCOUNT_ID)).thenReturn(List.of(
+                trade("BUY", 10, "1000", "2", "0"),
+                trade("BUY", 10, "1200", "2", "0"),
+                trade("SELL", 5, "1300", "1", "13")));
+
+        VirtualAccount account = ledger.account(account());
+        List<VirtualPortfolio> holdings = ledger.holdings(ACCOUNT_ID);
+
+        // 1,000,000 - (10,000 + 2) - (12,000 + 2) + (6,500 - 1 - 13)
+        assertThat(account.getCurrentBalance()).isEqualByComparingTo("984482");
+        assertThat(holdings).hasSize(1);
+        assertThat(holdings.get(0).getQuantity()).isEqualTo(15);
+        assertThat(holdings.get(0).getAveragePrice()).isEqualByComparingTo("1100");
+        assertThat(holdings.get(0).getCurrentPrice()).isEqualByComparingTo("1300");
+    }
+
+    @Test
+    void soldOutPositionIsRemoved() {
+        when(tradeHistoryRepository.findByAccountIdOrderByIdAsc(ACCOUNT_ID)).thenReturn(List.of(
+                trade("BUY", 10, "1000", "0", "0"),
+                trade("SELL", 10, "1100", "0", "0")));
+
+        VirtualAccount account = ledger.account(account());
+
+        assertThat(account.getCurrentBalance()).isEqualByComparingTo("1001000");
+        assertThat(ledger.holdings(ACCOUNT_ID)).isEmpty();
+    }
+
+    private static VirtualAccount account() {
+        return VirtualAccount.builder()
+                .id(ACCOUNT_ID)
+                .accountName("테스트")
+                .initialBalance(new BigDecimal("1000000"))
+                .currentBalance(new BigDecimal("1000000"))
+                .build();
+    }
+
+    private static VirtualTradeHistory trade(String type, int quantity, String price, String commission, String tax) {
+        BigDecimal unitPrice = new BigDecimal(price);
+        return VirtualTradeHistory.builder()
+                .accountId(ACCOUNT_ID)
+                .stockCode("005930")
+                .stockName("삼성전자")
+                .tradeType(type)
+                .quantity(quantity)
+                .price(unitPrice)
+                .totalAmount(unitPrice.multiply(BigDecimal.valueOf(quantity)))
+                .commission(new BigDecimal(commission))
+                .tax(new BigDecimal(tax))
+                .tradeDate(LocalDateTime.of(2024, 1, 2, 10, 0))
+                .build();
+    }
+}
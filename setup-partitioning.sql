@@ -0,0 +1,55 @@
+-- 시계열 테이블 RANGE 파티션 전환 스크립트 (MariaDB)
+-- 실행 방법: mysql -u root -p myplatform < setup-partitioning.sql
+--
+-- 대상 테이블
+--   investor_intraday_snapshot : 일 단위 (snapshot_date)
+--   stock_price                : 월 단위 (fetched_at)
+--   activity_logs              : 월 단위 (created_at)
+--
+-- 이 스크립트는 1회만 실행한다. 기존 데이터는 p_history 파티션으로,
+-- 이후 데이터는 pmax 파티션으로 들어가며, 이후 파티션 생성/삭제는
+-- 백엔드의 PartitionMaintenanceService가 매일 05:30에 자동 처리한다.
+--
+-- 주의
+--   - 파티션 테이블의 PK/UNIQUE 키에는 파티션 키 컬럼이 포함되어야 하므로 PK를 (id, 파티션키)로 변경한다.
+--   - RANGE COLUMNS는 TIMESTAMP를 지원하지 않으므로 activity_logs.created_at을 DATETIME으로 변경한다.
+--   - 파티션 전환은 테이블을 재작성하므로 데이터가 많으면 장 마감 후 실행한다.
+
+-- 장중 스냅샷: 오늘 이전 데이터는 p_history
+ALTER TABLE investor_intraday_snapshot DROP PRIMARY KEY, ADD PRIMARY KEY (id, snapshot_date);
+SET @sql = CONCAT('ALTER TABLE investor_intraday_snapshot PARTITION BY RANGE COLUMNS(snapshot_date) (',
+                  'PARTITION p_history VALUES LESS THAN (''', CURDATE(), '''), ',
+                  'PARTITION pmax VALUES LESS THAN (MAXVALUE))');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 주식 시세: 이번 달 이전 데이터는 p_history
+UPDATE stock_price SET fetched_at = NOW() WHERE fetched_at IS NULL;
+ALTER TABLE stock_price MODIFY fetched_at DATETIME(6) NOT NULL;
+ALTER TABLE stock_price DROP PRIMARY KEY, ADD PRIMARY KEY (id, fetched_at);
+SET @sql = CONCAT('ALTER TABLE stock_price PARTITION BY RANGE COLUMNS(fetched_at) (',
+                  'PARTITION p_history VALUES LESS THAN (''', DATE_FORMAT(CURDATE(), '%Y-%m-01'), '''), ',
+                  'PARTITION pmax VALUES LESS THAN (MAXVALUE))');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 활동 로그: 이번 달 이전 데이터는 p_history
+ALTER TABLE activity_logs MODIFY created_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
+ALTER TABLE activity_logs DROP PRIMARY KEY, ADD PRIMARY KEY (id, created_at);
+SET @sql = CONCAT('ALTER TABLE activity_logs PARTITION BY RANGE COLUMNS(created_at) (',
+                  'PARTITION p_history VALUES LESS THAN (''', DATE_FORMAT(CURDATE(), '%Y-%m-01'), '''), ',
+                  'PARTITION pmax VALUES LESS THAN (MAXVALUE))');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 확인
+SELECT TABLE_NAME, PARTITION_NAME, PARTITION_DESCRIPTION, TABLE_ROWS
+FROM information_schema.PARTITIONS
+WHERE TABLE_SCHEMA = DATABASE()
+  AND TABLE_NAME IN ('investor_intraday_snapshot', 'stock_price', 'activity_logs')
+ORDER BY TABLE_NAME, PARTITION_ORDINAL_POSITION;
+
+SELECT '파티션 전환 완료 - 이후 파티션 관리는 PartitionMaintenanceService가 수행합니다.' as 'Status';